@@ -25,6 +25,7 @@ import java.lang.reflect.Proxy;
 import java.util.function.Function;
 import org.apache.zest.api.association.AbstractAssociation;
 import org.apache.zest.api.association.AssociationDescriptor;
+import org.apache.zest.api.composite.AbstractCompositeProxy;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.composite.CompositeDescriptor;
 import org.apache.zest.api.composite.CompositeInstance;
@@ -148,6 +149,10 @@ public interface ZestAPI
             InvocationHandler invocationHandler = Proxy.getInvocationHandler( composite );
             return ( (CompositeInstance) invocationHandler ).descriptor();
         }
+        if( composite instanceof AbstractCompositeProxy )
+        {
+            return ( (CompositeInstance) ( (AbstractCompositeProxy) composite )._instance ).descriptor();
+        }
         try
         {
             Class<? extends Composite> compositeClass = composite.getClass();
@@ -171,6 +176,10 @@ public interface ZestAPI
         {
             return ( (CompositeInstance) Proxy.getInvocationHandler( composite ) );
         }
+        if( composite instanceof AbstractCompositeProxy )
+        {
+            return (CompositeInstance) ( (AbstractCompositeProxy) composite )._instance;
+        }
         try
         {
             Class<? extends Composite> compositeClass = composite.getClass();
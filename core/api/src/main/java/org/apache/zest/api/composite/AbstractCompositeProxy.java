@@ -0,0 +1,40 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.api.composite;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * Base class of composite proxies generated by the runtime instead of {@link java.lang.reflect.Proxy}.
+ * <p>
+ * Holds the InvocationHandler so that the composite instance of a proxy can be
+ * obtained without reflection, see {@link org.apache.zest.api.ZestAPI#FUNCTION_COMPOSITE_INSTANCE_OF}.
+ * </p>
+ */
+public abstract class AbstractCompositeProxy
+{
+    public final InvocationHandler _instance;
+
+    protected AbstractCompositeProxy( InvocationHandler handler )
+    {
+        _instance = handler;
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.api.query;
+
+import java.lang.reflect.AccessibleObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.query.grammar.AndPredicate;
+import org.apache.zest.api.query.grammar.ComparisonPredicate;
+import org.apache.zest.api.query.grammar.EqPredicate;
+import org.apache.zest.api.query.grammar.GePredicate;
+import org.apache.zest.api.query.grammar.GtPredicate;
+import org.apache.zest.api.query.grammar.LePredicate;
+import org.apache.zest.api.query.grammar.LtPredicate;
+import org.apache.zest.api.query.grammar.OrPredicate;
+import org.apache.zest.api.query.grammar.PropertyFunction;
+import org.apache.zest.api.query.grammar.Variable;
+
+/**
+ * Snapshot of an in-memory collection with optional per-property indexes.
+ * <p>
+ * Pass an IndexedIterable to {@link QueryBuilder#newQuery(Iterable)} and equality or comparison where-clauses on
+ * indexed properties are answered from the indexes instead of scanning every item. The full where-clause is
+ * still evaluated on the candidates, so results are the same as for a plain iterable, in the same order.
+ * </p>
+ * <pre><code>
+ * Person template = templateFor( Person.class );
+ * IndexedIterable&lt;Person&gt; people = IndexedIterable.of( persons )
+ *                                            .withHashIndex( template.name() )
+ *                                            .withSortedIndex( template.yearOfBirth() );
+ * Query&lt;Person&gt; query = queryBuilder.where( gt( template.yearOfBirth(), 1970 ) ).newQuery( people );
+ * </code></pre>
+ * <p>
+ * Items and index keys are captured when the IndexedIterable is created, so it is meant for collections that
+ * do not change afterwards, typically ValueComposites. Instances are immutable and safe to share between threads.
+ * </p>
+ *
+ * @param <T> type of the items
+ */
+public final class IndexedIterable<T>
+    implements Iterable<T>
+{
+    /**
+     * Create a snapshot of the given items without any index.
+     *
+     * @param items items to snapshot
+     * @param <T>   type of the items
+     *
+     * @return a new IndexedIterable
+     */
+    public static <T> IndexedIterable<T> of( Iterable<? extends T> items )
+    {
+        List<T> list = new ArrayList<>();
+        for( T item : items )
+        {
+            list.add( item );
+        }
+        return new IndexedIterable<>( Collections.unmodifiableList( list ), Collections.emptyMap() );
+    }
+
+    private final List<T> items;
+    private final Map<AccessibleObject, PropertyIndex> indexes;
+
+    private IndexedIterable( List<T> items, Map<AccessibleObject, PropertyIndex> indexes )
+    {
+        this.items = items;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Add a hash index on a property. Hash indexes answer equality where-clauses.
+     *
+     * @param property template property, see {@link QueryExpressions#templateFor(Class)}
+     *
+     * @return a new IndexedIterable with the added index
+     */
+    public IndexedIterable<T> withHashIndex( Property<?> property )
+    {
+        return withIndex( new HashIndex( indexable( property ) ) );
+    }
+
+    /**
+     * Add a sorted index on a property. Sorted indexes answer equality and comparison where-clauses,
+     * property values must be {@link Comparable}.
+     *
+     * @param property template property, see {@link QueryExpressions#templateFor(Class)}
+     *
+     * @return a new IndexedIterable with the added index
+     */
+    public IndexedIterable<T> withSortedIndex( Property<?> property )
+    {
+        return withIndex( new SortedIndex( indexable( property ) ) );
+    }
+
+    /**
+     * @return number of items
+     */
+    public int size()
+    {
+        return items.size();
+    }
+
+    /**
+     * Narrow the items down to those that may satisfy the where-clause using the indexes.
+     * Candidates keep the iteration order of the snapshot but are not guaranteed to satisfy the where-clause.
+     *
+     * @param whereClause where-clause, may be null
+     *
+     * @return candidate items, or this IndexedIterable if no index applies
+     */
+    public Iterable<T> candidatesFor( Predicate<Composite> whereClause )
+    {
+        final int[] positions = positionsFor( whereClause );
+        if( positions == null )
+        {
+            return this;
+        }
+        return () -> new Iterator<T>()
+        {
+            private int current = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return current < positions.length;
+            }
+
+            @Override
+            public T next()
+            {
+                if( current >= positions.length )
+                {
+                    throw new NoSuchElementException();
+                }
+                return items.get( positions[ current++ ] );
+            }
+        };
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return items.iterator();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexedIterable{size=" + items.size() + ", indexes=" + indexes.values() + '}';
+    }
+
+    private IndexedIterable<T> withIndex( PropertyIndex index )
+    {
+        for( int position = 0; position < items.size(); position++ )
+        {
+            Object item = items.get( position );
+            if( item instanceof Composite )
+            {
+                Object value = valueOf( index.property, (Composite) item );
+                if( value != null )
+                {
+                    index.add( value, position );
+                }
+            }
+        }
+        Map<AccessibleObject, PropertyIndex> newIndexes = new HashMap<>( indexes );
+        newIndexes.put( index.property.accessor(), index );
+        return new IndexedIterable<>( items, Collections.unmodifiableMap( newIndexes ) );
+    }
+
+    private int[] positionsFor( Predicate<Composite> whereClause )
+    {
+        if( whereClause instanceof ComparisonPredicate )
+        {
+            ComparisonPredicate<?> comparison = (ComparisonPredicate<?>) whereClause;
+            PropertyIndex index = indexes.get( comparison.property().accessor() );
+            if( index == null || !isDirect( comparison.property() ) || comparison.value() instanceof Variable )
+            {
+                return null;
+            }
+            return index.lookup( comparison );
+        }
+        if( whereClause instanceof AndPredicate )
+        {
+            // Any indexed operand narrows the candidates, pick the most selective one
+            int[] best = null;
+            for( Predicate<Composite> operand : ( (AndPredicate) whereClause ).operands() )
+            {
+                int[] positions = positionsFor( operand );
+                if( positions != null && ( best == null || positions.length < best.length ) )
+                {
+                    best = positions;
+                }
+            }
+            return best;
+        }
+        if( whereClause instanceof OrPredicate )
+        {
+            // Every operand must be indexed, otherwise a full scan is needed anyway
+            List<int[]> all = new ArrayList<>();
+            int total = 0;
+            for( Predicate<Composite> operand : ( (OrPredicate) whereClause ).operands() )
+            {
+                int[] positions = positionsFor( operand );
+                if( positions == null )
+                {
+                    return null;
+                }
+                all.add( positions );
+                total += positions.length;
+            }
+            int[] union = new int[ total ];
+            int offset = 0;
+            for( int[] positions : all )
+            {
+                System.arraycopy( positions, 0, union, offset, positions.length );
+                offset += positions.length;
+            }
+            return sortedDistinct( union );
+        }
+        return null;
+    }
+
+    private static PropertyFunction<?> indexable( Property<?> property )
+    {
+        PropertyFunction<?> function = QueryExpressions.property( property );
+        if( !isDirect( function ) )
+        {
+            throw new IllegalArgumentException( "Only properties of the items themselves can be indexed: " + function );
+        }
+        return function;
+    }
+
+    private static boolean isDirect( PropertyFunction<?> function )
+    {
+        return function.traversedProperty() == null
+               && function.traversedAssociation() == null
+               && function.traversedManyAssociation() == null
+               && function.traversedNamedAssociation() == null;
+    }
+
+    private static Object valueOf( PropertyFunction<?> function, Composite item )
+    {
+        try
+        {
+            Property<?> property = function.apply( item );
+            return property == null ? null : property.get();
+        }
+        catch( IllegalArgumentException e )
+        {
+            // Not a property of this item, comparison predicates never match it
+            return null;
+        }
+    }
+
+    private static int[] sortedDistinct( int[] positions )
+    {
+        Arrays.sort( positions );
+        int size = 0;
+        for( int idx = 0; idx < positions.length; idx++ )
+        {
+            if( size == 0 || positions[ size - 1 ] != positions[ idx ] )
+            {
+                positions[ size++ ] = positions[ idx ];
+            }
+        }
+        return size == positions.length ? positions : Arrays.copyOf( positions, size );
+    }
+
+    /**
+     * Growable list of item positions, kept in ascending order since items are indexed in order.
+     */
+    private static final class Positions
+    {
+        private int[] values = new int[ 4 ];
+        private int size;
+
+        private void add( int position )
+        {
+            if( size == values.length )
+            {
+                values = Arrays.copyOf( values, size * 2 );
+            }
+            values[ size++ ] = position;
+        }
+
+        private int[] toArray()
+        {
+            return Arrays.copyOf( values, size );
+        }
+    }
+
+    private static abstract class PropertyIndex
+    {
+        protected final PropertyFunction<?> property;
+
+        private PropertyIndex( PropertyFunction<?> property )
+        {
+            this.property = property;
+        }
+
+        protected abstract void add( Object value, int position );
+
+        /**
+         * @return ascending positions of the candidates, or null if this index cannot answer the predicate
+         */
+        protected abstract int[] lookup( ComparisonPredicate<?> predicate );
+    }
+
+    private static final class HashIndex
+        extends PropertyIndex
+    {
+        private final Map<Object, Positions> positions = new HashMap<>();
+
+        private HashIndex( PropertyFunction<?> property )
+        {
+            super( property );
+        }
+
+        @Override
+        protected void add( Object value, int position )
+        {
+            positions.computeIfAbsent( value, key -> new Positions() ).add( position );
+        }
+
+        @Override
+        protected int[] lookup( ComparisonPredicate<?> predicate )
+        {
+            if( !( predicate instanceof EqPredicate ) )
+            {
+                return null;
+            }
+            Positions matches = positions.get( predicate.value() );
+            return matches == null ? new int[ 0 ] : matches.toArray();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "hash(" + property + ")";
+        }
+    }
+
+    private static final class SortedIndex
+        extends PropertyIndex
+    {
+        private final TreeMap<Object, Positions> positions = new TreeMap<>();
+
+        private SortedIndex( PropertyFunction<?> property )
+        {
+            super( property );
+        }
+
+        @Override
+        protected void add( Object value, int position )
+        {
+            if( !( value instanceof Comparable ) )
+            {
+                throw new IllegalArgumentException( "Sorted index on " + property + " requires Comparable values, got "
+                                                    + value.getClass().getName() );
+            }
+            positions.computeIfAbsent( value, key -> new Positions() ).add( position );
+        }
+
+        @Override
+        protected int[] lookup( ComparisonPredicate<?> predicate )
+        {
+            Object value = predicate.value();
+            NavigableMap<Object, Positions> matches;
+            try
+            {
+                if( predicate instanceof EqPredicate )
+                {
+                    Positions equal = positions.get( value );
+                    return equal == null ? new int[ 0 ] : equal.toArray();
+                }
+                else if( predicate instanceof GtPredicate )
+                {
+                    matches = positions.tailMap( value, false );
+                }
+                else if( predicate instanceof GePredicate )
+                {
+                    matches = positions.tailMap( value, true );
+                }
+                else if( predicate instanceof LtPredicate )
+                {
+                    matches = positions.headMap( value, false );
+                }
+                else if( predicate instanceof LePredicate )
+                {
+                    matches = positions.headMap( value, true );
+                }
+                else
+                {
+                    return null;
+                }
+            }
+            catch( ClassCastException | NullPointerException e )
+            {
+                // Value not comparable with the indexed keys, let the where-clause decide on a full scan
+                return null;
+            }
+            int total = 0;
+            for( Positions each : matches.values() )
+            {
+                total += each.size;
+            }
+            int[] result = new int[ total ];
+            int offset = 0;
+            for( Positions each : matches.values() )
+            {
+                System.arraycopy( each.values, 0, result, offset, each.size );
+                offset += each.size;
+            }
+            Arrays.sort( result );
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "sorted(" + property + ")";
+        }
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.zest.api.query;
 import java.io.Serializable;
 import org.apache.zest.api.property.Property;
 import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
 
 /**
  * This represents a Query in an indexing system. It is created from a
@@ -32,6 +33,11 @@ import org.apache.zest.api.query.grammar.OrderBy;
  * or count().
  * </p>
  * <p>
+ * A Query can be turned into a projection of some of the properties of its results by calling one of
+ * the select() methods. Indexing systems that store those properties answer projections without
+ * loading the matching entities.
+ * </p>
+ * <p>
  * DDD tip: typically Queries are created in the Domain Model and passed to the UI,
  * which sets the order and paging before executing it.
  * </p>
@@ -134,4 +140,34 @@ public interface Query<T>
      */
     long count()
         throws QueryExecutionException;
+
+    /**
+     * Project the results of this Query to tuples of property values.
+     * <p>
+     * Each result is an Object array holding the values of the given properties, in the given order.
+     * Where clause, ordering, paging and variables set so far are copied to the returned Query.
+     * </p>
+     *
+     * @param properties the properties to select, see {@link QueryExpressions#property(Property)}
+     *
+     * @return a new Query of property value tuples
+     */
+    Query<Object[]> select( PropertyFunction<?>... properties );
+
+    /**
+     * Project the results of this Query to Values.
+     * <p>
+     * Each result is a new instance of the given ValueComposite type whose properties are set from the
+     * selected properties having the same name. Properties of the Value that are not selected get their
+     * initial value.
+     * Where clause, ordering, paging and variables set so far are copied to the returned Query.
+     * </p>
+     *
+     * @param valueType  the ValueComposite type to project to
+     * @param properties the properties to select, see {@link QueryExpressions#property(Property)}
+     * @param <V>        the ValueComposite type
+     *
+     * @return a new Query of Values
+     */
+    <V> Query<V> select( Class<V> valueType, PropertyFunction<?>... properties );
 }
\ No newline at end of file
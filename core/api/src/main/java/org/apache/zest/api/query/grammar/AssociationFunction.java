@@ -21,9 +21,9 @@ package org.apache.zest.api.query.grammar;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Member;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.function.Function;
+import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.Association;
 import org.apache.zest.api.association.AssociationStateHolder;
 import org.apache.zest.api.association.GenericAssociationInfo;
@@ -121,7 +121,7 @@ public class AssociationFunction<T>
                 return null;
             }
 
-            CompositeInstance handler = (CompositeInstance) Proxy.getInvocationHandler( target );
+            CompositeInstance handler = ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( (Composite) target );
             return ( (AssociationStateHolder) handler.state() ).associationFor( accessor );
         }
         catch( IllegalArgumentException e )
@@ -21,8 +21,8 @@ package org.apache.zest.api.query.grammar;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Member;
-import java.lang.reflect.Proxy;
 import java.util.function.Function;
+import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.AssociationStateHolder;
 import org.apache.zest.api.association.ManyAssociation;
 import org.apache.zest.api.composite.Composite;
@@ -90,7 +90,7 @@ public class ManyAssociationFunction<T>
                 throw new IllegalArgumentException( "Cannot traverse NamedAssociations" );
             }
 
-            CompositeInstance handler = (CompositeInstance) Proxy.getInvocationHandler( target );
+            CompositeInstance handler = ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( (Composite) target );
             return ( (AssociationStateHolder) handler.state() ).manyAssociationFor( accessor );
         }
         catch( IllegalArgumentException e )
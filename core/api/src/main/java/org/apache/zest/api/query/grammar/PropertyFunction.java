@@ -22,9 +22,9 @@ package org.apache.zest.api.query.grammar;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Member;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.function.Function;
+import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.association.Association;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.composite.CompositeInstance;
@@ -148,7 +148,7 @@ public class PropertyFunction<T>
                 return null;
             }
 
-            CompositeInstance handler = (CompositeInstance) Proxy.getInvocationHandler( target );
+            CompositeInstance handler = ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( (Composite) target );
             return handler.state().propertyFor( accessor );
         }
         catch( IllegalArgumentException e )
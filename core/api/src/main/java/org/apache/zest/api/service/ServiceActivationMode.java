@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.api.service;
+
+/**
+ * How the Services of a Module are activated.
+ * <p>
+ * Set as Module, Layer or Application MetaInfo at assembly time, the most specific wins:
+ * </p>
+ * <pre><code>
+ * module.layer().application().setMetaInfo( ServiceActivationMode.PARALLEL );
+ * </code></pre>
+ */
+public enum ServiceActivationMode
+{
+    /**
+     * Services are activated one after another in declaration order, and passivated in reverse order.
+     * This is the default.
+     */
+    SEQUENTIAL,
+    /**
+     * Services are activated concurrently, each one after the Services of the same Module it depends on through
+     * {@link org.apache.zest.api.injection.scope.Service} injection, and passivated in reverse order of activation.
+     * <p>
+     * Services with cyclic dependencies are activated one after another.
+     * </p>
+     */
+    PARALLEL
+}
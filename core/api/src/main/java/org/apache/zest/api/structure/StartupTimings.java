@@ -0,0 +1,118 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.api.structure;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.zest.api.identity.Identity;
+
+/**
+ * Time spent in each phase of an Application startup.
+ * <p>
+ * Recorded by the runtime and available as Application MetaInfo:
+ * </p>
+ * <pre><code>
+ * StartupTimings timings = application.metaInfo( StartupTimings.class );
+ * </code></pre>
+ * <p>
+ * Assembly, binding and activation are wall-clock durations. Class generation happens during assembly and, as modules
+ * are assembled concurrently, is the time summed across all assembling threads.
+ * </p>
+ * <p>
+ * The activation duration of each Service is also recorded, including the activation of its Activators. Services
+ * that are not instantiated on startup are recorded when first used.
+ * </p>
+ */
+public final class StartupTimings
+{
+    public enum Phase
+    {
+        /**
+         * Running the Assemblers and building the Application model.
+         */
+        ASSEMBLY,
+        /**
+         * Generating fragment subclasses, part of assembly.
+         */
+        CLASS_GENERATION,
+        /**
+         * Resolving dependencies of the Application model.
+         */
+        BINDING,
+        /**
+         * Activating the Application instance.
+         */
+        ACTIVATION
+    }
+
+    private final Map<Phase, LongAdder> nanos = new EnumMap<>( Phase.class );
+    private final Map<Identity, Duration> services = new LinkedHashMap<>();
+
+    public StartupTimings()
+    {
+        for( Phase phase : Phase.values() )
+        {
+            nanos.put( phase, new LongAdder() );
+        }
+    }
+
+    public void record( Phase phase, long durationNanos )
+    {
+        nanos.get( phase ).add( durationNanos );
+    }
+
+    public Duration duration( Phase phase )
+    {
+        return Duration.ofNanos( nanos.get( phase ).sum() );
+    }
+
+    public synchronized void recordService( Identity service, long durationNanos )
+    {
+        services.put( service, Duration.ofNanos( durationNanos ) );
+    }
+
+    /**
+     * @return Activation durations of Services, in activation order
+     */
+    public synchronized Map<Identity, Duration> serviceDurations()
+    {
+        return Collections.unmodifiableMap( new LinkedHashMap<>( services ) );
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder( "StartupTimings{" );
+        for( Phase phase : Phase.values() )
+        {
+            if( phase.ordinal() > 0 )
+            {
+                sb.append( ", " );
+            }
+            sb.append( phase ).append( '=' ).append( duration( phase ).toMillis() ).append( "ms" );
+        }
+        return sb.append( '}' ).toString();
+    }
+}
@@ -265,6 +265,49 @@ public interface UnitOfWork extends MetaInfoHolder, AutoCloseable
     <T> T get( Class<T> type, Identity identity )
         throws NoSuchEntityTypeException, NoSuchEntityException;
 
+    /**
+     * Find the Entities of the given mixin type with the given identities. This
+     * method verifies that they exist by asking the underlying EntityStores, fetching
+     * the state of all the entities not yet loaded in this UnitOfWork at once when the
+     * EntityStores support it.
+     *
+     * @param type       of the entities
+     * @param identities of the entities
+     *
+     * @return the entities, in the order of the given identities
+     *
+     * @throws NoSuchEntityTypeException if no entity type could be found
+     * @throws NoSuchEntityException     if one of the entities could not be found
+     */
+    <T> List<T> get( Class<T> type, Iterable<Identity> identities )
+        throws NoSuchEntityTypeException, NoSuchEntityException;
+
+    /**
+     * Load all the entities referenced by the given ManyAssociation in this UnitOfWork at once.
+     * <p>
+     * Entities that could not be found are ignored, accessing them through the association will fail as usual.
+     * </p>
+     *
+     * @param association the ManyAssociation to prefetch
+     *
+     * @throws NoSuchEntityTypeException if no entity type could be found
+     */
+    void prefetch( ManyAssociation<?> association )
+        throws NoSuchEntityTypeException;
+
+    /**
+     * Load all the entities referenced by the given NamedAssociation in this UnitOfWork at once.
+     * <p>
+     * Entities that could not be found are ignored, accessing them through the association will fail as usual.
+     * </p>
+     *
+     * @param association the NamedAssociation to prefetch
+     *
+     * @throws NoSuchEntityTypeException if no entity type could be found
+     */
+    void prefetch( NamedAssociation<?> association )
+        throws NoSuchEntityTypeException;
+
     /**
      * If you have a reference to an Entity from another
      * UnitOfWork and want to create a reference to it in this
@@ -51,6 +51,10 @@ public interface ValueSerialization
          * Tag a ValueSerialization service that support the YAML format.
          */
         String YAML = "yaml";
+        /**
+         * Tag a ValueSerialization service that support the compact binary format.
+         */
+        String BINARY = "binary";
     }
 
 }
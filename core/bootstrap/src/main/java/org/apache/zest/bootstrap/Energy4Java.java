@@ -23,6 +23,7 @@ package org.apache.zest.bootstrap;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.structure.Application;
 import org.apache.zest.api.structure.ApplicationDescriptor;
+import org.apache.zest.api.structure.StartupTimings;
 import org.apache.zest.spi.ZestSPI;
 
 /**
@@ -61,6 +62,7 @@ public final class Energy4Java
     public ApplicationDescriptor newApplicationModel( ApplicationAssembler assembler )
         throws AssemblyException
     {
+        long start = System.nanoTime();
         ApplicationAssembly assembly = assembler.assemble( runtime.applicationAssemblyFactory() );
 
         if( assembly == null )
@@ -68,6 +70,10 @@ public final class Energy4Java
             throw new AssemblyException( "Application assembler did not return any ApplicationAssembly" );
         }
 
+        StartupTimings timings = new StartupTimings();
+        timings.record( StartupTimings.Phase.ASSEMBLY, System.nanoTime() - start );
+        assembly.setMetaInfo( timings );
+
         try
         {
             ApplicationModelFactory modelFactory = runtime.applicationModelFactory();
@@ -73,7 +73,7 @@ import org.apache.zest.runtime.value.ValueInstance;
 import org.apache.zest.spi.ZestSPI;
 import org.apache.zest.spi.entity.EntityState;
 
-import static java.lang.reflect.Proxy.getInvocationHandler;
+import static org.apache.zest.runtime.composite.ProxyGenerator.invocationHandlerOf;
 import static org.apache.zest.runtime.composite.TransientInstance.compositeInstanceOf;
 
 /**
@@ -121,7 +121,7 @@ public final class ZestRuntimeImpl
     @SuppressWarnings( "unchecked" )
     public <T> T dereference( T composite )
     {
-        InvocationHandler handler = getInvocationHandler( composite );
+        InvocationHandler handler = invocationHandlerOf( composite );
         if( handler instanceof ProxyReferenceInvocationHandler )
         {
             return (T) ( (ProxyReferenceInvocationHandler) handler ).proxy();
@@ -154,7 +154,7 @@ public final class ZestRuntimeImpl
         else if( compositeOrServiceReferenceOrUow instanceof ServiceComposite )
         {
             ServiceComposite composite = (ServiceComposite) compositeOrServiceReferenceOrUow;
-            InvocationHandler handler = getInvocationHandler( composite );
+            InvocationHandler handler = invocationHandlerOf( composite );
             if( handler instanceof ServiceInstance )
             {
                 return ( (ServiceInstance) handler ).module();
@@ -204,7 +204,7 @@ public final class ZestRuntimeImpl
         else if( compositeOrServiceReference instanceof ServiceComposite )
         {
             ServiceComposite composite = (ServiceComposite) compositeOrServiceReference;
-            InvocationHandler handler = getInvocationHandler( composite );
+            InvocationHandler handler = invocationHandlerOf( composite );
             if( handler instanceof ServiceInstance )
             {
                 return ( (ServiceInstance) handler ).descriptor();
@@ -257,7 +257,7 @@ public final class ZestRuntimeImpl
     {
         if( entity instanceof EntityComposite )
         {
-            EntityInstance entityInstance = (EntityInstance) getInvocationHandler( entity );
+            EntityInstance entityInstance = (EntityInstance) invocationHandlerOf( entity );
             return entityInstance.entityModel();
         }
         throw new IllegalArgumentException( "Wrong type. Must be subtype of " + EntityComposite.class );
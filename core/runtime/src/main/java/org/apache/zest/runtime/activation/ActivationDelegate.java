@@ -19,10 +19,20 @@
  */
 package org.apache.zest.runtime.activation;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import org.apache.zest.api.activation.Activation;
 import org.apache.zest.api.activation.ActivationEvent;
@@ -89,9 +99,38 @@ public final class ActivationDelegate
         activate( targetActivators, children, null );
     }
 
-    @SuppressWarnings( "unchecked" )
     public void activate( ActivatorsInstance targetActivators, Iterable<? extends Activation> children, Runnable callback )
         throws ActivationException
+    {
+        activate( targetActivators, children, null, callback );
+    }
+
+    /**
+     * Activate the target, activating children concurrently.
+     * <p>
+     * Each child is activated after its dependencies and children are passivated in reverse order of activation.
+     * Children must be given in dependency order, dependencies preceding their dependents, and dependencies that are
+     * not children are ignored.
+     * </p>
+     * @param targetActivators Activators of the target
+     * @param children children in dependency order
+     * @param dependencies dependencies of each child
+     * @throws ActivationException if the target or any child fails to activate
+     */
+    public void activateConcurrently( ActivatorsInstance targetActivators,
+                                      Iterable<? extends Activation> children,
+                                      Function<Activation, Iterable<? extends Activation>> dependencies )
+        throws ActivationException
+    {
+        activate( targetActivators, children, dependencies, null );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void activate( ActivatorsInstance targetActivators,
+                           Iterable<? extends Activation> children,
+                           Function<Activation, Iterable<? extends Activation>> dependencies,
+                           Runnable callback )
+        throws ActivationException
     {
         if( this.targetActivators != null )
         {
@@ -113,13 +152,20 @@ public final class ActivationDelegate
                                                : target );
 
             // Activation
-            for( Activation child : children )
+            if( dependencies == null )
             {
-                if( !activeChildren.contains( child ) )
+                for( Activation child : children )
                 {
-                    child.activate();
+                    if( !activeChildren.contains( child ) )
+                    {
+                        child.activate();
+                    }
+                    activeChildren.addFirst( child );
                 }
-                activeChildren.addFirst( child );
+            }
+            else
+            {
+                activateChildrenConcurrently( children, dependencies );
             }
 
             // Internal Activation Callback
@@ -161,6 +207,125 @@ public final class ActivationDelegate
         }
     }
 
+    private void activateChildrenConcurrently( Iterable<? extends Activation> children,
+                                               Function<Activation, Iterable<? extends Activation>> dependencies )
+        throws Exception
+    {
+        List<Activation> toActivate = new ArrayList<>();
+        children.forEach( toActivate::add );
+        if( toActivate.isEmpty() )
+        {
+            return;
+        }
+        // Dedicated pool, activations may block on I/O and must not starve the common pool
+        ExecutorService executor = newActivationExecutor(
+            Math.min( toActivate.size(), Runtime.getRuntime().availableProcessors() ) );
+        try
+        {
+            activateChildrenConcurrently( toActivate, dependencies, executor );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void activateChildrenConcurrently( List<Activation> children,
+                                               Function<Activation, Iterable<? extends Activation>> dependencies,
+                                               ExecutorService executor )
+        throws Exception
+    {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Map<Activation, CompletableFuture<Void>> activations = new LinkedHashMap<>();
+        for( Activation child : children )
+        {
+            List<CompletableFuture<Void>> childDependencies = new ArrayList<>();
+            for( Activation dependency : dependencies.apply( child ) )
+            {
+                CompletableFuture<Void> dependencyActivation = activations.get( dependency );
+                if( dependencyActivation != null && dependency != child )
+                {
+                    childDependencies.add( dependencyActivation );
+                }
+            }
+            CompletableFuture<Void> childActivation = CompletableFuture
+                .allOf( childDependencies.toArray( new CompletableFuture<?>[ childDependencies.size() ] ) )
+                .thenRunAsync( () -> activateChild( child, contextClassLoader ), executor );
+            activations.put( child, childActivation );
+        }
+
+        // Wait for all, failed or not, so that passivation only happens once nothing is activating anymore
+        for( CompletableFuture<Void> activation : activations.values() )
+        {
+            try
+            {
+                activation.join();
+            }
+            catch( CompletionException ignored )
+            {
+                // Reported below in children order
+            }
+        }
+        for( CompletableFuture<Void> activation : activations.values() )
+        {
+            try
+            {
+                activation.join();
+            }
+            catch( CompletionException ex )
+            {
+                Throwable cause = ex.getCause();
+                if( cause instanceof Exception )
+                {
+                    throw (Exception) cause;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private static ExecutorService newActivationExecutor( int threads )
+    {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool( threads, runnable ->
+        {
+            Thread thread = new Thread( runnable, "zest-activation-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+    }
+
+    private void activateChild( Activation child, ClassLoader contextClassLoader )
+    {
+        synchronized( activeChildren )
+        {
+            if( activeChildren.contains( child ) )
+            {
+                activeChildren.addFirst( child );
+                return;
+            }
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader( contextClassLoader );
+        try
+        {
+            child.activate();
+        }
+        catch( Exception ex )
+        {
+            throw new CompletionException( ex );
+        }
+        finally
+        {
+            thread.setContextClassLoader( previous );
+        }
+        synchronized( activeChildren )
+        {
+            activeChildren.addFirst( child );
+        }
+    }
+
     public void passivate()
         throws PassivationException
     {
@@ -25,10 +25,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.apache.zest.api.composite.ModelDescriptor;
 import org.apache.zest.api.structure.Application;
 import org.apache.zest.api.structure.ApplicationDescriptor;
 import org.apache.zest.api.structure.Layer;
+import org.apache.zest.api.structure.StartupTimings;
 import org.apache.zest.bootstrap.ApplicationAssembly;
 import org.apache.zest.bootstrap.ApplicationModelFactory;
 import org.apache.zest.bootstrap.AssemblyException;
@@ -55,9 +58,17 @@ public final class ApplicationModelFactoryImpl
     public ApplicationDescriptor newApplicationModel( ApplicationAssembly assembly )
         throws AssemblyException
     {
+        long assemblyStart = System.nanoTime();
         AssemblyHelper helper = createAssemblyHelper( assembly );
+        long classGenerationStart = helper.classGenerationNanos();
 
         ApplicationAssemblyImpl applicationAssembly = (ApplicationAssemblyImpl) assembly;
+        StartupTimings timings = applicationAssembly.metaInfo().get( StartupTimings.class );
+        if( timings == null )
+        {
+            timings = new StartupTimings();
+            applicationAssembly.setMetaInfo( timings );
+        }
         ActivatorsModel<Application> applicationActivators = new ActivatorsModel<>( applicationAssembly.activators() );
         List<LayerModel> layerModels = new ArrayList<>();
         final ApplicationModel applicationModel = new ApplicationModel( applicationAssembly.name(),
@@ -86,10 +97,9 @@ public final class ApplicationModelFactoryImpl
             ActivatorsModel<Layer> layerActivators = new ActivatorsModel<>( layerAssembly.activators() );
             LayerModel layerModel = new LayerModel( name, layerAssembly.metaInfo(), usedLayersModel, layerActivators, moduleModels );
 
-            for( ModuleAssemblyImpl moduleAssembly : layerAssembly.moduleAssemblies() )
-            {
-                moduleModels.add( moduleAssembly.assembleModule( layerModel, helper ) );
-            }
+            // Modules of a layer are independent until bound
+            moduleModels.addAll( forkJoin( new ArrayList<>( layerAssembly.moduleAssemblies() ),
+                                           moduleAssembly -> moduleAssembly.assembleModule( layerModel, helper ) ) );
             mapAssemblyModel.put( layerAssembly, layerModel );
             layerModels.add( layerModel );
         }
@@ -106,8 +116,12 @@ public final class ApplicationModelFactoryImpl
             }
         }
 
+        timings.record( StartupTimings.Phase.ASSEMBLY, System.nanoTime() - assemblyStart );
+        timings.record( StartupTimings.Phase.CLASS_GENERATION, helper.classGenerationNanos() - classGenerationStart );
+
         // Bind model
         // This will resolve all dependencies
+        long bindingStart = System.nanoTime();
         try
         {
 //            applicationModel.bind();
@@ -117,10 +131,90 @@ public final class ApplicationModelFactoryImpl
         {
             throw new AssemblyException( "Unable to bind: " + applicationModel, e );
         }
+        timings.record( StartupTimings.Phase.BINDING, System.nanoTime() - bindingStart );
 
         return applicationModel;
     }
 
+    /**
+     * Apply a function to all items on the common fork-join pool.
+     * <p>
+     * The context class loader of the calling thread is used by the tasks. Results are in items order and the
+     * failure of the first failed item in that order is rethrown as is.
+     * </p>
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <T, R, E extends Exception> List<R> forkJoin( List<T> items, ModuleTask<T, R, E> task )
+        throws E
+    {
+        if( items.size() < 2 )
+        {
+            List<R> results = new ArrayList<>( items.size() );
+            for( T item : items )
+            {
+                results.add( task.apply( item ) );
+            }
+            return results;
+        }
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Object[] results = new Object[ items.size() ];
+        Throwable[] failures = new Throwable[ items.size() ];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>( items.size() );
+        for( int idx = 0; idx < items.size(); idx++ )
+        {
+            int index = idx;
+            tasks.add( ForkJoinPool.commonPool().submit( () -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader( contextClassLoader );
+                try
+                {
+                    results[ index ] = task.apply( items.get( index ) );
+                }
+                catch( Throwable e )
+                {
+                    failures[ index ] = e;
+                }
+                finally
+                {
+                    thread.setContextClassLoader( previous );
+                }
+            } ) );
+        }
+        for( ForkJoinTask<?> forkJoinTask : tasks )
+        {
+            forkJoinTask.join();
+        }
+        for( Throwable failure : failures )
+        {
+            if( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+            if( failure instanceof Error )
+            {
+                throw (Error) failure;
+            }
+            if( failure != null )
+            {
+                throw (E) failure;
+            }
+        }
+        List<R> list = new ArrayList<>( results.length );
+        for( Object result : results )
+        {
+            list.add( (R) result );
+        }
+        return list;
+    }
+
+    @FunctionalInterface
+    private interface ModuleTask<T, R, E extends Exception>
+    {
+        R apply( T item )
+            throws E;
+    }
+
     private AssemblyHelper createAssemblyHelper( ApplicationAssembly assembly )
     {
         if( assembly instanceof ApplicationAssemblyImpl )
@@ -135,6 +229,13 @@ public final class ApplicationModelFactoryImpl
         return new AssemblyHelper();
     }
 
+    /**
+     * Bind the application model.
+     * <p>
+     * Modules of each layer are bound concurrently, each by its own visitor seeded with the state the visitor had
+     * when it entered the layer.
+     * </p>
+     */
     private static class BindingVisitor
         implements HierarchicalVisitor<Object, Object, BindingException>
     {
@@ -145,10 +246,23 @@ public final class ApplicationModelFactoryImpl
 
         private Resolution resolution;
         private final ApplicationModel applicationModel;
+        private final boolean moduleVisitor;
+        private final List<ModuleModel> layerModules = new ArrayList<>();
 
         private BindingVisitor( ApplicationModel applicationModel )
         {
             this.applicationModel = applicationModel;
+            this.moduleVisitor = false;
+        }
+
+        private BindingVisitor( BindingVisitor layerVisitor )
+        {
+            this.applicationModel = layerVisitor.applicationModel;
+            this.moduleVisitor = true;
+            this.layer = layerVisitor.layer;
+            this.objectDescriptor = layerVisitor.objectDescriptor;
+            this.compositeMethodModel = layerVisitor.compositeMethodModel;
+            this.resolution = layerVisitor.resolution;
         }
 
         @Override
@@ -180,6 +294,12 @@ public final class ApplicationModelFactoryImpl
             }
             else if( visited instanceof ModuleModel )
             {
+                if( !moduleVisitor )
+                {
+                    // Bound when leaving the layer
+                    layerModules.add( (ModuleModel) visited );
+                    return false;
+                }
                 module = (ModuleModel) visited;
             }
             else if( visited instanceof LayerModel )
@@ -194,6 +314,24 @@ public final class ApplicationModelFactoryImpl
         public boolean visitLeave( Object visited )
             throws BindingException
         {
+            if( visited instanceof LayerModel && !moduleVisitor )
+            {
+                List<BindingVisitor> moduleVisitors = forkJoin( layerModules, layerModule -> {
+                    BindingVisitor visitor = new BindingVisitor( this );
+                    layerModule.accept( visitor );
+                    return visitor;
+                } );
+                layerModules.clear();
+                if( !moduleVisitors.isEmpty() )
+                {
+                    // Carry on from where the last module left off
+                    BindingVisitor last = moduleVisitors.get( moduleVisitors.size() - 1 );
+                    module = last.module;
+                    objectDescriptor = last.objectDescriptor;
+                    compositeMethodModel = last.compositeMethodModel;
+                    resolution = last.resolution;
+                }
+            }
             return true;
         }
 
@@ -208,4 +346,4 @@ public final class ApplicationModelFactoryImpl
             return true;
         }
     }
-}
\ No newline at end of file
+}
@@ -26,8 +26,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
 import org.apache.zest.api.common.ConstructionException;
@@ -41,14 +42,20 @@ import org.apache.zest.runtime.composite.SideEffectModel;
 /**
  * This helper is used when building the application model. It keeps track
  * of already created classloaders and various models
+ * <p>
+ * Modules are assembled concurrently, subclasses must be thread-safe.
+ * </p>
  */
 @SuppressWarnings("WeakerAccess")
 public class AssemblyHelper
 {
-    private Map<Class, Class> instantiationClasses = new HashMap<>();
-    private Map<Class, ConstraintDeclaration> constraintDeclarations = new HashMap<>();
-    private Map<ClassLoader, FragmentClassLoader> modifierClassLoaders = new HashMap<>();
-    private Map<Class<?>, AppliesToFilter> appliesToInstances = new HashMap<>();
+    private final Map<Class, Class> instantiationClasses = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Constraint<?, ?>>, ConstraintDeclaration> constraintDeclarations
+        = new ConcurrentHashMap<>();
+    private final Map<ClassLoader, FragmentClassLoader> modifierClassLoaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AppliesToFilter> appliesToInstances = new ConcurrentHashMap<>();
+    private final LongAdder classGenerationNanos = new LongAdder();
+    private FragmentClassLoader bootstrapModifierClassLoader;
 
     protected MixinModel getMixinModel(Class mixinClass)
     {
@@ -74,9 +81,11 @@ public class AssemblyHelper
 
             if( instantiationClass == null )
             {
+                long start = System.nanoTime();
                 try
                 {
                     FragmentClassLoader fragmentLoader = getModifierClassLoader( fragmentClass.getClassLoader() );
+                    // Fragment class loaders are parallel capable, concurrent loads of a class yield the same class
                     instantiationClass = fragmentLoader.loadFragmentClass( fragmentClass );
                     instantiationClasses.put( fragmentClass, instantiationClass );
                 }
@@ -84,6 +93,10 @@ public class AssemblyHelper
                 {
                     throw new ConstructionException( "Could not generate mixin subclass " + fragmentClass.getName(), e );
                 }
+                finally
+                {
+                    classGenerationNanos.add( System.nanoTime() - start );
+                }
             }
         }
         return instantiationClass;
@@ -91,13 +104,19 @@ public class AssemblyHelper
 
     protected FragmentClassLoader getModifierClassLoader( ClassLoader classLoader )
     {
-        FragmentClassLoader cl = modifierClassLoaders.get( classLoader );
-        if( cl == null )
+        if( classLoader == null )
         {
-            cl = instantiateFragmentClassLoader( classLoader );
-            modifierClassLoaders.put( classLoader, cl );
+            // Bootstrap class loader, can't be a ConcurrentHashMap key
+            synchronized( this )
+            {
+                if( bootstrapModifierClassLoader == null )
+                {
+                    bootstrapModifierClassLoader = instantiateFragmentClassLoader( null );
+                }
+                return bootstrapModifierClassLoader;
+            }
         }
-        return cl;
+        return modifierClassLoaders.computeIfAbsent( classLoader, this::instantiateFragmentClassLoader );
     }
 
     protected FragmentClassLoader instantiateFragmentClassLoader( ClassLoader classLoader )
@@ -105,14 +124,18 @@ public class AssemblyHelper
         return new FragmentClassLoader( classLoader );
     }
 
+    /**
+     * @return the time spent generating fragment subclasses so far, summed across threads
+     */
+    long classGenerationNanos()
+    {
+        return classGenerationNanos.sum();
+    }
+
     public boolean appliesTo( Class<?> fragmentClass, Method method, Iterable<Class<?>> types, Class<?> mixinClass )
     {
-        AppliesToFilter appliesToFilter = appliesToInstances.get( fragmentClass );
-        if( appliesToFilter == null )
-        {
-            appliesToFilter = createAppliesToFilter( fragmentClass );
-            appliesToInstances.put( fragmentClass, appliesToFilter );
-        }
+        AppliesToFilter appliesToFilter = appliesToInstances.computeIfAbsent( fragmentClass,
+                                                                             this::createAppliesToFilter );
         for( Class<?> compositeType : types )
         {
             if( appliesToFilter.appliesTo( method, mixinClass, compositeType, fragmentClass ) )
@@ -202,12 +225,8 @@ public class AssemblyHelper
                               Type valueType
     )
     {
-        ConstraintDeclaration constraintDeclaration = constraintDeclarations.get( constraint );
-        if( constraintDeclaration == null )
-        {
-            constraintDeclaration = new ConstraintDeclaration( constraint );
-            constraintDeclarations.put( constraint, constraintDeclaration );
-        }
+        ConstraintDeclaration constraintDeclaration = constraintDeclarations.computeIfAbsent( constraint,
+                                                                                              ConstraintDeclaration::new );
 
         return constraintDeclaration.appliesTo( annotationType, valueType );
     }
@@ -57,7 +57,7 @@ public final class CompositeMethodModel
 
     // Context
 //    private final SynchronizedCompositeMethodInstancePool instancePool = new SynchronizedCompositeMethodInstancePool();
-    private final AtomicInstancePool instancePool = new AtomicInstancePool();
+    private final StripedInstancePool instancePool = new StripedInstancePool();
     private final ConstraintsInstance constraintsInstance;
 
     public CompositeMethodModel( Method method,
@@ -99,6 +99,21 @@ public final class CompositeMethodsModel
         methods.put( methodModel.method(), methodModel );
     }
 
+    /**
+     * @param methods methods of a proxy method table
+     *
+     * @return the composite methods of the given methods, null for methods that are not composite methods
+     */
+    public CompositeMethodModel[] methodModelsFor( Method[] methods )
+    {
+        CompositeMethodModel[] models = new CompositeMethodModel[ methods.length ];
+        for( int idx = 0; idx < methods.length; idx++ )
+        {
+            models[ idx ] = this.methods.get( methods[ idx ] );
+        }
+        return models;
+    }
+
     public boolean isImplemented( Method method )
     {
         return methods.containsKey( method );
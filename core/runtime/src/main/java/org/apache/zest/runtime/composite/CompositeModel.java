@@ -59,6 +59,9 @@ public abstract class CompositeModel
     private volatile Class<?> primaryType;
     protected Class<? extends Composite> proxyClass;
     protected Constructor<? extends Composite> proxyConstructor;
+    // Method table of generated proxies and matching composite methods, null when using java.lang.reflect.Proxy
+    private Method[] proxyMethods;
+    private CompositeMethodModel[] proxyMethodModels;
     protected ModuleDescriptor module;
 
     protected CompositeModel( final ModuleDescriptor module,
@@ -183,7 +186,25 @@ public abstract class CompositeModel
             ClassLoader proxyClassloader = mainType.getClassLoader();
 
             Class<?>[] interfaces = Iterables.toArray( Class.class, Iterables.<Class>cast( types ) );
-            proxyClass = (Class<? extends Composite>) ProxyGenerator.createProxyClass( proxyClassloader, interfaces );
+            if( ProxyGenerator.generateCompositeProxyClass( interfaces ) )
+            {
+                proxyMethods = ProxyGenerator.proxyMethods( interfaces );
+                proxyMethodModels = compositeMethodsModel.methodModelsFor( proxyMethods );
+                try
+                {
+                    proxyClass = (Class<? extends Composite>) ProxyGenerator.createCompositeProxyClass( proxyClassloader,
+                                                                                                       interfaces,
+                                                                                                       proxyMethods );
+                }
+                catch( ReflectiveOperationException | LinkageError e )
+                {
+                    throw (InvalidCompositeException) new InvalidCompositeException( "Could not generate proxy class" ).initCause( e );
+                }
+            }
+            else
+            {
+                proxyClass = (Class<? extends Composite>) ProxyGenerator.createProxyClass( proxyClassloader, interfaces );
+            }
 
             try
             {
@@ -220,6 +241,32 @@ public abstract class CompositeModel
         return compositeMethodsModel.invoke( mixins, proxy, method, args, module );
     }
 
+    /**
+     * Invoke a method of a generated proxy by its index in the proxy method table.
+     */
+    public final Object invoke( MixinsInstance mixins,
+                                Object proxy,
+                                int methodIndex,
+                                Object[] args
+    )
+        throws Throwable
+    {
+        CompositeMethodModel compositeMethod = proxyMethodModels[ methodIndex ];
+        if( compositeMethod == null )
+        {
+            return compositeMethodsModel.invoke( mixins, proxy, proxyMethods[ methodIndex ], args, module );
+        }
+        return compositeMethod.invoke( proxy, args, mixins, module );
+    }
+
+    /**
+     * @return the method at the given index of the generated proxy method table
+     */
+    public final Method proxyMethod( int methodIndex )
+    {
+        return proxyMethods[ methodIndex ];
+    }
+
     @Override
     public ModuleDescriptor module()
     {
@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.composite;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import org.apache.zest.api.composite.AbstractCompositeProxy;
+
+/**
+ * Base class of generated composite proxies.
+ * <p>
+ * Generated subclasses implement all the composite types and dispatch each method
+ * to the {@link IndexedInvocationHandler} using the method index in the proxy method table.
+ * </p>
+ * <p>
+ * The handler is held in the public {@code _instance} field of {@link AbstractCompositeProxy}, as for classes
+ * used as composites.
+ * </p>
+ */
+public abstract class CompositeProxy
+    extends AbstractCompositeProxy
+{
+    protected final IndexedInvocationHandler _dispatcher;
+
+    protected CompositeProxy( InvocationHandler handler, Method[] methods )
+    {
+        super( handler );
+        if( handler instanceof IndexedInvocationHandler )
+        {
+            _dispatcher = (IndexedInvocationHandler) handler;
+        }
+        else
+        {
+            _dispatcher = new MethodDispatcher( handler, methods );
+        }
+    }
+
+    /**
+     * Dispatch indexed invocations to InvocationHandlers that only support Method invocations.
+     */
+    private static final class MethodDispatcher
+        implements IndexedInvocationHandler
+    {
+        private final InvocationHandler handler;
+        private final Method[] methods;
+
+        private MethodDispatcher( InvocationHandler handler, Method[] methods )
+        {
+            this.handler = handler;
+            this.methods = methods;
+        }
+
+        @Override
+        public Object invoke( Object proxy, int methodIndex, Object[] args )
+            throws Throwable
+        {
+            return handler.invoke( proxy, methods[ methodIndex ], args );
+        }
+
+        @Override
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            return handler.invoke( proxy, method, args );
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.composite;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import static org.objectweb.asm.Opcodes.AASTORE;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ANEWARRAY;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+import static org.objectweb.asm.Type.getInternalName;
+
+/**
+ * Generate {@link CompositeProxy} subclasses implementing the types of a composite.
+ * <p>
+ * Each method boxes its arguments and invokes the {@link IndexedInvocationHandler} with the index
+ * of the method in the proxy method table. Checked exceptions not declared by the method are wrapped
+ * in {@link UndeclaredThrowableException}, as {@link java.lang.reflect.Proxy} does.
+ * </p>
+ * <p>
+ * Classes are generated with version 1.6 so that stack map frames are not needed.
+ * </p>
+ */
+/* package */ final class CompositeProxyClassLoader
+    extends ClassLoader
+{
+    /* package */ static final String GENERATED_POSTFIX = "_ZestProxy";
+    /* package */ static final String METHODS_FIELD = "_methods";
+
+    private static final String PROXY_TYPE = getInternalName( CompositeProxy.class );
+    private static final String DISPATCHER_TYPE = getInternalName( IndexedInvocationHandler.class );
+    private static final String DISPATCH_DESCRIPTOR = "(Ljava/lang/Object;I[Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String METHODS_DESCRIPTOR = "[Ljava/lang/reflect/Method;";
+    private static final String PROXY_CONSTRUCTOR_DESCRIPTOR
+        = "(Ljava/lang/reflect/InvocationHandler;[Ljava/lang/reflect/Method;)V";
+
+    private final ClassLoader[] fallbacks;
+
+    /* package */ CompositeProxyClassLoader( ClassLoader parent, Class<?>[] interfaces )
+    {
+        super( parent );
+        // Composite types can come from several class loaders, and the runtime itself from another one
+        List<ClassLoader> loaders = new ArrayList<>();
+        loaders.add( CompositeProxy.class.getClassLoader() );
+        for( Class<?> type : interfaces )
+        {
+            ClassLoader loader = type.getClassLoader();
+            if( loader != null && loader != parent && !loaders.contains( loader ) )
+            {
+                loaders.add( loader );
+            }
+        }
+        fallbacks = loaders.toArray( new ClassLoader[ loaders.size() ] );
+    }
+
+    @Override
+    protected Class<?> findClass( String name )
+        throws ClassNotFoundException
+    {
+        for( ClassLoader loader : fallbacks )
+        {
+            try
+            {
+                return loader.loadClass( name );
+            }
+            catch( ClassNotFoundException e )
+            {
+                // Try next
+            }
+        }
+        throw new ClassNotFoundException( name );
+    }
+
+    /* package */ Class<?> defineProxyClass( Class<?>[] interfaces, Method[] methods )
+        throws ReflectiveOperationException
+    {
+        String className = interfaces[ 0 ].getName() + GENERATED_POSTFIX;
+        byte[] bytecode = generateClass( className.replace( '.', '/' ), interfaces, methods );
+        Class<?> proxyClass = defineClass( className, bytecode, 0, bytecode.length );
+        proxyClass.getField( METHODS_FIELD ).set( null, methods );
+        return proxyClass;
+    }
+
+    private static byte[] generateClass( String className, Class<?>[] interfaces, Method[] methods )
+    {
+        String[] interfaceNames = new String[ interfaces.length ];
+        for( int i = 0; i < interfaces.length; i++ )
+        {
+            interfaceNames[ i ] = getInternalName( interfaces[ i ] );
+        }
+
+        ClassWriter cw = new ClassWriter( ClassWriter.COMPUTE_MAXS );
+        cw.visit( V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, className, null, PROXY_TYPE, interfaceNames );
+
+        FieldVisitor fv = cw.visitField( ACC_PUBLIC + ACC_STATIC, METHODS_FIELD, METHODS_DESCRIPTOR, null, null );
+        fv.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, "<init>", "(Ljava/lang/reflect/InvocationHandler;)V", null, null );
+        mv.visitCode();
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitVarInsn( ALOAD, 1 );
+        mv.visitFieldInsn( GETSTATIC, className, METHODS_FIELD, METHODS_DESCRIPTOR );
+        mv.visitMethodInsn( INVOKESPECIAL, PROXY_TYPE, "<init>", PROXY_CONSTRUCTOR_DESCRIPTOR, false );
+        mv.visitInsn( RETURN );
+        mv.visitMaxs( 0, 0 );
+        mv.visitEnd();
+
+        // Index of the table method dispatched to for each name and parameter types
+        Map<String, Integer> indices = new HashMap<>();
+        for( int idx = 0; idx < methods.length; idx++ )
+        {
+            indices.putIfAbsent( signatureOf( methods[ idx ] ), idx );
+        }
+
+        // One proxy method per distinct descriptor, covariant redeclarations included
+        Map<String, Method> generated = new HashMap<>();
+        for( Method method : methods )
+        {
+            generated.putIfAbsent( method.getName() + Type.getMethodDescriptor( method ), method );
+        }
+        for( Class<?> type : interfaces )
+        {
+            for( Method method : type.getMethods() )
+            {
+                if( !Modifier.isStatic( method.getModifiers() ) )
+                {
+                    generated.putIfAbsent( method.getName() + Type.getMethodDescriptor( method ), method );
+                }
+            }
+        }
+        for( Method method : generated.values() )
+        {
+            generateMethod( cw, method, indices.get( signatureOf( method ) ) );
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void generateMethod( ClassWriter cw, Method method, int methodIndex )
+    {
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] exceptions = new String[ exceptionTypes.length ];
+        boolean catchAll = false;
+        for( int i = 0; i < exceptionTypes.length; i++ )
+        {
+            exceptions[ i ] = getInternalName( exceptionTypes[ i ] );
+            catchAll |= exceptionTypes[ i ] == Throwable.class || exceptionTypes[ i ] == Exception.class;
+        }
+
+        MethodVisitor mv = cw.visitMethod( ACC_PUBLIC + ACC_FINAL,
+                                           method.getName(), Type.getMethodDescriptor( method ),
+                                           null, exceptions );
+        mv.visitCode();
+
+        Label start = new Label();
+        Label end = new Label();
+        Label rethrow = new Label();
+        Label wrap = new Label();
+        if( !catchAll )
+        {
+            mv.visitTryCatchBlock( start, end, rethrow, getInternalName( RuntimeException.class ) );
+            mv.visitTryCatchBlock( start, end, rethrow, getInternalName( Error.class ) );
+            for( String exception : exceptions )
+            {
+                mv.visitTryCatchBlock( start, end, rethrow, exception );
+            }
+            mv.visitTryCatchBlock( start, end, wrap, getInternalName( Throwable.class ) );
+        }
+
+        mv.visitLabel( start );
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, PROXY_TYPE, "_dispatcher", Type.getDescriptor( IndexedInvocationHandler.class ) );
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitLdcInsn( methodIndex );
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if( parameterTypes.length == 0 )
+        {
+            mv.visitInsn( ACONST_NULL );
+        }
+        else
+        {
+            mv.visitLdcInsn( parameterTypes.length );
+            mv.visitTypeInsn( ANEWARRAY, "java/lang/Object" );
+            int slot = 1;
+            for( int i = 0; i < parameterTypes.length; i++ )
+            {
+                Type parameterType = Type.getType( parameterTypes[ i ] );
+                mv.visitInsn( DUP );
+                mv.visitLdcInsn( i );
+                mv.visitVarInsn( parameterType.getOpcode( ILOAD ), slot );
+                box( mv, parameterType );
+                mv.visitInsn( AASTORE );
+                slot += parameterType.getSize();
+            }
+        }
+
+        mv.visitMethodInsn( INVOKEINTERFACE, DISPATCHER_TYPE, "invoke", DISPATCH_DESCRIPTOR, true );
+
+        Type returnType = Type.getReturnType( method );
+        if( returnType.getSort() == Type.VOID )
+        {
+            mv.visitInsn( POP );
+            mv.visitLabel( end );
+            mv.visitInsn( RETURN );
+        }
+        else
+        {
+            unbox( mv, returnType );
+            mv.visitLabel( end );
+            mv.visitInsn( returnType.getOpcode( IRETURN ) );
+        }
+
+        if( !catchAll )
+        {
+            mv.visitLabel( rethrow );
+            mv.visitInsn( ATHROW );
+
+            mv.visitLabel( wrap );
+            mv.visitVarInsn( ASTORE, 1 );
+            mv.visitTypeInsn( NEW, getInternalName( UndeclaredThrowableException.class ) );
+            mv.visitInsn( DUP );
+            mv.visitVarInsn( ALOAD, 1 );
+            mv.visitMethodInsn( INVOKESPECIAL, getInternalName( UndeclaredThrowableException.class ),
+                                "<init>", "(Ljava/lang/Throwable;)V", false );
+            mv.visitInsn( ATHROW );
+        }
+
+        mv.visitMaxs( 0, 0 );
+        mv.visitEnd();
+    }
+
+    private static void box( MethodVisitor mv, Type type )
+    {
+        Class<?> wrapper = wrapperOf( type );
+        if( wrapper != null )
+        {
+            mv.visitMethodInsn( INVOKESTATIC, getInternalName( wrapper ), "valueOf",
+                                Type.getMethodDescriptor( Type.getType( wrapper ), type ), false );
+        }
+    }
+
+    private static void unbox( MethodVisitor mv, Type type )
+    {
+        Class<?> wrapper = wrapperOf( type );
+        if( wrapper == null )
+        {
+            if( !"java/lang/Object".equals( type.getInternalName() ) )
+            {
+                mv.visitTypeInsn( CHECKCAST, type.getInternalName() );
+            }
+        }
+        else
+        {
+            mv.visitTypeInsn( CHECKCAST, getInternalName( wrapper ) );
+            mv.visitMethodInsn( INVOKEVIRTUAL, getInternalName( wrapper ), type.getClassName() + "Value",
+                                Type.getMethodDescriptor( type ), false );
+        }
+    }
+
+    private static Class<?> wrapperOf( Type type )
+    {
+        switch( type.getSort() )
+        {
+        case Type.BOOLEAN:
+            return Boolean.class;
+        case Type.BYTE:
+            return Byte.class;
+        case Type.CHAR:
+            return Character.class;
+        case Type.SHORT:
+            return Short.class;
+        case Type.INT:
+            return Integer.class;
+        case Type.LONG:
+            return Long.class;
+        case Type.FLOAT:
+            return Float.class;
+        case Type.DOUBLE:
+            return Double.class;
+        default:
+            return null;
+        }
+    }
+
+    /* package */ static String signatureOf( Method method )
+    {
+        String descriptor = Type.getMethodDescriptor( method );
+        return method.getName() + descriptor.substring( 0, descriptor.indexOf( ')' ) + 1 );
+    }
+}
@@ -89,6 +89,9 @@ public class FragmentClassLoader
 
     static
     {
+        // Modules are assembled concurrently
+        registerAsParallelCapable();
+
         String jdkString = System.getProperty( "java.specification.version" );
         switch( jdkString )
         {
@@ -17,19 +17,155 @@
  *
  *
  */
+
 package org.apache.zest.runtime.composite;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * generates proxyclasses
+ * <p>
+ * Composites use {@link Proxy} classes unless the {@literal zest.proxy.generated} system property is set to
+ * {@literal true}, in which case {@link CompositeProxy} subclasses dispatching by method index are generated.
+ * </p>
  */
-public class ProxyGenerator {
-    public static Class<?> createProxyClass(ClassLoader mainTypeClassLoader, Class<?>[] interfaces) {
+public class ProxyGenerator
+{
+    public static final String GENERATED_PROXIES = "zest.proxy.generated";
+
+    public static Class<?> createProxyClass( ClassLoader mainTypeClassLoader, Class<?>[] interfaces )
+    {
+        return Proxy.getProxyClass( effectiveClassLoader( mainTypeClassLoader ), interfaces );
+    }
+
+    /**
+     * @param interfaces the composite types
+     *
+     * @return true if generated proxies are enabled and can implement the given types
+     */
+    public static boolean generateCompositeProxyClass( Class<?>[] interfaces )
+    {
+        if( !Boolean.getBoolean( GENERATED_PROXIES ) || interfaces[ 0 ].getName().startsWith( "java." ) )
+        {
+            return false;
+        }
+        for( Class<?> type : interfaces )
+        {
+            // Generated classes are defined in their own class loader, they can only implement public types
+            if( !Modifier.isPublic( type.getModifiers() ) )
+            {
+                return false;
+            }
+            // and only cast results to public types
+            for( Method method : type.getMethods() )
+            {
+                if( !isPublic( method.getReturnType() ) )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic( Class<?> type )
+    {
+        while( type.isArray() )
+        {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic( type.getModifiers() );
+    }
+
+    /**
+     * Method table of generated composite proxies. Generated methods dispatch using their index in this table.
+     * <p>
+     * As for {@link Proxy}, {@literal hashCode}, {@literal equals} and {@literal toString} come first and then
+     * the first method found for each name and parameter types in the given interfaces order.
+     * </p>
+     *
+     * @param interfaces the composite types
+     *
+     * @return the proxy method table
+     */
+    public static Method[] proxyMethods( Class<?>[] interfaces )
+    {
+        List<Method> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        try
+        {
+            methods.add( Object.class.getMethod( "hashCode" ) );
+            methods.add( Object.class.getMethod( "equals", Object.class ) );
+            methods.add( Object.class.getMethod( "toString" ) );
+        }
+        catch( NoSuchMethodException e )
+        {
+            throw new InternalError( e.getMessage() );
+        }
+        for( Method method : methods )
+        {
+            signatures.add( CompositeProxyClassLoader.signatureOf( method ) );
+        }
+        for( Class<?> type : interfaces )
+        {
+            for( Method method : type.getMethods() )
+            {
+                if( !Modifier.isStatic( method.getModifiers() )
+                    && signatures.add( CompositeProxyClassLoader.signatureOf( method ) ) )
+                {
+                    methods.add( method );
+                }
+            }
+        }
+        return methods.toArray( new Method[ methods.size() ] );
+    }
+
+    public static Class<?> createCompositeProxyClass( ClassLoader mainTypeClassLoader,
+                                                      Class<?>[] interfaces,
+                                                      Method[] methods
+    )
+        throws ReflectiveOperationException
+    {
+        CompositeProxyClassLoader loader = new CompositeProxyClassLoader( effectiveClassLoader( mainTypeClassLoader ),
+                                                                          interfaces );
+        return loader.defineProxyClass( interfaces, methods );
+    }
+
+    /**
+     * @param proxy a {@link Proxy} or generated composite proxy
+     *
+     * @return the InvocationHandler of the proxy
+     *
+     * @throws IllegalArgumentException if the argument is not a proxy
+     */
+    public static InvocationHandler invocationHandlerOf( Object proxy )
+    {
+        if( proxy instanceof CompositeProxy )
+        {
+            return ( (CompositeProxy) proxy )._instance;
+        }
+        return Proxy.getInvocationHandler( proxy );
+    }
+
+    public static boolean isProxy( Object object )
+    {
+        return object instanceof CompositeProxy || Proxy.isProxyClass( object.getClass() );
+    }
+
+    private static ClassLoader effectiveClassLoader( ClassLoader mainTypeClassLoader )
+    {
         ClassLoader effectiveClassLoader = Thread.currentThread().getContextClassLoader();
-        if (effectiveClassLoader == null) {
+        if( effectiveClassLoader == null )
+        {
             effectiveClassLoader = mainTypeClassLoader;
         }
-        return Proxy.getProxyClass(effectiveClassLoader, interfaces);
+        return effectiveClassLoader;
     }
 }
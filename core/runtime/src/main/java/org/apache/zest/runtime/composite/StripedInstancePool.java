@@ -0,0 +1,115 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.runtime.composite;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Method instance pool striped by thread. Each thread is affine to one stripe
+ * of a few slots, each stripe spanning its own cache line, so threads calling
+ * the same method concurrently do not contend on a single shared head.
+ * <p>
+ * The pool is bounded, instances released to a full stripe are dropped and
+ * left to the garbage collector. Slots are allocated on first release so that
+ * methods that are never invoked do not pay for the pool.
+ * </p>
+ */
+public final class StripedInstancePool
+    implements InstancePool<CompositeMethodInstance>
+{
+    // Slots used in each stripe
+    private static final int SLOTS = 4;
+    // Stripe width in references, 16 compressed references or 8 full ones span a 64 bytes cache line
+    private static final int STRIDE = 16;
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPES;
+    private static final int STRIPE_MASK;
+
+    static
+    {
+        int stripes = 1;
+        int processors = Runtime.getRuntime().availableProcessors();
+        while( stripes < processors && stripes < MAX_STRIPES )
+        {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+        STRIPE_MASK = stripes - 1;
+    }
+
+    private volatile AtomicReferenceArray<CompositeMethodInstance> slots;
+
+    @Override
+    public CompositeMethodInstance obtainInstance()
+    {
+        AtomicReferenceArray<CompositeMethodInstance> slots = this.slots;
+        if( slots == null )
+        {
+            return null;
+        }
+        int base = stripeOffset();
+        for( int idx = base; idx < base + SLOTS; idx++ )
+        {
+            CompositeMethodInstance instance = slots.get( idx );
+            if( instance != null && slots.compareAndSet( idx, instance, null ) )
+            {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void releaseInstance( CompositeMethodInstance instance )
+    {
+        AtomicReferenceArray<CompositeMethodInstance> slots = this.slots;
+        if( slots == null )
+        {
+            slots = allocateSlots();
+        }
+        int base = stripeOffset();
+        for( int idx = base; idx < base + SLOTS; idx++ )
+        {
+            if( slots.get( idx ) == null && slots.compareAndSet( idx, null, instance ) )
+            {
+                return;
+            }
+        }
+        // Stripe is full, drop the instance
+    }
+
+    private synchronized AtomicReferenceArray<CompositeMethodInstance> allocateSlots()
+    {
+        if( slots == null )
+        {
+            slots = new AtomicReferenceArray<>( STRIPES * STRIDE );
+        }
+        return slots;
+    }
+
+    private static int stripeOffset()
+    {
+        // Thread ids are sequential, spread them with the golden ratio multiplier
+        long id = Thread.currentThread().getId();
+        int hash = (int) ( id * 0x9E3779B97F4A7C15L >>> 32 );
+        return ( hash & STRIPE_MASK ) * STRIDE;
+    }
+}
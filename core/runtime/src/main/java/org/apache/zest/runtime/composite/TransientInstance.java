@@ -22,7 +22,6 @@ package org.apache.zest.runtime.composite;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.stream.Stream;
 import org.apache.zest.api.ZestAPI;
@@ -36,11 +35,11 @@ import org.apache.zest.api.structure.ModuleDescriptor;
  * InvocationHandler for proxy objects.
  */
 public class TransientInstance
-    implements CompositeInstance, MixinsInstance
+    implements CompositeInstance, MixinsInstance, IndexedInvocationHandler
 {
     public static TransientInstance compositeInstanceOf( Composite composite )
     {
-        InvocationHandler handler = Proxy.getInvocationHandler( composite );
+        InvocationHandler handler = ProxyGenerator.invocationHandlerOf( composite );
         return (TransientInstance) handler;
     }
 
@@ -68,6 +67,13 @@ public class TransientInstance
         return compositeModel.invoke( this, proxy, method, args );
     }
 
+    @Override
+    public Object invoke( Object proxy, int methodIndex, Object[] args )
+        throws Throwable
+    {
+        return compositeModel.invoke( this, proxy, methodIndex, args );
+    }
+
     @Override
     @SuppressWarnings( "unchecked" )
     public <T> T proxy()
@@ -146,7 +152,7 @@ public class TransientInstance
         {
             return false;
         }
-        if( !Proxy.isProxyClass( o.getClass() ) )
+        if( !ProxyGenerator.isProxy( o ) )
         {
             return false;
         }
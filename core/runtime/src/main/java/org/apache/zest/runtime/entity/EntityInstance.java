@@ -20,7 +20,6 @@
 package org.apache.zest.runtime.entity;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -39,7 +38,9 @@ import org.apache.zest.api.unitofwork.NoSuchEntityException;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkException;
 import org.apache.zest.runtime.composite.CompositeMethodInstance;
+import org.apache.zest.runtime.composite.IndexedInvocationHandler;
 import org.apache.zest.runtime.composite.MixinsInstance;
+import org.apache.zest.runtime.composite.ProxyGenerator;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entity.EntityStatus;
 
@@ -49,11 +50,11 @@ import static java.util.stream.Collectors.toList;
  * Entity instance
  */
 public final class EntityInstance
-    implements CompositeInstance, MixinsInstance
+    implements CompositeInstance, MixinsInstance, IndexedInvocationHandler
 {
     public static EntityInstance entityInstanceOf( EntityComposite composite )
     {
-        return (EntityInstance) Proxy.getInvocationHandler( composite );
+        return (EntityInstance) ProxyGenerator.invocationHandlerOf( composite );
     }
 
     private final EntityComposite proxy;
@@ -85,6 +86,13 @@ public final class EntityInstance
         return entityModel.invoke( this, this.proxy, method, args );
     }
 
+    @Override
+    public Object invoke( Object proxy, int methodIndex, Object[] args )
+        throws Throwable
+    {
+        return entityModel.invoke( this, this.proxy, methodIndex, args );
+    }
+
     public EntityReference reference()
     {
         return reference;
@@ -23,7 +23,6 @@ package org.apache.zest.runtime.injection;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
 import java.util.Collection;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -34,6 +33,7 @@ import org.apache.zest.bootstrap.BindingException;
 import org.apache.zest.bootstrap.InjectionException;
 import org.apache.zest.functional.HierarchicalVisitor;
 import org.apache.zest.functional.VisitableHierarchy;
+import org.apache.zest.runtime.composite.ProxyGenerator;
 import org.apache.zest.runtime.composite.TransientInstance;
 import org.apache.zest.runtime.model.Resolution;
 
@@ -98,9 +98,9 @@ public final class InjectedFieldModel
             {
                 valueClassName = "<null>";
             }
-            else if( Proxy.isProxyClass( value.getClass() ) )
+            else if( ProxyGenerator.isProxy( value ) )
             {
-                InvocationHandler invocationHandler = Proxy.getInvocationHandler( value );
+                InvocationHandler invocationHandler = ProxyGenerator.invocationHandlerOf( value );
                 if( invocationHandler instanceof TransientInstance )
                 {
                     TransientInstance handler = (TransientInstance) invocationHandler;
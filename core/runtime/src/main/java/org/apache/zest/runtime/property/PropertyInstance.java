@@ -172,7 +172,7 @@ public class PropertyInstance<T>
     }
 
     @SuppressWarnings( {"raw", "unchecked"} )
-    public void prepareToBuild( PropertyModel propertyDescriptor )
+    public void prepareToBuild( PropertyModel propertyDescriptor, boolean editNested )
     {
         // Check if state has to be modified
         model = propertyDescriptor.getBuilderInfo();
@@ -181,7 +181,7 @@ public class PropertyInstance<T>
             Object value = get();
             if( value != null )
             {
-                ValueInstance.valueInstanceOf( (ValueComposite) value ).prepareToBuild();
+                set( (T) prepareNestedToBuild( value, editNested ) );
             }
         }
         else if( propertyDescriptor.valueType() instanceof CollectionType )
@@ -190,27 +190,18 @@ public class PropertyInstance<T>
 
             if( value != null )
             {
-                if( value instanceof List )
-                {
-                    value = new ArrayList( (Collection) value );
-                }
-                else if( value instanceof Set )
-                {
-                    value = new LinkedHashSet( (Collection) value );
-                }
-
                 // Check if items are Values
                 CollectionType collection = (CollectionType) propertyDescriptor.valueType();
-                if( collection.collectedType() instanceof ValueCompositeType )
+                boolean values = collection.collectedType() instanceof ValueCompositeType;
+                Collection coll = value instanceof Set
+                                  ? new LinkedHashSet()
+                                  : new ArrayList( ( (Collection) value ).size() );
+                for( Object instance : (Collection) value )
                 {
-                    Collection coll = (Collection) value;
-                    for( Object instance : coll )
-                    {
-                        ValueInstance.valueInstanceOf( (ValueComposite) instance ).prepareToBuild();
-                    }
+                    coll.add( values ? prepareNestedToBuild( instance, editNested ) : instance );
                 }
 
-                set( (T) value );
+                set( (T) coll );
             }
         }
         else if( propertyDescriptor.valueType() instanceof MapType )
@@ -219,30 +210,29 @@ public class PropertyInstance<T>
 
             if( value != null )
             {
-                Map map = new LinkedHashMap( (Map) value );
-
                 // Check if keys/values are Values
                 MapType mapType = (MapType) propertyDescriptor.valueType();
-                if( mapType.keyType() instanceof ValueCompositeType )
+                boolean keys = mapType.keyType() instanceof ValueCompositeType;
+                boolean values = mapType.valueType() instanceof ValueCompositeType;
+                Map map = new LinkedHashMap();
+                for( Map.Entry entry : ( (Map<?, ?>) value ).entrySet() )
                 {
-                    for( Object instance : map.keySet() )
-                    {
-                        ValueInstance.valueInstanceOf( (ValueComposite) instance ).prepareToBuild();
-                    }
-                }
-                if( mapType.valueType() instanceof ValueCompositeType )
-                {
-                    for( Object instance : map.values() )
-                    {
-                        ValueInstance.valueInstanceOf( (ValueComposite) instance ).prepareToBuild();
-                    }
+                    map.put( keys ? prepareNestedToBuild( entry.getKey(), editNested ) : entry.getKey(),
+                             values ? prepareNestedToBuild( entry.getValue(), editNested ) : entry.getValue() );
                 }
 
-                set( (T) value );
+                set( (T) map );
             }
         }
     }
 
+    private static Object prepareNestedToBuild( Object value, boolean editNested )
+    {
+        return value == null
+               ? null
+               : ValueInstance.valueInstanceOf( (ValueComposite) value ).prepareNestedToBuild( editNested );
+    }
+
     @SuppressWarnings( {"raw", "unchecked"} )
     public void prepareBuilderState( PropertyModel propertyDescriptor )
     {
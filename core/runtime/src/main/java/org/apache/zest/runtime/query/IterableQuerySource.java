@@ -20,21 +20,31 @@
 
 package org.apache.zest.runtime.query;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.property.Property;
+import org.apache.zest.api.query.IndexedIterable;
 import org.apache.zest.api.query.grammar.OrderBy;
 import org.apache.zest.api.util.Classes;
-import org.apache.zest.functional.Iterables;
 import org.apache.zest.spi.query.QuerySource;
 
 /**
- * JAVADOC
+ * QuerySource evaluating queries against an in-memory Iterable.
+ * <p>
+ * Items are streamed through the where-clause without being collected. Unordered queries are fully lazy,
+ * ordered queries with maxResults only retain the firstResult + maxResults best items in a bounded heap and
+ * counting never materializes the matches. When the Iterable is an {@link IndexedIterable} its indexes narrow
+ * down the candidates before the where-clause is evaluated.
+ * </p>
  */
 public class IterableQuerySource
     implements QuerySource
@@ -78,10 +88,12 @@ public class IterableQuerySource
                            Map<String, Object> variables
     )
     {
-        return list( resultType, whereClause, orderBySegments, firstResult, maxResults, variables ).size();
+        // Ordering does not change the count
+        return cut( filter( resultType, whereClause ), firstResult, maxResults ).count();
     }
 
     @Override
+    @SuppressWarnings( "unchecked" )
     public <T> Iterator<T> iterator( Class<T> resultType,
                                      Predicate<Composite> whereClause,
                                      Iterable<OrderBy> orderBySegments,
@@ -90,77 +102,97 @@ public class IterableQuerySource
                                      Map<String, Object> variables
     )
     {
-        return list( resultType, whereClause, orderBySegments, firstResult, maxResults, variables ).iterator();
+        Stream<T> matches = filter( resultType, whereClause );
+        if( orderBySegments == null )
+        {
+            return cut( matches, firstResult, maxResults ).iterator();
+        }
+
+        Comparator<T> comparator = new OrderByComparator( orderBySegments );
+        if( maxResults == null )
+        {
+            // Stream sorting is stable, same as the full sort this replaces
+            return cut( matches.sorted( comparator ), firstResult, null ).iterator();
+        }
+
+        long first = firstResult == null ? 0 : Math.max( 0, firstResult );
+        long limit = first + Math.max( 0, maxResults );
+        if( limit > Integer.MAX_VALUE - 1 )
+        {
+            return cut( matches.sorted( comparator ), firstResult, maxResults ).iterator();
+        }
+        List<T> top = top( matches, comparator, (int) limit );
+        return top.subList( (int) Math.min( first, top.size() ), top.size() ).iterator();
     }
 
     @SuppressWarnings( {"raw", "unchecked"} )
-    private <T> List<T> list( Class<T> resultType,
-                              Predicate<Composite> whereClause,
-                              Iterable<OrderBy> orderBySegments,
-                              Integer firstResult,
-                              Integer maxResults,
-                              Map<String, Object> variables
-    )
+    private <T> Stream<T> filter( Class<T> resultType, Predicate whereClause )
     {
-        // Ensure it's a list first
-        List<T> list = filter( resultType, whereClause );
-
-        // Order list
-        if( orderBySegments != null )
+        Iterable source = iterable;
+        if( iterable instanceof IndexedIterable )
         {
-            // Sort it
-            Collections.sort( list, new OrderByComparator( orderBySegments ) );
+            source = ( (IndexedIterable) iterable ).candidatesFor( whereClause );
         }
-
-        // Cut results
-        if( firstResult != null )
+        Predicate<Object> predicate = Classes.instanceOf( resultType );
+        if( whereClause != null )
         {
-            if( firstResult > list.size() )
-            {
-                return Collections.emptyList();
-            }
-
-            int toIdx;
-            if( maxResults != null )
-            {
-                toIdx = Math.min( firstResult + maxResults, list.size() );
-            }
-            else
-            {
-                toIdx = list.size();
-            }
+            predicate = predicate.and( whereClause );
+        }
+        return (Stream<T>) StreamSupport.stream( source.spliterator(), false ).filter( predicate );
+    }
 
-            list = list.subList( firstResult, toIdx );
+    private static <T> Stream<T> cut( Stream<T> stream, Integer firstResult, Integer maxResults )
+    {
+        if( firstResult != null && firstResult > 0 )
+        {
+            stream = stream.skip( firstResult );
         }
-        else
+        if( maxResults != null )
         {
-            int toIdx;
-            if( maxResults != null )
-            {
-                toIdx = Math.min( maxResults, list.size() );
-            }
-            else
-            {
-                toIdx = list.size();
-            }
-
-            list = list.subList( 0, toIdx );
+            stream = stream.limit( Math.max( 0, maxResults ) );
         }
-
-        return list;
+        return stream;
     }
 
-    @SuppressWarnings( {"raw", "unchecked"} )
-    private <T> List<T> filter( Class<T> resultType, Predicate whereClause )
+    /**
+     * Select the {@code limit} smallest items according to the comparator, in order.
+     * Ties are broken by encounter order so the result is the same as a stable sort.
+     */
+    private static <T> List<T> top( Stream<T> stream, Comparator<T> comparator, int limit )
     {
-        if( whereClause == null )
+        if( limit == 0 )
         {
-            return Iterables.toList( Iterables.filter( Classes.instanceOf( resultType ), iterable ) );
+            return Collections.emptyList();
         }
-        else
+        Comparator<Ranked<T>> ranking = ( left, right ) ->
         {
-            return Iterables.toList( Iterables.filter( Classes.instanceOf( resultType ).and( whereClause ), iterable ) );
+            int result = comparator.compare( left.item, right.item );
+            return result != 0 ? result : Long.compare( left.position, right.position );
+        };
+        // Head of the heap is the worst of the retained items
+        PriorityQueue<Ranked<T>> heap = new PriorityQueue<>( Math.min( limit, 1024 ) + 1, ranking.reversed() );
+        long[] position = { 0 };
+        stream.forEachOrdered( item ->
+        {
+            Ranked<T> ranked = new Ranked<>( item, position[ 0 ]++ );
+            if( heap.size() < limit )
+            {
+                heap.add( ranked );
+            }
+            else if( ranking.compare( ranked, heap.peek() ) < 0 )
+            {
+                heap.poll();
+                heap.add( ranked );
+            }
+        } );
+        List<Ranked<T>> ranked = new ArrayList<>( heap );
+        ranked.sort( ranking );
+        List<T> result = new ArrayList<>( ranked.size() );
+        for( Ranked<T> each : ranked )
+        {
+            result.add( each.item );
         }
+        return result;
     }
 
     @Override
@@ -169,6 +201,18 @@ public class IterableQuerySource
         return "IterableQuerySource{" + iterable + '}';
     }
 
+    private static final class Ranked<T>
+    {
+        private final T item;
+        private final long position;
+
+        private Ranked( T item, long position )
+        {
+            this.item = item;
+            this.position = position;
+        }
+    }
+
     private static class OrderByComparator<T extends Composite>
         implements Comparator<T>
     {
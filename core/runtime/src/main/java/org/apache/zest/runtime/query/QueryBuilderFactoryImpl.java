@@ -23,8 +23,8 @@ import org.apache.zest.api.query.NotQueryableException;
 import org.apache.zest.api.query.QueryBuilder;
 import org.apache.zest.api.query.QueryBuilderFactory;
 import org.apache.zest.api.service.NoSuchServiceException;
-import org.apache.zest.api.service.ServiceFinder;
 import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.api.structure.Module;
 import org.apache.zest.api.util.NullArgumentException;
 import org.apache.zest.spi.query.EntityFinder;
 
@@ -34,17 +34,17 @@ import org.apache.zest.spi.query.EntityFinder;
 public final class QueryBuilderFactoryImpl
     implements QueryBuilderFactory
 {
-    private ServiceFinder finder;
+    private Module module;
 
     /**
      * Constructor.
      *
-     * @param finder The ServiceFinder of the Module this QueryBuilderFactory belongs to.
+     * @param module The Module this QueryBuilderFactory belongs to.
      */
-    public QueryBuilderFactoryImpl( ServiceFinder finder )
+    public QueryBuilderFactoryImpl( Module module )
     {
-        NullArgumentException.validateNotNull( "ServiceFinder", finder );
-        this.finder = finder;
+        NullArgumentException.validateNotNull( "Module", module );
+        this.module = module;
     }
 
     /**
@@ -58,12 +58,12 @@ public final class QueryBuilderFactoryImpl
         final ServiceReference<EntityFinder> serviceReference;
         try
         {
-            serviceReference = finder.findService( EntityFinder.class );
-            return new QueryBuilderImpl<T>( serviceReference.get(), resultType, null );
+            serviceReference = module.findService( EntityFinder.class );
+            return new QueryBuilderImpl<T>( module, serviceReference.get(), resultType, null );
         }
         catch( NoSuchServiceException e )
         {
-            return new QueryBuilderImpl<T>( null, resultType, null );
+            return new QueryBuilderImpl<T>( module, null, resultType, null );
         }
     }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.query.Query;
 import org.apache.zest.api.query.QueryBuilder;
 import org.apache.zest.api.query.QueryExpressions;
+import org.apache.zest.api.structure.Module;
 import org.apache.zest.spi.query.EntityFinder;
 import org.apache.zest.spi.query.QueryBuilderSPI;
 import org.apache.zest.spi.query.QuerySource;
@@ -35,6 +36,10 @@ final class QueryBuilderImpl<T>
     implements QueryBuilder<T>, QueryBuilderSPI<T>
 {
 
+    /**
+     * Module the queries are created in.
+     */
+    private final Module module;
     /**
      * Entity finder to be used to locate entities.
      */
@@ -52,15 +57,18 @@ final class QueryBuilderImpl<T>
     /**
      * Constructor.
      *
+     * @param module       module the queries are created in; cannot be null
      * @param entityFinder entity finder to be used to locate entities; canot be null
      * @param resultType   type of queried entities; cannot be null
      * @param whereClause  current where-clause
      */
-    QueryBuilderImpl( final EntityFinder entityFinder,
+    QueryBuilderImpl( final Module module,
+                      final EntityFinder entityFinder,
                       final Class<T> resultType,
                       final Predicate<Composite> whereClause
     )
     {
+        this.module = module;
         this.entityFinder = entityFinder;
         this.resultType = resultType;
         this.whereClause = whereClause;
@@ -78,19 +86,19 @@ final class QueryBuilderImpl<T>
         {
             specification = QueryExpressions.and( this.whereClause, specification );
         }
-        return new QueryBuilderImpl<>( entityFinder, resultType, specification );
+        return new QueryBuilderImpl<>( module, entityFinder, resultType, specification );
     }
 
     @Override
     public Query<T> newQuery( Iterable<T> iterable )
     {
-        return new QueryImpl<>( resultType, whereClause, new IterableQuerySource( iterable ) );
+        return new QueryImpl<>( module, resultType, whereClause, new IterableQuerySource( iterable ) );
     }
 
     // SPI
     @Override
     public Query<T> newQuery( QuerySource querySource )
     {
-        return new QueryImpl<>( resultType, whereClause, querySource );
+        return new QueryImpl<>( module, resultType, whereClause, querySource );
     }
 }
\ No newline at end of file
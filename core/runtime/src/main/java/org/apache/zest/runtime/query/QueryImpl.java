@@ -19,9 +19,13 @@
  */
 package org.apache.zest.runtime.query;
 
+import java.lang.reflect.Member;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.property.Property;
@@ -29,6 +33,8 @@ import org.apache.zest.api.query.Query;
 import org.apache.zest.api.query.QueryExecutionException;
 import org.apache.zest.api.query.QueryExpressions;
 import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
+import org.apache.zest.api.structure.Module;
 import org.apache.zest.functional.Iterables;
 import org.apache.zest.spi.query.QuerySource;
 
@@ -40,9 +46,17 @@ import org.apache.zest.spi.query.QuerySource;
 {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Module the query has been created in.
+     */
+    private final Module module;
     /**
      * Type of queried entities.
      */
+    private final Class<?> queriedType;
+    /**
+     * Type of results, same as the queried type unless projected.
+     */
     private final Class<T> resultType;
     /**
      * Where clause.
@@ -65,21 +79,54 @@ import org.apache.zest.spi.query.QuerySource;
      * Mapping between variable name and variable values.
      */
     private Map<String, Object> variables;
+    /**
+     * Projected properties, null if not projected.
+     */
+    private final PropertyFunction<?>[] projections;
+    /**
+     * Creates results from projected values, null if not projected.
+     */
+    private final Function<Object[], T> projector;
 
     /**
      * Constructor.
      *
+     * @param module      module the query is created in; cannot be null
      * @param resultType  type of queried entities; cannot be null
      * @param whereClause where clause
      */
-    /* package */ QueryImpl( final Class<T> resultType,
+    /* package */ QueryImpl( final Module module,
+               final Class<T> resultType,
                final Predicate<Composite> whereClause,
                final QuerySource querySource
     )
     {
+        this.module = module;
+        this.queriedType = resultType;
         this.resultType = resultType;
         this.whereClause = whereClause;
         this.querySource = querySource;
+        this.projections = null;
+        this.projector = null;
+    }
+
+    private QueryImpl( final QueryImpl<?> query,
+                       final Class<T> resultType,
+                       final PropertyFunction<?>[] projections,
+                       final Function<Object[], T> projector
+    )
+    {
+        this.module = query.module;
+        this.queriedType = query.queriedType;
+        this.resultType = resultType;
+        this.whereClause = query.whereClause;
+        this.querySource = query.querySource;
+        this.orderBySegments = query.orderBySegments;
+        this.firstResult = query.firstResult;
+        this.maxResults = query.maxResults;
+        this.variables = query.variables == null ? null : new HashMap<>( query.variables );
+        this.projections = projections;
+        this.projector = projector;
     }
 
     /**
@@ -182,32 +229,93 @@ import org.apache.zest.spi.query.QuerySource;
     public T find()
         throws QueryExecutionException
     {
-        return querySource.find( resultType, whereClause, orderBySegments, firstResult, maxResults, variables );
+        if( projections == null )
+        {
+            return querySource.find( resultType, whereClause, orderBySegments, firstResult, maxResults, variables );
+        }
+        Iterator<Object[]> found = querySource.projections( queriedType, whereClause, orderBySegments,
+                                                            firstResult, 1, variables, projections );
+        return found.hasNext() ? projector.apply( found.next() ) : null;
     }
 
     @Override
     public long count()
         throws QueryExecutionException
     {
-        return querySource.count( resultType, whereClause, orderBySegments, firstResult, maxResults, variables );
+        return querySource.count( queriedType, whereClause, orderBySegments, firstResult, maxResults, variables );
     }
 
     @Override
     public Iterator<T> iterator()
     {
-        return querySource.iterator( resultType, whereClause, orderBySegments, firstResult, maxResults, variables );
+        if( projections == null )
+        {
+            return querySource.iterator( resultType, whereClause, orderBySegments, firstResult, maxResults, variables );
+        }
+        final Iterator<Object[]> projected = querySource.projections( queriedType, whereClause, orderBySegments,
+                                                                      firstResult, maxResults, variables,
+                                                                      projections );
+        return new Iterator<T>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return projected.hasNext();
+            }
+
+            @Override
+            public T next()
+            {
+                return projector.apply( projected.next() );
+            }
+        };
+    }
+
+    /**
+     * @see org.apache.zest.api.query.Query#select(org.apache.zest.api.query.grammar.PropertyFunction[])
+     */
+    @Override
+    public Query<Object[]> select( PropertyFunction<?>... properties )
+    {
+        return new QueryImpl<>( this, Object[].class, properties.clone(), Function.identity() );
+    }
+
+    /**
+     * @see org.apache.zest.api.query.Query#select(Class, org.apache.zest.api.query.grammar.PropertyFunction[])
+     */
+    @Override
+    public <V> Query<V> select( final Class<V> valueType, PropertyFunction<?>... properties )
+    {
+        final Map<String, Integer> positions = new HashMap<>();
+        for( int idx = 0; idx < properties.length; idx++ )
+        {
+            positions.put( ( (Member) properties[ idx ].accessor() ).getName(), idx );
+        }
+        Function<Object[], V> projector = values -> module.newValueBuilderWithState(
+            valueType,
+            descriptor ->
+            {
+                Integer position = positions.get( descriptor.qualifiedName().name() );
+                return position == null ? descriptor.initialValue( module.descriptor() ) : values[ position ];
+            },
+            descriptor -> null,
+            descriptor -> Collections.emptyList(),
+            descriptor -> Collections.emptyMap()
+        ).newInstance();
+        return new QueryImpl<>( this, valueType, properties.clone(), projector );
     }
 
     @Override
     public String toString()
     {
         return "Query{" +
+               ( projections != null ? " SELECT " + Arrays.toString( projections ) : "" ) +
                " FROM " + querySource +
                " WHERE " + whereClause +
                ( orderBySegments != null ? " ORDER BY " + orderBySegments : "" ) +
                ( firstResult != null ? " FIRST " + firstResult : "" ) +
                ( maxResults != null ? " MAX " + maxResults : "" ) +
-               " EXPECT " + resultType +
+               " EXPECT " + queriedType +
                ( variables != null ? " WITH VARIABLES " + variables : "" ) +
                '}';
     }
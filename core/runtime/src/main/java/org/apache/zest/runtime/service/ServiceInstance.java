@@ -20,7 +20,6 @@
 
 package org.apache.zest.runtime.service;
 
-import java.lang.reflect.Proxy;
 import org.apache.zest.api.activation.Activation;
 import org.apache.zest.api.activation.ActivationException;
 import org.apache.zest.api.activation.PassivationException;
@@ -29,6 +28,7 @@ import org.apache.zest.api.configuration.Enabled;
 import org.apache.zest.api.service.Availability;
 import org.apache.zest.api.service.ServiceComposite;
 import org.apache.zest.api.util.Classes;
+import org.apache.zest.runtime.composite.ProxyGenerator;
 import org.apache.zest.runtime.composite.TransientInstance;
 import org.apache.zest.runtime.composite.TransientStateInstance;
 
@@ -41,7 +41,7 @@ public class ServiceInstance
 {
     public static TransientInstance serviceInstanceOf( ServiceComposite composite )
     {
-        return (TransientInstance) Proxy.getInvocationHandler( composite );
+        return (TransientInstance) ProxyGenerator.invocationHandlerOf( composite );
     }
 
     private final boolean implementsServiceAvailable;
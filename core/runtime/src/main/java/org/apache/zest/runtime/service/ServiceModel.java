@@ -21,18 +21,22 @@ package org.apache.zest.runtime.service;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.apache.zest.api.common.MetaInfo;
 import org.apache.zest.api.common.Visibility;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.identity.HasIdentity;
 import org.apache.zest.api.identity.Identity;
+import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.This;
 import org.apache.zest.api.property.Property;
 import org.apache.zest.api.service.ServiceDescriptor;
+import org.apache.zest.api.service.ServiceReference;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.util.Classes;
 import org.apache.zest.functional.HierarchicalVisitor;
@@ -167,6 +171,27 @@ public final class ServiceModel extends CompositeModel
         return super.toString() + ":" + identity;
     }
 
+    /**
+     * @return Types of the Services injected in this Service with {@literal @Service}
+     */
+    public Stream<Class<?>> serviceDependencyTypes()
+    {
+        return dependencies()
+            .filter( new DependencyModel.ScopeSpecification( Service.class ) )
+            .map( dependencyModel -> {
+                Type type = dependencyModel.injectionType();
+                if( Iterable.class.equals( dependencyModel.rawInjectionType() ) && type instanceof ParameterizedType )
+                {
+                    type = ( (ParameterizedType) type ).getActualTypeArguments()[ 0 ];
+                }
+                if( ServiceReference.class.equals( Classes.RAW_CLASS.apply( type ) ) && type instanceof ParameterizedType )
+                {
+                    type = ( (ParameterizedType) type ).getActualTypeArguments()[ 0 ];
+                }
+                return Classes.RAW_CLASS.apply( type );
+            } );
+    }
+
     @SuppressWarnings( { "raw", "unchecked" } )
     public Class calculateConfigurationType()
     {
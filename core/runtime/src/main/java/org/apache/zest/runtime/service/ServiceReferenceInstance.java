@@ -36,7 +36,10 @@ import org.apache.zest.api.service.ServiceImporterException;
 import org.apache.zest.api.service.ServiceReference;
 import org.apache.zest.api.service.ServiceUnavailableException;
 import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.structure.StartupTimings;
 import org.apache.zest.runtime.activation.ActivationDelegate;
+import org.apache.zest.runtime.composite.IndexedInvocationHandler;
+import org.apache.zest.runtime.composite.ProxyGenerator;
 
 /**
  * Implementation of ServiceReference.
@@ -47,17 +50,26 @@ import org.apache.zest.runtime.activation.ActivationDelegate;
  * Whenever the service is requested a proxy is returned which points to this class. This means
  * that the instance can be passivated even though a client is holding on to a service proxy.
  * </p>
+ * <p>
+ * Once activated, the service instance is published and invocations on the proxy dispatch directly to it.
+ * With generated proxies, see {@link ProxyGenerator}, they also dispatch by method index and skip the method lookup.
+ * Invocations made while the service is activating wait for the activation to complete, except from the
+ * activating thread.
+ * </p>
  * @param <T> Service Type
  */
 public final class ServiceReferenceInstance<T>
     implements ServiceReference<T>, Activation, ModelDescriptor
 {
-    private volatile ServiceInstance instance;
+    // Set while activating and until passivated, guarded by this reference's lock
+    private ServiceInstance instance;
+    // Published once activated, null while inactive, only written while holding this reference's lock
+    private volatile ServiceInstance activeInstance;
     private final T serviceProxy;
     private final ModuleDescriptor module;
     private final ServiceModel serviceModel;
     private final ActivationDelegate activation = new ActivationDelegate( this );
-    private boolean active = false;
+    private volatile boolean active = false;
 
     ServiceReferenceInstance( ServiceModel serviceModel, ModuleDescriptor module )
     {
@@ -128,13 +140,26 @@ public final class ServiceReferenceInstance<T>
     public void passivate()
         throws PassivationException
     {
-        if( instance != null )
+        // Wait for an activation in progress, passivators may then invoke the service from other threads
+        ServiceInstance passivating;
+        synchronized( this )
+        {
+            passivating = instance;
+        }
+        if( passivating != null )
         {
             try {
                 activation.passivate( () -> active = false );
             } finally {
-                instance = null;
-                active = false;
+                synchronized( this )
+                {
+                    if( instance == passivating )
+                    {
+                        activeInstance = null;
+                        instance = null;
+                        active = false;
+                    }
+                }
             }
         }
     }
@@ -142,31 +167,43 @@ public final class ServiceReferenceInstance<T>
     private ServiceInstance getInstance()
         throws ServiceImporterException
     {
-        // DCL that works with Java 1.5 volatile semantics
-        if( instance == null )
+        ServiceInstance current = activeInstance;
+        if( current != null )
+        {
+            return current;
+        }
+        synchronized( this )
         {
-            synchronized( this )
+            if( instance == null )
             {
-                if( instance == null )
-                {
-                    instance = serviceModel.newInstance( module );
+                long activationStart = System.nanoTime();
+                instance = serviceModel.newInstance( module );
 
-                    try
-                    {
-                        activation.activate( serviceModel.newActivatorsInstance( module ),
-                                             instance,
-                                             () -> active = true );
-                    }
-                    catch( Exception e )
-                    {
-                        instance = null;
-                        throw new ServiceUnavailableException( "Could not activate service " + serviceModel.identity(), e );
-                    }
+                try
+                {
+                    activation.activate( serviceModel.newActivatorsInstance( module ),
+                                         instance,
+                                         () -> active = true );
+                }
+                catch( Exception e )
+                {
+                    instance = null;
+                    throw new ServiceUnavailableException( "Could not activate service " + serviceModel.identity(), e );
                 }
+                recordActivation( System.nanoTime() - activationStart );
+                activeInstance = instance;
             }
+            return instance;
         }
+    }
 
-        return instance;
+    private void recordActivation( long durationNanos )
+    {
+        StartupTimings timings = module.layer().instance().application().metaInfo( StartupTimings.class );
+        if( timings != null )
+        {
+            timings.recordService( serviceModel.identity(), durationNanos );
+        }
     }
 
     @Override
@@ -199,7 +236,7 @@ public final class ServiceReferenceInstance<T>
     }
 
     public final class ServiceInvocationHandler
-        implements CompositeInstance
+        implements CompositeInstance, IndexedInvocationHandler
     {
         @Override
         @SuppressWarnings( "unchecked" )
@@ -275,6 +312,18 @@ public final class ServiceReferenceInstance<T>
             return instance.invoke( object, method, objects );
         }
 
+        @Override
+        public Object invoke( Object object, int methodIndex, Object[] objects )
+            throws Throwable
+        {
+            Method method = serviceModel.proxyMethod( methodIndex );
+            if( method.getDeclaringClass().equals( Object.class ) )
+            {
+                return invoke( object, method, objects );
+            }
+            return getInstance().invoke( object, methodIndex, objects );
+        }
+
         @Override
         public String toString()
         {
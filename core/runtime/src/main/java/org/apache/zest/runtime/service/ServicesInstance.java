@@ -19,7 +19,10 @@
  */
 package org.apache.zest.runtime.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.apache.zest.api.activation.Activation;
 import org.apache.zest.api.activation.ActivationEventListener;
@@ -28,11 +31,15 @@ import org.apache.zest.api.activation.ActivationException;
 import org.apache.zest.api.activation.PassivationException;
 import org.apache.zest.api.common.Visibility;
 import org.apache.zest.api.service.ServiceDescriptor;
+import org.apache.zest.api.service.ServiceActivationMode;
 import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.api.structure.Layer;
+import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.functional.Iterables;
 import org.apache.zest.runtime.activation.ActivationDelegate;
 import org.apache.zest.runtime.activation.ActivatorsInstance;
 
+import static java.util.stream.Collectors.toList;
 import static org.apache.zest.api.util.Classes.instanceOf;
 import static org.apache.zest.functional.Iterables.filter;
 
@@ -43,12 +50,16 @@ public class ServicesInstance
     implements Activation, ActivationEventListenerRegistration
 {
     private final ServicesModel servicesModel;
+    private final ModuleDescriptor module;
     private final List<ServiceReference<?>> serviceReferences;
     private final ActivationDelegate activation = new ActivationDelegate( this, false );
 
-    public ServicesInstance( ServicesModel servicesModel, List<ServiceReference<?>> serviceReferences )
+    public ServicesInstance( ServicesModel servicesModel,
+                             ModuleDescriptor module,
+                             List<ServiceReference<?>> serviceReferences )
     {
         this.servicesModel = servicesModel;
+        this.module = module;
         this.serviceReferences = serviceReferences;
         for( ServiceReference serviceReference : serviceReferences )
         {
@@ -65,8 +76,97 @@ public class ServicesInstance
     public void activate()
         throws ActivationException
     {
-        Iterable<Activation> activatees = Iterables.<Activation>cast( filter( instanceOf( Activation.class ), serviceReferences ) );
-        activation.activate( ActivatorsInstance.EMPTY, activatees );
+        if( activationMode() == ServiceActivationMode.PARALLEL )
+        {
+            Map<Activation, List<Activation>> dependencies = dependencyGraph();
+            activation.activateConcurrently( ActivatorsInstance.EMPTY, dependencies.keySet(), dependencies::get );
+        }
+        else
+        {
+            Iterable<Activation> activatees = Iterables.<Activation>cast( filter( instanceOf( Activation.class ), serviceReferences ) );
+            activation.activate( ActivatorsInstance.EMPTY, activatees );
+        }
+    }
+
+    private ServiceActivationMode activationMode()
+    {
+        ServiceActivationMode mode = module.instance().metaInfo( ServiceActivationMode.class );
+        if( mode == null )
+        {
+            Layer layer = module.layer().instance();
+            mode = layer.metaInfo( ServiceActivationMode.class );
+            if( mode == null )
+            {
+                mode = layer.application().metaInfo( ServiceActivationMode.class );
+            }
+        }
+        return mode == null ? ServiceActivationMode.SEQUENTIAL : mode;
+    }
+
+    /**
+     * Dependencies between the Services of this Module, in activation order.
+     * <p>
+     * Services are ordered after the Services they get injected with {@literal @Service}, or in declaration order
+     * if they are part of, or depend on, a dependency cycle.
+     * </p>
+     */
+    private Map<Activation, List<Activation>> dependencyGraph()
+    {
+        Map<ServiceReferenceInstance<?>, List<ServiceReferenceInstance<?>>> injected = new LinkedHashMap<>();
+        for( ServiceReference<?> reference : serviceReferences )
+        {
+            ServiceReferenceInstance<?> service = (ServiceReferenceInstance<?>) reference;
+            List<Class<?>> types = ( (ServiceModel) service.serviceDescriptor() ).serviceDependencyTypes()
+                .collect( toList() );
+            List<ServiceReferenceInstance<?>> serviceDependencies = new ArrayList<>();
+            for( ServiceReference<?> candidate : serviceReferences )
+            {
+                ServiceReferenceInstance<?> dependency = (ServiceReferenceInstance<?>) candidate;
+                if( dependency != service && types.stream().anyMatch( dependency::isAssignableTo ) )
+                {
+                    serviceDependencies.add( dependency );
+                }
+            }
+            injected.put( service, serviceDependencies );
+        }
+
+        Map<Activation, List<Activation>> ordered = new LinkedHashMap<>();
+        boolean progress = true;
+        while( progress )
+        {
+            progress = false;
+            for( Map.Entry<ServiceReferenceInstance<?>, List<ServiceReferenceInstance<?>>> entry : injected.entrySet() )
+            {
+                if( !ordered.containsKey( entry.getKey() ) && ordered.keySet().containsAll( entry.getValue() ) )
+                {
+                    ordered.put( entry.getKey(), new ArrayList<>( entry.getValue() ) );
+                    progress = true;
+                }
+            }
+        }
+
+        Activation previous = null;
+        for( Map.Entry<ServiceReferenceInstance<?>, List<ServiceReferenceInstance<?>>> entry : injected.entrySet() )
+        {
+            if( !ordered.containsKey( entry.getKey() ) )
+            {
+                List<Activation> dependencies = new ArrayList<>();
+                for( ServiceReferenceInstance<?> dependency : entry.getValue() )
+                {
+                    if( ordered.containsKey( dependency ) )
+                    {
+                        dependencies.add( dependency );
+                    }
+                }
+                if( previous != null )
+                {
+                    dependencies.add( previous );
+                }
+                ordered.put( entry.getKey(), dependencies );
+                previous = entry.getKey();
+            }
+        }
+        return ordered;
     }
 
     @Override
@@ -51,7 +51,7 @@ public class ServicesModel
             serviceReferences.add( serviceReferenceInstance );
         }
 
-        return new ServicesInstance( this, serviceReferences );
+        return new ServicesInstance( this, module, serviceReferences );
     }
 
     @Override
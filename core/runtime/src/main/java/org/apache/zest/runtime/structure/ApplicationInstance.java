@@ -30,6 +30,7 @@ import org.apache.zest.api.structure.Application;
 import org.apache.zest.api.structure.ApplicationDescriptor;
 import org.apache.zest.api.structure.Layer;
 import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.structure.StartupTimings;
 import org.apache.zest.bootstrap.ZestRuntime;
 import org.apache.zest.runtime.activation.ActivationDelegate;
 
@@ -137,7 +138,13 @@ public class ApplicationInstance
     public void activate()
         throws ActivationException
     {
+        long activationStart = System.nanoTime();
         activation.activate( applicationModel.newActivatorsInstance(), layerInstances );
+        StartupTimings timings = instanceMetaInfo.get( StartupTimings.class );
+        if( timings != null )
+        {
+            timings.record( StartupTimings.Phase.ACTIVATION, System.nanoTime() - activationStart );
+        }
     }
 
     @Override
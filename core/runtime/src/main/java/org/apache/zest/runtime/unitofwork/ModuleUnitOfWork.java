@@ -21,6 +21,8 @@
 package org.apache.zest.runtime.unitofwork;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -31,6 +33,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.zest.api.ZestAPI;
+import org.apache.zest.api.association.AbstractAssociation;
 import org.apache.zest.api.association.AssociationDescriptor;
 import org.apache.zest.api.association.AssociationStateHolder;
 import org.apache.zest.api.association.ManyAssociation;
@@ -55,6 +58,7 @@ import org.apache.zest.api.query.Query;
 import org.apache.zest.api.query.QueryBuilder;
 import org.apache.zest.api.query.QueryExecutionException;
 import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
 import org.apache.zest.api.service.NoSuchServiceException;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.unitofwork.ConcurrentEntityModificationException;
@@ -84,6 +88,7 @@ import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.module.ModuleSpi;
 import org.apache.zest.spi.query.EntityFinder;
 import org.apache.zest.spi.query.EntityFinderException;
+import org.apache.zest.spi.query.ProjectionFinder;
 import org.apache.zest.spi.query.QueryBuilderSPI;
 import org.apache.zest.spi.query.QuerySource;
 
@@ -303,6 +308,65 @@ public class ModuleUnitOfWork
         return uow.get( EntityReference.create( identity ), this, models, type );
     }
 
+    @Override
+    public <T> List<T> get( Class<T> type, Iterable<Identity> identities )
+        throws NoSuchEntityTypeException, NoSuchEntityException
+    {
+        Iterable<? extends EntityDescriptor> models = module.typeLookup().lookupEntityModels( type );
+
+        if( !models.iterator().hasNext() )
+        {
+            throw new NoSuchEntityTypeException( type.getName(), module.name(), module.typeLookup() );
+        }
+
+        List<EntityReference> references = new ArrayList<>();
+        for( Identity identity : identities )
+        {
+            references.add( EntityReference.create( identity ) );
+        }
+        Map<EntityReference, T> entities = uow.getAll( references, this, models );
+        List<T> result = new ArrayList<>( references.size() );
+        for( EntityReference reference : references )
+        {
+            T entity = entities.get( reference );
+            if( entity == null )
+            {
+                throw new NoSuchEntityException( reference, type, usecase() );
+            }
+            result.add( entity );
+        }
+        return result;
+    }
+
+    @Override
+    public void prefetch( ManyAssociation<?> association )
+        throws NoSuchEntityTypeException
+    {
+        prefetch( association, association.references() );
+    }
+
+    @Override
+    public void prefetch( NamedAssociation<?> association )
+        throws NoSuchEntityTypeException
+    {
+        prefetch( association, association.references() );
+    }
+
+    private void prefetch( AbstractAssociation association, Iterable<EntityReference> references )
+    {
+        Class<?> type = (Class<?>) api.associationDescriptorFor( association ).type();
+        Iterable<? extends EntityDescriptor> models = module.typeLookup().lookupEntityModels( type );
+
+        if( !models.iterator().hasNext() )
+        {
+            throw new NoSuchEntityTypeException( type.getName(), module.name(), module.typeLookup() );
+        }
+
+        List<EntityReference> toLoad = new ArrayList<>();
+        references.forEach( toLoad::add );
+        uow.getAll( toLoad, this, models );
+    }
+
     @Override
     @SuppressWarnings( "unchecked" )
     public <T> T get( T entity )
@@ -450,6 +514,7 @@ public class ModuleUnitOfWork
         @SuppressWarnings( "unchecked" )
         Class<T> primaryType = (Class<T>) api.associationDescriptorFor( association ).type();
 
+        prefetch( association );
         return association
             .toMap()
             .entrySet()
@@ -463,6 +528,7 @@ public class ModuleUnitOfWork
         @SuppressWarnings( "unchecked" )
         Class<T> primaryType = (Class<T>) api.associationDescriptorFor( association ).type();
 
+        prefetch( association );
         return association
             .toList()
             .stream()
@@ -476,6 +542,7 @@ public class ModuleUnitOfWork
         @SuppressWarnings( "unchecked" )
         Class<T> primaryType = (Class<T>) api.associationDescriptorFor( association ).type();
 
+        prefetch( association );
         return association
             .toSet()
             .stream()
@@ -644,6 +711,83 @@ public class ModuleUnitOfWork
             }
         }
 
+        @Override
+        public <T> Iterator<Object[]> projections( final Class<T> resultType,
+                                                   Predicate<Composite> whereClause,
+                                                   Iterable<OrderBy> orderBySegments,
+                                                   Integer firstResult,
+                                                   Integer maxResults,
+                                                   Map<String, Object> variables,
+                                                   final PropertyFunction<?>[] projections
+        )
+        {
+            EntityFinder entityFinder = moduleUnitOfWork.module().instance().findService( EntityFinder.class ).get();
+            if( !( entityFinder instanceof ProjectionFinder ) )
+            {
+                return QuerySource.super.projections( resultType, whereClause, orderBySegments,
+                                                      firstResult, maxResults, variables, projections );
+            }
+
+            try
+            {
+                final Iterator<Object[]> foundRows =
+                    ( (ProjectionFinder) entityFinder ).findProjections(
+                        resultType,
+                        whereClause,
+                        Iterables.toArray( OrderBy.class, orderBySegments ),
+                        firstResult,
+                        maxResults,
+                        variables == null ? Collections.emptyMap() : variables,
+                        projections
+                    ).iterator();
+
+                return new Iterator<Object[]>()
+                {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return foundRows.hasNext();
+                    }
+
+                    @Override
+                    public Object[] next()
+                    {
+                        Object[] row = foundRows.next();
+                        EntityReference reference = (EntityReference) row[ 0 ];
+                        Object[] values = Arrays.copyOfRange( row, 1, row.length );
+                        // Entities of this UnitOfWork may have changes the index does not know about yet
+                        boolean load = moduleUnitOfWork.uow.isCached( reference );
+                        for( int idx = 0; idx < values.length && !load; idx++ )
+                        {
+                            load = values[ idx ] == ProjectionFinder.UNAVAILABLE;
+                        }
+                        if( load )
+                        {
+                            T entity = null;
+                            try
+                            {
+                                entity = moduleUnitOfWork.get( resultType, reference.identity() );
+                            }
+                            catch( NoSuchEntityException e )
+                            {
+                                // Index is out of sync - entity has been removed
+                            }
+                            for( int idx = 0; idx < values.length; idx++ )
+                            {
+                                Property<?> property = entity == null ? null : projections[ idx ].apply( (Composite) entity );
+                                values[ idx ] = property == null ? null : property.get();
+                            }
+                        }
+                        return values;
+                    }
+                };
+            }
+            catch( EntityFinderException e )
+            {
+                throw new QueryExecutionException( "Query '" + toString() + "' could not be executed", e );
+            }
+        }
+
         @Override
         public String toString()
         {
@@ -24,8 +24,10 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import org.apache.zest.api.common.MetaInfo;
 import org.apache.zest.api.entity.EntityComposite;
@@ -188,6 +190,53 @@ public final class UnitOfWorkInstance
         return entityInstance.proxy();
     }
 
+    public <T> Map<EntityReference, T> getAll( Collection<EntityReference> references,
+                                               UnitOfWork uow,
+                                               Iterable<? extends EntityDescriptor> potentialModels
+    )
+        throws NoSuchEntityTypeException
+    {
+        checkOpen();
+
+        Map<EntityReference, T> entities = new HashMap<>();
+        Set<EntityReference> toLoad = new LinkedHashSet<>();
+        for( EntityReference reference : references )
+        {
+            EntityInstance entityInstance = instanceCache.get( reference );
+            if( entityInstance == null )
+            {   // Not yet in cache
+                toLoad.add( reference );
+            }
+            else if( entityInstance.status() != EntityStatus.REMOVED )
+            {
+                entities.put( reference, entityInstance.proxy() );
+            }
+        }
+
+        // Fetch the state of all the missing entities from each potential EntityStore at once
+        for( EntityDescriptor potentialModel : potentialModels )
+        {
+            if( toLoad.isEmpty() )
+            {
+                break;
+            }
+            EntityStore store = ((ModuleSpi) potentialModel.module().instance()).entityStore();
+            EntityStoreUnitOfWork storeUow = getEntityStoreUnitOfWork( store );
+            Map<EntityReference, EntityState> entityStates = storeUow.entityStatesOf( potentialModel.module(),
+                                                                                      new ArrayList<>( toLoad ) );
+            for( Map.Entry<EntityReference, EntityState> entry : entityStates.entrySet() )
+            {
+                EntityModel model = (EntityModel) entry.getValue().entityDescriptor();
+                EntityInstance entityInstance = new EntityInstance( uow, model, entry.getValue() );
+                instanceCache.put( entry.getKey(), entityInstance );
+                entities.put( entry.getKey(), entityInstance.proxy() );
+            }
+            toLoad.removeAll( entityStates.keySet() );
+        }
+
+        return entities;
+    }
+
     public Usecase usecase()
     {
         return usecase;
@@ -475,6 +524,11 @@ public final class UnitOfWorkInstance
         instanceCache.remove( entityReference );
     }
 
+    public boolean isCached( EntityReference entityReference )
+    {
+        return instanceCache.containsKey( entityReference );
+    }
+
     private void startCapture()
     {
         getMetricsCounter().increment();
@@ -82,6 +82,7 @@ public final class ValueBuilderInstance<T>
         {
             throw new NoSuchValueException( valueType.getName(), currentModule.name(), currentModule.typeLookup() );
         }
-        return new ValueBuilderWithPrototype<>( valueModel, currentModule, prototype() ).newInstance();
+        // The copy is not exposed, nested values are not edited through it
+        return new ValueBuilderWithPrototype<>( valueModel, currentModule, prototype(), false ).newInstance();
     }
 }
@@ -52,6 +52,15 @@ public class ValueBuilderWithPrototype<T>
                                       ModuleInstance currentModule,
                                       T prototype
     )
+    {
+        this( compositeModelModule, currentModule, prototype, true );
+    }
+
+    ValueBuilderWithPrototype( ValueDescriptor compositeModelModule,
+                               ModuleInstance currentModule,
+                               T prototype,
+                               boolean editNested
+    )
     {
         valueModel = (ValueModel) compositeModelModule;
         // Only shallow clone, as all generic types of the ValueComposites are expected to be Immutable.
@@ -94,7 +103,7 @@ public class ValueBuilderWithPrototype<T>
 //        }
 
 //        ValueInstance valueInstance = ValueInstance.valueInstanceOf( (ValueComposite) value );
-        valueInstance.prepareToBuild();
+        valueInstance.prepareToBuild( editNested );
         this.prototypeInstance = valueInstance;
     }
 
@@ -133,7 +142,7 @@ public class ValueBuilderWithPrototype<T>
 
         try
         {
-            return prototypeInstance.<T>proxy();
+            return valueModel.intern( prototypeInstance.<T>proxy() );
         }
         finally
         {
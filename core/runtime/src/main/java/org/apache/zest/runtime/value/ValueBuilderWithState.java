@@ -37,7 +37,8 @@ public class ValueBuilderWithState<T> implements ValueBuilder<T>
     {
         ValueStateInstance state = new ValueStateInstance( compositeModelModule, currentModule, stateResolver );
         ValueInstance instance = ((ValueModel) compositeModelModule).newValueInstance( state );
-        instance.prepareToBuild();
+        // Nested values come built from the state, e.g. when deserializing, leave them as is
+        instance.prepareToBuild( false );
         this.model = compositeModelModule;
         this.prototypeInstance = instance;
     }
@@ -78,7 +79,7 @@ public class ValueBuilderWithState<T> implements ValueBuilder<T>
 
         try
         {
-            return prototypeInstance.<T>proxy();
+            return ( (ValueModel) model ).intern( prototypeInstance.<T>proxy() );
         }
         finally
         {
@@ -19,16 +19,17 @@
  */
 package org.apache.zest.runtime.value;
 
-import java.lang.reflect.Proxy;
 import org.apache.zest.api.composite.CompositeInstance;
 import org.apache.zest.api.value.ValueComposite;
 import org.apache.zest.runtime.association.AssociationModel;
 import org.apache.zest.runtime.association.ManyAssociationModel;
 import org.apache.zest.runtime.association.NamedAssociationModel;
 import org.apache.zest.runtime.composite.MixinsInstance;
+import org.apache.zest.runtime.composite.ProxyGenerator;
 import org.apache.zest.runtime.composite.TransientInstance;
 import org.apache.zest.runtime.property.PropertyInstance;
 import org.apache.zest.runtime.property.PropertyModel;
+import org.apache.zest.runtime.structure.ModuleInstance;
 import org.apache.zest.spi.module.ModuleSpi;
 
 /**
@@ -40,9 +41,13 @@ public final class ValueInstance
 {
     public static ValueInstance valueInstanceOf( ValueComposite composite )
     {
-        return (ValueInstance) Proxy.getInvocationHandler( composite );
+        return (ValueInstance) ProxyGenerator.invocationHandlerOf( composite );
     }
 
+    // Hash code memoized once the value is built and immutable, 0 if not computed
+    private int hashCode;
+    private boolean immutable;
+
     public ValueInstance( ValueModel compositeModel,
                           Object[] mixins,
                           ValueStateInstance state
@@ -69,14 +74,19 @@ public final class ValueInstance
         {
             return true;
         }
-        if( o == null || !Proxy.isProxyClass( o.getClass() ) )
+        if( o == null || !ProxyGenerator.isProxy( o ) )
         {
             return false;
         }
 
         try
         {
-            ValueInstance that = (ValueInstance) Proxy.getInvocationHandler( o );
+            ValueInstance that = (ValueInstance) ProxyGenerator.invocationHandlerOf( o );
+            // Memoized hash codes inequality
+            if( hashCode != 0 && that.hashCode != 0 && hashCode != that.hashCode )
+            {
+                return false;
+            }
             // Descriptor equality
             if( !descriptor().equals( that.descriptor() ) )
             {
@@ -108,11 +118,27 @@ public final class ValueInstance
      */
     public void prepareToBuild()
     {
+        prepareToBuild( true );
+    }
+
+    /**
+     * When a ValueBuilder is about to start, ensure that all state has builder infos, i.e. they are mutable.
+     * <p>
+     * Built values are shared with other values, and possibly interned, so built values nested in this one are
+     * copied to be edited instead of being made mutable, which would also reset their memoized hash code.
+     * </p>
+     *
+     * @param editNested true if nested values are to be edited through this one, false to leave built ones as is
+     */
+    public void prepareToBuild( boolean editNested )
+    {
+        immutable = false;
+        hashCode = 0;
         descriptor().state().properties().forEach( propertyDescriptor -> {
             PropertyInstance<Object> propertyInstance =
                 (PropertyInstance<Object>) state.propertyFor( propertyDescriptor.accessor() );
 
-            propertyInstance.prepareToBuild( propertyDescriptor );
+            propertyInstance.prepareToBuild( propertyDescriptor, editNested );
         } );
 
         descriptor().state().associations().forEach( associationDescriptor -> {
@@ -131,6 +157,29 @@ public final class ValueInstance
         } );
     }
 
+    /**
+     * When a ValueBuilder is about to start with this value nested in its prototype, get a mutable version of it.
+     *
+     * @param editNested true if nested values are to be edited, see {@link #prepareToBuild(boolean)}
+     *
+     * @return This value if built and not to be edited, a copy prepared to build if built, otherwise this value
+     *         prepared to build
+     */
+    public ValueComposite prepareNestedToBuild( boolean editNested )
+    {
+        if( immutable )
+        {
+            if( !editNested )
+            {
+                return proxy();
+            }
+            ModuleInstance module = (ModuleInstance) module().instance();
+            return new ValueBuilderWithPrototype<>( descriptor(), module, this.<ValueComposite>proxy() ).prototype();
+        }
+        prepareToBuild( editNested );
+        return proxy();
+    }
+
     /**
      * When a ValueBuilder is finished and is about to instantiate a Value, call this to ensure that the state has correct
      * settings, i.e. is immutable.
@@ -154,18 +203,32 @@ public final class ValueInstance
         descriptor().state().namedAssociations().forEach( associationDescriptor -> {
             state().namedAssociationFor( associationDescriptor.accessor() ).setAssociationInfo( associationDescriptor );
         } );
+
+        immutable = true;
     }
 
     /**
      * Calculate hash code.
+     * <p>
+     * Values are immutable once built so their hash code is computed only once.
+     * </p>
      *
      * @return the hashcode of this instance.
      */
     @Override
     public int hashCode()
     {
-        int hash = compositeModel.hashCode() * 23; // Descriptor
-        return hash + state.hashCode() * 5; // State
+        int hash = hashCode;
+        if( hash == 0 )
+        {
+            hash = compositeModel.hashCode() * 23; // Descriptor
+            hash += state.hashCode() * 5; // State
+            if( immutable )
+            {
+                hashCode = hash;
+            }
+        }
+        return hash;
     }
 
     @Override
@@ -20,12 +20,16 @@
 
 package org.apache.zest.runtime.value;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import org.apache.zest.api.common.MetaInfo;
 import org.apache.zest.api.common.Visibility;
 import org.apache.zest.api.constraint.ConstraintViolationException;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.type.ValueCompositeType;
+import org.apache.zest.api.value.Interned;
 import org.apache.zest.api.value.ValueDescriptor;
 import org.apache.zest.runtime.composite.CompositeMethodsModel;
 import org.apache.zest.runtime.composite.CompositeModel;
@@ -43,6 +47,9 @@ public final class ValueModel extends CompositeModel
 {
     private ValueCompositeType valueType;
 
+    // Weakly held values of @Interned types, null otherwise
+    private final Map<Object, WeakReference<Object>> internedValues;
+
     public ValueModel( final ModuleDescriptor module,
                        final List<Class<?>> types,
                        final Visibility visibility,
@@ -55,6 +62,7 @@ public final class ValueModel extends CompositeModel
         super( module, types, visibility, metaInfo, mixinsModel, stateModel, compositeMethodsModel );
 
         valueType = new ValueCompositeType( this );
+        internedValues = metaInfo.get( Interned.class ) == null ? null : new WeakHashMap<>();
     }
 
     @Override
@@ -95,6 +103,27 @@ public final class ValueModel extends CompositeModel
         );
     }
 
+    // This method is ONLY called by ValueBuilders, with built values
+    @SuppressWarnings( "unchecked" )
+    <T> T intern( T value )
+    {
+        if( internedValues == null )
+        {
+            return value;
+        }
+        synchronized( internedValues )
+        {
+            WeakReference<Object> reference = internedValues.get( value );
+            Object interned = reference == null ? null : reference.get();
+            if( interned != null )
+            {
+                return (T) interned;
+            }
+            internedValues.put( value, new WeakReference<>( value ) );
+            return value;
+        }
+    }
+
     public ValueInstance newValueInstance( ValueStateInstance state )
     {
         Object[] mixins = mixinsModel.newMixinHolder();
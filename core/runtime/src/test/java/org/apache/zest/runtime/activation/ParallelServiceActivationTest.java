@@ -0,0 +1,191 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.activation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.zest.api.activation.ActivatorAdapter;
+import org.apache.zest.api.identity.StringIdentity;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceActivationMode;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.StartupTimings;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelServiceActivationTest
+{
+    private static final List<String> EVENTS = Collections.synchronizedList( new ArrayList<>() );
+    private static final Set<String> ACTIVATION_THREADS = Collections.synchronizedSet( new HashSet<>() );
+
+    public static class RecordingActivator
+        extends ActivatorAdapter<ServiceReference<?>>
+    {
+        @Override
+        public void afterActivation( ServiceReference<?> activated )
+        {
+            EVENTS.add( "activated " + activated.identity() );
+            ACTIVATION_THREADS.add( Thread.currentThread().getName() );
+        }
+
+        @Override
+        public void beforePassivation( ServiceReference<?> passivating )
+        {
+            EVENTS.add( "passivating " + passivating.identity() );
+        }
+    }
+
+    @Mixins( Store.Mixin.class )
+    public interface Store
+    {
+        String name();
+
+        class Mixin
+            implements Store
+        {
+            @Override
+            public String name()
+            {
+                return "store";
+            }
+        }
+    }
+
+    @Mixins( Index.Mixin.class )
+    public interface Index
+    {
+        String name();
+
+        class Mixin
+            implements Index
+        {
+            @Service
+            private Store store;
+
+            @Override
+            public String name()
+            {
+                return "index of " + store.name();
+            }
+        }
+    }
+
+    @Mixins( Web.Mixin.class )
+    public interface Web
+    {
+        String name();
+
+        class Mixin
+            implements Web
+        {
+            @Service
+            private Iterable<ServiceReference<Index>> indexes;
+
+            @Override
+            public String name()
+            {
+                return "web on " + indexes.iterator().next().get().name();
+            }
+        }
+    }
+
+    @Mixins( Cache.Mixin.class )
+    public interface Cache
+    {
+        class Mixin
+            implements Cache
+        {
+        }
+    }
+
+    @Test
+    public void givenDependentServicesWhenActivatingInParallelThenDependenciesFirstAndPassivationInReverse()
+        throws Exception
+    {
+        EVENTS.clear();
+        ACTIVATION_THREADS.clear();
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.layer().application().setMetaInfo( ServiceActivationMode.PARALLEL );
+                // Declared in reverse dependency order on purpose
+                module.services( Web.class ).identifiedBy( "web" )
+                      .withActivators( RecordingActivator.class ).instantiateOnStartup();
+                module.services( Index.class ).identifiedBy( "index" )
+                      .withActivators( RecordingActivator.class ).instantiateOnStartup();
+                module.services( Cache.class ).identifiedBy( "cache" )
+                      .withActivators( RecordingActivator.class ).instantiateOnStartup();
+                module.services( Store.class ).identifiedBy( "store" )
+                      .withActivators( RecordingActivator.class ).instantiateOnStartup();
+            }
+        };
+        Application application = assembler.application();
+
+        assertThat( EVENTS.size(), equalTo( 4 ) );
+        assertTrue( EVENTS.indexOf( "activated store" ) < EVENTS.indexOf( "activated index" ) );
+        assertTrue( EVENTS.indexOf( "activated index" ) < EVENTS.indexOf( "activated web" ) );
+        assertThat( assembler.module().findService( Web.class ).get().name(), equalTo( "web on index of store" ) );
+        assertTrue( ACTIVATION_THREADS.stream().allMatch( name -> name.startsWith( "zest-activation-" ) ) );
+        assertTrue( "Activation threads should end once activation is done", awaitNoActivationThreads() );
+
+        StartupTimings timings = application.metaInfo( StartupTimings.class );
+        assertThat( timings.serviceDurations().keySet(), equalTo( new HashSet<>( asList(
+            new StringIdentity( "web" ), new StringIdentity( "index" ),
+            new StringIdentity( "cache" ), new StringIdentity( "store" ) ) ) ) );
+
+        EVENTS.clear();
+        application.passivate();
+
+        assertThat( EVENTS.size(), equalTo( 4 ) );
+        assertTrue( EVENTS.indexOf( "passivating web" ) < EVENTS.indexOf( "passivating index" ) );
+        assertTrue( EVENTS.indexOf( "passivating index" ) < EVENTS.indexOf( "passivating store" ) );
+    }
+
+    private static boolean awaitNoActivationThreads()
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while( System.currentTimeMillis() < deadline )
+        {
+            if( Thread.getAllStackTraces().keySet().stream()
+                      .noneMatch( thread -> thread.getName().startsWith( "zest-activation-" ) ) )
+            {
+                return true;
+            }
+            Thread.sleep( 10 );
+        }
+        return false;
+    }
+}
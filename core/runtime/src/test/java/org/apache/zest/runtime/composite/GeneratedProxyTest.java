@@ -0,0 +1,344 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.composite;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import org.apache.zest.api.ZestAPI;
+import org.apache.zest.api.activation.Activation;
+import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueComposite;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test composites using generated proxy classes.
+ */
+public class GeneratedProxyTest
+    extends AbstractZestTest
+{
+    private static String previous;
+
+    @BeforeClass
+    public static void enableGeneratedProxies()
+    {
+        previous = System.setProperty( ProxyGenerator.GENERATED_PROXIES, "true" );
+    }
+
+    @AfterClass
+    public static void restoreProxies()
+    {
+        if( previous == null )
+        {
+            System.clearProperty( ProxyGenerator.GENERATED_PROXIES );
+        }
+        else
+        {
+            System.setProperty( ProxyGenerator.GENERATED_PROXIES, previous );
+        }
+    }
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.transients( Calculator.class );
+        module.values( Point.class );
+        module.entities( Counter.class );
+        module.services( Sequence.class );
+    }
+
+    @Test
+    public void givenTransientWhenInvokingThenArgumentsAndResultsAreConverted()
+        throws Exception
+    {
+        Calculator calculator = transientBuilderFactory.newTransient( Calculator.class );
+        assertThat( calculator, instanceOf( CompositeProxy.class ) );
+        assertThat( calculator.add( 40, 2L ), equalTo( 42L ) );
+        assertThat( calculator.half( 5.0d ), equalTo( 2.5d ) );
+        assertTrue( calculator.positive( (short) 1 ) );
+        assertArrayEquals( new int[]{ 3, 2, 1 }, calculator.reverse( new int[]{ 1, 2, 3 } ) );
+        assertThat( calculator.describe( 'x', 42 ), equalTo( "x:42" ) );
+        calculator.reset();
+        assertThat( calculator.toString(), equalTo( "Calculator" ) );
+        assertThat( ZestAPI.FUNCTION_DESCRIPTOR_FOR.apply( calculator ).primaryType(), equalTo( Calculator.class ) );
+        assertThat( TransientInstance.compositeInstanceOf( calculator ).proxy(), equalTo( calculator ) );
+        assertThat( ZestAPI.FUNCTION_COMPOSITE_INSTANCE_OF.apply( calculator ).<Calculator>proxy(), equalTo( calculator ) );
+    }
+
+    @Test
+    public void givenTransientWhenThrowingThenDeclaredExceptionsAreRethrownAndOthersWrapped()
+    {
+        Calculator calculator = transientBuilderFactory.newTransient( Calculator.class );
+        try
+        {
+            calculator.failDeclared();
+            fail( "Expected IOException" );
+        }
+        catch( IOException e )
+        {
+            assertThat( e.getMessage(), equalTo( "declared" ) );
+        }
+        try
+        {
+            calculator.failUndeclared();
+            fail( "Expected UndeclaredThrowableException" );
+        }
+        catch( UndeclaredThrowableException e )
+        {
+            assertThat( e.getCause(), instanceOf( IOException.class ) );
+        }
+        try
+        {
+            calculator.failUnchecked();
+            fail( "Expected IllegalStateException" );
+        }
+        catch( IllegalStateException e )
+        {
+            assertThat( e.getMessage(), equalTo( "unchecked" ) );
+        }
+    }
+
+    @Test
+    public void givenValuesWhenComparingThenValueSemanticsApply()
+    {
+        assertThat( newPoint( 1, 2 ), instanceOf( CompositeProxy.class ) );
+        assertThat( newPoint( 1, 2 ), equalTo( newPoint( 1, 2 ) ) );
+        assertThat( newPoint( 1, 2 ).hashCode(), equalTo( newPoint( 1, 2 ).hashCode() ) );
+        assertThat( newPoint( 1, 2 ).equals( newPoint( 2, 1 ) ), equalTo( false ) );
+    }
+
+    @Test
+    public void givenEntityWhenUpdatingThenStateIsStored()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            EntityBuilder<Counter> builder = uow.newEntityBuilder( Counter.class );
+            builder.instance().count().set( 0 );
+            Counter counter = builder.newInstance();
+            assertThat( counter, instanceOf( CompositeProxy.class ) );
+            counter.count().set( 3 );
+            assertThat( counter.count().get(), equalTo( 3 ) );
+            assertThat( uow.get( counter ), equalTo( counter ) );
+        }
+    }
+
+    @Test
+    public void givenServiceWhenInvokingAcrossReactivationThenReferenceDispatchesToActiveInstance()
+        throws Exception
+    {
+        ServiceReference<Sequence> reference = serviceFinder.findService( Sequence.class );
+        Sequence sequence = reference.get();
+        assertThat( sequence, instanceOf( CompositeProxy.class ) );
+        assertThat( sequence.next(), equalTo( 1 ) );
+        assertThat( sequence.next(), equalTo( 2 ) );
+        assertTrue( sequence.equals( sequence ) );
+        assertThat( sequence.hashCode(), equalTo( sequence.hashCode() ) );
+
+        ( (Activation) reference ).passivate();
+        assertThat( reference.isActive(), equalTo( false ) );
+
+        assertThat( sequence.next(), equalTo( 1 ) );
+        assertTrue( reference.isActive() );
+    }
+
+    @Test
+    public void givenNotPublicTypesWhenGeneratingProxyClassThenReflectiveProxiesAreUsed()
+    {
+        // Generated classes live in their own class loader, they can neither implement nor cast to these types
+        assertFalse( ProxyGenerator.generateCompositeProxyClass( new Class<?>[]{ Hidden.class } ) );
+        assertFalse( ProxyGenerator.generateCompositeProxyClass( new Class<?>[]{ Revealing.class } ) );
+        assertTrue( ProxyGenerator.generateCompositeProxyClass( new Class<?>[]{ Calculator.class } ) );
+    }
+
+    private Point newPoint( int x, int y )
+    {
+        ValueBuilder<Point> builder = valueBuilderFactory.newValueBuilder( Point.class );
+        builder.prototype().x().set( x );
+        builder.prototype().y().set( y );
+        return builder.newInstance();
+    }
+
+    @Mixins( CalculatorMixin.class )
+    public interface Calculator
+        extends TransientComposite
+    {
+        long add( int a, long b );
+
+        double half( double value );
+
+        boolean positive( short value );
+
+        int[] reverse( int[] values );
+
+        String describe( char prefix, Object value );
+
+        void reset();
+
+        void failDeclared()
+            throws IOException;
+
+        void failUndeclared();
+
+        void failUnchecked();
+    }
+
+    public static abstract class CalculatorMixin
+        implements Calculator
+    {
+        @Override
+        public long add( int a, long b )
+        {
+            return a + b;
+        }
+
+        @Override
+        public double half( double value )
+        {
+            return value / 2;
+        }
+
+        @Override
+        public boolean positive( short value )
+        {
+            return value > 0;
+        }
+
+        @Override
+        public int[] reverse( int[] values )
+        {
+            int[] reversed = new int[ values.length ];
+            for( int idx = 0; idx < values.length; idx++ )
+            {
+                reversed[ idx ] = values[ values.length - 1 - idx ];
+            }
+            return reversed;
+        }
+
+        @Override
+        public String describe( char prefix, Object value )
+        {
+            return prefix + ":" + value;
+        }
+
+        @Override
+        public void reset()
+        {
+        }
+
+        @Override
+        public void failDeclared()
+            throws IOException
+        {
+            throw new IOException( "declared" );
+        }
+
+        @Override
+        public void failUndeclared()
+        {
+            sneakyThrow( new IOException( "undeclared" ) );
+        }
+
+        @Override
+        public void failUnchecked()
+        {
+            throw new IllegalStateException( "unchecked" );
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Calculator";
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private static <T extends Throwable> void sneakyThrow( Throwable throwable )
+            throws T
+        {
+            throw (T) throwable;
+        }
+    }
+
+    interface Hidden
+        extends TransientComposite
+    {
+        String name();
+    }
+
+    public interface Revealing
+        extends TransientComposite
+    {
+        Hidden[] hidden();
+    }
+
+    public interface Point
+        extends ValueComposite
+    {
+        Property<Integer> x();
+
+        Property<Integer> y();
+    }
+
+    public interface Counter
+        extends EntityComposite
+    {
+        Property<Integer> count();
+    }
+
+    @Mixins( SequenceMixin.class )
+    public interface Sequence
+    {
+        int next();
+    }
+
+    public static class SequenceMixin
+        implements Sequence
+    {
+        private int current;
+
+        @Override
+        public int next()
+        {
+            return ++current;
+        }
+    }
+}
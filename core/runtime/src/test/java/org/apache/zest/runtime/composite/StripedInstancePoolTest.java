@@ -0,0 +1,106 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.composite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class StripedInstancePoolTest
+{
+    @Test
+    public void givenEmptyPoolWhenObtainingThenReturnNull()
+    {
+        assertThat( new StripedInstancePool().obtainInstance(), nullValue() );
+    }
+
+    @Test
+    public void givenReleasedInstanceWhenObtainingFromSameThreadThenReuseIt()
+    {
+        StripedInstancePool pool = new StripedInstancePool();
+        CompositeMethodInstance instance = newInstance();
+        pool.releaseInstance( instance );
+        assertThat( pool.obtainInstance(), sameInstance( instance ) );
+        assertThat( pool.obtainInstance(), nullValue() );
+    }
+
+    @Test
+    public void givenManyThreadsWhenObtainingAndReleasingThenNoInstanceIsShared()
+        throws Exception
+    {
+        StripedInstancePool pool = new StripedInstancePool();
+        Set<CompositeMethodInstance> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger shared = new AtomicInteger();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for( int thread = 0; thread < threads; thread++ )
+            {
+                tasks.add( () -> {
+                    for( int iteration = 0; iteration < 10000; iteration++ )
+                    {
+                        CompositeMethodInstance instance = pool.obtainInstance();
+                        if( instance == null )
+                        {
+                            instance = newInstance();
+                        }
+                        if( !inUse.add( instance ) )
+                        {
+                            shared.incrementAndGet();
+                        }
+                        inUse.remove( instance );
+                        pool.releaseInstance( instance );
+                    }
+                    return null;
+                } );
+            }
+            for( Future<Void> result : executor.invokeAll( tasks ) )
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertThat( shared.get(), equalTo( 0 ) );
+        assertTrue( inUse.isEmpty() );
+    }
+
+    private static CompositeMethodInstance newInstance()
+    {
+        return new CompositeMethodInstance( null, null, null, 0 );
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.entity;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.activation.Activation;
+import org.apache.zest.api.common.QualifiedName;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.identity.Identity;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.service.ServiceReference;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entitystore.StateChangeListener;
+import org.apache.zest.spi.entitystore.StateChangeQueue;
+import org.apache.zest.spi.entitystore.StateChangeQueuePolicy;
+import org.apache.zest.spi.entitystore.StateChangeQueueService;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.apache.zest.bootstrap.ImportedServiceDeclaration.NEW_OBJECT;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class StateChangeQueueTest
+    extends AbstractZestTest
+{
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private File replayLog;
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.entities( Item.class );
+        replayLog = new File( tmpDir.getRoot(), "replay.log" );
+        module.services( StateChangeQueueService.class )
+              .setMetaInfo( new StateChangeQueuePolicy().withMaximumBatchDelay( Duration.ZERO )
+                                                        .withMaximumRetries( 0 )
+                                                        .withReplayLog( replayLog.toPath() ) );
+        module.importedServices( RecordingListener.class ).importedBy( NEW_OBJECT );
+        module.objects( RecordingListener.class );
+    }
+
+    @Before
+    public void resetListener()
+    {
+        RecordingListener.batches.clear();
+        RecordingListener.entered = new CountDownLatch( 1 );
+        RecordingListener.proceed = new CountDownLatch( 0 );
+        RecordingListener.failing = false;
+        RecordingListener.failingName = null;
+    }
+
+    @Test
+    public void givenBusyListenerWhenChangingSameEntityExpectCoalescedChanges()
+        throws Exception
+    {
+        StateChangeQueue queue = serviceFinder.findService( StateChangeQueue.class ).get();
+        RecordingListener.proceed = new CountDownLatch( 1 );
+
+        Identity first = createItem( "first" );
+        assertTrue( RecordingListener.entered.await( 5, TimeUnit.SECONDS ) );
+
+        // Listener is blocked on the first batch, these changes wait in the queue
+        updateItem( first, "first-updated" );
+        updateItem( first, "first-updated-again" );
+        createItem( "second" );
+        Identity third = createItem( "third" );
+        removeItem( third );
+        assertThat( queue.pending(), equalTo( 3 ) );
+
+        RecordingListener.proceed.countDown();
+        assertTrue( queue.flush( Duration.ofSeconds( 5 ) ) );
+
+        assertThat( RecordingListener.batches.size(), equalTo( 2 ) );
+        assertThat( RecordingListener.batches.get( 0 ), equalTo( "NEW:first" ) );
+        assertThat( RecordingListener.batches.get( 1 ), equalTo( "UPDATED:first-updated-again,NEW:second" ) );
+        assertThat( queue.lag(), equalTo( Duration.ZERO ) );
+    }
+
+    @Test
+    public void givenFailingListenerWhenCommittingExpectChangeKeptInReplayLog()
+        throws Exception
+    {
+        StateChangeQueue queue = serviceFinder.findService( StateChangeQueue.class ).get();
+        RecordingListener.failing = true;
+
+        Identity identity = createItem( "failing" );
+        assertTrue( queue.flush( Duration.ofSeconds( 5 ) ) );
+
+        String log = new String( Files.readAllBytes( replayLog.toPath() ), "UTF-8" );
+        assertThat( log, containsString( "+\t1\tNEW\t" ) );
+        assertThat( log, containsString( identity.toString() ) );
+    }
+
+    @Test
+    public void givenPartiallyAcknowledgedEntityWhenReactivatingExpectNewerChangeReplayed()
+        throws Exception
+    {
+        ServiceReference<StateChangeQueue> reference = serviceFinder.findService( StateChangeQueue.class );
+        StateChangeQueue queue = reference.get();
+        CountDownLatch firstProceed = new CountDownLatch( 1 );
+        RecordingListener.proceed = firstProceed;
+
+        Identity first = createItem( "first" );
+        assertTrue( RecordingListener.entered.await( 5, TimeUnit.SECONDS ) );
+
+        // Queued while the creation is being delivered, its acknowledgement must not cover this change
+        updateItem( first, "first-updated" );
+        RecordingListener.entered = new CountDownLatch( 1 );
+        RecordingListener.proceed = new CountDownLatch( 1 );
+        RecordingListener.failingName = "first-updated";
+        firstProceed.countDown();
+
+        // Fail the update while another change waits, so the replay log is not compacted
+        assertTrue( RecordingListener.entered.await( 5, TimeUnit.SECONDS ) );
+        createItem( "second" );
+        RecordingListener.proceed.countDown();
+        assertTrue( queue.flush( Duration.ofSeconds( 5 ) ) );
+        assertThat( RecordingListener.batches, equalTo( Arrays.asList( "NEW:first", "NEW:second" ) ) );
+
+        RecordingListener.batches.clear();
+        RecordingListener.failingName = null;
+        ( (Activation) reference ).passivate();
+        assertThat( reference.isActive(), equalTo( false ) );
+
+        // Reactivation replays the log
+        assertTrue( queue.flush( Duration.ofSeconds( 5 ) ) );
+        assertTrue( reference.isActive() );
+        assertThat( RecordingListener.batches, equalTo( Collections.singletonList( "UPDATED:first-updated" ) ) );
+    }
+
+    private Identity createItem( String name )
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            EntityBuilder<Item> builder = uow.newEntityBuilder( Item.class );
+            builder.instance().name().set( name );
+            Identity identity = builder.newInstance().identity().get();
+            uow.complete();
+            return identity;
+        }
+    }
+
+    private void updateItem( Identity identity, String name )
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            uow.get( Item.class, identity ).name().set( name );
+            uow.complete();
+        }
+    }
+
+    private void removeItem( Identity identity )
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            uow.remove( uow.get( Item.class, identity ) );
+            uow.complete();
+        }
+    }
+
+    public interface Item
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+
+    public static class RecordingListener
+        implements StateChangeListener
+    {
+        private static final QualifiedName NAME = QualifiedName.fromClass( Item.class, "name" );
+        private static final List<String> batches = new CopyOnWriteArrayList<>();
+        private static volatile CountDownLatch entered;
+        private static volatile CountDownLatch proceed;
+        private static volatile boolean failing;
+        private static volatile String failingName;
+
+        @Override
+        public void notifyChanges( Iterable<EntityState> changedStates )
+        {
+            entered.countDown();
+            try
+            {
+                proceed.await( 5, TimeUnit.SECONDS );
+            }
+            catch( InterruptedException e )
+            {
+                throw new IllegalStateException( e );
+            }
+            if( failing )
+            {
+                throw new IllegalStateException( "Failing on purpose" );
+            }
+            List<String> changes = new ArrayList<>();
+            for( EntityState state : changedStates )
+            {
+                if( failingName != null && failingName.equals( state.propertyValueOf( NAME ) ) )
+                {
+                    throw new IllegalStateException( "Failing on purpose" );
+                }
+                changes.add( state.status() + ":" + state.propertyValueOf( NAME ) );
+            }
+            batches.add( String.join( ",", changes ) );
+        }
+    }
+}
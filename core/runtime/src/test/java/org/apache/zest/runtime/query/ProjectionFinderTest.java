@@ -0,0 +1,228 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.identity.StringIdentity;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.query.Query;
+import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.query.EntityFinder;
+import org.apache.zest.spi.query.ProjectionFinder;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.zest.api.query.QueryExpressions.property;
+import static org.apache.zest.api.query.QueryExpressions.templateFor;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Projections answered by a {@link ProjectionFinder}.
+ */
+public class ProjectionFinderTest
+    extends AbstractZestTest
+{
+    /**
+     * Identity to indexed name, only names are stored in the index.
+     */
+    private static final Map<String, String> INDEX = new LinkedHashMap<>();
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.entities( Car.class );
+        module.services( TestProjectionFinder.class );
+    }
+
+    @Before
+    public void createCars()
+        throws Exception
+    {
+        INDEX.clear();
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            newCar( uow, "1", "Volvo", 5 );
+            newCar( uow, "2", "Smart", 2 );
+            uow.complete();
+        }
+    }
+
+    @Test
+    public void givenIndexedPropertyWhenProjectedExpectValuesFromIndex()
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            Car car = templateFor( Car.class );
+            Query<Object[]> query = uow.newQuery( queryBuilderFactory.newQueryBuilder( Car.class ) )
+                .select( property( car.name() ) );
+
+            assertThat( names( query ), equalTo( "indexed Volvo, indexed Smart" ) );
+        }
+    }
+
+    @Test
+    public void givenNotIndexedPropertyWhenProjectedExpectValuesFromEntities()
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            Car car = templateFor( Car.class );
+            Query<Object[]> query = uow.newQuery( queryBuilderFactory.newQueryBuilder( Car.class ) )
+                .select( property( car.name() ), property( car.seats() ) );
+
+            List<Integer> seats = new ArrayList<>();
+            for( Object[] values : query )
+            {
+                seats.add( (Integer) values[ 1 ] );
+            }
+            assertThat( names( query ), equalTo( "Volvo, Smart" ) );
+            assertThat( seats.toString(), equalTo( "[5, 2]" ) );
+        }
+    }
+
+    @Test
+    public void givenEntityChangedInUnitOfWorkWhenProjectedExpectChangedValue()
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            uow.get( Car.class, new StringIdentity( "2" ) ).name().set( "Fiat" );
+            Car car = templateFor( Car.class );
+            Query<Object[]> query = uow.newQuery( queryBuilderFactory.newQueryBuilder( Car.class ) )
+                .select( property( car.name() ) );
+
+            assertThat( names( query ), equalTo( "indexed Volvo, Fiat" ) );
+        }
+    }
+
+    private static String names( Query<Object[]> query )
+    {
+        String names = "";
+        for( Object[] values : query )
+        {
+            names = names.isEmpty() ? (String) values[ 0 ] : names + ", " + values[ 0 ];
+        }
+        return names;
+    }
+
+    private static void newCar( UnitOfWork uow, String identity, String name, int seats )
+    {
+        EntityBuilder<Car> builder = uow.newEntityBuilder( Car.class, new StringIdentity( identity ) );
+        builder.instance().name().set( name );
+        builder.instance().seats().set( seats );
+        builder.newInstance();
+        INDEX.put( identity, "indexed " + name );
+    }
+
+    public interface Car
+        extends EntityComposite
+    {
+        Property<String> name();
+
+        Property<Integer> seats();
+    }
+
+    @Mixins( TestProjectionFinderMixin.class )
+    public interface TestProjectionFinder
+        extends EntityFinder, ProjectionFinder
+    {
+    }
+
+    public static abstract class TestProjectionFinderMixin
+        implements TestProjectionFinder
+    {
+        @Override
+        public Iterable<EntityReference> findEntities( Class<?> resultType,
+                                                       Predicate<Composite> whereClause,
+                                                       OrderBy[] orderBySegments,
+                                                       Integer firstResult,
+                                                       Integer maxResults,
+                                                       Map<String, Object> variables
+        )
+        {
+            List<EntityReference> references = new ArrayList<>();
+            for( String identity : INDEX.keySet() )
+            {
+                references.add( EntityReference.parseEntityReference( identity ) );
+            }
+            return references;
+        }
+
+        @Override
+        public EntityReference findEntity( Class<?> resultType,
+                                           Predicate<Composite> whereClause,
+                                           Map<String, Object> variables
+        )
+        {
+            return findEntities( resultType, whereClause, null, null, null, variables ).iterator().next();
+        }
+
+        @Override
+        public long countEntities( Class<?> resultType,
+                                   Predicate<Composite> whereClause,
+                                   Map<String, Object> variables
+        )
+        {
+            return INDEX.size();
+        }
+
+        @Override
+        public Iterable<Object[]> findProjections( Class<?> resultType,
+                                                   Predicate<Composite> whereClause,
+                                                   OrderBy[] orderBySegments,
+                                                   Integer firstResult,
+                                                   Integer maxResults,
+                                                   Map<String, Object> variables,
+                                                   PropertyFunction<?>[] projections
+        )
+        {
+            List<Object[]> rows = new ArrayList<>();
+            for( Map.Entry<String, String> entry : INDEX.entrySet() )
+            {
+                Object[] row = new Object[ projections.length + 1 ];
+                row[ 0 ] = EntityReference.parseEntityReference( entry.getKey() );
+                for( int idx = 0; idx < projections.length; idx++ )
+                {
+                    row[ idx + 1 ] = "name".equals( ProjectionFinder.entityPropertyName( projections[ idx ] ) )
+                                     ? ProjectionFinder.toProjectedValue( projections[ idx ], entry.getValue() )
+                                     : ProjectionFinder.UNAVAILABLE;
+                }
+                rows.add( row );
+            }
+            return rows;
+        }
+    }
+}
@@ -22,11 +22,15 @@ package org.apache.zest.runtime.query;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import org.junit.Before;
 import org.junit.Test;
+import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.composite.TransientBuilder;
 import org.apache.zest.api.composite.TransientComposite;
+import org.apache.zest.api.common.UseDefaults;
 import org.apache.zest.api.property.Property;
+import org.apache.zest.api.query.IndexedIterable;
 import org.apache.zest.api.query.Query;
 import org.apache.zest.api.query.QueryBuilder;
 import org.apache.zest.bootstrap.AssemblyException;
@@ -37,9 +41,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.apache.zest.api.query.QueryExpressions.and;
+import static org.apache.zest.api.query.QueryExpressions.eq;
 import static org.apache.zest.api.query.QueryExpressions.ge;
 import static org.apache.zest.api.query.QueryExpressions.lt;
+import static org.apache.zest.api.query.QueryExpressions.or;
 import static org.apache.zest.api.query.QueryExpressions.orderBy;
+import static org.apache.zest.api.query.QueryExpressions.property;
 import static org.apache.zest.api.query.QueryExpressions.templateFor;
 
 /**
@@ -54,6 +61,7 @@ public class QueryBuilderFactoryImplTest
         throws AssemblyException
     {
         module.transients( TestComposite.class );
+        module.values( TestSummary.class );
     }
 
     @Before
@@ -135,6 +143,91 @@ public class QueryBuilderFactoryImplTest
         verifyOrder( query, "34" );
     }
 
+    @Test
+    public void givenOrderedQueryWhenPagedExpectTopResultsInOrder()
+    {
+        Query<TestComposite> query = queryBuilderFactory.newQueryBuilder( TestComposite.class ).newQuery( composites );
+        TestComposite template = templateFor( TestComposite.class );
+        query.orderBy( orderBy( template.b() ) ).firstResult( 1 ).maxResults( 3 );
+        verifyOrder( query, "234" );
+    }
+
+    @Test
+    public void givenOrderedQueryWhenMaxedResultExpectStableOrder()
+    {
+        Query<TestComposite> query = queryBuilderFactory.newQueryBuilder( TestComposite.class ).newQuery( composites );
+        TestComposite template = templateFor( TestComposite.class );
+        query.orderBy( orderBy( template.a() ) ).maxResults( 3 );
+        verifyOrder( query, "612" );
+    }
+
+    @Test
+    public void givenIndexedIterableWhenQueryByEqualityExpectIndexedResult()
+    {
+        TestComposite template = templateFor( TestComposite.class );
+        IndexedIterable<TestComposite> indexed = IndexedIterable.of( composites ).withHashIndex( template.a() );
+        Predicate<Composite> where = eq( template.a(), "A" );
+
+        assertThat( count( indexed.candidatesFor( where ) ), equalTo( 2 ) );
+        verifyOrder( queryBuilderFactory.newQueryBuilder( TestComposite.class ).where( where ).newQuery( indexed ), "61" );
+    }
+
+    @Test
+    public void givenIndexedIterableWhenQueryByRangeExpectIndexedResult()
+    {
+        TestComposite template = templateFor( TestComposite.class );
+        IndexedIterable<TestComposite> indexed = IndexedIterable.of( composites ).withSortedIndex( template.b() );
+        Predicate<Composite> where = or( lt( template.b(), 2 ), and( ge( template.b(), 4 ), eq( template.a(), "C" ) ) );
+
+        assertThat( count( indexed.candidatesFor( where ) ), equalTo( 4 ) );
+        verifyOrder( queryBuilderFactory.newQueryBuilder( TestComposite.class ).where( where ).newQuery( indexed ), "41" );
+    }
+
+    @Test
+    public void givenOrderedQueryWhenProjectedExpectPropertyValuesInOrder()
+    {
+        Query<TestComposite> query = queryBuilderFactory.newQueryBuilder( TestComposite.class ).newQuery( composites );
+        TestComposite template = templateFor( TestComposite.class );
+        query.orderBy( orderBy( template.b() ) ).maxResults( 2 );
+        Query<Object[]> projection = query.select( property( template.a() ), property( template.b() ) );
+
+        String actual = "";
+        for( Object[] values : projection )
+        {
+            actual = actual + values[ 0 ] + values[ 1 ];
+        }
+        assertThat( actual, equalTo( "A1B2" ) );
+        assertThat( projection.find()[ 0 ], equalTo( "A" ) );
+    }
+
+    @Test
+    public void givenWhereQueryWhenProjectedToValueExpectValues()
+    {
+        TestComposite template = templateFor( TestComposite.class );
+        Query<TestSummary> query = queryBuilderFactory.newQueryBuilder( TestComposite.class )
+            .where( eq( template.a(), "C" ) )
+            .newQuery( composites )
+            .select( TestSummary.class, property( template.b() ) );
+
+        String actual = "";
+        for( TestSummary summary : query )
+        {
+            actual = actual + summary.b().get() + summary.c().get();
+        }
+        assertThat( actual, equalTo( "3c4c" ) );
+        assertThat( query.count(), equalTo( 2L ) );
+    }
+
+    private static int count( Iterable<?> iterable )
+    {
+        int count = 0;
+        for( Object ignored : iterable )
+        {
+            count++;
+        }
+        return count;
+    }
+
     private void verifyOrder( Query<TestComposite> query, String expected )
     {
         String actual = "";
@@ -164,4 +257,12 @@ public class QueryBuilderFactoryImplTest
 
         Property<Integer> b();
     }
+
+    public interface TestSummary
+    {
+        Property<Integer> b();
+
+        @UseDefaults( "c" )
+        Property<String> c();
+    }
 }
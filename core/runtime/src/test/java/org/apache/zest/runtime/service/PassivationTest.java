@@ -21,7 +21,10 @@
 package org.apache.zest.runtime.service;
 
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
+import org.apache.zest.api.activation.Activation;
 import org.apache.zest.api.activation.ActivatorAdapter;
 import org.apache.zest.api.activation.PassivationException;
 import org.apache.zest.api.mixin.Mixins;
@@ -143,6 +146,77 @@ public class PassivationTest
         assembly.application().passivate();
     }
 
+    @Test
+    public void givenActivatingServiceWhenPassivatingConcurrentlyExpectPassivationToWaitForActivation()
+        throws Exception
+    {
+        SingletonAssembler assembly = new SingletonAssembler()
+        {
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.addServices( DataAccessService.class ).withActivators( SlowActivationActivator.class );
+            }
+        };
+        SlowActivationActivator.activating = new CountDownLatch( 1 );
+        SlowActivationActivator.proceed = new CountDownLatch( 1 );
+
+        ServiceReference<DataAccess> service = assembly.module().findService( DataAccess.class );
+        Thread invoking = new Thread( () -> service.get().data() );
+        invoking.start();
+        assertTrue( SlowActivationActivator.activating.await( 5, TimeUnit.SECONDS ) );
+
+        Thread passivating = new Thread( () ->
+        {
+            try
+            {
+                ( (Activation) service ).passivate();
+            }
+            catch( Exception e )
+            {
+                throw new IllegalStateException( e );
+            }
+        } );
+        passivating.start();
+        long deadline = System.currentTimeMillis() + 1000;
+        while( passivating.getState() != Thread.State.BLOCKED && passivating.isAlive()
+               && System.currentTimeMillis() < deadline )
+        {
+            Thread.sleep( 1 );
+        }
+        SlowActivationActivator.proceed.countDown();
+        invoking.join( 5000 );
+        passivating.join( 5000 );
+
+        assertFalse( "Service should be passivated after the concurrent activation", service.isActive() );
+        assertTrue( "Invocation should reach a freshly activated instance", service.get().data().activated );
+        assertTrue( service.isActive() );
+        assembly.application().passivate();
+    }
+
+    @Test
+    public void givenPassivatorInvokingServiceFromAnotherThreadWhenPassivatingExpectNoDeadlock()
+        throws Exception
+    {
+        SingletonAssembler assembly = new SingletonAssembler()
+        {
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.addServices( DataAccessService.class ).withActivators( OtherThreadPassivationActivator.class );
+            }
+        };
+
+        ServiceReference<DataAccess> service = assembly.module().findService( DataAccess.class );
+        assertTrue( service.get().data().activated );
+        Data data = service.get().data();
+        ( (Activation) service ).passivate();
+
+        assertFalse( "Passivator should have reached the instance being passivated", data.activated );
+        assertFalse( service.isActive() );
+        assembly.application().passivate();
+    }
+
     @Mixins(DataAccessMixin.class)
     public interface DataAccessService
         extends DataAccess, ServiceComposite
@@ -203,6 +277,53 @@ public class PassivationTest
         }
     }
 
+    public static class SlowActivationActivator
+        extends ActivatorAdapter<ServiceReference<DataAccess>>
+    {
+        static CountDownLatch activating;
+        static CountDownLatch proceed;
+
+        @Override
+        public void afterActivation( ServiceReference<DataAccess> activated )
+            throws Exception
+        {
+            activating.countDown();
+            proceed.await( 5, TimeUnit.SECONDS );
+            activated.get().data().activated = true;
+        }
+
+        @Override
+        public void beforePassivation( ServiceReference<DataAccess> passivating )
+            throws Exception
+        {
+            passivating.get().data().activated = false;
+        }
+    }
+
+    public static class OtherThreadPassivationActivator
+        extends ActivatorAdapter<ServiceReference<DataAccess>>
+    {
+        @Override
+        public void afterActivation( ServiceReference<DataAccess> activated )
+            throws Exception
+        {
+            activated.get().data().activated = true;
+        }
+
+        @Override
+        public void beforePassivation( ServiceReference<DataAccess> passivating )
+            throws Exception
+        {
+            Thread other = new Thread( () -> passivating.get().data().activated = false );
+            other.start();
+            other.join( 5000 );
+            if( other.isAlive() )
+            {
+                throw new IllegalStateException( "Service invocation from another thread blocked by passivation" );
+            }
+        }
+    }
+
     public static class Data
     {
         boolean activated = false;
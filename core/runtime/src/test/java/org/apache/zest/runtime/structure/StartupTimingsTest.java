@@ -0,0 +1,128 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.structure;
+
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.StartupTimings;
+import org.apache.zest.bootstrap.ApplicationAssembly;
+import org.apache.zest.bootstrap.Energy4Java;
+import org.apache.zest.bootstrap.LayerAssembly;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Assemble, bind and activate an Application with several Modules per Layer and check that startup timings are
+ * reported.
+ */
+public class StartupTimingsTest
+{
+    @Test
+    public void givenManyModulesWhenStartingApplicationThenTimingsAreReportedAndModulesAreBound()
+        throws Exception
+    {
+        Application application = new Energy4Java().newApplication( factory -> {
+            ApplicationAssembly assembly = factory.newApplicationAssembly();
+            LayerAssembly layer = assembly.layer( "Layer" );
+            for( int idx = 0; idx < 8; idx++ )
+            {
+                ModuleAssembly module = layer.module( "Module " + idx );
+                module.services( GreetingService.class ).identifiedBy( "greeting-" + idx );
+                module.objects( Greeter.class );
+            }
+            layer.module( "Shared" ).services( NameService.class ).visibleIn( Visibility.layer );
+            return assembly;
+        } );
+        application.activate();
+        try
+        {
+            StartupTimings timings = application.metaInfo( StartupTimings.class );
+            assertThat( timings, notNullValue() );
+            for( StartupTimings.Phase phase : StartupTimings.Phase.values() )
+            {
+                assertThat( phase + " recorded", timings.duration( phase ).isNegative(), equalTo( false ) );
+            }
+            assertThat( timings.duration( StartupTimings.Phase.ASSEMBLY ).isZero(), equalTo( false ) );
+            assertThat( timings.duration( StartupTimings.Phase.BINDING ).isZero(), equalTo( false ) );
+
+            for( int idx = 0; idx < 8; idx++ )
+            {
+                Greeter greeter = application.findModule( "Layer", "Module " + idx ).newObject( Greeter.class );
+                assertThat( greeter.greet(), equalTo( "Hello World" ) );
+            }
+        }
+        finally
+        {
+            application.passivate();
+        }
+    }
+
+    public static class Greeter
+    {
+        @Service
+        private GreetingService greeting;
+
+        public String greet()
+        {
+            return greeting.greet();
+        }
+    }
+
+    @Mixins( GreetingService.Mixin.class )
+    public interface GreetingService
+    {
+        String greet();
+
+        class Mixin
+            implements GreetingService
+        {
+            @Service
+            private NameService names;
+
+            @Override
+            public String greet()
+            {
+                return "Hello " + names.name();
+            }
+        }
+    }
+
+    @Mixins( NameService.Mixin.class )
+    public interface NameService
+    {
+        String name();
+
+        class Mixin
+            implements NameService
+        {
+            @Override
+            public String name()
+            {
+                return "World";
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.unitofwork;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.zest.api.association.ManyAssociation;
+import org.apache.zest.api.association.NamedAssociation;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.identity.Identity;
+import org.apache.zest.api.identity.StringIdentity;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.NoSuchEntityException;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class BatchGetTest
+    extends AbstractZestTest
+{
+    private static final Identity FOO = new StringIdentity( "foo" );
+    private static final Identity BAR = new StringIdentity( "bar" );
+    private static final Identity BAZ = new StringIdentity( "baz" );
+    private static final Identity PARENT = new StringIdentity( "parent" );
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.entities( Item.class );
+    }
+
+    @Before
+    public void createItems()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            Item foo = newItem( uow, FOO );
+            Item bar = newItem( uow, BAR );
+            Item baz = newItem( uow, BAZ );
+            Item parent = newItem( uow, PARENT );
+            parent.children().add( foo );
+            parent.children().add( bar );
+            parent.children().add( baz );
+            parent.namedChildren().put( "first", foo );
+            parent.namedChildren().put( "last", baz );
+            uow.complete();
+        }
+    }
+
+    @Test
+    public void givenEntitiesWhenGettingManyThenTheyAreReturnedInOrder()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            // Load one entity beforehand so the batch mixes cached and stored state
+            uow.get( Item.class, BAR );
+            List<Item> items = uow.get( Item.class, Arrays.asList( BAZ, FOO, BAR ) );
+            assertThat( items.size(), equalTo( 3 ) );
+            assertThat( items.get( 0 ).name().get(), equalTo( BAZ.toString() ) );
+            assertThat( items.get( 1 ).name().get(), equalTo( FOO.toString() ) );
+            assertThat( items.get( 2 ).name().get(), equalTo( BAR.toString() ) );
+            assertThat( items.get( 2 ), equalTo( uow.get( Item.class, BAR ) ) );
+        }
+    }
+
+    @Test( expected = NoSuchEntityException.class )
+    public void givenMissingEntityWhenGettingManyThenThrowNoSuchEntityException()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            uow.get( Item.class, Arrays.asList( FOO, new StringIdentity( "missing" ) ) );
+        }
+    }
+
+    @Test
+    public void givenAssociationsWhenPrefetchingThenAssociatedEntitiesAreAvailable()
+        throws Exception
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            Item parent = uow.get( Item.class, PARENT );
+            uow.prefetch( parent.children() );
+            uow.prefetch( parent.namedChildren() );
+            assertThat( parent.children().toList().size(), equalTo( 3 ) );
+            assertThat( parent.children().get( 1 ).name().get(), equalTo( BAR.toString() ) );
+            assertThat( parent.namedChildren().get( "last" ).name().get(), equalTo( BAZ.toString() ) );
+        }
+    }
+
+    private static Item newItem( UnitOfWork uow, Identity identity )
+    {
+        EntityBuilder<Item> builder = uow.newEntityBuilder( Item.class, identity );
+        builder.instance().name().set( identity.toString() );
+        return builder.newInstance();
+    }
+
+    public interface Item
+        extends EntityComposite
+    {
+        Property<String> name();
+
+        ManyAssociation<Item> children();
+
+        NamedAssociation<Item> namedChildren();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.runtime.value;
+
+import java.util.Collections;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.value.Interned;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueComposite;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Assert that Value hash codes are memoized once built and that @Interned values share instances.
+ */
+public class ValueInterningTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.values( Code.class, Amount.class, Price.class );
+    }
+
+    @Test
+    public void givenInternedValuesWhenBuildingEqualValuesExpectSameInstance()
+    {
+        Code first = newCode( "SEK" );
+        Code second = newCode( "SEK" );
+        Code other = newCode( "EUR" );
+        assertThat( second, sameInstance( first ) );
+        assertThat( other, not( sameInstance( first ) ) );
+        Code fromState = valueBuilderFactory.newValueBuilderWithState(
+            Code.class,
+            descriptor -> "SEK",
+            descriptor -> null,
+            descriptor -> Collections.emptyList(),
+            descriptor -> Collections.emptyMap() ).newInstance();
+        assertThat( fromState, sameInstance( first ) );
+    }
+
+    @Test
+    public void givenNotInternedValuesWhenBuildingEqualValuesExpectEqualInstances()
+    {
+        Amount first = newAmount( 42 );
+        Amount second = newAmount( 42 );
+        assertThat( second, not( sameInstance( first ) ) );
+        assertThat( second, equalTo( first ) );
+        assertThat( second.hashCode(), equalTo( first.hashCode() ) );
+        assertThat( newAmount( 43 ), not( equalTo( first ) ) );
+    }
+
+    @Test
+    public void givenValueBuiltFromPrototypeWhenChangedExpectDifferentHashCode()
+    {
+        Amount amount = newAmount( 42 );
+        int hashCode = amount.hashCode();
+        ValueBuilder<Amount> builder = valueBuilderFactory.newValueBuilderWithPrototype( amount );
+        builder.prototype().value().set( 43 );
+        Amount changed = builder.newInstance();
+        assertThat( changed.hashCode(), not( equalTo( hashCode ) ) );
+        assertThat( changed.hashCode(), equalTo( newAmount( 43 ).hashCode() ) );
+        assertThat( amount.hashCode(), equalTo( hashCode ) );
+    }
+
+    @Test
+    public void givenValuePrototypeWhenChangedExpectHashCodeFollowsState()
+    {
+        ValueBuilder<Amount> builder = valueBuilderFactory.newValueBuilder( Amount.class );
+        Amount prototype = builder.prototype();
+        prototype.value().set( 42 );
+        int hashCode = prototype.hashCode();
+        prototype.value().set( 43 );
+        assertThat( prototype.hashCode(), not( equalTo( hashCode ) ) );
+    }
+
+    @Test
+    public void givenNestedBuiltValuesWhenBuildingFromPrototypeExpectSharedValuesUntouched()
+    {
+        Code code = newCode( "SEK" );
+        Amount amount = newAmount( 42 );
+        int codeHashCode = code.hashCode();
+        ValueBuilder<Price> builder = valueBuilderFactory.newValueBuilder( Price.class );
+        builder.prototype().code().set( code );
+        builder.prototype().amount().set( amount );
+        Price price = builder.newInstance();
+
+        builder = valueBuilderFactory.newValueBuilderWithPrototype( price );
+        builder.prototype().amount().get().value().set( 43 );
+        Price changed = builder.newInstance();
+
+        assertThat( changed.amount().get(), equalTo( newAmount( 43 ) ) );
+        assertThat( amount, equalTo( newAmount( 42 ) ) );
+        assertThat( price.amount().get(), sameInstance( amount ) );
+        assertThat( code.hashCode(), equalTo( codeHashCode ) );
+        assertThat( newCode( "SEK" ), sameInstance( code ) );
+    }
+
+    private Code newCode( String code )
+    {
+        ValueBuilder<Code> builder = valueBuilderFactory.newValueBuilder( Code.class );
+        builder.prototype().code().set( code );
+        return builder.newInstance();
+    }
+
+    private Amount newAmount( int value )
+    {
+        ValueBuilder<Amount> builder = valueBuilderFactory.newValueBuilder( Amount.class );
+        builder.prototype().value().set( value );
+        return builder.newInstance();
+    }
+
+    @Interned
+    public interface Code
+        extends ValueComposite
+    {
+        @UseDefaults
+        Property<String> code();
+    }
+
+    public interface Amount
+        extends ValueComposite
+    {
+        @UseDefaults
+        Property<Integer> value();
+    }
+
+    public interface Price
+    {
+        Property<Code> code();
+
+        Property<Amount> amount();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.entitystore.memory;
+
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.entitystore.memory.MemoryEntityStoreService;
+import org.apache.zest.spi.entitystore.helpers.DecodedStateCache;
+import org.apache.zest.test.entity.AbstractEntityStoreTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test of MemoryEntityStoreService with a DecodedStateCache.
+ */
+public class MemoryEntityStoreWithDecodedStateCacheTest
+    extends AbstractEntityStoreTest
+{
+    private final DecodedStateCache decodedStates = new DecodedStateCache( 100 );
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        super.assemble( module );
+
+        module.services( MemoryEntityStoreService.class ).setMetaInfo( decodedStates );
+        module.services( OrgJsonValueSerializationService.class ).taggedWith( ValueSerialization.Formats.JSON );
+    }
+
+    @Test
+    public void givenLoadedEntityWhenReadInManyUnitOfWorksThenDecodedValuesAreSharedUntilUpdated()
+        throws Exception
+    {
+        TestEntity entity;
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            entity = createEntity( unitOfWork );
+            unitOfWork.complete();
+        }
+
+        TestValue value;
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            value = unitOfWork.get( entity ).valueProperty().get();
+        }
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            TestEntity loaded = unitOfWork.get( entity );
+            assertThat( loaded.valueProperty().get(), sameInstance( value ) );
+            assertThat( loaded.association().get(), equalTo( loaded ) );
+            loaded.name().set( "Changed" );
+            assertThat( loaded.valueProperty().get(), sameInstance( value ) );
+            unitOfWork.complete();
+        }
+        assertThat( decodedStates.size(), equalTo( 0 ) );
+
+        try( UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork() )
+        {
+            TestEntity loaded = unitOfWork.get( entity );
+            assertThat( loaded.name().get(), equalTo( "Changed" ) );
+            assertThat( loaded.valueProperty().get(), not( sameInstance( value ) ) );
+            assertThat( loaded.valueProperty().get(), equalTo( value ) );
+        }
+        assertThat( decodedStates.size(), equalTo( 1 ) );
+    }
+}
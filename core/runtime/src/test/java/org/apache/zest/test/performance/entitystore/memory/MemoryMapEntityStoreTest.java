@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.test.performance.entitystore.memory;
+
+import org.apache.zest.api.concern.Concerns;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.entitystore.memory.MemoryMapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.ConcurrentModificationCheckConcern;
+import org.apache.zest.spi.entitystore.EntityStateVersions;
+import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
+import org.apache.zest.spi.entitystore.helpers.MapEntityStoreActivation;
+import org.apache.zest.spi.entitystore.helpers.MapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.helpers.StateStore;
+import org.apache.zest.test.entity.AbstractEntityStoreTest;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
+
+/**
+ * Test of MapEntityStoreMixin backed by the in-memory MapEntityStore.
+ */
+public class MemoryMapEntityStoreTest
+    extends AbstractEntityStoreTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        super.assemble( module );
+
+        module.services( MemoryMapEntityStoreService.class );
+        module.services( OrgJsonValueSerializationService.class ).taggedWith( ValueSerialization.Formats.JSON );
+    }
+
+    @Concerns( { StateChangeNotificationConcern.class, ConcurrentModificationCheckConcern.class } )
+    @Mixins( { MapEntityStoreMixin.class, MemoryMapEntityStoreMixin.class } )
+    public interface MemoryMapEntityStoreService
+        extends EntityStore, EntityStateVersions, StateStore, ServiceComposite, MapEntityStoreActivation
+    {
+    }
+}
@@ -27,19 +27,23 @@ import org.apache.zest.spi.entitystore.BackupRestore;
 import org.apache.zest.spi.entitystore.ConcurrentModificationCheckConcern;
 import org.apache.zest.spi.entitystore.EntityStateVersions;
 import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.entitystore.PartitionedEntityStore;
 import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
+import org.apache.zest.spi.entitystore.helpers.ThreadSafeMapEntityStore;
 
 /**
  * In-memory EntityStore service.
  * <p>Useful for testing and non-persistent entities.</p>
  * <p>Based on {@link JSONMapEntityStoreMixin}</p>
  */
+@ThreadSafeMapEntityStore
 @Concerns( { StateChangeNotificationConcern.class, ConcurrentModificationCheckConcern.class } )
 @Mixins( { JSONMapEntityStoreMixin.class, MemoryMapEntityStoreMixin.class } )
 public interface MemoryEntityStoreService
-    extends EntityStore, EntityStateVersions, BackupRestore, StateStore, ServiceComposite, JSONMapEntityStoreActivation
+    extends EntityStore, PartitionedEntityStore, EntityStateVersions, BackupRestore, StateStore, ServiceComposite,
+            JSONMapEntityStoreActivation
 {
 }
@@ -24,13 +24,16 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.io.Input;
 import org.apache.zest.io.Output;
 import org.apache.zest.io.Receiver;
@@ -39,21 +42,28 @@ import org.apache.zest.spi.entitystore.BackupRestore;
 import org.apache.zest.spi.entitystore.EntityAlreadyExistsException;
 import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
 import org.apache.zest.spi.entitystore.helpers.JSONKeys;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStoreActivation;
+import org.apache.zest.spi.entitystore.helpers.PartitionedMapEntityStore;
 
 /**
  * In-memory implementation of MapEntityStore.
  */
 public class MemoryMapEntityStoreMixin
-    implements MapEntityStore, BackupRestore, MapEntityStoreActivation
+    implements PartitionedMapEntityStore, BackupRestore, MapEntityStoreActivation
 {
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
     private final Map<EntityReference, String> store;
 
     public MemoryMapEntityStoreMixin()
     {
-        store = new HashMap<>();
+        store = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -114,6 +124,68 @@ public class MemoryMapEntityStoreMixin
         };
     }
 
+    @Override
+    public List<EntityStorePartition> partitions( int desiredCount )
+    {
+        List<String> identities = sortedIdentities( EntityStorePartition.all() );
+        int count = Math.max( 1, Math.min( desiredCount, identities.size() ) );
+        List<EntityStorePartition> partitions = new ArrayList<>( count );
+        for( int idx = 0; idx < count; idx++ )
+        {
+            int from = idx * identities.size() / count;
+            int to = ( idx + 1 ) * identities.size() / count;
+            partitions.add( new EntityStorePartition( idx == 0 ? null : identities.get( from ),
+                                                      idx == count - 1 ? null : identities.get( to ),
+                                                      to - from ) );
+        }
+        return partitions;
+    }
+
+    @Override
+    public Input<Reader, IOException> entityStates( final EntityStorePartition partition )
+    {
+        return new Input<Reader, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super Reader, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                output.receiveFrom( new Sender<Reader, IOException>()
+                {
+                    @Override
+                    public <ReceiverThrowableType extends Throwable> void sendTo( Receiver<? super Reader, ReceiverThrowableType> receiver )
+                        throws ReceiverThrowableType, IOException
+                    {
+                        for( String identity : sortedIdentities( partition ) )
+                        {
+                            // Skip entities removed since the scan started
+                            String state = store.get( EntityReference.parseEntityReference( identity ) );
+                            if( state != null )
+                            {
+                                receiver.receive( new StringReader( state ) );
+                            }
+                        }
+                    }
+                } );
+            }
+        };
+    }
+
+    private List<String> sortedIdentities( EntityStorePartition partition )
+    {
+        List<String> identities = new ArrayList<>();
+        for( EntityReference reference : store.keySet() )
+        {
+            String identity = reference.identity().toString();
+            if( partition.contains( identity ) )
+            {
+                identities.add( identity );
+            }
+        }
+        identities.sort( null );
+        return identities;
+    }
+
     @Override
     public Input<String, IOException> backup()
     {
@@ -131,7 +203,14 @@ public class MemoryMapEntityStoreMixin
                     {
                         for( String state : store.values() )
                         {
-                            receiver.receive( state );
+                            try
+                            {
+                                receiver.receive( EntityDocumentFormat.jsonDocument( documentFormat, state ) );
+                            }
+                            catch( JSONException e )
+                            {
+                                throw new IOException( e );
+                            }
                         }
                     }
                 } );
@@ -160,10 +239,11 @@ public class MemoryMapEntityStoreMixin
                         {
                             try
                             {
-                                JSONTokener tokener = new JSONTokener( item );
-                                JSONObject entity = (JSONObject) tokener.nextValue();
+                                JSONObject entity = EntityDocumentFormat.readDocument( documentFormat,
+                                                                                       new StringReader( item ) );
                                 String id = entity.getString( JSONKeys.IDENTITY );
-                                store.put( EntityReference.parseEntityReference( id ), item );
+                                store.put( EntityReference.parseEntityReference( id ),
+                                           EntityDocumentFormat.restoredDocument( documentFormat, entity, item ) );
                             }
                             catch( JSONException e )
                             {
@@ -194,10 +274,9 @@ public class MemoryMapEntityStoreMixin
                     throws IOException
                 {
                     super.close();
-                    String old = store.put( ref, toString() );
+                    String old = store.putIfAbsent( ref, toString() );
                     if( old != null )
                     {
-                        store.put( ref, old );
                         throw new EntityAlreadyExistsException( ref );
                     }
                 }
@@ -215,10 +294,9 @@ public class MemoryMapEntityStoreMixin
                     throws IOException
                 {
                     super.close();
-                    String old = store.put( ref, toString() );
+                    String old = store.replace( ref, toString() );
                     if( old == null )
                     {
-                        store.remove( ref );
                         throw new EntityNotFoundException( ref );
                     }
                 }
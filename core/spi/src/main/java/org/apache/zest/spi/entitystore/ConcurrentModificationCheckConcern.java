@@ -21,7 +21,9 @@
 package org.apache.zest.spi.entitystore;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.zest.api.ZestAPI;
 import org.apache.zest.api.concern.ConcernOf;
@@ -197,6 +199,29 @@ public abstract class ConcurrentModificationCheckConcern
             }
         }
 
+        @Override
+        public Map<EntityReference, EntityState> entityStatesOf( ModuleDescriptor module,
+                                                                 Collection<EntityReference> references )
+            throws EntityStoreException
+        {
+            lock.readLock().lock();
+
+            try
+            {
+                Map<EntityReference, EntityState> entityStates = uow.entityStatesOf( module, references );
+                for( EntityState entityState : entityStates.values() )
+                {
+                    versions.rememberVersion( entityState.entityReference(), entityState.version() );
+                    loaded.add( entityState );
+                }
+                return entityStates;
+            }
+            finally
+            {
+                lock.readLock().unlock();
+            }
+        }
+
 
         @Override
         public String versionOf( EntityReference anIdentity )
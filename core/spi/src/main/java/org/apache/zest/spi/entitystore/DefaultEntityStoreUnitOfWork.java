@@ -21,7 +21,11 @@
 package org.apache.zest.spi.entitystore;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.identity.Identity;
@@ -108,6 +112,33 @@ public final class DefaultEntityStoreUnitOfWork
         return entityState;
     }
 
+    @Override
+    public Map<EntityReference, EntityState> entityStatesOf( ModuleDescriptor module,
+                                                             Collection<EntityReference> references )
+    {
+        Map<EntityReference, EntityState> entityStates = new HashMap<>();
+        List<EntityReference> toLoad = new ArrayList<>();
+        for( EntityReference reference : references )
+        {
+            EntityState entityState = states.get( reference );
+            if( entityState != null )
+            {
+                entityStates.put( reference, entityState );
+            }
+            else
+            {
+                toLoad.add( reference );
+            }
+        }
+        if( !toLoad.isEmpty() )
+        {
+            Map<EntityReference, EntityState> loaded = entityStoreSPI.entityStatesOf( this, module, toLoad );
+            states.putAll( loaded );
+            entityStates.putAll( loaded );
+        }
+        return entityStates;
+    }
+
     @Override
     public String versionOf( EntityReference anIdentity )
         throws EntityNotFoundException
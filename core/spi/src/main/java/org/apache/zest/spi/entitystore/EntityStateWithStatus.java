@@ -0,0 +1,143 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore;
+
+import java.time.Instant;
+import org.apache.zest.api.common.QualifiedName;
+import org.apache.zest.api.entity.EntityDescriptor;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.apache.zest.spi.entity.ManyAssociationState;
+import org.apache.zest.spi.entity.NamedAssociationState;
+
+/**
+ * EntityState reporting another status than the one it wraps.
+ * Used when coalescing or replaying changes so that listeners see what happened since they were last notified.
+ */
+final class EntityStateWithStatus
+    implements EntityState
+{
+    static EntityState withStatus( EntityState state, EntityStatus status )
+    {
+        if( state.status() == status )
+        {
+            return state;
+        }
+        if( state instanceof EntityStateWithStatus )
+        {
+            state = ( (EntityStateWithStatus) state ).state;
+        }
+        return new EntityStateWithStatus( state, status );
+    }
+
+    private final EntityState state;
+    private final EntityStatus status;
+
+    private EntityStateWithStatus( EntityState state, EntityStatus status )
+    {
+        this.state = state;
+        this.status = status;
+    }
+
+    @Override
+    public EntityReference entityReference()
+    {
+        return state.entityReference();
+    }
+
+    @Override
+    public String version()
+    {
+        return state.version();
+    }
+
+    @Override
+    public Instant lastModified()
+    {
+        return state.lastModified();
+    }
+
+    @Override
+    public void remove()
+    {
+        state.remove();
+    }
+
+    @Override
+    public EntityStatus status()
+    {
+        return status;
+    }
+
+    @Override
+    public boolean isAssignableTo( Class<?> type )
+    {
+        return state.isAssignableTo( type );
+    }
+
+    @Override
+    public EntityDescriptor entityDescriptor()
+    {
+        return state.entityDescriptor();
+    }
+
+    @Override
+    public Object propertyValueOf( QualifiedName stateName )
+    {
+        return state.propertyValueOf( stateName );
+    }
+
+    @Override
+    public void setPropertyValue( QualifiedName stateName, Object json )
+    {
+        state.setPropertyValue( stateName, json );
+    }
+
+    @Override
+    public EntityReference associationValueOf( QualifiedName stateName )
+    {
+        return state.associationValueOf( stateName );
+    }
+
+    @Override
+    public void setAssociationValue( QualifiedName stateName, EntityReference newEntity )
+    {
+        state.setAssociationValue( stateName, newEntity );
+    }
+
+    @Override
+    public ManyAssociationState manyAssociationValueOf( QualifiedName stateName )
+    {
+        return state.manyAssociationValueOf( stateName );
+    }
+
+    @Override
+    public NamedAssociationState namedAssociationValueOf( QualifiedName stateName )
+    {
+        return state.namedAssociationValueOf( stateName );
+    }
+
+    @Override
+    public String toString()
+    {
+        return state + "(" + status + ")";
+    }
+}
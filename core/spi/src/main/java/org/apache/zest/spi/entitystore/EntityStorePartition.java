@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore;
+
+import java.util.Objects;
+
+/**
+ * Range of entity identities of an {@link EntityStore} that can be scanned independently of the others.
+ * <p>
+ * Ranges are in {@link String#compareTo(String)} order of the identities, the lower bound is inclusive, the upper
+ * bound exclusive, and a {@literal null} bound is unbounded.
+ * </p>
+ * <p>
+ * Partitions are immutable and fully described by their bounds so that they can be recorded, e.g. to resume an
+ * interrupted scan with {@link #after(String)}.
+ * </p>
+ */
+public final class EntityStorePartition
+{
+    private static final EntityStorePartition ALL = new EntityStorePartition( null, null, -1 );
+
+    private final String lowerBound;
+    private final String upperBound;
+    private final long estimatedSize;
+
+    /**
+     * @return Partition covering all identities, of unknown size
+     */
+    public static EntityStorePartition all()
+    {
+        return ALL;
+    }
+
+    /**
+     * @param lowerBound    Inclusive lower bound, {@literal null} for unbounded
+     * @param upperBound    Exclusive upper bound, {@literal null} for unbounded
+     * @param estimatedSize Estimated count of entities in the range, negative if unknown
+     */
+    public EntityStorePartition( String lowerBound, String upperBound, long estimatedSize )
+    {
+        if( lowerBound != null && upperBound != null && lowerBound.compareTo( upperBound ) > 0 )
+        {
+            throw new IllegalArgumentException( "Lower bound " + lowerBound + " is after upper bound " + upperBound );
+        }
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.estimatedSize = estimatedSize < 0 ? -1 : estimatedSize;
+    }
+
+    /**
+     * @return Inclusive lower bound, {@literal null} if unbounded
+     */
+    public String lowerBound()
+    {
+        return lowerBound;
+    }
+
+    /**
+     * @return Exclusive upper bound, {@literal null} if unbounded
+     */
+    public String upperBound()
+    {
+        return upperBound;
+    }
+
+    /**
+     * @return Estimated count of entities in this partition, -1 if unknown
+     */
+    public long estimatedSize()
+    {
+        return estimatedSize;
+    }
+
+    public boolean contains( String identity )
+    {
+        return ( lowerBound == null || identity.compareTo( lowerBound ) >= 0 )
+               && ( upperBound == null || identity.compareTo( upperBound ) < 0 );
+    }
+
+    /**
+     * @param identity Identity within this partition
+     * @return Partition of the identities of this partition that come after the given one, of unknown size
+     */
+    public EntityStorePartition after( String identity )
+    {
+        // Smallest String greater than identity
+        String next = identity + '\u0000';
+        if( upperBound != null && next.compareTo( upperBound ) > 0 )
+        {
+            next = upperBound;
+        }
+        return new EntityStorePartition( next, upperBound, -1 );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if( this == o )
+        {
+            return true;
+        }
+        if( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        EntityStorePartition that = (EntityStorePartition) o;
+        return Objects.equals( lowerBound, that.lowerBound ) && Objects.equals( upperBound, that.upperBound );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( lowerBound, upperBound );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + ( lowerBound == null ? "" : lowerBound ) + ", " + ( upperBound == null ? "" : upperBound ) + ")";
+    }
+}
@@ -20,6 +20,8 @@
 
 package org.apache.zest.spi.entitystore;
 
+import java.util.Collection;
+import java.util.Map;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.structure.ModuleDescriptor;
@@ -36,6 +38,19 @@ public interface EntityStoreSPI
 
     EntityState entityStateOf( EntityStoreUnitOfWork unitOfWork, ModuleDescriptor module, EntityReference reference );
 
+    /**
+     * Get the EntityStates of many entities at once.
+     *
+     * @param unitOfWork EntityStore UnitOfWork
+     * @param module Module descriptor
+     * @param references The entity references
+     *
+     * @return EntityStates of the found entities, missing entities are absent from the returned Map
+     */
+    Map<EntityReference, EntityState> entityStatesOf( EntityStoreUnitOfWork unitOfWork,
+                                                      ModuleDescriptor module,
+                                                      Collection<EntityReference> references );
+
     String versionOf( EntityStoreUnitOfWork unitOfWork, EntityReference reference );
 
     StateCommitter applyChanges( EntityStoreUnitOfWork unitOfWork, Iterable<EntityState> state );
@@ -21,6 +21,8 @@
 package org.apache.zest.spi.entitystore;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.identity.Identity;
@@ -69,6 +71,23 @@ public interface EntityStoreUnitOfWork
     EntityState entityStateOf( ModuleDescriptor module, EntityReference anIdentity )
         throws EntityStoreException, EntityNotFoundException;
 
+    /**
+     * Get the EntityStates for many references at once.
+     * <p>
+     * Implementations should fetch the states of the entities not yet loaded in this UnitOfWork in as few
+     * round-trips to the underlying store as possible.
+     * </p>
+     *
+     * @param module Module descriptor
+     * @param references The entity references
+     *
+     * @return Entity states of the found entities, missing entities are absent from the returned Map
+     *
+     * @throws EntityStoreException thrown if retrieval failed.
+     */
+    Map<EntityReference, EntityState> entityStatesOf( ModuleDescriptor module, Collection<EntityReference> references )
+        throws EntityStoreException;
+
     String versionOf( EntityReference anIdentity ) throws EntityStoreException;
 
     StateCommitter applyChanges()
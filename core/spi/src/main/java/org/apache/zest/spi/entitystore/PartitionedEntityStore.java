@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore;
+
+import java.util.List;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.io.Input;
+import org.apache.zest.spi.entity.EntityState;
+
+/**
+ * EntityStore able to split its content into identity ranges that can be scanned concurrently.
+ * <p>
+ * Implemented by EntityStore services that can efficiently scan a range of identities in identity order, it is used
+ * by bulk operations such as reindexing to spread the work across threads and to resume an interrupted scan.
+ * </p>
+ */
+public interface PartitionedEntityStore
+{
+    /**
+     * @param desiredCount Desired count of partitions
+     * @return Disjoint partitions covering all identities, at most {@literal desiredCount}, empty if this store
+     *         does not support partitioned scans
+     */
+    List<EntityStorePartition> partitions( int desiredCount );
+
+    /**
+     * @param module    Module of the returned states
+     * @param partition Partition to scan
+     * @return States of the entities in the given partition, in identity order
+     */
+    Input<EntityState, EntityStoreException> entityStates( ModuleDescriptor module, EntityStorePartition partition );
+}
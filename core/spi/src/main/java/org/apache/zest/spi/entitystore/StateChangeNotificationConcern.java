@@ -20,20 +20,33 @@
 
 package org.apache.zest.spi.entitystore;
 
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.concern.ConcernOf;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.spi.entity.EntityState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * State change notification Concern.
+ * <p>
+ * Listeners are notified synchronously as part of the commit, unless a {@link StateChangeQueue} service is visible
+ * in which case committed changes are handed to it and delivered asynchronously.
+ * </p>
  */
 public abstract class StateChangeNotificationConcern
     extends ConcernOf<EntityStoreSPI>
     implements EntityStoreSPI
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger( StateChangeNotificationConcern.class );
+
     @Service
     Iterable<StateChangeListener> listeners;
 
+    @Optional
+    @Service
+    StateChangeQueue queue;
+
     @Override
     public StateCommitter applyChanges( final EntityStoreUnitOfWork unitofwork,
                                         final Iterable<EntityState> state
@@ -45,6 +58,20 @@ public abstract class StateChangeNotificationConcern
             @Override
             public void commit()
             {
+                if( queue != null )
+                {
+                    committer.commit();
+                    try
+                    {
+                        queue.enqueue( state );
+                    }
+                    catch( RuntimeException e )
+                    {
+                        // Changes are committed, do not report the UnitOfWork as failed
+                        LOGGER.error( "Could not hand committed state changes to the StateChangeQueue", e );
+                    }
+                    return;
+                }
                 for( StateChangeListener listener : listeners )
                 {
                     listener.notifyChanges( state );
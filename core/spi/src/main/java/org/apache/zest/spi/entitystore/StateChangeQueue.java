@@ -0,0 +1,65 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore;
+
+import java.time.Duration;
+import org.apache.zest.spi.entity.EntityState;
+
+/**
+ * Asynchronous delivery of committed state changes to {@link StateChangeListener}s.
+ * <p>
+ * When a StateChangeQueue service is visible to an EntityStore, {@link StateChangeNotificationConcern} hands
+ * committed changes to it instead of notifying listeners inside the commit. Changes to the same entity are
+ * coalesced while they wait and are delivered in batches spanning many UnitOfWorks to the listeners visible
+ * to the queue service. Queries can then lag behind commits, see {@link #lag()} and {@link #flush(Duration)}.
+ * </p>
+ */
+public interface StateChangeQueue
+{
+    /**
+     * Queue committed changes, blocking while the queue is full.
+     * <p>
+     * If interrupted while blocked, the changes are left to the replay log, if any, and the interrupt status is set.
+     * </p>
+     *
+     * @param changedStates Committed states
+     */
+    void enqueue( Iterable<EntityState> changedStates );
+
+    /**
+     * @return Number of entities with changes not yet delivered
+     */
+    int pending();
+
+    /**
+     * @return Age of the oldest change not yet delivered, zero if none
+     */
+    Duration lag();
+
+    /**
+     * Wait for all queued changes to be delivered.
+     *
+     * @param timeout Maximum time to wait
+     * @return true if all changes were delivered, false if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean flush( Duration timeout )
+        throws InterruptedException;
+}
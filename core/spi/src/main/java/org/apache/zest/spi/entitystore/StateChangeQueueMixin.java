@@ -0,0 +1,720 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.entity.EntityDescriptor;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.metrics.MetricNames;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsGauge;
+import org.apache.zest.api.metrics.MetricsGaugeFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.service.ServiceActivation;
+import org.apache.zest.api.service.ServiceDescriptor;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.time.SystemTime;
+import org.apache.zest.api.usecase.Usecase;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.zest.spi.entitystore.EntityStateWithStatus.withStatus;
+
+/**
+ * StateChangeQueue mixin.
+ * <p>
+ * Pending changes are kept in insertion order, one per entity, and a single worker thread delivers them in batches.
+ * Only the worker delivers while the queue runs, so listeners see changes to an entity in commit order. Changes
+ * larger than the queue, or arriving while it is not running, are delivered by the committing thread once
+ * everything queued before them has been delivered. Listeners are never called while holding the queue lock.
+ * </p>
+ */
+public class StateChangeQueueMixin
+    implements StateChangeQueue, ServiceActivation
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( StateChangeQueue.class );
+
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private static final long PASSIVATION_TIMEOUT_SECONDS = 60;
+
+    private static final long COMPACTION_THRESHOLD_BYTES = 64 * 1024;
+
+    @Uses
+    private ServiceDescriptor descriptor;
+
+    @Structure
+    private Application application;
+
+    @Structure
+    private Module module;
+
+    @Service
+    private Iterable<StateChangeListener> listeners;
+
+    @Optional
+    @Service
+    private EntityStore entityStore;
+
+    @Optional
+    @Service
+    private MetricsProvider metricsProvider;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when changes are queued or the queue stops.
+     */
+    private final Condition queued = lock.newCondition();
+
+    /**
+     * Signalled when changes are taken for delivery, delivered, or the queue stops.
+     */
+    private final Condition progressed = lock.newCondition();
+
+    private final LinkedHashMap<EntityReference, Pending> pending = new LinkedHashMap<>();
+
+    private final Map<EntityReference, StateChangeReplayLog.Entry> undeliverable = new LinkedHashMap<>();
+
+    private int inFlight;
+
+    /**
+     * Sequence of the last queued change, acknowledgements in the replay log refer to it.
+     */
+    private long sequence;
+
+    private boolean running;
+
+    /**
+     * True while the worker thread delivers queued changes.
+     */
+    private boolean delivering;
+
+    private StateChangeQueuePolicy policy = new StateChangeQueuePolicy();
+
+    private StateChangeReplayLog replayLog;
+
+    private Thread worker;
+
+    private MetricsCounter delivered;
+
+    private MetricsCounter coalesced;
+
+    private MetricsCounter failed;
+
+    @Override
+    public void activateService()
+        throws Exception
+    {
+        StateChangeQueuePolicy assembled = descriptor.metaInfo( StateChangeQueuePolicy.class );
+        if( assembled != null )
+        {
+            policy = assembled;
+        }
+        if( metricsProvider != null )
+        {
+            Class<?> type = StateChangeQueue.class;
+            MetricsCounterFactory counters = metricsProvider.createFactory( MetricsCounterFactory.class );
+            delivered = counters.createCounter( MetricNames.nameFor( module, type, "delivered" ) );
+            coalesced = counters.createCounter( MetricNames.nameFor( module, type, "coalesced" ) );
+            failed = counters.createCounter( MetricNames.nameFor( module, type, "failed" ) );
+            MetricsGaugeFactory gauges = metricsProvider.createFactory( MetricsGaugeFactory.class );
+            gauges.registerGauge( MetricNames.nameFor( module, type, "pending" ), (MetricsGauge<Integer>) this::pending );
+            gauges.registerGauge( MetricNames.nameFor( module, type, "lag" ),
+                                  (MetricsGauge<Long>) () -> lag().toMillis() );
+        }
+
+        List<StateChangeReplayLog.Entry> replay = Collections.emptyList();
+        if( policy.replayLog() != null )
+        {
+            replayLog = new StateChangeReplayLog( policy.replayLog() );
+            replay = replayLog.undelivered();
+        }
+
+        lock.lock();
+        try
+        {
+            sequence = replayLog == null ? 0 : replayLog.lastSequence();
+            running = true;
+            delivering = true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        worker = new Thread( this::deliverQueued, "StateChangeQueue-" + descriptor.identity() );
+        worker.setDaemon( true );
+        worker.start();
+
+        if( !replay.isEmpty() )
+        {
+            LOGGER.info( "Replaying {} undelivered state changes from {}", replay.size(), policy.replayLog() );
+            replay( replay );
+        }
+    }
+
+    @Override
+    public void passivateService()
+        throws Exception
+    {
+        lock.lock();
+        try
+        {
+            running = false;
+            queued.signalAll();
+            progressed.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        // The worker delivers what is left before exiting
+        if( worker == null )
+        {
+            return;
+        }
+        worker.join( TimeUnit.SECONDS.toMillis( PASSIVATION_TIMEOUT_SECONDS ) );
+        if( worker.isAlive() )
+        {
+            LOGGER.warn( "State changes still pending after {} seconds, they are left to the replay log",
+                         PASSIVATION_TIMEOUT_SECONDS );
+        }
+        if( replayLog != null )
+        {
+            replayLog.close();
+            replayLog = null;
+        }
+    }
+
+    @Override
+    public void enqueue( Iterable<EntityState> changedStates )
+    {
+        List<EntityState> states = new ArrayList<>();
+        for( EntityState state : changedStates )
+        {
+            states.add( state );
+        }
+        if( states.isEmpty() )
+        {
+            return;
+        }
+        List<Pending> direct;
+        lock.lock();
+        try
+        {
+            while( running && states.size() <= policy.capacity() && !fits( states ) )
+            {
+                // Backpressure
+                progressed.await();
+            }
+            if( running && states.size() <= policy.capacity() )
+            {
+                long next = record( states );
+                long now = System.nanoTime();
+                for( EntityState state : states )
+                {
+                    coalesce( state, next++, now );
+                }
+                queued.signalAll();
+                return;
+            }
+
+            // Too large for the queue or not running, deliver after everything queued before.
+            // Changes the worker left behind when it stopped are delivered along.
+            while( inFlight > 0 || ( delivering && !pending.isEmpty() ) )
+            {
+                progressed.await();
+            }
+            long now = System.nanoTime();
+            for( EntityState state : states )
+            {
+                coalesce( state, ++sequence, now );
+            }
+            direct = new ArrayList<>( pending.values() );
+            pending.clear();
+            inFlight = direct.size();
+        }
+        catch( InterruptedException e )
+        {
+            // The changes are committed, leave them to the replay log rather than failing the commit
+            Thread.currentThread().interrupt();
+            record( states );
+            LOGGER.error( "Interrupted while queueing {} state changes, they are left to the replay log {}",
+                          states.size(), policy.replayLog() );
+            return;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        // Not holding the lock, listeners and their retries must not block the worker nor other committers
+        try
+        {
+            deliver( direct );
+        }
+        finally
+        {
+            lock.lock();
+            try
+            {
+                inFlight = 0;
+                progressed.signalAll();
+                queued.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int pending()
+    {
+        lock.lock();
+        try
+        {
+            return pending.size() + inFlight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Duration lag()
+    {
+        lock.lock();
+        try
+        {
+            if( pending.isEmpty() )
+            {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos( System.nanoTime() - pending.values().iterator().next().queuedAt );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean flush( Duration timeout )
+        throws InterruptedException
+    {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try
+        {
+            while( !pending.isEmpty() || inFlight > 0 )
+            {
+                if( remaining <= 0 )
+                {
+                    return false;
+                }
+                remaining = progressed.awaitNanos( remaining );
+            }
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits( List<EntityState> states )
+    {
+        int added = 0;
+        for( EntityState state : states )
+        {
+            if( !pending.containsKey( state.entityReference() ) )
+            {
+                added++;
+            }
+        }
+        return pending.size() + added <= policy.capacity();
+    }
+
+    private void coalesce( EntityState state, long sequence, long now )
+    {
+        EntityReference reference = state.entityReference();
+        Pending existing = pending.get( reference );
+        if( existing == null )
+        {
+            pending.put( reference, new Pending( state, sequence, now ) );
+            return;
+        }
+        increment( coalesced );
+        existing.sequence = sequence;
+        EntityStatus before = existing.state.status();
+        EntityStatus after = state.status();
+        if( before == EntityStatus.NEW && after == EntityStatus.REMOVED )
+        {
+            // Never reached the listeners
+            pending.remove( reference );
+        }
+        else if( before == EntityStatus.NEW )
+        {
+            existing.state = withStatus( state, EntityStatus.NEW );
+        }
+        else if( before == EntityStatus.REMOVED && after == EntityStatus.NEW )
+        {
+            // Listeners still know the removed entity
+            existing.state = withStatus( state, EntityStatus.UPDATED );
+        }
+        else
+        {
+            existing.state = state;
+        }
+    }
+
+    private void deliverQueued()
+    {
+        try
+        {
+            while( true )
+            {
+                List<Pending> batch = new ArrayList<>();
+                lock.lock();
+                try
+                {
+                    // Wait for changes, and for direct deliveries by committing threads to complete
+                    while( pending.isEmpty() || inFlight > 0 )
+                    {
+                        if( !running && pending.isEmpty() )
+                        {
+                            return;
+                        }
+                        queued.await();
+                    }
+                    // Let more changes join the batch, up to the maximum delay of the oldest one
+                    long deadline = pending.values().iterator().next().queuedAt
+                                    + policy.maximumBatchDelay().toNanos();
+                    long wait;
+                    while( running && pending.size() < policy.maximumBatchSize()
+                           && ( wait = deadline - System.nanoTime() ) > 0 )
+                    {
+                        queued.awaitNanos( wait );
+                    }
+                    Iterator<Pending> iterator = pending.values().iterator();
+                    while( iterator.hasNext() && batch.size() < policy.maximumBatchSize() )
+                    {
+                        batch.add( iterator.next() );
+                        iterator.remove();
+                    }
+                    inFlight = batch.size();
+                    progressed.signalAll();
+                }
+                catch( InterruptedException e )
+                {
+                    LOGGER.warn( "State change delivery interrupted, {} changes left to the replay log",
+                                 pending.size() );
+                    return;
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                deliver( batch );
+
+                lock.lock();
+                try
+                {
+                    inFlight = 0;
+                    progressed.signalAll();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+        finally
+        {
+            // Committers waiting for room or for the worker deliver by themselves from now on
+            lock.lock();
+            try
+            {
+                running = false;
+                delivering = false;
+                progressed.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Notify each listener, retrying the ones that fail.
+     */
+    private void deliver( List<Pending> batch )
+    {
+        List<EntityState> states = new ArrayList<>( batch.size() );
+        for( Pending change : batch )
+        {
+            states.add( change.state );
+        }
+        boolean success = true;
+        for( StateChangeListener listener : listeners )
+        {
+            for( int attempt = 0; ; attempt++ )
+            {
+                try
+                {
+                    listener.notifyChanges( states );
+                    break;
+                }
+                catch( RuntimeException e )
+                {
+                    if( attempt >= policy.maximumRetries() )
+                    {
+                        LOGGER.error( "{} failed to handle {} state changes", listener, states.size(), e );
+                        success = false;
+                        break;
+                    }
+                    LOGGER.warn( "{} failed to handle {} state changes, retrying", listener, states.size(), e );
+                    try
+                    {
+                        Thread.sleep( RETRY_BACKOFF_MILLIS << attempt );
+                    }
+                    catch( InterruptedException interrupted )
+                    {
+                        Thread.currentThread().interrupt();
+                        success = false;
+                        break;
+                    }
+                }
+            }
+        }
+        if( success )
+        {
+            increment( delivered, states.size() );
+        }
+        else
+        {
+            increment( failed, states.size() );
+        }
+        acknowledge( batch, success );
+    }
+
+    /**
+     * @return Sequence of the first of the given changes, the following ones get consecutive sequences
+     */
+    private long record( Collection<EntityState> states )
+    {
+        long first = sequence + 1;
+        sequence += states.size();
+        if( replayLog == null )
+        {
+            return first;
+        }
+        try
+        {
+            replayLog.queued( states, first );
+        }
+        catch( IOException e )
+        {
+            LOGGER.error( "Could not record state changes in {}", policy.replayLog(), e );
+        }
+        return first;
+    }
+
+    private void acknowledge( List<Pending> batch, boolean success )
+    {
+        if( replayLog == null )
+        {
+            return;
+        }
+        lock.lock();
+        try
+        {
+            Map<EntityReference, Long> sequences = new LinkedHashMap<>();
+            for( Pending change : batch )
+            {
+                EntityReference reference = change.state.entityReference();
+                if( success )
+                {
+                    StateChangeReplayLog.Entry kept = undeliverable.get( reference );
+                    if( kept != null && kept.sequence <= change.sequence )
+                    {
+                        undeliverable.remove( reference );
+                    }
+                    sequences.put( reference, change.sequence );
+                }
+                else
+                {
+                    undeliverable.put( reference, StateChangeReplayLog.Entry.of( change.state, change.sequence ) );
+                }
+            }
+            if( pending.isEmpty() && ( !success || replayLog.size() > COMPACTION_THRESHOLD_BYTES ) )
+            {
+                // Nothing else in flight, only keep what could not be delivered
+                replayLog.compact( undeliverable.values() );
+            }
+            else if( !sequences.isEmpty() )
+            {
+                replayLog.delivered( sequences );
+            }
+        }
+        catch( IOException e )
+        {
+            LOGGER.error( "Could not record delivered state changes in {}", policy.replayLog(), e );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void replay( List<StateChangeReplayLog.Entry> entries )
+    {
+        if( entityStore == null )
+        {
+            LOGGER.warn( "No EntityStore visible, {} state changes stay in {}", entries.size(), policy.replayLog() );
+            keepUndeliverable( entries );
+            return;
+        }
+        Map<String, List<StateChangeReplayLog.Entry>> byModule = new LinkedHashMap<>();
+        for( StateChangeReplayLog.Entry entry : entries )
+        {
+            byModule.computeIfAbsent( entry.layer + '/' + entry.module, key -> new ArrayList<>() ).add( entry );
+        }
+        for( List<StateChangeReplayLog.Entry> moduleEntries : byModule.values() )
+        {
+            StateChangeReplayLog.Entry first = moduleEntries.get( 0 );
+            ModuleDescriptor entityModule;
+            try
+            {
+                entityModule = application.findModule( first.layer, first.module ).descriptor();
+            }
+            catch( IllegalArgumentException e )
+            {
+                LOGGER.warn( "Module {}/{} not found, {} state changes stay in {}",
+                             first.layer, first.module, moduleEntries.size(), policy.replayLog() );
+                keepUndeliverable( moduleEntries );
+                continue;
+            }
+            List<EntityReference> references = new ArrayList<>();
+            for( StateChangeReplayLog.Entry entry : moduleEntries )
+            {
+                references.add( entry.reference );
+            }
+            EntityStoreUnitOfWork uow = entityStore.newUnitOfWork( entityModule, Usecase.DEFAULT, SystemTime.now() );
+            try
+            {
+                // Deliver current states, listeners may or may not have seen the logged change
+                Map<EntityReference, EntityState> current = uow.entityStatesOf( entityModule, references );
+                List<EntityState> states = new ArrayList<>();
+                for( StateChangeReplayLog.Entry entry : moduleEntries )
+                {
+                    EntityState state = current.get( entry.reference );
+                    if( state != null )
+                    {
+                        states.add( withStatus( state, EntityStatus.UPDATED ) );
+                        continue;
+                    }
+                    EntityDescriptor entityDescriptor = entityModule.entityDescriptor( entry.type );
+                    if( entityDescriptor == null )
+                    {
+                        LOGGER.warn( "Entity type {} not found, dropping replayed change of {}",
+                                     entry.type, entry.reference );
+                        continue;
+                    }
+                    states.add( withStatus( uow.newEntityState( entry.reference, entityDescriptor ),
+                                            EntityStatus.REMOVED ) );
+                }
+                enqueue( states );
+            }
+            finally
+            {
+                uow.discard();
+            }
+        }
+    }
+
+    private void keepUndeliverable( List<StateChangeReplayLog.Entry> entries )
+    {
+        lock.lock();
+        try
+        {
+            for( StateChangeReplayLog.Entry entry : entries )
+            {
+                undeliverable.put( entry.reference, entry );
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private static void increment( MetricsCounter counter )
+    {
+        increment( counter, 1 );
+    }
+
+    private static void increment( MetricsCounter counter, int count )
+    {
+        if( counter != null )
+        {
+            counter.increment( count );
+        }
+    }
+
+    private static final class Pending
+    {
+        private EntityState state;
+        private long sequence;
+        private final long queuedAt;
+
+        private Pending( EntityState state, long sequence, long queuedAt )
+        {
+            this.state = state;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Bounds and batching policy of a {@link StateChangeQueueService}.
+ * <p>
+ * Set it as meta-info of the queue service, e.g.:
+ * </p>
+ * <pre><code>
+ * module.services( StateChangeQueueService.class )
+ *       .setMetaInfo( new StateChangeQueuePolicy().withMaximumBatchSize( 1000 )
+ *                                                 .withReplayLog( Paths.get( "var/index-replay.log" ) ) );
+ * </code></pre>
+ * <p>
+ * Instances are immutable, each {@literal with} method returns a new policy.
+ * </p>
+ */
+public final class StateChangeQueuePolicy
+{
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_MAXIMUM_BATCH_SIZE = 500;
+    public static final Duration DEFAULT_MAXIMUM_BATCH_DELAY = Duration.ofMillis( 50 );
+    public static final int DEFAULT_MAXIMUM_RETRIES = 3;
+
+    private final int capacity;
+    private final int maximumBatchSize;
+    private final Duration maximumBatchDelay;
+    private final int maximumRetries;
+    private final Path replayLog;
+
+    public StateChangeQueuePolicy()
+    {
+        this( DEFAULT_CAPACITY, DEFAULT_MAXIMUM_BATCH_SIZE, DEFAULT_MAXIMUM_BATCH_DELAY, DEFAULT_MAXIMUM_RETRIES, null );
+    }
+
+    private StateChangeQueuePolicy( int capacity,
+                                    int maximumBatchSize,
+                                    Duration maximumBatchDelay,
+                                    int maximumRetries,
+                                    Path replayLog
+    )
+    {
+        this.capacity = capacity;
+        this.maximumBatchSize = maximumBatchSize;
+        this.maximumBatchDelay = maximumBatchDelay;
+        this.maximumRetries = maximumRetries;
+        this.replayLog = replayLog;
+    }
+
+    /**
+     * @param capacity Maximum number of entities with pending changes, commits block while the queue is full
+     * @return A new policy
+     */
+    public StateChangeQueuePolicy withCapacity( int capacity )
+    {
+        if( capacity < 1 )
+        {
+            throw new IllegalArgumentException( "Capacity must be positive, was " + capacity );
+        }
+        return new StateChangeQueuePolicy( capacity, maximumBatchSize, maximumBatchDelay, maximumRetries, replayLog );
+    }
+
+    /**
+     * @param maximumBatchSize Maximum number of changed states handed to listeners at once
+     * @return A new policy
+     */
+    public StateChangeQueuePolicy withMaximumBatchSize( int maximumBatchSize )
+    {
+        if( maximumBatchSize < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum batch size must be positive, was " + maximumBatchSize );
+        }
+        return new StateChangeQueuePolicy( capacity, maximumBatchSize, maximumBatchDelay, maximumRetries, replayLog );
+    }
+
+    /**
+     * @param maximumBatchDelay How long the oldest change may wait for more changes to join its batch
+     * @return A new policy
+     */
+    public StateChangeQueuePolicy withMaximumBatchDelay( Duration maximumBatchDelay )
+    {
+        if( maximumBatchDelay.isNegative() )
+        {
+            throw new IllegalArgumentException( "Maximum batch delay must not be negative, was " + maximumBatchDelay );
+        }
+        return new StateChangeQueuePolicy( capacity, maximumBatchSize, maximumBatchDelay, maximumRetries, replayLog );
+    }
+
+    /**
+     * @param maximumRetries How many times a failing listener is retried before the batch is left to the replay log
+     * @return A new policy
+     */
+    public StateChangeQueuePolicy withMaximumRetries( int maximumRetries )
+    {
+        if( maximumRetries < 0 )
+        {
+            throw new IllegalArgumentException( "Maximum retries must not be negative, was " + maximumRetries );
+        }
+        return new StateChangeQueuePolicy( capacity, maximumBatchSize, maximumBatchDelay, maximumRetries, replayLog );
+    }
+
+    /**
+     * Record queued changes in a file so that changes not delivered when the application stops, crashes or when
+     * listeners keep failing are delivered again on next activation.
+     *
+     * @param replayLog Path of the replay log file, created if needed
+     * @return A new policy
+     */
+    public StateChangeQueuePolicy withReplayLog( Path replayLog )
+    {
+        return new StateChangeQueuePolicy( capacity, maximumBatchSize, maximumBatchDelay, maximumRetries, replayLog );
+    }
+
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    public int maximumBatchSize()
+    {
+        return maximumBatchSize;
+    }
+
+    public Duration maximumBatchDelay()
+    {
+        return maximumBatchDelay;
+    }
+
+    public int maximumRetries()
+    {
+        return maximumRetries;
+    }
+
+    /**
+     * @return Path of the replay log file or null if changes are not recorded
+     */
+    public Path replayLog()
+    {
+        return replayLog;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StateChangeQueuePolicy{"
+               + "capacity=" + capacity
+               + ", maximumBatchSize=" + maximumBatchSize
+               + ", maximumBatchDelay=" + maximumBatchDelay
+               + ", maximumRetries=" + maximumRetries
+               + ", replayLog=" + replayLog
+               + '}';
+    }
+}
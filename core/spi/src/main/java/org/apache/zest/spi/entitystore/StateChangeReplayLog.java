@@ -0,0 +1,276 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.zest.api.entity.EntityDescriptor;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+
+/**
+ * Append-only file recording queued and delivered state changes of a {@link StateChangeQueueMixin}.
+ * <p>
+ * Queued changes are forced to disk before the committing thread returns, delivered ones are not as replaying an
+ * already delivered change is harmless. Each line is tab separated and URL encoded:
+ * {@literal +  sequence  status  layer  module  type  reference} for a queued change,
+ * {@literal -  sequence  reference} for a delivered one. A delivered line only acknowledges the changes of its entity
+ * queued at or before its sequence, so a change queued while an older one was being delivered is kept.
+ * </p>
+ */
+final class StateChangeReplayLog
+    implements Closeable
+{
+    /**
+     * Change not known to be delivered.
+     */
+    static final class Entry
+    {
+        final EntityStatus status;
+        final String layer;
+        final String module;
+        final String type;
+        final EntityReference reference;
+        final long sequence;
+
+        Entry( EntityStatus status, String layer, String module, String type, EntityReference reference,
+               long sequence )
+        {
+            this.status = status;
+            this.layer = layer;
+            this.module = module;
+            this.type = type;
+            this.reference = reference;
+            this.sequence = sequence;
+        }
+
+        static Entry of( EntityState state, long sequence )
+        {
+            EntityDescriptor descriptor = state.entityDescriptor();
+            ModuleDescriptor module = descriptor.module();
+            return new Entry( state.status(), module.layer().name(), module.name(),
+                              descriptor.types().findFirst().get().getName(), state.entityReference(),
+                              sequence );
+        }
+    }
+
+    private final Path path;
+    private FileChannel channel;
+    private long lastSequence;
+
+    StateChangeReplayLog( Path path )
+        throws IOException
+    {
+        this.path = path;
+        Path parent = path.toAbsolutePath().getParent();
+        if( parent != null )
+        {
+            Files.createDirectories( parent );
+        }
+        this.channel = open();
+    }
+
+    /**
+     * @return Changes queued but not delivered, latest change per entity, in queue order
+     */
+    List<Entry> undelivered()
+        throws IOException
+    {
+        Map<EntityReference, Entry> undelivered = new LinkedHashMap<>();
+        try( BufferedReader reader = Files.newBufferedReader( path, StandardCharsets.UTF_8 ) )
+        {
+            String line;
+            while( ( line = reader.readLine() ) != null )
+            {
+                String[] fields = line.split( "\t" );
+                try
+                {
+                    if( fields.length == 7 && "+".equals( fields[ 0 ] ) )
+                    {
+                        long sequence = Long.parseLong( fields[ 1 ] );
+                        EntityReference reference = EntityReference.parseEntityReference( decode( fields[ 6 ] ) );
+                        undelivered.remove( reference );
+                        undelivered.put( reference, new Entry( EntityStatus.valueOf( fields[ 2 ] ),
+                                                               decode( fields[ 3 ] ), decode( fields[ 4 ] ),
+                                                               decode( fields[ 5 ] ), reference, sequence ) );
+                        lastSequence = Math.max( lastSequence, sequence );
+                    }
+                    else if( fields.length == 3 && "-".equals( fields[ 0 ] ) )
+                    {
+                        long sequence = Long.parseLong( fields[ 1 ] );
+                        EntityReference reference = EntityReference.parseEntityReference( decode( fields[ 2 ] ) );
+                        Entry entry = undelivered.get( reference );
+                        if( entry != null && entry.sequence <= sequence )
+                        {
+                            undelivered.remove( reference );
+                        }
+                        lastSequence = Math.max( lastSequence, sequence );
+                    }
+                }
+                catch( IllegalArgumentException e )
+                {
+                    // Line torn by a crash, as is any other line, its change was not acknowledged to the committer
+                }
+            }
+        }
+        return new ArrayList<>( undelivered.values() );
+    }
+
+    /**
+     * @return Highest sequence read by {@link #undelivered()}, new changes must be queued after it
+     */
+    long lastSequence()
+    {
+        return lastSequence;
+    }
+
+    /**
+     * @param states Changes to record
+     * @param firstSequence Sequence of the first change, the following ones get consecutive sequences
+     */
+    void queued( Collection<EntityState> states, long firstSequence )
+        throws IOException
+    {
+        StringBuilder lines = new StringBuilder();
+        long sequence = firstSequence;
+        for( EntityState state : states )
+        {
+            append( lines, Entry.of( state, sequence++ ) );
+        }
+        write( lines );
+        channel.force( false );
+    }
+
+    /**
+     * @param sequences Delivered sequence per entity
+     */
+    void delivered( Map<EntityReference, Long> sequences )
+        throws IOException
+    {
+        StringBuilder lines = new StringBuilder();
+        for( Map.Entry<EntityReference, Long> delivered : sequences.entrySet() )
+        {
+            lines.append( "-\t" ).append( delivered.getValue() )
+                 .append( '\t' ).append( encode( delivered.getKey().identity().toString() ) )
+                 .append( '\n' );
+        }
+        write( lines );
+    }
+
+    /**
+     * Replace the log content with the given changes only.
+     */
+    void compact( Collection<Entry> undelivered )
+        throws IOException
+    {
+        channel.close();
+        Path compacted = path.resolveSibling( path.getFileName() + ".compact" );
+        StringBuilder lines = new StringBuilder();
+        for( Entry entry : undelivered )
+        {
+            append( lines, entry );
+        }
+        Files.write( compacted, lines.toString().getBytes( StandardCharsets.UTF_8 ) );
+        Files.move( compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        channel = open();
+    }
+
+    long size()
+        throws IOException
+    {
+        return channel.size();
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        channel.close();
+    }
+
+    private FileChannel open()
+        throws IOException
+    {
+        return FileChannel.open( path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND );
+    }
+
+    private void write( StringBuilder lines )
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap( lines.toString().getBytes( StandardCharsets.UTF_8 ) );
+        while( buffer.hasRemaining() )
+        {
+            channel.write( buffer );
+        }
+    }
+
+    private static void append( StringBuilder lines, Entry entry )
+    {
+        lines.append( "+\t" ).append( entry.sequence )
+             .append( '\t' ).append( entry.status.name() )
+             .append( '\t' ).append( encode( entry.layer ) )
+             .append( '\t' ).append( encode( entry.module ) )
+             .append( '\t' ).append( encode( entry.type ) )
+             .append( '\t' ).append( encode( entry.reference.identity().toString() ) )
+             .append( '\n' );
+    }
+
+    private static String encode( String value )
+    {
+        try
+        {
+            return URLEncoder.encode( value, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+
+    private static String decode( String value )
+    {
+        try
+        {
+            return URLDecoder.decode( value, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Map;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entitystore.EntityStoreException;
+
+/**
+ * MapEntityStore able to get the state of many entities in a single round-trip.
+ *
+ * <p>
+ * MapEntityStore mixins can implement this interface instead of {@link MapEntityStore} when the underlying store
+ * supports bulk reads. Otherwise {@link MapEntityStoreMixin} and {@link JSONMapEntityStoreMixin} fall back to one
+ * {@link MapEntityStore#get(EntityReference)} call per entity.
+ * </p>
+ */
+public interface BulkMapEntityStore
+    extends MapEntityStore
+{
+    /**
+     * @param entityReferences The references to the entities that we want to get.
+     * @return Entity state Readers of the found entities, missing entities are absent from the returned Map
+     */
+    Map<EntityReference, Reader> get( Collection<EntityReference> entityReferences )
+        throws EntityStoreException;
+}
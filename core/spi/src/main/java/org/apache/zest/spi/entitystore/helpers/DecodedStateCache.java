@@ -0,0 +1,167 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.type.CollectionType;
+import org.apache.zest.api.type.EnumType;
+import org.apache.zest.api.type.MapType;
+import org.apache.zest.api.type.ValueCompositeType;
+import org.apache.zest.api.type.ValueType;
+
+/**
+ * Cache of decoded entity state, shared across UnitOfWorks.
+ *
+ * <p>
+ * {@link JSONMapEntityStoreMixin} deserializes property values each time they are read in a UnitOfWork. When an
+ * instance of this class is set as MetaInfo of the EntityStore service, decoded property values and association
+ * references are kept per entity version and reused by all UnitOfWorks reading that version:
+ * </p>
+ * <pre><code>
+ * module.services( MyEntityStoreService.class ).setMetaInfo( new DecodedStateCache( 10000 ) );
+ * </code></pre>
+ * <p>
+ * Only values of immutable types are kept: ValueComposites, enums, primitive wrappers, String, BigInteger,
+ * BigDecimal and {@literal java.time} types. Entries of entities updated or removed by a UnitOfWork are invalidated
+ * on commit, and the least recently used entries are evicted past the maximum number of entities.
+ * </p>
+ */
+public final class DecodedStateCache
+{
+    private static final Object NULL = new Object();
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>( Arrays.asList(
+        String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, BigInteger.class, BigDecimal.class ) );
+
+    private final int maxEntities;
+    private final Map<String, Entry> entries;
+
+    public DecodedStateCache( int maxEntities )
+    {
+        if( maxEntities <= 0 )
+        {
+            throw new IllegalArgumentException( "maxEntities must be positive, was " + maxEntities );
+        }
+        this.maxEntities = maxEntities;
+        this.entries = new LinkedHashMap<String, Entry>( 16, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, Entry> eldest )
+            {
+                return size() > DecodedStateCache.this.maxEntities;
+            }
+        };
+    }
+
+    public int maxEntities()
+    {
+        return maxEntities;
+    }
+
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /* package */ synchronized Entry entry( ModuleDescriptor module, String identity, String version )
+    {
+        Entry entry = entries.get( identity );
+        if( entry == null || entry.module != module || !entry.version.equals( version ) )
+        {
+            entry = new Entry( module, version );
+            entries.put( identity, entry );
+        }
+        return entry;
+    }
+
+    /* package */ synchronized void invalidate( String identity )
+    {
+        entries.remove( identity );
+    }
+
+    /* package */ static boolean isImmutable( ValueType valueType )
+    {
+        if( valueType instanceof CollectionType || valueType instanceof MapType )
+        {
+            return false;
+        }
+        if( valueType instanceof ValueCompositeType || valueType instanceof EnumType )
+        {
+            return true;
+        }
+        Class<?> type = valueType.mainType();
+        return type.isPrimitive()
+               || IMMUTABLE_TYPES.contains( type )
+               || ( type.getName().startsWith( "java.time." ) && !type.isInterface() );
+    }
+
+    /**
+     * Decoded state of one entity version, as read from one Module.
+     */
+    /* package */ static final class Entry
+    {
+        private final ModuleDescriptor module;
+        private final String version;
+        private final Map<String, Object> properties = new ConcurrentHashMap<>();
+        private final Map<String, Object> associations = new ConcurrentHashMap<>();
+
+        private Entry( ModuleDescriptor module, String version )
+        {
+            this.module = module;
+            this.version = version;
+        }
+
+        /* package */ Object property( String name, Supplier<Object> decoder )
+        {
+            return decoded( properties, name, decoder );
+        }
+
+        /* package */ Object association( String name, Supplier<Object> decoder )
+        {
+            return decoded( associations, name, decoder );
+        }
+
+        private static Object decoded( Map<String, Object> values, String name, Supplier<Object> decoder )
+        {
+            Object value = values.get( name );
+            if( value == null )
+            {
+                Object decodedValue = decoder.get();
+                value = decodedValue == null ? NULL : decodedValue;
+                values.put( name, value );
+            }
+            return value == NULL ? null : value;
+        }
+    }
+}
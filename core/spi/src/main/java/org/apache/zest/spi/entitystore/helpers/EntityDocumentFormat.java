@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Entity state document encoding SPI.
+ * <p>
+ * When a service of this type is visible to a {@link JSONMapEntityStoreMixin} based EntityStore, entity state
+ * documents are written and read through it instead of as JSON text. Implementations must still be able to read plain
+ * JSON documents so that existing stores can be switched over, entities being rewritten as they get updated.
+ * </p>
+ * <p>
+ * MapEntityStores that look into documents, for example to find the identity of restored entities, must do so
+ * through {@link #readDocument(EntityDocumentFormat, Reader)}. Backups are always made of JSON documents, see
+ * {@link #jsonDocument(EntityDocumentFormat, String)} and
+ * {@link #restoredDocument(EntityDocumentFormat, JSONObject, String)}.
+ * </p>
+ */
+public interface EntityDocumentFormat
+{
+    JSONObject read( Reader document )
+        throws IOException, JSONException;
+
+    void write( JSONObject state, Writer document )
+        throws IOException, JSONException;
+
+    /**
+     * Read a stored entity state document.
+     *
+     * @param format the EntityDocumentFormat in use, or {@literal null} if documents are stored as JSON
+     * @param document the stored document
+     * @return the entity state
+     */
+    static JSONObject readDocument( EntityDocumentFormat format, Reader document )
+        throws IOException, JSONException
+    {
+        if( format == null )
+        {
+            return new JSONObject( new JSONTokener( document ) );
+        }
+        return format.read( document );
+    }
+
+    /**
+     * @param format the EntityDocumentFormat in use, or {@literal null} if documents are stored as JSON
+     * @param document a stored document
+     * @return the document as JSON text, as used in backups
+     */
+    static String jsonDocument( EntityDocumentFormat format, String document )
+        throws IOException, JSONException
+    {
+        if( format == null )
+        {
+            return document;
+        }
+        return format.read( new StringReader( document ) ).toString();
+    }
+
+    /**
+     * @param format the EntityDocumentFormat in use, or {@literal null} if documents are stored as JSON
+     * @param state the restored entity state, as read by {@link #readDocument(EntityDocumentFormat, Reader)}
+     * @param document the restored document
+     * @return the document to store
+     */
+    static String restoredDocument( EntityDocumentFormat format, JSONObject state, String document )
+        throws IOException, JSONException
+    {
+        if( format == null )
+        {
+            return document;
+        }
+        StringWriter writer = new StringWriter( document.length() );
+        format.write( state, writer );
+        return writer.toString();
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entity.ManyAssociationState;
 import org.apache.zest.spi.entity.NamedAssociationState;
 import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.value.JSONTreeDeserializer;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -60,6 +61,9 @@ public final class JSONEntityState
     private final EntityReference reference;
     private final EntityDescriptor entityDescriptor;
 
+    // Decoded state shared with other UnitOfWorks, only used while the state is not modified
+    private final DecodedStateCache.Entry decoded;
+
     private EntityStatus status;
     private Instant lastModified;
     private JSONObject state;
@@ -74,6 +78,21 @@ public final class JSONEntityState
                                    JSONObject state
     )
     {
+        this( module, valueSerialization, version, lastModified, reference, status, entityDescriptor, state, null );
+    }
+
+    /* package */ JSONEntityState( ModuleDescriptor module,
+                                   ValueSerialization valueSerialization,
+                                   String version,
+                                   Instant lastModified,
+                                   EntityReference reference,
+                                   EntityStatus status,
+                                   EntityDescriptor entityDescriptor,
+                                   JSONObject state,
+                                   DecodedStateCache.Entry decoded
+    )
+    {
+        this.decoded = decoded;
         this.module = module;
         this.valueSerialization = valueSerialization;
         this.version = version;
@@ -105,6 +124,19 @@ public final class JSONEntityState
 
     @Override
     public Object propertyValueOf( QualifiedName stateName )
+    {
+        if( decoded != null && status == EntityStatus.LOADED )
+        {
+            PropertyDescriptor descriptor = entityDescriptor.state().findPropertyModelByQualifiedName( stateName );
+            if( descriptor != null && DecodedStateCache.isImmutable( descriptor.valueType() ) )
+            {
+                return decoded.property( stateName.name(), () -> decodePropertyValue( stateName ) );
+            }
+        }
+        return decodePropertyValue( stateName );
+    }
+
+    private Object decodePropertyValue( QualifiedName stateName )
     {
         try
         {
@@ -120,6 +152,11 @@ public final class JSONEntityState
                 {
                     return null;
                 }
+                if( valueSerialization instanceof JSONTreeDeserializer )
+                {
+                    // Straight from the state tree
+                    return ( (JSONTreeDeserializer) valueSerialization ).deserializeTree( module, descriptor, json );
+                }
                 return valueSerialization.deserialize( module, descriptor.valueType(), json.toString() );
             }
         }
@@ -182,6 +219,15 @@ public final class JSONEntityState
 
     @Override
     public EntityReference associationValueOf( QualifiedName stateName )
+    {
+        if( decoded != null && status == EntityStatus.LOADED )
+        {
+            return (EntityReference) decoded.association( stateName.name(), () -> decodeAssociationValue( stateName ) );
+        }
+        return decodeAssociationValue( stateName );
+    }
+
+    private EntityReference decodeAssociationValue( QualifiedName stateName )
     {
         try
         {
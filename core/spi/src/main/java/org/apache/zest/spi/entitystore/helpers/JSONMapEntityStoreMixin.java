@@ -27,8 +27,15 @@ import java.io.Reader;
 import java.io.Writer;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.zest.api.cache.CacheOptions;
 import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.entity.EntityDescriptor;
@@ -40,6 +47,7 @@ import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
 import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.mixin.Initializable;
 import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.service.qualifier.Tagged;
 import org.apache.zest.api.structure.Application;
@@ -58,14 +66,18 @@ import org.apache.zest.spi.cache.NullCache;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entitystore.DefaultEntityStoreUnitOfWork;
+import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
 import org.apache.zest.spi.entitystore.EntityStoreSPI;
 import org.apache.zest.spi.entitystore.EntityStoreUnitOfWork;
+import org.apache.zest.spi.entitystore.PartitionedEntityStore;
 import org.apache.zest.spi.entitystore.StateCommitter;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONTokener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of EntityStore that works with an implementation of MapEntityStore.
@@ -74,10 +86,14 @@ import org.json.JSONTokener;
  * <p>See {@link org.apache.zest.entitystore.memory.MemoryMapEntityStoreMixin} for reference.</p>
  * <p>EntityStores based on this mixin gets support for the <b>Migration</b> and <b>Cache</b> extensions.</p>
  * <p>MapEntityStore implementations will get their values as JSON.</p>
+ * <p>Reads are serialized unless the service type is annotated with {@link ThreadSafeMapEntityStore}.</p>
  */
 public class JSONMapEntityStoreMixin
-    implements EntityStore, EntityStoreSPI, StateStore, JSONMapEntityStoreActivation
+    implements EntityStore, EntityStoreSPI, PartitionedEntityStore, StateStore, JSONMapEntityStoreActivation,
+               Initializable
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger( JSONMapEntityStoreMixin.class );
+
     @This
     private MapEntityStore mapEntityStore;
 
@@ -101,6 +117,10 @@ public class JSONMapEntityStoreMixin
     @Service
     private Migration migration;
 
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
     @Uses
     private ServiceDescriptor descriptor;
 
@@ -108,14 +128,26 @@ public class JSONMapEntityStoreMixin
     @Service
     private CachePool caching;
     private Cache<CacheState> cache;
+    private DecodedStateCache decodedStates;
 
     protected String uuid;
     private int count;
+    private boolean threadSafe;
+
+    // Commits share it, the write-back of migrated entities holds it exclusively
+    private final ReadWriteLock migrationLock = new ReentrantReadWriteLock();
 
     public JSONMapEntityStoreMixin()
     {
     }
 
+    @Override
+    public void initialize()
+    {
+        threadSafe = descriptor.metaInfo( ThreadSafeMapEntityStore.class ) != null;
+        decodedStates = descriptor.metaInfo( DecodedStateCache.class );
+    }
+
     @Override
     public void setUpJSONMapES()
         throws Exception
@@ -186,9 +218,55 @@ public class JSONMapEntityStoreMixin
     }
 
     @Override
-    public synchronized EntityState entityStateOf( EntityStoreUnitOfWork unitOfWork,
-                                                   ModuleDescriptor module,
-                                                   EntityReference reference
+    public EntityState entityStateOf( EntityStoreUnitOfWork unitOfWork,
+                                      ModuleDescriptor module,
+                                      EntityReference reference
+    )
+    {
+        if( threadSafe )
+        {
+            return loadEntityState( unitOfWork, module, reference );
+        }
+        synchronized( this )
+        {
+            return loadEntityState( unitOfWork, module, reference );
+        }
+    }
+
+    @Override
+    public Map<EntityReference, EntityState> entityStatesOf( EntityStoreUnitOfWork unitOfWork,
+                                                             ModuleDescriptor module,
+                                                             Collection<EntityReference> references
+    )
+    {
+        if( threadSafe )
+        {
+            return loadEntityStates( unitOfWork, module, references );
+        }
+        synchronized( this )
+        {
+            return loadEntityStates( unitOfWork, module, references );
+        }
+    }
+
+    @Override
+    public String versionOf( EntityStoreUnitOfWork unitOfWork,
+                             EntityReference reference
+    )
+    {
+        if( threadSafe )
+        {
+            return loadVersion( reference );
+        }
+        synchronized( this )
+        {
+            return loadVersion( reference );
+        }
+    }
+
+    private EntityState loadEntityState( EntityStoreUnitOfWork unitOfWork,
+                                         ModuleDescriptor module,
+                                         EntityReference reference
     )
     {
         EntityState state = fetchCachedState( reference, module, unitOfWork.currentTime() );
@@ -206,10 +284,74 @@ public class JSONMapEntityStoreMixin
         return loadedState;
     }
 
-    @Override
-    public synchronized String versionOf( EntityStoreUnitOfWork unitOfWork,
-                                          EntityReference reference
+    private Map<EntityReference, EntityState> loadEntityStates( EntityStoreUnitOfWork unitOfWork,
+                                                                ModuleDescriptor module,
+                                                                Collection<EntityReference> references
     )
+    {
+        Map<EntityReference, EntityState> entityStates = new HashMap<>();
+        List<EntityReference> toLoad = new ArrayList<>();
+        for( EntityReference reference : references )
+        {
+            EntityState state = fetchCachedState( reference, module, unitOfWork.currentTime() );
+            if( state != null )
+            {
+                entityStates.put( reference, state );
+            }
+            else
+            {
+                toLoad.add( reference );
+            }
+        }
+        if( toLoad.isEmpty() )
+        {
+            return entityStates;
+        }
+        boolean cacheOnRead = doCacheOnRead( unitOfWork );
+        Map<EntityReference, Reader> readers;
+        if( mapEntityStore instanceof BulkMapEntityStore )
+        {
+            readers = ( (BulkMapEntityStore) mapEntityStore ).get( toLoad );
+        }
+        else
+        {
+            // Already missed in the cache, read straight from the store
+            readers = new LinkedHashMap<>();
+            for( EntityReference reference : toLoad )
+            {
+                try
+                {
+                    readers.put( reference, mapEntityStore.get( reference ) );
+                }
+                catch( EntityNotFoundException e )
+                {
+                    // Missing entities are absent from the result
+                }
+            }
+        }
+        for( Map.Entry<EntityReference, Reader> entry : readers.entrySet() )
+        {
+            JSONEntityState loadedState;
+            try
+            {
+                loadedState = readEntityState( module, entry.getValue() );
+            }
+            catch( EntityStoreException e )
+            {
+                // One unreadable document must not lose the others, it is left out like a missing entity
+                LOGGER.warn( "Could not read the state of {}, left out of the loaded states", entry.getKey(), e );
+                continue;
+            }
+            if( cacheOnRead )
+            {
+                cache.put( entry.getKey().identity().toString(), new CacheState( loadedState.state() ) );
+            }
+            entityStates.put( entry.getKey(), loadedState );
+        }
+        return entityStates;
+    }
+
+    private String loadVersion( EntityReference reference )
     {
         CacheState cacheState = cache.get( reference.identity().toString() );
         if( cacheState != null )
@@ -228,10 +370,10 @@ public class JSONMapEntityStoreMixin
         Reader entityState = mapEntityStore.get( reference );
         try
         {
-            JSONObject jsonObject = new JSONObject( new JSONTokener( entityState ) );
+            JSONObject jsonObject = readDocument( entityState );
             return jsonObject.getString( JSONKeys.VERSION );
         }
-        catch( JSONException e )
+        catch( JSONException | IOException e )
         {
             throw new EntityStoreException( e );
         }
@@ -248,6 +390,7 @@ public class JSONMapEntityStoreMixin
             @Override
             public void commit()
             {
+                migrationLock.readLock().lock();
                 try
                 {
                     mapEntityStore.applyChanges( new MapEntityStore.MapChanges()
@@ -286,11 +429,13 @@ public class JSONMapEntityStoreMixin
                                     {
                                         cache.put( state.entityReference().identity().toString(), new CacheState( state.state() ) );
                                     }
+                                    invalidateDecodedState( state.entityReference() );
                                 }
                                 else if( state.status().equals( EntityStatus.REMOVED ) )
                                 {
                                     changer.removeEntity( state.entityReference(), state.entityDescriptor() );
                                     cache.remove( state.entityReference().identity().toString() );
+                                    invalidateDecodedState( state.entityReference() );
                                 }
                             }
                         }
@@ -300,6 +445,10 @@ public class JSONMapEntityStoreMixin
                 {
                     throw new EntityStoreException( e );
                 }
+                finally
+                {
+                    migrationLock.readLock().unlock();
+                }
             }
 
             @Override
@@ -311,6 +460,33 @@ public class JSONMapEntityStoreMixin
 
     @Override
     public Input<EntityState, EntityStoreException> entityStates( final ModuleDescriptor module )
+    {
+        return entityStates( module, mapEntityStore.entityStates() );
+    }
+
+    @Override
+    public List<EntityStorePartition> partitions( int desiredCount )
+    {
+        if( mapEntityStore instanceof PartitionedMapEntityStore )
+        {
+            return ( (PartitionedMapEntityStore) mapEntityStore ).partitions( desiredCount );
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Input<EntityState, EntityStoreException> entityStates( ModuleDescriptor module,
+                                                                  EntityStorePartition partition )
+    {
+        if( !( mapEntityStore instanceof PartitionedMapEntityStore ) )
+        {
+            throw new UnsupportedOperationException( "Underlying MapEntityStore does not support partitions" );
+        }
+        return entityStates( module, ( (PartitionedMapEntityStore) mapEntityStore ).entityStates( partition ) );
+    }
+
+    private Input<EntityState, EntityStoreException> entityStates( final ModuleDescriptor module,
+                                                                   final Input<Reader, IOException> readers )
     {
         return new Input<EntityState, EntityStoreException>()
         {
@@ -327,7 +503,7 @@ public class JSONMapEntityStoreMixin
                         final List<EntityState> migrated = new ArrayList<>();
                         try
                         {
-                            mapEntityStore.entityStates().transferTo( new Output<Reader, ReceiverThrowableType>()
+                            readers.transferTo( new Output<Reader, ReceiverThrowableType>()
                             {
                                 @Override
                                 public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends Reader, SenderThrowableType> sender )
@@ -389,22 +565,47 @@ public class JSONMapEntityStoreMixin
     private void synchMigratedEntities( final List<EntityState> migratedEntities )
         throws IOException
     {
-        mapEntityStore.applyChanges( new MapEntityStore.MapChanges()
+        migrationLock.writeLock().lock();
+        try
         {
-            @Override
-            public void visitMap( MapEntityStore.MapChanger changer )
-                throws IOException
+            // Entities updated since they were read are left alone, they were migrated when loaded for the update.
+            // Holding the migration lock keeps commits from slipping in between the version check and the write-back.
+            final List<EntityState> unchanged = new ArrayList<>( migratedEntities.size() );
+            for( EntityState migratedEntity : migratedEntities )
             {
-                for( EntityState migratedEntity : migratedEntities )
+                try
                 {
-                    JSONEntityState state = (JSONEntityState) migratedEntity;
-                    try (Writer writer = changer.updateEntity( state.entityReference(), state.entityDescriptor() ))
+                    if( migratedEntity.version().equals( loadVersion( migratedEntity.entityReference() ) ) )
                     {
-                        writeEntityState( state, writer, state.version(), state.lastModified() );
+                        unchanged.add( migratedEntity );
                     }
                 }
+                catch( EntityNotFoundException e )
+                {
+                    // Removed since it was read
+                }
             }
-        } );
+            mapEntityStore.applyChanges( new MapEntityStore.MapChanges()
+            {
+                @Override
+                public void visitMap( MapEntityStore.MapChanger changer )
+                    throws IOException
+                {
+                    for( EntityState migratedEntity : unchanged )
+                    {
+                        JSONEntityState state = (JSONEntityState) migratedEntity;
+                        try (Writer writer = changer.updateEntity( state.entityReference(), state.entityDescriptor() ))
+                        {
+                            writeEntityState( state, writer, state.version(), state.lastModified() );
+                        }
+                    }
+                }
+            } );
+        }
+        finally
+        {
+            migrationLock.writeLock().unlock();
+        }
         migratedEntities.clear();
     }
 
@@ -421,7 +622,14 @@ public class JSONMapEntityStoreMixin
             JSONObject jsonState = state.state();
             jsonState.put( JSONKeys.VERSION, version );
             jsonState.put( JSONKeys.MODIFIED, lastModified.toEpochMilli() );
-            writer.append( jsonState.toString() );
+            if( documentFormat != null )
+            {
+                documentFormat.write( jsonState, writer );
+            }
+            else
+            {
+                writer.append( jsonState.toString() );
+            }
         }
         catch( JSONException | IOException e )
         {
@@ -429,12 +637,18 @@ public class JSONMapEntityStoreMixin
         }
     }
 
+    private JSONObject readDocument( Reader entityState )
+        throws IOException, JSONException
+    {
+        return EntityDocumentFormat.readDocument( documentFormat, entityState );
+    }
+
     protected JSONEntityState readEntityState( ModuleDescriptor module, Reader entityState )
         throws EntityStoreException
     {
         try
         {
-            JSONObject jsonObject = new JSONObject( new JSONTokener( entityState ) );
+            JSONObject jsonObject = readDocument( entityState );
             EntityStatus status = EntityStatus.LOADED;
 
             String version = jsonObject.getString( JSONKeys.VERSION );
@@ -472,17 +686,19 @@ public class JSONMapEntityStoreMixin
                 throw new NoSuchEntityTypeException( type, module.name(), module.typeLookup() );
             }
 
+            EntityReference reference = EntityReference.create( identity );
             return new JSONEntityState( module,
                                         valueSerialization,
                                         version,
                                         modified,
-                                        EntityReference.create( identity ),
+                                        reference,
                                         status,
                                         entityDescriptor,
-                                        jsonObject
+                                        jsonObject,
+                                        status == EntityStatus.LOADED ? decodedState( module, reference, version ) : null
             );
         }
-        catch( JSONException e )
+        catch( JSONException | IOException e )
         {
             throw new EntityStoreException( e );
         }
@@ -494,7 +710,7 @@ public class JSONMapEntityStoreMixin
     {
         try (Reader reader = mapEntityStore.get( EntityReference.parseEntityReference( id ) ))
         {
-            return new JSONObject( new JSONTokener( reader ) );
+            return readDocument( reader );
         }
         catch( JSONException e )
         {
@@ -513,7 +729,9 @@ public class JSONMapEntityStoreMixin
                 String type = data.getString( JSONKeys.TYPE );
                 EntityDescriptor entityDescriptor = module.entityDescriptor( type );
                 Instant lastModified = Instant.ofEpochMilli(data.getLong(JSONKeys.MODIFIED));
-                return new JSONEntityState( module, valueSerialization, data.getString( JSONKeys.VERSION ), lastModified, reference, EntityStatus.LOADED, entityDescriptor, data );
+                String version = data.getString( JSONKeys.VERSION );
+                return new JSONEntityState( module, valueSerialization, version, lastModified, reference, EntityStatus.LOADED, entityDescriptor, data,
+                                            decodedState( module, reference, version ) );
             }
             catch( JSONException e )
             {
@@ -524,6 +742,19 @@ public class JSONMapEntityStoreMixin
         return null;
     }
 
+    private DecodedStateCache.Entry decodedState( ModuleDescriptor module, EntityReference reference, String version )
+    {
+        return decodedStates == null ? null : decodedStates.entry( module, reference.identity().toString(), version );
+    }
+
+    private void invalidateDecodedState( EntityReference reference )
+    {
+        if( decodedStates != null )
+        {
+            decodedStates.invalidate( reference.identity().toString() );
+        }
+    }
+
     private boolean doCacheOnRead( EntityStoreUnitOfWork unitOfWork )
     {
         CacheOptions cacheOptions = unitOfWork.usecase().metaInfo( CacheOptions.class );
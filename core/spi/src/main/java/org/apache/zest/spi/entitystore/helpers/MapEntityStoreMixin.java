@@ -24,10 +24,14 @@ import java.io.Reader;
 import java.io.Writer;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.common.QualifiedName;
 import org.apache.zest.api.entity.EntityDescriptor;
@@ -38,9 +42,16 @@ import org.apache.zest.api.identity.StringIdentity;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.mixin.Initializable;
+import org.apache.zest.api.service.ServiceDescriptor;
 import org.apache.zest.api.service.qualifier.Tagged;
 import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.property.PropertyDescriptor;
 import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.type.CollectionType;
+import org.apache.zest.api.type.MapType;
+import org.apache.zest.api.type.ValueCompositeType;
 import org.apache.zest.api.type.ValueType;
 import org.apache.zest.api.unitofwork.NoSuchEntityTypeException;
 import org.apache.zest.api.usecase.Usecase;
@@ -54,6 +65,7 @@ import org.apache.zest.spi.ZestSPI;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entity.EntityStatus;
 import org.apache.zest.spi.entitystore.DefaultEntityStoreUnitOfWork;
+import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.EntityStoreException;
 import org.apache.zest.spi.entitystore.EntityStoreSPI;
@@ -63,7 +75,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
-import org.json.JSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of EntityStore that works with an implementation of MapEntityStore.
@@ -72,10 +85,13 @@ import org.json.JSONWriter;
  * <p>See {@link org.apache.zest.entitystore.memory.MemoryMapEntityStoreMixin} for reference.</p>
  * <p>EntityStores based on this mixin gets support for the <b>Migration</b> extension.</p>
  * <p>MapEntityStore implementations will get their values as JSON.</p>
+ * <p>Reads are serialized unless the service type is annotated with {@link ThreadSafeMapEntityStore}.</p>
  */
 public class MapEntityStoreMixin
-    implements EntityStore, EntityStoreSPI, StateStore, MapEntityStoreActivation
+    implements EntityStore, EntityStoreSPI, StateStore, MapEntityStoreActivation, Initializable
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger( MapEntityStoreMixin.class );
+
     @This
     private MapEntityStore mapEntityStore;
 
@@ -99,6 +115,20 @@ public class MapEntityStoreMixin
     @Service
     private IdentityGenerator identityGenerator;
 
+    @Uses
+    private ServiceDescriptor descriptor;
+
+    private boolean threadSafe;
+
+    // Commits share it, the write-back of migrated entities holds it exclusively
+    private final ReadWriteLock migrationLock = new ReentrantReadWriteLock();
+
+    @Override
+    public void initialize()
+    {
+        threadSafe = descriptor.metaInfo( ThreadSafeMapEntityStore.class ) != null;
+    }
+
     @Override
     public void activateMapEntityStore()
         throws Exception
@@ -123,19 +153,98 @@ public class MapEntityStoreMixin
     }
 
     @Override
-    public synchronized EntityState entityStateOf( EntityStoreUnitOfWork unitofwork,
-                                                   ModuleDescriptor module,
-                                                   EntityReference reference
+    public EntityState entityStateOf( EntityStoreUnitOfWork unitofwork,
+                                      ModuleDescriptor module,
+                                      EntityReference reference
     )
     {
-        Reader in = mapEntityStore.get( reference );
-        return readEntityState( module, in );
+        if( threadSafe )
+        {
+            return loadEntityState( module, reference );
+        }
+        synchronized( this )
+        {
+            return loadEntityState( module, reference );
+        }
     }
 
     @Override
-    public synchronized String versionOf( EntityStoreUnitOfWork unitofwork,
-                                          EntityReference reference
+    public Map<EntityReference, EntityState> entityStatesOf( EntityStoreUnitOfWork unitofwork,
+                                                             ModuleDescriptor module,
+                                                             Collection<EntityReference> references
     )
+    {
+        if( threadSafe )
+        {
+            return loadEntityStates( module, references );
+        }
+        synchronized( this )
+        {
+            return loadEntityStates( module, references );
+        }
+    }
+
+    @Override
+    public String versionOf( EntityStoreUnitOfWork unitofwork,
+                             EntityReference reference
+    )
+    {
+        if( threadSafe )
+        {
+            return loadVersion( reference );
+        }
+        synchronized( this )
+        {
+            return loadVersion( reference );
+        }
+    }
+
+    private EntityState loadEntityState( ModuleDescriptor module, EntityReference reference )
+    {
+        Reader in = mapEntityStore.get( reference );
+        return readEntityState( module, in );
+    }
+
+    private Map<EntityReference, EntityState> loadEntityStates( ModuleDescriptor module,
+                                                                Collection<EntityReference> references )
+    {
+        Map<EntityReference, EntityState> entityStates = new HashMap<>();
+        Map<EntityReference, Reader> readers;
+        if( mapEntityStore instanceof BulkMapEntityStore )
+        {
+            readers = ( (BulkMapEntityStore) mapEntityStore ).get( references );
+        }
+        else
+        {
+            readers = new LinkedHashMap<>();
+            for( EntityReference reference : references )
+            {
+                try
+                {
+                    readers.put( reference, mapEntityStore.get( reference ) );
+                }
+                catch( EntityNotFoundException e )
+                {
+                    // Missing entities are absent from the result
+                }
+            }
+        }
+        for( Map.Entry<EntityReference, Reader> entry : readers.entrySet() )
+        {
+            try
+            {
+                entityStates.put( entry.getKey(), readEntityState( module, entry.getValue() ) );
+            }
+            catch( EntityStoreException e )
+            {
+                // One unreadable document must not lose the others, it is left out like a missing entity
+                LOGGER.warn( "Could not read the state of {}, left out of the loaded states", entry.getKey(), e );
+            }
+        }
+        return entityStates;
+    }
+
+    private String loadVersion( EntityReference reference )
     {
         Reader in = mapEntityStore.get( reference );
         try
@@ -159,6 +268,7 @@ public class MapEntityStoreMixin
             @Override
             public void commit()
             {
+                migrationLock.readLock().lock();
                 try
                 {
                     mapEntityStore.applyChanges( changer -> {
@@ -190,6 +300,10 @@ public class MapEntityStoreMixin
                 {
                     throw new EntityStoreException( e );
                 }
+                finally
+                {
+                    migrationLock.readLock().unlock();
+                }
             }
 
             @Override
@@ -273,16 +387,41 @@ public class MapEntityStoreMixin
     private void synchMigratedEntities( final List<EntityState> migratedEntities )
         throws IOException
     {
-        mapEntityStore.applyChanges( changer -> {
+        migrationLock.writeLock().lock();
+        try
+        {
+            // Entities updated since they were read are left alone, they were migrated when loaded for the update.
+            // Holding the migration lock keeps commits from slipping in between the version check and the write-back.
+            final List<EntityState> unchanged = new ArrayList<>( migratedEntities.size() );
             for( EntityState migratedEntity : migratedEntities )
             {
-                DefaultEntityState state = (DefaultEntityState) migratedEntity;
-                try (Writer writer = changer.updateEntity( state.entityReference(), state.entityDescriptor() ))
+                try
+                {
+                    if( migratedEntity.version().equals( loadVersion( migratedEntity.entityReference() ) ) )
+                    {
+                        unchanged.add( migratedEntity );
+                    }
+                }
+                catch( EntityNotFoundException e )
                 {
-                    writeEntityState( state, writer, state.version(), state.lastModified() );
+                    // Removed since it was read
                 }
             }
-        } );
+            mapEntityStore.applyChanges( changer -> {
+                for( EntityState migratedEntity : unchanged )
+                {
+                    DefaultEntityState state = (DefaultEntityState) migratedEntity;
+                    try (Writer writer = changer.updateEntity( state.entityReference(), state.entityDescriptor() ))
+                    {
+                        writeEntityState( state, writer, state.version(), state.lastModified() );
+                    }
+                }
+            } );
+        }
+        finally
+        {
+            migrationLock.writeLock().unlock();
+        }
         migratedEntities.clear();
     }
 
@@ -291,92 +430,156 @@ public class MapEntityStoreMixin
         return identityGenerator.generate( EntityStore.class );
     }
 
-    protected void writeEntityState(DefaultEntityState state, Writer writer, String version, Instant lastModified )
+    /**
+     * Write the entity state document.
+     *
+     * <p>ValueComposite, Collection and Map property values are serialized straight into the given Writer.</p>
+     */
+    protected void writeEntityState( DefaultEntityState state, Writer writer, String version, Instant lastModified )
         throws EntityStoreException
     {
         try
         {
-            JSONWriter json = new JSONWriter( writer );
-            JSONWriter properties = json.object().
-                key( JSONKeys.IDENTITY ).value( state.entityReference().identity() ).
-                key( JSONKeys.APPLICATION_VERSION ).value( application.version() ).
-                key( JSONKeys.TYPE ).value( state.entityDescriptor().types().findFirst().get().getName() ).
-                key( JSONKeys.VERSION ).value( version ).
-                key( JSONKeys.MODIFIED ).value( lastModified.toEpochMilli() ).
-                key( JSONKeys.PROPERTIES ).object();
-            EntityDescriptor entityType = state.entityDescriptor();
-            entityType.state().properties().forEach( persistentProperty -> {
+            writer.append( '{' );
+            writeKey( writer, JSONKeys.IDENTITY, true );
+            writer.append( JSONObject.quote( state.entityReference().identity().toString() ) );
+            writeKey( writer, JSONKeys.APPLICATION_VERSION, false );
+            writer.append( JSONObject.quote( application.version() ) );
+            writeKey( writer, JSONKeys.TYPE, false );
+            writer.append( JSONObject.quote( state.entityDescriptor().types().findFirst().get().getName() ) );
+            writeKey( writer, JSONKeys.VERSION, false );
+            writer.append( JSONObject.quote( version ) );
+            writeKey( writer, JSONKeys.MODIFIED, false );
+            writer.append( Long.toString( lastModified.toEpochMilli() ) );
+
+            writeKey( writer, JSONKeys.PROPERTIES, false );
+            writer.append( '{' );
+            WriterOutputStream valueOutput = new WriterOutputStream( writer );
+            boolean first = true;
+            for( PropertyDescriptor persistentProperty : state.entityDescriptor().state().properties()
+                .collect( Collectors.toList() ) )
+            {
                 Object value = state.properties().get( persistentProperty.qualifiedName() );
+                writeKey( writer, persistentProperty.qualifiedName().name(), first );
+                first = false;
                 try
                 {
-                    json.key( persistentProperty.qualifiedName().name() );
-                    if( value == null || ValueType.isPrimitiveValue( value ) )
-                    {
-                        json.value( value );
-                    }
-                    else
-                    {
-                        String serialized = valueSerialization.serialize( value );
-                        if( serialized.startsWith( "{" ) )
-                        {
-                            json.value( new JSONObject( serialized ) );
-                        }
-                        else if( serialized.startsWith( "[" ) )
-                        {
-                            json.value( new JSONArray( serialized ) );
-                        }
-                        else
-                        {
-                            json.value( serialized );
-                        }
-                    }
+                    writePropertyValue( writer, valueOutput, persistentProperty.valueType(), value );
                 }
                 catch( JSONException e )
                 {
                     throw new ValueSerializationException( "Unable to write property " + persistentProperty, e );
                 }
-            } );
+            }
+            valueOutput.close();
+            writer.append( '}' );
 
-            JSONWriter associations = properties.endObject().key( JSONKeys.ASSOCIATIONS ).object();
+            writeKey( writer, JSONKeys.ASSOCIATIONS, false );
+            writer.append( '{' );
+            first = true;
             for( Map.Entry<QualifiedName, EntityReference> stateNameEntityReferenceEntry : state.associations()
                 .entrySet() )
             {
                 EntityReference value = stateNameEntityReferenceEntry.getValue();
-                associations.key( stateNameEntityReferenceEntry.getKey().name() ).
-                    value( value != null ? value.identity() : null );
+                writeKey( writer, stateNameEntityReferenceEntry.getKey().name(), first );
+                first = false;
+                writer.append( value != null ? JSONObject.quote( value.identity().toString() ) : "null" );
             }
+            writer.append( '}' );
 
-            JSONWriter manyAssociations = associations.endObject().key( JSONKeys.MANY_ASSOCIATIONS ).object();
+            writeKey( writer, JSONKeys.MANY_ASSOCIATIONS, false );
+            writer.append( '{' );
+            first = true;
             for( Map.Entry<QualifiedName, List<EntityReference>> stateNameListEntry : state.manyAssociations()
                 .entrySet() )
             {
-                JSONWriter assocs = manyAssociations.key( stateNameListEntry.getKey().name() ).array();
+                writeKey( writer, stateNameListEntry.getKey().name(), first );
+                first = false;
+                writer.append( '[' );
+                boolean firstRef = true;
                 for( EntityReference entityReference : stateNameListEntry.getValue() )
                 {
-                    assocs.value( entityReference.identity() );
+                    if( !firstRef )
+                    {
+                        writer.append( ',' );
+                    }
+                    firstRef = false;
+                    writer.append( JSONObject.quote( entityReference.identity().toString() ) );
                 }
-                assocs.endArray();
+                writer.append( ']' );
             }
+            writer.append( '}' );
 
-            JSONWriter namedAssociations = manyAssociations.endObject().key( JSONKeys.NAMED_ASSOCIATIONS ).object();
+            writeKey( writer, JSONKeys.NAMED_ASSOCIATIONS, false );
+            writer.append( '{' );
+            first = true;
             for( Map.Entry<QualifiedName, Map<String, EntityReference>> stateNameMapEntry : state.namedAssociations()
                 .entrySet() )
             {
-                JSONWriter assocs = namedAssociations.key( stateNameMapEntry.getKey().name() ).object();
+                writeKey( writer, stateNameMapEntry.getKey().name(), first );
+                first = false;
+                writer.append( '{' );
+                boolean firstRef = true;
                 for( Map.Entry<String, EntityReference> namedRef : stateNameMapEntry.getValue().entrySet() )
                 {
-                    assocs.key( namedRef.getKey() ).value( namedRef.getValue().identity() );
+                    writeKey( writer, namedRef.getKey(), firstRef );
+                    firstRef = false;
+                    writer.append( JSONObject.quote( namedRef.getValue().identity().toString() ) );
                 }
-                assocs.endObject();
+                writer.append( '}' );
             }
-            namedAssociations.endObject().endObject();
+            writer.append( '}' );
+            writer.append( '}' );
         }
-        catch( JSONException e )
+        catch( IOException e )
         {
             throw new EntityStoreException( "Could not store EntityState", e );
         }
     }
 
+    private static void writeKey( Writer writer, String key, boolean first )
+        throws IOException
+    {
+        if( !first )
+        {
+            writer.append( ',' );
+        }
+        writer.append( JSONObject.quote( key ) ).append( ':' );
+    }
+
+    private void writePropertyValue( Writer writer, WriterOutputStream valueOutput, ValueType valueType, Object value )
+        throws IOException, JSONException
+    {
+        if( value == null || ValueType.isPrimitiveValue( value ) )
+        {
+            writer.append( JSONObject.valueToString( value ) );
+        }
+        else if( valueType instanceof ValueCompositeType
+                 || valueType instanceof CollectionType
+                 || valueType instanceof MapType )
+        {
+            // Serialized as a JSON object or array, stream it in place
+            valueSerialization.serialize( value, valueOutput );
+            valueOutput.flush();
+        }
+        else
+        {
+            String serialized = valueSerialization.serialize( value );
+            if( serialized.startsWith( "{" ) )
+            {
+                writer.append( new JSONObject( serialized ).toString() );
+            }
+            else if( serialized.startsWith( "[" ) )
+            {
+                writer.append( new JSONArray( serialized ).toString() );
+            }
+            else
+            {
+                writer.append( JSONObject.quote( serialized ) );
+            }
+        }
+    }
+
     protected EntityState readEntityState( ModuleDescriptor module, Reader entityState )
         throws EntityStoreException
     {
@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import org.apache.zest.io.Input;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
+
+/**
+ * MapEntityStore able to scan ranges of identities in identity order.
+ *
+ * <p>
+ * MapEntityStore mixins can implement this interface instead of {@link MapEntityStore} when the underlying store
+ * keeps its keys sorted. {@link JSONMapEntityStoreMixin} then implements
+ * {@link org.apache.zest.spi.entitystore.PartitionedEntityStore} on top of it.
+ * </p>
+ */
+public interface PartitionedMapEntityStore
+    extends MapEntityStore
+{
+    /**
+     * @param desiredCount Desired count of partitions
+     * @return Disjoint partitions covering all identities, at most {@literal desiredCount}
+     */
+    List<EntityStorePartition> partitions( int desiredCount );
+
+    /**
+     * @param partition Partition to scan
+     * @return Entity state Readers of the entities in the given partition, in identity order
+     */
+    Input<Reader, IOException> entityStates( EntityStorePartition partition );
+}
@@ -0,0 +1,47 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the {@link MapEntityStore} mixed into the annotated EntityStore service can safely be read from
+ * many threads at once.
+ *
+ * <p>
+ * {@link MapEntityStoreMixin} and {@link JSONMapEntityStoreMixin} serialize {@link MapEntityStore#get} calls on
+ * the service instance unless this annotation is present on the service type, in which case entity loads and
+ * version lookups proceed in parallel.
+ * </p>
+ * <p>
+ * Only use it when {@link MapEntityStore#get} does not share unsynchronized state with itself nor with
+ * {@link MapEntityStore#applyChanges}.
+ * </p>
+ */
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.TYPE } )
+@Documented
+public @interface ThreadSafeMapEntityStore
+{
+}
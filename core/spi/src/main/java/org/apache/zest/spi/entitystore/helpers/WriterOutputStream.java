@@ -0,0 +1,128 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.entitystore.helpers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * OutputStream decoding UTF-8 bytes into a Writer.
+ *
+ * <p>Used to let {@link org.apache.zest.api.value.ValueSerializer}s write straight into entity state Writers.</p>
+ * <p>Closing this stream do not close the underlying Writer.</p>
+ */
+final class WriterOutputStream
+    extends OutputStream
+{
+    private final Writer writer;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+
+    WriterOutputStream( Writer writer )
+    {
+        this.writer = writer;
+        this.decoder = UTF_8.newDecoder()
+            .onMalformedInput( CodingErrorAction.REPLACE )
+            .onUnmappableCharacter( CodingErrorAction.REPLACE );
+        this.bytes = ByteBuffer.allocate( 1024 );
+        this.chars = CharBuffer.allocate( 1024 );
+    }
+
+    @Override
+    public void write( int b )
+        throws IOException
+    {
+        bytes.put( (byte) b );
+        if( !bytes.hasRemaining() )
+        {
+            decode( false );
+        }
+    }
+
+    @Override
+    public void write( byte[] buffer, int offset, int length )
+        throws IOException
+    {
+        while( length > 0 )
+        {
+            int count = Math.min( length, bytes.remaining() );
+            bytes.put( buffer, offset, count );
+            offset += count;
+            length -= count;
+            decode( false );
+        }
+    }
+
+    @Override
+    public void flush()
+        throws IOException
+    {
+        decode( false );
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        decode( true );
+        CoderResult result;
+        do
+        {
+            result = decoder.flush( chars );
+            writeChars();
+        }
+        while( result.isOverflow() );
+        decoder.reset();
+    }
+
+    private void decode( boolean endOfInput )
+        throws IOException
+    {
+        bytes.flip();
+        CoderResult result;
+        do
+        {
+            result = decoder.decode( bytes, chars, endOfInput );
+            writeChars();
+        }
+        while( result.isOverflow() );
+        // Keep any incomplete multi-byte sequence for the next write
+        bytes.compact();
+    }
+
+    private void writeChars()
+        throws IOException
+    {
+        if( chars.position() > 0 )
+        {
+            writer.write( chars.array(), 0, chars.position() );
+            chars.clear();
+        }
+    }
+}
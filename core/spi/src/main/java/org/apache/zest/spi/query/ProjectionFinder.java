@@ -0,0 +1,189 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.query;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.property.GenericPropertyInfo;
+import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
+import org.apache.zest.api.util.Classes;
+
+import static org.apache.zest.api.util.Classes.typeOf;
+
+/**
+ * Entity Finder able to answer projections from the index.
+ * <p>
+ * Optional interface implemented by {@link EntityFinder} services whose index stores property values.
+ * Projected values the index cannot provide are returned as {@link #UNAVAILABLE}, the runtime then loads
+ * the corresponding entities to read them.
+ * </p>
+ */
+public interface ProjectionFinder
+{
+    /**
+     * Marker for projected values that are not available from the index.
+     */
+    Object UNAVAILABLE = new Object()
+    {
+        @Override
+        public String toString()
+        {
+            return "UNAVAILABLE";
+        }
+    };
+
+    /**
+     * Find entities matching the query criterion and project them.
+     *
+     * @param resultType      Type that the entities must have.
+     * @param whereClause     Where clause specification.
+     * @param orderBySegments Ordering
+     * @param firstResult     Index of the first returned entity.
+     * @param maxResults      Maximum returned entities.
+     * @param variables       Query variables
+     * @param projections     Properties to project
+     * @return One array per entity, the entity reference first followed by the projected values in the order of
+     *         {@code projections}, each one being {@link #UNAVAILABLE} if the index cannot provide it.
+     * @throws EntityFinderException on error
+     */
+    Iterable<Object[]> findProjections( Class<?> resultType,
+                                        @Optional Predicate<Composite> whereClause,
+                                        @Optional OrderBy[] orderBySegments,
+                                        @Optional Integer firstResult,
+                                        @Optional Integer maxResults,
+                                        Map<String, Object> variables,
+                                        PropertyFunction<?>[] projections
+    )
+        throws EntityFinderException;
+
+    /**
+     * @param projection a projected property
+     * @return the name of the projected property if it is declared by the queried entities, null if it is
+     *         reached by traversing properties or associations
+     */
+    static String entityPropertyName( PropertyFunction<?> projection )
+    {
+        if( projection.traversedProperty() != null
+            || projection.traversedAssociation() != null
+            || projection.traversedManyAssociation() != null
+            || projection.traversedNamedAssociation() != null )
+        {
+            return null;
+        }
+        return ( (Member) projection.accessor() ).getName();
+    }
+
+    /**
+     * Convert a value read from an index to the type of the projected property.
+     *
+     * @param projection a projected property
+     * @param indexed    the value read from the index
+     * @return the value converted to the projected property type, or {@link #UNAVAILABLE} if it cannot be
+     *         converted
+     */
+    static Object toProjectedValue( PropertyFunction<?> projection, Object indexed )
+    {
+        if( indexed == null )
+        {
+            return null;
+        }
+        Type propertyType = GenericPropertyInfo.toPropertyType( typeOf( projection.accessor() ) );
+        Class<?> type = Classes.RAW_CLASS.apply( propertyType );
+        if( type.equals( indexed.getClass() ) && ( indexed instanceof String
+                                                   || indexed instanceof Boolean
+                                                   || indexed instanceof Character
+                                                   || indexed instanceof Number ) )
+        {
+            return indexed;
+        }
+        if( indexed instanceof Number )
+        {
+            Number number = (Number) indexed;
+            if( type.equals( Integer.class ) )
+            {
+                return number.intValue();
+            }
+            else if( type.equals( Long.class ) )
+            {
+                return number.longValue();
+            }
+            else if( type.equals( Double.class ) )
+            {
+                return number.doubleValue();
+            }
+            else if( type.equals( Float.class ) )
+            {
+                return number.floatValue();
+            }
+            else if( type.equals( Short.class ) )
+            {
+                return number.shortValue();
+            }
+            else if( type.equals( Byte.class ) )
+            {
+                return number.byteValue();
+            }
+            else if( type.equals( Character.class ) )
+            {
+                return (char) number.intValue();
+            }
+            // Big numbers are converted from their textual representation below
+            indexed = number.toString();
+        }
+        if( indexed instanceof String )
+        {
+            String string = (String) indexed;
+            if( type.isEnum() )
+            {
+                for( Object constant : type.getEnumConstants() )
+                {
+                    if( ( (Enum<?>) constant ).name().equals( string ) )
+                    {
+                        return constant;
+                    }
+                }
+            }
+            else if( type.equals( Character.class ) && string.length() == 1 )
+            {
+                return string.charAt( 0 );
+            }
+            else if( type.equals( BigDecimal.class ) || type.equals( BigInteger.class ) )
+            {
+                try
+                {
+                    BigDecimal number = new BigDecimal( string );
+                    return type.equals( BigDecimal.class ) ? number : number.toBigIntegerExact();
+                }
+                catch( NumberFormatException | ArithmeticException e )
+                {
+                    return UNAVAILABLE;
+                }
+            }
+        }
+        return UNAVAILABLE;
+    }
+}
@@ -23,7 +23,9 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Predicate;
 import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.property.Property;
 import org.apache.zest.api.query.grammar.OrderBy;
+import org.apache.zest.api.query.grammar.PropertyFunction;
 
 /**
  * Query Source, used in QueryBuilder SPI.
@@ -53,4 +55,59 @@ public interface QuerySource
                               Integer maxResults,
                               Map<String, Object> variables
     );
+
+    /**
+     * Project results to the values of some of their properties.
+     * <p>
+     * The default implementation iterates the results and reads the properties from each of them.
+     * Query sources able to read properties without instantiating results should override it.
+     * </p>
+     *
+     * @param resultType      Type of the results
+     * @param whereClause     Where clause
+     * @param orderBySegments Ordering
+     * @param firstResult     Index of the first result
+     * @param maxResults      Maximum number of results
+     * @param variables       Query variables
+     * @param projections     Properties to read from each result
+     * @param <T>             Type of the results
+     *
+     * @return one array per result holding the projected values in the order of {@code projections}
+     */
+    default <T> Iterator<Object[]> projections( Class<T> resultType,
+                                                Predicate<Composite> whereClause,
+                                                Iterable<OrderBy> orderBySegments,
+                                                Integer firstResult,
+                                                Integer maxResults,
+                                                Map<String, Object> variables,
+                                                PropertyFunction<?>[] projections
+    )
+    {
+        final Iterator<T> results = iterator( resultType, whereClause, orderBySegments,
+                                              firstResult, maxResults, variables );
+        return new Iterator<Object[]>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return results.hasNext();
+            }
+
+            @Override
+            public Object[] next()
+            {
+                T result = results.next();
+                Object[] values = new Object[ projections.length ];
+                if( result != null )
+                {
+                    for( int idx = 0; idx < projections.length; idx++ )
+                    {
+                        Property<?> property = projections[ idx ].apply( (Composite) result );
+                        values[ idx ] = property == null ? null : property.get();
+                    }
+                }
+                return values;
+            }
+        };
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.spi.value;
+
+import org.apache.zest.api.property.PropertyDescriptor;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.type.ValueType;
+import org.apache.zest.api.value.ValueSerializationException;
+
+/**
+ * Deserialize values from already parsed org.json trees.
+ * <p>
+ * Implemented by ValueSerialization services working on org.json trees so that callers holding a parsed document,
+ * like the JSON EntityState, deserialize its parts without writing them back to text first.
+ * </p>
+ */
+public interface JSONTreeDeserializer
+{
+    /**
+     * @param module the module to resolve types in
+     * @param valueType the type of the value
+     * @param tree a {@link org.json.JSONObject}, {@link org.json.JSONArray} or plain value, not {@literal null} nor
+     *             {@link org.json.JSONObject#NULL}
+     * @param <T> the parametrized type of the value
+     * @return the deserialized value
+     */
+    <T> T deserializeTree( ModuleDescriptor module, ValueType valueType, Object tree )
+        throws ValueSerializationException;
+
+    /**
+     * Deserialize the value of a model property, how to deserialize it is resolved once per property type.
+     *
+     * @param module the module to resolve types in
+     * @param property the descriptor of the property
+     * @param tree a {@link org.json.JSONObject}, {@link org.json.JSONArray} or plain value, not {@literal null} nor
+     *             {@link org.json.JSONObject#NULL}
+     * @param <T> the parametrized type of the value
+     * @return the deserialized value
+     */
+    <T> T deserializeTree( ModuleDescriptor module, PropertyDescriptor property, Object tree )
+        throws ValueSerializationException;
+}
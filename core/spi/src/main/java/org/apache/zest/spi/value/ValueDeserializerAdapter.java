@@ -22,6 +22,10 @@ package org.apache.zest.spi.value;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Duration;
@@ -42,10 +46,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.identity.Identity;
 import org.apache.zest.api.identity.StringIdentity;
+import org.apache.zest.api.property.PropertyDescriptor;
 import org.apache.zest.api.structure.ModuleDescriptor;
 import org.apache.zest.api.type.CollectionType;
 import org.apache.zest.api.type.EnumType;
@@ -105,8 +111,17 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     }
 
     private static final String UTF_8 = "UTF-8";
+    private static final ValueType STRING_TYPE = new ValueType( String.class );
+    private static final ValueType ENTITY_REFERENCE_TYPE = new ValueType( EntityReference.class );
+    private static final CollectionType MANY_ASSOCIATION_TYPE = new CollectionType( Collection.class,
+                                                                                    ENTITY_REFERENCE_TYPE );
+    private static final MapType NAMED_ASSOCIATION_TYPE = MapType.of( String.class, EntityReference.class,
+                                                                      Serialization.Variant.object );
     private final Map<Class<?>, Function<Object, Object>> deserializers = new HashMap<>( 16 );
     private final Map<Class<?>, ComplexDeserializer<Object, InputType, InputNodeType>> complexDeserializers = new HashMap<>( 2 );
+    // Plans are held softly and keyed weakly, they reference their Module that would otherwise never be collected
+    private final Map<ModuleKey, SoftReference<ModulePlans>> modulePlans = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ModuleDescriptor> collectedModules = new ReferenceQueue<>();
 
     /**
      * Register a Plain Value type deserialization Function.
@@ -322,6 +337,35 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
             }
     }
 
+    /**
+     * Deserialize a value from an already read input node, for example a part of a larger document.
+     * <p>
+     * The deserialization of the ValueType is compiled for this call only, see
+     * {@link #deserializePropertyNode(ModuleDescriptor, PropertyDescriptor, Object)} for model properties.
+     * </p>
+     */
+    @SuppressWarnings( "unchecked" )
+    protected final <T> T deserializeNode( ModuleDescriptor module, ValueType valueType, InputNodeType inputNode )
+        throws ValueSerializationException
+    {
+        return (T) compileNodeDeserializer( module, valueType ).apply( inputNode );
+    }
+
+    /**
+     * Deserialize the value of a property from an already read input node, for example a part of an entity state.
+     * <p>
+     * The deserialization of the property ValueType is compiled once per Module and reused across calls.
+     * </p>
+     */
+    @SuppressWarnings( "unchecked" )
+    protected final <T> T deserializePropertyNode( ModuleDescriptor module,
+                                                   PropertyDescriptor property,
+                                                   InputNodeType inputNode )
+        throws ValueSerializationException
+    {
+        return (T) plans( module ).propertyDeserializer( property ).apply( inputNode );
+    }
+
     @SuppressWarnings( "unchecked" )
     private <T> T doDeserialize( ModuleDescriptor module, ValueType valueType, InputType input )
         throws Exception
@@ -432,21 +476,13 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         throws Exception
     {
         ValueCompositeType valueCompositeType = (ValueCompositeType) valueType;
-        Class<?> valueBuilderType = valueCompositeType.types().findFirst().orElse( null );
-        String typeInfo = this.getObjectFieldValue(
-            module,
-            inputNode,
-            "_type",
-            this.<String>buildDeserializeInputNodeFunction( module, new ValueType( String.class ) ) );
+        Class<?> valueBuilderType = valueCompositeType.mainType();
+        ModulePlans plans = plans( module );
+        String typeInfo = (String) this.getObjectFieldValue( module, inputNode, "_type", plans.typeInfoDeserializer );
         if( typeInfo != null )
         {
-            ValueDescriptor valueDescriptor = module.valueDescriptor( typeInfo );
-            if( valueDescriptor == null )
-            {
-                throw new ValueSerializationException( "Specified value type could not be resolved: " + typeInfo );
-            }
-            valueCompositeType = valueDescriptor.valueType();
-            valueBuilderType = Class.forName( typeInfo );
+            valueCompositeType = plans.valueDescriptor( typeInfo ).valueType();
+            valueBuilderType = plans.builderType( typeInfo );
         }
         return deserializeValueComposite( module, valueCompositeType, valueBuilderType, inputNode );
     }
@@ -459,23 +495,17 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
     )
         throws Exception
     {
-        final Map<String, Object> stateMap = new HashMap<>();
-
-        // Properties
-        valueCompositeType.properties().forEach( property -> {
-            String propertyName = null;
-            Object value;
+        ValueCompositePlan plan = plans( module ).valueCompositePlan( valueCompositeType );
+        Object[] state = new Object[ plan.fields.length ];
+        for( int idx = 0; idx < plan.fields.length; idx++ )
+        {
+            FieldPlan field = plan.fields[ idx ];
             try
             {
-                propertyName = property.qualifiedName().name();
-                if( objectHasField( module, inputNode, propertyName ) )
+                if( objectHasField( module, inputNode, field.name ) )
                 {
-                    value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        propertyName,
-                        buildDeserializeInputNodeFunction( module, property.valueType() ) );
-                    if( property.isImmutable() )
+                    Object value = getObjectFieldValue( module, inputNode, field.name, field.deserializer );
+                    if( field.immutable )
                     {
                         if( value instanceof Set )
                         {
@@ -490,97 +520,106 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
                             value = Collections.unmodifiableMap( (Map<?, ?>) value );
                         }
                     }
+                    state[ idx ] = value;
                 }
-                else
+                else if( field.property != null )
                 {
                     // Serialized object does not contain the field, try to default it
-                    value = property.initialValue( module );
-                }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize property " + property, e );
-            }
-            stateMap.put( propertyName, value );
-        } );
-
-        // Associations
-        valueCompositeType.associations().forEach( association -> {
-            try
-            {
-                String associationName = association.qualifiedName().name();
-                if( objectHasField( module, inputNode, associationName ) )
-                {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        associationName,
-                        buildDeserializeInputNodeFunction( module, new ValueType( EntityReference.class ) ) );
-                    stateMap.put( associationName, value );
+                    state[ idx ] = field.property.initialValue( module );
                 }
             }
             catch( Exception e )
             {
-                throw new ValueSerializationException( "Unable to deserialize association " + association, e );
+                throw new ValueSerializationException( "Unable to deserialize " + field.kind + " " + field.descriptor,
+                                                       e );
             }
-        } );
+        }
 
-        // ManyAssociations
-        valueCompositeType.manyAssociations().forEach( manyAssociation -> {
-            try
-            {
-                String manyAssociationName = manyAssociation.qualifiedName().name();
-                if( objectHasField( module, inputNode, manyAssociationName ) )
-                {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        manyAssociationName,
-                        buildDeserializeInputNodeFunction(
-                            module,
-                            new CollectionType(
-                                Collection.class,
-                                new ValueType( EntityReference.class ) ) ) );
-                    stateMap.put( manyAssociationName, value );
-                }
-            }
-            catch( Exception e )
-            {
-                throw new ValueSerializationException( "Unable to deserialize manyassociation " + manyAssociation, e );
-            }
-        } );
+        ValueBuilder<?> valueBuilder = buildNewValueBuilderWithState( module, valueBuilderType, plan, state );
+        return (T) valueBuilder.newInstance(); // Unchecked cast because the builder could use a type != T
+    }
 
-        // NamedAssociations
-        valueCompositeType.namedAssociations().forEach( namedAssociation -> {
-            try
-            {
-                String namedAssociationName = namedAssociation.qualifiedName().name();
-                if( objectHasField( module, inputNode, namedAssociationName ) )
-                {
-                    Object value = getObjectFieldValue(
-                        module,
-                        inputNode,
-                        namedAssociationName,
-                        buildDeserializeInputNodeFunction( module, MapType.of( String.class, EntityReference.class, Serialization.Variant.object ) ) );
-                    stateMap.put( namedAssociationName, value );
-                }
-            }
-            catch( Exception e )
+    /**
+     * Compile the tree deserialization of a ValueType, resolving once how its values and nested values are
+     * deserialized.
+     */
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private Function<InputNodeType, Object> compileNodeDeserializer( ModuleDescriptor module, ValueType valueType )
+    {
+        final Class<?> type = valueType.mainType();
+        // Registered deserializers
+        Function<Object, Object> deserializer = deserializers.get( type );
+        if( deserializer != null )
+        {
+            return nodeDeserializer( inputNode -> {
+                Object value = asSimpleValue( module, inputNode );
+                return value == null ? null : deserializer.apply( value );
+            } );
+        }
+        ComplexDeserializer<Object, InputType, InputNodeType> complexDeserializer = complexDeserializers.get( type );
+        if( complexDeserializer != null )
+        {
+            return nodeDeserializer( complexDeserializer::deserializeTree );
+        }
+        // Explicit ValueComposite
+        if( valueType instanceof ValueCompositeType )
+        {
+            return nodeDeserializer( inputNode -> deserializeNodeValueComposite( module, valueType, inputNode ) );
+        }
+        // Explicit Collections
+        if( valueType instanceof CollectionType )
+        {
+            Function<InputNodeType, Object> collected
+                = compileNodeDeserializer( module, ( (CollectionType) valueType ).collectedType() );
+            boolean set = Set.class.equals( type );
+            return nodeDeserializer( inputNode -> {
+                Collection<Object> collection = set ? new LinkedHashSet<>() : new ArrayList<>();
+                putArrayNodeInCollection( module, inputNode, collected, collection );
+                return collection;
+            } );
+        }
+        // Explicit Map
+        if( valueType instanceof MapType )
+        {
+            MapType mapType = (MapType) valueType;
+            Function<InputNodeType, Object> values = compileNodeDeserializer( module, mapType.valueType() );
+            if( mapType.variant().equals( Serialization.Variant.entry ) )
             {
-                throw new ValueSerializationException( "Unable to deserialize namedassociation " + namedAssociation, e );
+                Function<InputNodeType, Object> keys = compileNodeDeserializer( module, mapType.keyType() );
+                return nodeDeserializer( inputNode -> {
+                    Map<Object, Object> map = new HashMap<>();
+                    putArrayNodeInMap( module, inputNode, keys, values, map );
+                    return map;
+                } );
             }
-        } );
-
-        ValueBuilder<?> valueBuilder = buildNewValueBuilderWithState( module, valueBuilderType, stateMap );
-        return (T) valueBuilder.newInstance(); // Unchecked cast because the builder could use a type != T
+            return nodeDeserializer( inputNode -> {
+                Map<String, Object> map = new HashMap<>();
+                putObjectNodeInMap( module, inputNode, values, map );
+                return map;
+            } );
+        }
+        // Enum
+        if( valueType instanceof EnumType || type.isEnum() )
+        {
+            return nodeDeserializer( inputNode -> {
+                Object value = asSimpleValue( module, inputNode );
+                return value == null ? null : Enum.valueOf( (Class) type, value.toString() );
+            } );
+        }
+        // Guessed deserialization
+        return nodeDeserializer( inputNode -> deserializeNodeGuessed( module, valueType, inputNode ) );
     }
 
-    private <T> Function<InputNodeType, T> buildDeserializeInputNodeFunction( ModuleDescriptor module, final ValueType valueType )
+    private Function<InputNodeType, Object> nodeDeserializer( NodeDeserializer<InputNodeType> deserializer )
     {
         return inputNode -> {
+            if( inputNode == null )
+            {
+                return null;
+            }
             try
             {
-                return doDeserializeInputNodeValue( module, valueType, inputNode );
+                return deserializer.deserialize( inputNode );
             }
             catch( ValueSerializationException ex )
             {
@@ -593,84 +632,18 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         };
     }
 
-    @SuppressWarnings( "unchecked" )
-    private <T> T doDeserializeInputNodeValue( ModuleDescriptor module, ValueType valueType, InputNodeType inputNode )
-        throws Exception
-    {
-        if( inputNode == null )
-        {
-            return null;
-        }
-        final Class<?> type = valueType.types().findFirst().orElse( null );
-        // Registered deserializers
-        if( deserializers.get( type ) != null )
-        {
-            Object value = asSimpleValue( module, inputNode );
-            if( value == null )
-            {
-                return null;
-            }
-            return (T) deserializers.get( type ).apply( value );
-        }
-        else if( complexDeserializers.get( type ) != null )
-        {
-            return (T) complexDeserializers.get( type ).deserializeTree( inputNode );
-        }
-        else // Explicit ValueComposite
-            if( ValueCompositeType.class.isAssignableFrom( valueType.getClass() ) )
-            {
-                return (T) deserializeNodeValueComposite( module, valueType, inputNode );
-            }
-            else // Explicit Collections
-                if( CollectionType.class.isAssignableFrom( valueType.getClass() ) )
-                {
-                    return (T) deserializeNodeCollection( module, (CollectionType) valueType, inputNode );
-                }
-                else // Explicit Map
-                    if( MapType.class.isAssignableFrom( valueType.getClass() ) )
-                    {
-                        MapType mapType = (MapType) valueType;
-                        if( mapType.variant().equals( Serialization.Variant.entry ) )
-                        {
-                            return (T) deserializeNodeEntryMap( module, (MapType) valueType, inputNode );
-                        }
-                        else
-                        {
-                            return (T) deserializeNodeObjectMap( module, (MapType) valueType, inputNode );
-                        }
-                    }
-                    else // Enum
-                        if( EnumType.class.isAssignableFrom( valueType.getClass() ) || type.isEnum() )
-                        {
-                            Object value = asSimpleValue( module, inputNode );
-                            if( value == null )
-                            {
-                                return null;
-                            }
-                            return (T) Enum.valueOf( (Class) type, value.toString() );
-                        }
-        // Guessed deserialization
-        return (T) deserializeNodeGuessed( module, valueType, inputNode );
-    }
-
     private ValueBuilder<?> buildNewValueBuilderWithState( ModuleDescriptor module,
                                                            Class<?> type,
-                                                           final Map<String, Object> stateMap
+                                                           final ValueCompositePlan plan,
+                                                           final Object[] state
     )
     {
         return module.instance().newValueBuilderWithState(
             type,
-            property -> stateMap.get( property.qualifiedName().name() ),
-            association -> {
-                Object entityRef = stateMap.get( association.qualifiedName().name() );
-                if( entityRef == null )
-                {
-                    return null;
-                }
-                return (EntityReference) entityRef;
-            },
+            property -> plan.stateOf( state, property.qualifiedName().name() ),
+            association -> (EntityReference) plan.stateOf( state, association.qualifiedName().name() ),
             manyAssociation -> {
-                Object entityRefs = stateMap.get( manyAssociation.qualifiedName().name() );
+                Object entityRefs = plan.stateOf( state, manyAssociation.qualifiedName().name() );
                 if( entityRefs == null )
                 {
                     return empty();
@@ -679,7 +652,7 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
                 return (Iterable<EntityReference>) entityRefs;
             },
             namedAssociation -> {
-                Object entityRefs = stateMap.get( namedAssociation.qualifiedName().name() );
+                Object entityRefs = plan.stateOf( state, namedAssociation.qualifiedName().name() );
                 if( entityRefs == null )
                 {
                     return Collections.emptyMap();
@@ -701,52 +674,6 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         return deserializeNodeGuessed( module, valueType, inputNode );
     }
 
-    private <T> Collection<T> deserializeNodeCollection( ModuleDescriptor module,
-                                                         CollectionType collectionType,
-                                                         InputNodeType inputNode
-    )
-        throws Exception
-    {
-        Collection<T> collection;
-        Class<?> collectionMainType = collectionType.types().findFirst().orElse( null );
-        if( Set.class.equals( collectionMainType ) )
-        {
-            collection = new LinkedHashSet<>();
-        }
-        else
-        {
-            collection = new ArrayList<>();
-        }
-        putArrayNodeInCollection( module,
-                                  inputNode,
-                                  this.buildDeserializeInputNodeFunction( module, collectionType.collectedType() ),
-                                  collection );
-        return collection;
-    }
-
-    private <K, V> Map<K, V> deserializeNodeEntryMap( ModuleDescriptor module, MapType mapType, InputNodeType inputNode )
-        throws Exception
-    {
-        Map<K, V> map = new HashMap<>();
-        putArrayNodeInMap( module,
-                           inputNode,
-                           this.buildDeserializeInputNodeFunction( module, mapType.keyType() ),
-                           this.buildDeserializeInputNodeFunction( module, mapType.valueType() ),
-                           map );
-        return map;
-    }
-
-    private <V> Map<String, V> deserializeNodeObjectMap( ModuleDescriptor module, MapType mapType, InputNodeType inputNode )
-        throws Exception
-    {
-        Map<String, V> map = new HashMap<>();
-        putObjectNodeInMap( module,
-                            inputNode,
-                            this.buildDeserializeInputNodeFunction( module, mapType.valueType() ),
-                            map );
-        return map;
-    }
-
     @SuppressWarnings( "unchecked" )
     private <T> T deserializeNodeGuessed( ModuleDescriptor module, ValueType valueType, InputNodeType inputNode )
         throws Exception
@@ -755,26 +682,16 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         {
             // Attempt ValueComposite deserialization
             ValueCompositeType valueCompositeType;
+            ModulePlans plans = plans( module );
             if( objectHasField( module, inputNode, "_type" ) ) // with _type info
             {
-                String typeInfo = this.getObjectFieldValue(
-                    module,
-                    inputNode,
-                    "_type",
-                    this.<String>buildDeserializeInputNodeFunction( module, new ValueType( String.class ) ) );
-                ValueDescriptor valueDescriptor = module.valueDescriptor( typeInfo );
-                if( valueDescriptor == null )
-                {
-                    throw new ValueSerializationException( "Specified value type could not be resolved: " + typeInfo );
-                }
-                valueCompositeType = valueDescriptor.valueType();
+                String typeInfo = (String) this.getObjectFieldValue( module, inputNode, "_type",
+                                                                     plans.typeInfoDeserializer );
+                valueCompositeType = plans.valueDescriptor( typeInfo ).valueType();
             }
             else // without _type info
             {
-                ValueDescriptor valueDescriptor = module.valueDescriptor( valueType.types()
-                                                                              .findFirst()
-                                                                              .get()
-                                                                              .getName() );
+                ValueDescriptor valueDescriptor = plans.valueDescriptorOrNull( valueType.mainType().getName() );
                 if( valueDescriptor == null )
                 {
                     throw new ValueSerializationException( "Don't know how to deserialize " + inputNode );
@@ -815,6 +732,232 @@ public abstract class ValueDeserializerAdapter<InputType, InputNodeType>
         return (T) result;
     }
 
+    private ModulePlans plans( ModuleDescriptor module )
+    {
+        SoftReference<ModulePlans> reference = modulePlans.get( new ModuleKey( module, null ) );
+        ModulePlans plans = reference == null ? null : reference.get();
+        if( plans == null )
+        {
+            expungeCollectedModules();
+            // Concurrent callers may both build plans, the last one put wins
+            plans = new ModulePlans( module );
+            modulePlans.put( new ModuleKey( module, collectedModules ), new SoftReference<>( plans ) );
+        }
+        return plans;
+    }
+
+    private void expungeCollectedModules()
+    {
+        Reference<? extends ModuleDescriptor> collected;
+        while( ( collected = collectedModules.poll() ) != null )
+        {
+            modulePlans.remove( collected );
+        }
+    }
+
+    /**
+     * Weak identity key of a Module.
+     */
+    private static final class ModuleKey
+        extends WeakReference<ModuleDescriptor>
+    {
+        private final int hash;
+
+        private ModuleKey( ModuleDescriptor module, ReferenceQueue<ModuleDescriptor> queue )
+        {
+            super( module, queue );
+            hash = System.identityHashCode( module );
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            if( this == other )
+            {
+                return true;
+            }
+            if( !( other instanceof ModuleKey ) )
+            {
+                return false;
+            }
+            ModuleDescriptor module = get();
+            return module != null && module == ( (ModuleKey) other ).get();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    private interface NodeDeserializer<InputNodeType>
+    {
+        Object deserialize( InputNodeType inputNode )
+            throws Exception;
+    }
+
+    /**
+     * Deserialization plans of a Module, built once and reused across calls.
+     * <p>
+     * ValueTypes of the Module model are stable so plans are keyed by identity.
+     * </p>
+     */
+    private final class ModulePlans
+    {
+        private final ModuleDescriptor module;
+        private final Function<InputNodeType, Object> typeInfoDeserializer;
+        private final Function<InputNodeType, Object> associationDeserializer;
+        private final Function<InputNodeType, Object> manyAssociationDeserializer;
+        private final Function<InputNodeType, Object> namedAssociationDeserializer;
+        private final Map<ValueCompositeType, ValueCompositePlan> valueCompositePlans = new ConcurrentHashMap<>();
+        private final Map<String, ValueDescriptor> valueDescriptors = new ConcurrentHashMap<>();
+        private final Map<String, Class<?>> builderTypes = new ConcurrentHashMap<>();
+        private final Map<ValueType, Function<InputNodeType, Object>> propertyDeserializers = new ConcurrentHashMap<>();
+
+        private ModulePlans( ModuleDescriptor module )
+        {
+            this.module = module;
+            typeInfoDeserializer = compileNodeDeserializer( module, STRING_TYPE );
+            associationDeserializer = compileNodeDeserializer( module, ENTITY_REFERENCE_TYPE );
+            manyAssociationDeserializer = compileNodeDeserializer( module, MANY_ASSOCIATION_TYPE );
+            namedAssociationDeserializer = compileNodeDeserializer( module, NAMED_ASSOCIATION_TYPE );
+        }
+
+        private ValueCompositePlan valueCompositePlan( ValueCompositeType valueCompositeType )
+        {
+            ValueCompositePlan plan = valueCompositePlans.get( valueCompositeType );
+            if( plan == null )
+            {
+                plan = new ValueCompositePlan( this, valueCompositeType );
+                ValueCompositePlan existing = valueCompositePlans.putIfAbsent( valueCompositeType, plan );
+                if( existing != null )
+                {
+                    plan = existing;
+                }
+            }
+            return plan;
+        }
+
+        private Function<InputNodeType, Object> propertyDeserializer( PropertyDescriptor property )
+        {
+            // Property ValueTypes are model objects, there is a bounded number of them
+            ValueType valueType = property.valueType();
+            Function<InputNodeType, Object> deserializer = propertyDeserializers.get( valueType );
+            if( deserializer == null )
+            {
+                deserializer = compileNodeDeserializer( module, valueType );
+                Function<InputNodeType, Object> existing = propertyDeserializers.putIfAbsent( valueType, deserializer );
+                if( existing != null )
+                {
+                    deserializer = existing;
+                }
+            }
+            return deserializer;
+        }
+
+        private ValueDescriptor valueDescriptorOrNull( String typeName )
+        {
+            ValueDescriptor valueDescriptor = valueDescriptors.get( typeName );
+            if( valueDescriptor == null )
+            {
+                valueDescriptor = module.valueDescriptor( typeName );
+                if( valueDescriptor != null )
+                {
+                    valueDescriptors.put( typeName, valueDescriptor );
+                }
+            }
+            return valueDescriptor;
+        }
+
+        private ValueDescriptor valueDescriptor( String typeInfo )
+        {
+            ValueDescriptor valueDescriptor = typeInfo == null ? null : valueDescriptorOrNull( typeInfo );
+            if( valueDescriptor == null )
+            {
+                throw new ValueSerializationException( "Specified value type could not be resolved: " + typeInfo );
+            }
+            return valueDescriptor;
+        }
+
+        private Class<?> builderType( String typeInfo )
+            throws ClassNotFoundException
+        {
+            Class<?> builderType = builderTypes.get( typeInfo );
+            if( builderType == null )
+            {
+                builderType = Class.forName( typeInfo );
+                builderTypes.put( typeInfo, builderType );
+            }
+            return builderType;
+        }
+    }
+
+    /**
+     * Fields of a ValueCompositeType in deserialization order with their compiled deserializers.
+     */
+    private final class ValueCompositePlan
+    {
+        private final FieldPlan[] fields;
+        private final Map<String, Integer> indexes;
+
+        @SuppressWarnings( "unchecked" )
+        private ValueCompositePlan( ModulePlans plans, ValueCompositeType valueCompositeType )
+        {
+            List<FieldPlan> fieldPlans = new ArrayList<>();
+            valueCompositeType.properties().forEach(
+                property -> fieldPlans.add( new FieldPlan( property.qualifiedName().name(), "property", property,
+                                                           property, property.isImmutable(),
+                                                           compileNodeDeserializer( plans.module,
+                                                                                    property.valueType() ) ) ) );
+            valueCompositeType.associations().forEach(
+                association -> fieldPlans.add( new FieldPlan( association.qualifiedName().name(), "association",
+                                                              association, null, false,
+                                                              plans.associationDeserializer ) ) );
+            valueCompositeType.manyAssociations().forEach(
+                manyAssociation -> fieldPlans.add( new FieldPlan( manyAssociation.qualifiedName().name(),
+                                                                  "manyassociation", manyAssociation, null, false,
+                                                                  plans.manyAssociationDeserializer ) ) );
+            valueCompositeType.namedAssociations().forEach(
+                namedAssociation -> fieldPlans.add( new FieldPlan( namedAssociation.qualifiedName().name(),
+                                                                   "namedassociation", namedAssociation, null, false,
+                                                                   plans.namedAssociationDeserializer ) ) );
+            fields = fieldPlans.toArray( new ValueDeserializerAdapter.FieldPlan[ fieldPlans.size() ] );
+            indexes = new HashMap<>( fields.length * 2 );
+            for( int idx = 0; idx < fields.length; idx++ )
+            {
+                indexes.put( fields[ idx ].name, idx );
+            }
+        }
+
+        private Object stateOf( Object[] state, String name )
+        {
+            Integer idx = indexes.get( name );
+            return idx == null ? null : state[ idx ];
+        }
+    }
+
+    private final class FieldPlan
+    {
+        private final String name;
+        private final String kind;
+        private final Object descriptor;
+        private final PropertyDescriptor property;
+        private final boolean immutable;
+        private final Function<InputNodeType, Object> deserializer;
+
+        private FieldPlan( String name, String kind, Object descriptor, PropertyDescriptor property, boolean immutable,
+                           Function<InputNodeType, Object> deserializer )
+        {
+            this.name = name;
+            this.kind = kind;
+            this.descriptor = descriptor;
+            this.property = property;
+            this.immutable = immutable;
+            this.deserializer = deserializer;
+        }
+    }
+
     //
     // Deserialization Extension Points
     //
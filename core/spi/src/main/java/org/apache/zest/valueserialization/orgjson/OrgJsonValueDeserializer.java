@@ -25,8 +25,11 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Function;
+import org.apache.zest.api.property.PropertyDescriptor;
 import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.type.ValueType;
 import org.apache.zest.api.value.ValueSerializationException;
+import org.apache.zest.spi.value.JSONTreeDeserializer;
 import org.apache.zest.spi.value.ValueDeserializerAdapter;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -37,7 +40,21 @@ import org.json.JSONTokener;
  */
 public class OrgJsonValueDeserializer
     extends ValueDeserializerAdapter<JSONTokener, Object>
+    implements JSONTreeDeserializer
 {
+    @Override
+    public <T> T deserializeTree( ModuleDescriptor module, ValueType valueType, Object tree )
+        throws ValueSerializationException
+    {
+        return deserializeNode( module, valueType, tree );
+    }
+
+    @Override
+    public <T> T deserializeTree( ModuleDescriptor module, PropertyDescriptor property, Object tree )
+        throws ValueSerializationException
+    {
+        return deserializePropertyNode( module, property, tree );
+    }
 
     @Override
     protected JSONTokener adaptInput( ModuleDescriptor module, InputStream input )
@@ -21,12 +21,13 @@ package org.apache.zest.valueserialization.orgjson;
 
 import org.apache.zest.api.mixin.Mixins;
 import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.spi.value.JSONTreeDeserializer;
 
 /**
  * ValueSerialization Service producing and consuming JSON documents using org.json.
  */
 @Mixins( { OrgJsonValueSerializer.class, OrgJsonValueDeserializer.class } )
 public interface OrgJsonValueSerializationService
-    extends ValueSerialization
+    extends ValueSerialization, JSONTreeDeserializer
 {
 }
@@ -34,6 +34,7 @@ import org.apache.zest.test.indexing.model.Female;
 import org.apache.zest.test.indexing.model.File;
 import org.apache.zest.test.indexing.model.Host;
 import org.apache.zest.test.indexing.model.Male;
+import org.apache.zest.test.indexing.model.PersonSummary;
 import org.apache.zest.test.indexing.model.Port;
 import org.apache.zest.test.indexing.model.Protocol;
 import org.apache.zest.test.indexing.model.QueryParam;
@@ -74,7 +75,8 @@ public class AbstractAnyQueryTest
                        Host.class,
                        Port.class,
                        File.class,
-                       QueryParam.class ).visibleIn( visibility );
+                       QueryParam.class,
+                       PersonSummary.class ).visibleIn( visibility );
     }
 
     @Override
@@ -27,7 +27,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.zest.api.identity.StringIdentity;
 import org.apache.zest.api.injection.scope.Structure;
@@ -46,6 +49,7 @@ import org.apache.zest.test.indexing.model.File;
 import org.apache.zest.test.indexing.model.Male;
 import org.apache.zest.test.indexing.model.Nameable;
 import org.apache.zest.test.indexing.model.Person;
+import org.apache.zest.test.indexing.model.PersonSummary;
 import org.apache.zest.test.indexing.model.QueryParam;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -66,11 +70,13 @@ import static org.apache.zest.api.query.QueryExpressions.not;
 import static org.apache.zest.api.query.QueryExpressions.oneOf;
 import static org.apache.zest.api.query.QueryExpressions.or;
 import static org.apache.zest.api.query.QueryExpressions.orderBy;
+import static org.apache.zest.api.query.QueryExpressions.property;
 import static org.apache.zest.api.query.QueryExpressions.templateFor;
 import static org.apache.zest.test.indexing.NameableAssert.verifyOrderedResults;
 import static org.apache.zest.test.indexing.NameableAssert.verifyUnorderedResults;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -853,4 +859,44 @@ public abstract class AbstractQueryTest
 
         verifyUnorderedResults( query, "Jack Doe", "Joe Doe" );
     }
+
+    @Test
+    public void script53_projection()
+    {
+        QueryBuilder<Person> qb = this.moduleInstance.newQueryBuilder( Person.class );
+        Person person = templateFor( Person.class );
+        Query<Object[]> query = unitOfWork.newQuery( qb )
+            .orderBy( orderBy( person.yearOfBirth() ) )
+            .select( property( person.name() ),
+                     property( person.yearOfBirth() ),
+                     property( person.title() ),
+                     property( person.placeOfBirth().get().name() ) );
+        System.out.println( "*** script53_projection: " + query );
+
+        List<List<Object>> rows = new ArrayList<>();
+        for( Object[] row : query )
+        {
+            rows.add( Arrays.asList( row ) );
+        }
+        assertThat( rows, equalTo( Arrays.asList(
+            Arrays.<Object>asList( "Jack Doe", 1970, Person.Title.DR, "Penang" ),
+            Arrays.<Object>asList( "Ann Doe", 1975, Person.Title.MRS, "Kuala Lumpur" ),
+            Arrays.<Object>asList( "Joe Doe", 1990, Person.Title.MR, "Kuala Lumpur" ) ) ) );
+        assertThat( query.count(), is( 3L ) );
+    }
+
+    @Test
+    public void script54_projectionToValue()
+    {
+        QueryBuilder<Person> qb = this.moduleInstance.newQueryBuilder( Person.class );
+        Person person = templateFor( Person.class );
+        Query<PersonSummary> query = unitOfWork.newQuery( qb.where( eq( person.name(), "Ann Doe" ) ) )
+            .select( PersonSummary.class, property( person.name() ), property( person.yearOfBirth() ) );
+        System.out.println( "*** script54_projectionToValue: " + query );
+
+        PersonSummary summary = query.find();
+        assertThat( summary.name().get(), equalTo( "Ann Doe" ) );
+        assertThat( summary.yearOfBirth().get(), equalTo( 1975 ) );
+        assertThat( summary.email().get(), is( nullValue() ) );
+    }
 }
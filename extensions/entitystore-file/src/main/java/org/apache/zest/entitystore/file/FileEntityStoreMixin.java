@@ -51,7 +51,11 @@ import org.apache.zest.spi.entitystore.BackupRestore;
 import org.apache.zest.spi.entitystore.EntityAlreadyExistsException;
 import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * FileEntityStore implementation of MapEntityStore.
@@ -63,6 +67,10 @@ public class FileEntityStoreMixin
     @Service
     FileConfiguration fileConfiguration;
 
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
     @This
     private Configuration<FileEntityStoreConfiguration> config;
 
@@ -297,7 +305,7 @@ public class FileEntityStoreMixin
                             for( File file : sliceDirectory.listFiles() )
                             {
                                 byte[] stateArray = fetch( file );
-                                receiver.receive( new String( stateArray, "UTF-8" ) );
+                                receiver.receive( backupDocument( new String( stateArray, "UTF-8" ) ) );
                             }
                         }
                     }
@@ -321,16 +329,37 @@ public class FileEntityStoreMixin
                     public void receive( String item )
                         throws IOException
                     {
-                        String id = item.substring( "{\"reference\":\"".length() );
-                        id = id.substring( 0, id.indexOf( '"' ) );
-                        byte[] stateArray = item.getBytes( "UTF-8" );
-                        store( getDataFile( id ), stateArray );
+                        try
+                        {
+                            JSONObject state = EntityDocumentFormat.readDocument( documentFormat,
+                                                                                  new StringReader( item ) );
+                            String id = state.getString( JSONKeys.IDENTITY );
+                            String document = EntityDocumentFormat.restoredDocument( documentFormat, state, item );
+                            store( getDataFile( id ), document.getBytes( "UTF-8" ) );
+                        }
+                        catch( JSONException e )
+                        {
+                            throw new IOException( "Invalid entity state: " + item, e );
+                        }
                     }
                 } );
             }
         };
     }
 
+    private String backupDocument( String document )
+        throws IOException
+    {
+        try
+        {
+            return EntityDocumentFormat.jsonDocument( documentFormat, document );
+        }
+        catch( JSONException e )
+        {
+            throw new IOException( e );
+        }
+    }
+
     @Override
     public Input<Reader, IOException> entityStates()
     {
@@ -47,6 +47,13 @@ public interface JCloudsMapEntityStoreConfiguration
      * Name of the JClouds container to use. Defaults to 'zest-entities'.
      */
     @Optional Property<String> container();
+    /**
+     * Maximum number of concurrent blob operations. Defaults to 8.
+     * <p>
+     * Bounds both the uploads/removals of a single commit and the blobs fetched ahead when iterating entity states.
+     * </p>
+     */
+    @Optional Property<Integer> parallelism();
     // END SNIPPET: config
 
 }
@@ -27,21 +27,32 @@ import com.google.common.io.ByteSource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.jclouds.ContextBuilder;
 import org.jclouds.apis.ApiMetadata;
 import org.jclouds.apis.Apis;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.io.Payload;
 import org.jclouds.providers.ProviderMetadata;
 import org.jclouds.providers.Providers;
@@ -81,6 +92,8 @@ public class JCloudsMapEntityStoreMixin
 
     private static final Logger LOGGER = LoggerFactory.getLogger( "org.apache.zest.entitystore.jclouds" );
 
+    private static final int DEFAULT_PARALLELISM = 8;
+
     private static final Map<String, ApiMetadata> allApis = Maps.uniqueIndex(
         Apis.viewableAs( BlobStoreContext.class ),
         Apis.idFunction()
@@ -102,6 +115,10 @@ public class JCloudsMapEntityStoreMixin
 
     private String container;
 
+    private int parallelism;
+
+    private ExecutorService executor;
+
     @Override
     public void activateService()
         throws Exception
@@ -124,6 +141,8 @@ public class JCloudsMapEntityStoreMixin
         {
             container = "zest-entities";
         }
+        Integer configuredParallelism = configuration.get().parallelism().get();
+        parallelism = configuredParallelism == null ? DEFAULT_PARALLELISM : Math.max( 1, configuredParallelism );
         storeContext = ContextBuilder.newBuilder( provider ).
             credentials( identifier, credentials ).
             overrides( asProperties( properties ) ).
@@ -140,6 +159,12 @@ public class JCloudsMapEntityStoreMixin
                 LOGGER.debug( "Created new container: {}", container );
             }
         }
+        String threadName = "zest-jclouds-" + container;
+        executor = Executors.newFixedThreadPool( parallelism, runnable -> {
+            Thread thread = new Thread( runnable, threadName );
+            thread.setDaemon( true );
+            return thread;
+        } );
         LOGGER.info( "Activated using {} cloud provider [id:{}]", provider, identifier );
     }
 
@@ -157,6 +182,12 @@ public class JCloudsMapEntityStoreMixin
     public void passivateService()
         throws Exception
     {
+        if( executor != null )
+        {
+            executor.shutdown();
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+            executor = null;
+        }
         if( storeContext != null )
         {
             storeContext.close();
@@ -169,15 +200,28 @@ public class JCloudsMapEntityStoreMixin
     public Reader get( EntityReference entityReference )
         throws EntityStoreException
     {
-        Blob blob = storeContext.getBlobStore().getBlob( container, entityReference.identity().toString() );
-        if( blob == null )
+        String state = fetch( storeContext.getBlobStore(), entityReference.identity().toString() );
+        if( state == null )
         {
             throw new EntityNotFoundException( entityReference );
         }
+        return new StringReader( state );
+    }
+
+    /**
+     * @return The entity state, or null if there is no such blob
+     */
+    private String fetch( BlobStore blobStore, String name )
+    {
+        Blob blob = blobStore.getBlob( container, name );
+        if( blob == null )
+        {
+            return null;
+        }
         Payload payload = blob.getPayload();
         if( payload == null )
         {
-            throw new EntityNotFoundException( entityReference );
+            return null;
         }
         InputStream input = null;
         try
@@ -185,11 +229,11 @@ public class JCloudsMapEntityStoreMixin
             input = payload.openStream();
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             Inputs.byteBuffer( input, 4096 ).transferTo( Outputs.byteBuffer( baos ) );
-            return new StringReader( baos.toString( "UTF-8" ) );
+            return baos.toString( "UTF-8" );
         }
         catch( IOException ex )
         {
-            throw new EntityStoreException( "Unable to read entity state for: " + entityReference, ex );
+            throw new EntityStoreException( "Unable to read entity state for: " + name, ex );
         }
         finally
         {
@@ -211,6 +255,9 @@ public class JCloudsMapEntityStoreMixin
         throws IOException
     {
         final BlobStore blobStore = storeContext.getBlobStore();
+        final List<CompletableFuture<?>> operations = new ArrayList<>();
+        // Entities of a UnitOfWork were loaded and version checked by the ConcurrentModificationCheckConcern,
+        // no per-blob existence round-trip is made and blobs are uploaded/removed concurrently
         changes.visitMap(
             new MapChanger()
             {
@@ -225,10 +272,7 @@ public class JCloudsMapEntityStoreMixin
                         throws IOException
                         {
                             super.close();
-                            Blob blob = blobStore.blobBuilder( ref.identity().toString() )
-                                .payload( ByteSource.wrap( toString().getBytes( UTF_8 ) ) )
-                                .build();
-                            blobStore.putBlob( container, blob );
+                            operations.add( put( blobStore, ref, toString() ) );
                         }
                     };
                 }
@@ -237,10 +281,6 @@ public class JCloudsMapEntityStoreMixin
                 public Writer updateEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
                     throws IOException
                 {
-                    if( !blobStore.blobExists( container, ref.identity().toString() ) )
-                    {
-                        throw new EntityNotFoundException( ref );
-                    }
                     return new StringWriter()
                     {
                         @Override
@@ -248,26 +288,56 @@ public class JCloudsMapEntityStoreMixin
                         throws IOException
                         {
                             super.close();
-                            Blob blob = blobStore.blobBuilder( ref.identity().toString() )
-                                .payload( ByteSource.wrap( toString().getBytes( UTF_8 ) ) )
-                                .build();
-                            blobStore.putBlob( container, blob );
+                            operations.add( put( blobStore, ref, toString() ) );
                         }
                     };
                 }
 
                 @Override
-                public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
+                public void removeEntity( final EntityReference ref, EntityDescriptor entityDescriptor )
                     throws EntityNotFoundException
                 {
-                    if( !blobStore.blobExists( container, ref.identity().toString() ) )
-                    {
-                        throw new EntityNotFoundException( ref );
-                    }
-                    blobStore.removeBlob( container, ref.identity().toString() );
+                    operations.add( CompletableFuture.runAsync(
+                        () -> blobStore.removeBlob( container, ref.identity().toString() ), executor ) );
                 }
             }
         );
+        // Wait for all operations before reporting the first failure
+        Throwable failure = null;
+        for( CompletableFuture<?> operation : operations )
+        {
+            try
+            {
+                await( operation );
+            }
+            catch( IOException | RuntimeException ex )
+            {
+                if( failure == null )
+                {
+                    failure = ex;
+                }
+                else
+                {
+                    failure.addSuppressed( ex );
+                }
+            }
+        }
+        if( failure instanceof IOException )
+        {
+            throw (IOException) failure;
+        }
+        if( failure != null )
+        {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    private CompletableFuture<?> put( final BlobStore blobStore, EntityReference ref, String state )
+    {
+        final Blob blob = blobStore.blobBuilder( ref.identity().toString() )
+            .payload( ByteSource.wrap( state.getBytes( UTF_8 ) ) )
+            .build();
+        return CompletableFuture.runAsync( () -> blobStore.putBlob( container, blob ), executor );
     }
 
     @Override
@@ -286,32 +356,49 @@ public class JCloudsMapEntityStoreMixin
                         public <ReceiverThrowableType extends Throwable> void sendTo( Receiver<? super Reader, ReceiverThrowableType> receiver )
                             throws ReceiverThrowableType, IOException
                         {
-                            for( StorageMetadata stored : storeContext.getBlobStore().list() )
+                            BlobStore blobStore = storeContext.getBlobStore();
+                            // Blobs are fetched ahead of the receiver within a bounded window, and the next listing
+                            // page is requested while the current one is being consumed
+                            Deque<CompletableFuture<String>> window = new ArrayDeque<>();
+                            int windowSize = parallelism * 2;
+                            CompletableFuture<PageSet<? extends StorageMetadata>> nextPage = list( blobStore, null );
+                            try
                             {
-                                Payload payload = storeContext.getBlobStore().getBlob( container, stored.getName() ).getPayload();
-                                if( payload == null )
+                                while( nextPage != null )
                                 {
-                                    throw new EntityNotFoundException( EntityReference.parseEntityReference( stored.getName() ) );
-                                }
-                                InputStream input = null;
-                                try
-                                {
-                                    input = payload.openStream();
-                                    receiver.receive( new InputStreamReader( input, "UTF-8" ) );
-                                }
-                                finally
-                                {
-                                    if( input != null )
+                                    PageSet<? extends StorageMetadata> page = await( nextPage );
+                                    String marker = page.getNextMarker();
+                                    nextPage = marker == null ? null : list( blobStore, marker );
+                                    for( StorageMetadata stored : page )
                                     {
-                                        try
+                                        if( stored.getType() != StorageType.BLOB )
                                         {
-                                            input.close();
+                                            continue;
                                         }
-                                        catch( IOException ignored )
+                                        String name = stored.getName();
+                                        window.addLast( CompletableFuture.supplyAsync( () -> fetch( blobStore, name ),
+                                                                                       executor ) );
+                                        if( window.size() >= windowSize )
                                         {
+                                            receive( window.removeFirst(), receiver );
                                         }
                                     }
                                 }
+                                while( !window.isEmpty() )
+                                {
+                                    receive( window.removeFirst(), receiver );
+                                }
+                            }
+                            finally
+                            {
+                                for( CompletableFuture<String> pending : window )
+                                {
+                                    pending.cancel( false );
+                                }
+                                if( nextPage != null )
+                                {
+                                    nextPage.cancel( false );
+                                }
                             }
                         }
                     }
@@ -319,4 +406,46 @@ public class JCloudsMapEntityStoreMixin
             }
         };
     }
+
+    private CompletableFuture<PageSet<? extends StorageMetadata>> list( final BlobStore blobStore, String marker )
+    {
+        final ListContainerOptions options = marker == null
+                                             ? ListContainerOptions.Builder.recursive()
+                                             : ListContainerOptions.Builder.recursive().afterMarker( marker );
+        return CompletableFuture.supplyAsync( () -> blobStore.list( container, options ), executor );
+    }
+
+    private <ReceiverThrowableType extends Throwable> void receive( CompletableFuture<String> fetched,
+                                                                    Receiver<? super Reader, ReceiverThrowableType> receiver )
+        throws IOException, ReceiverThrowableType
+    {
+        String state = await( fetched );
+        // Blobs removed since they were listed are skipped
+        if( state != null )
+        {
+            receiver.receive( new StringReader( state ) );
+        }
+    }
+
+    private static <T> T await( CompletableFuture<T> future )
+        throws IOException
+    {
+        try
+        {
+            return future.join();
+        }
+        catch( CompletionException ex )
+        {
+            Throwable cause = ex.getCause();
+            if( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IOException( cause );
+        }
+    }
 }
@@ -58,7 +58,11 @@ import org.apache.zest.library.locking.WriteLock;
 import org.apache.zest.spi.entitystore.BackupRestore;
 import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
 import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * JDBM implementation of MapEntityStore.
@@ -70,6 +74,10 @@ public class JdbmEntityStoreMixin
     @Service
     FileConfiguration fileConfiguration;
 
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
     @This
     private Configuration<JdbmConfiguration> config;
 
@@ -295,7 +303,15 @@ public class JdbmEntityStoreMixin
 
                                 byte[] serializedState = (byte[]) recordManager.fetch( stateIndex, serializer );
 
-                                receiver.receive( new String( serializedState, "UTF-8" ) );
+                                try
+                                {
+                                    receiver.receive( EntityDocumentFormat.jsonDocument(
+                                        documentFormat, new String( serializedState, "UTF-8" ) ) );
+                                }
+                                catch( JSONException e )
+                                {
+                                    throw new IOException( e );
+                                }
                             }
                         }
                     } );
@@ -345,11 +361,22 @@ public class JdbmEntityStoreMixin
                                 recordManager.commit();
                             }
 
-                            String id = item.substring( "{\"reference\":\"".length() );
-                            id = id.substring( 0, id.indexOf( '"' ) );
+                            String id;
+                            String document;
+                            try
+                            {
+                                JSONObject state = EntityDocumentFormat.readDocument( documentFormat,
+                                                                                      new StringReader( item ) );
+                                id = state.getString( JSONKeys.IDENTITY );
+                                document = EntityDocumentFormat.restoredDocument( documentFormat, state, item );
+                            }
+                            catch( JSONException e )
+                            {
+                                throw new IOException( "Invalid entity state: " + item, e );
+                            }
 
                             // Insert
-                            byte[] stateArray = item.getBytes( "UTF-8" );
+                            byte[] stateArray = document.getBytes( "UTF-8" );
                             long stateIndex = recordManager.insert( stateArray, serializer );
                             index.insert( id.getBytes( "UTF-8" ), stateIndex, false );
                         }
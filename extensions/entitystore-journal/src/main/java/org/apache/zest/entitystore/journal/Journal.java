@@ -0,0 +1,782 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.spi.entitystore.EntityAlreadyExistsException;
+import org.apache.zest.spi.entitystore.EntityNotFoundException;
+
+/**
+ * Append-only log of entity states split in memory mapped {@link Segment}s, with an in-memory index.
+ * <p>
+ * Each commit is appended as a single checksummed batch record holding all of its changes. Recovery replays the
+ * segments in order and stops at the first torn or corrupted batch, so a commit is either fully visible after a
+ * crash or not at all.
+ * </p>
+ * <p>
+ * Record layout is {@code magic:int, length:int, sequence:long, payload:byte[length], crc32:int} where the checksum
+ * covers the sequence and the payload, and the payload is {@code count:int} followed by {@code count} operations,
+ * each being {@code PUT:byte, keyLength:int, key, dataLength:int, data} or {@code REMOVE:byte, keyLength:int, key}.
+ * </p>
+ * <p>
+ * Commits waiting for durability share a single {@code force()}: a committer that finds its batch already covered
+ * by a sync issued by another thread returns without syncing itself.
+ * </p>
+ * <p>
+ * On close the index is written to a snapshot file so that the next open only has to replay what was appended
+ * after it. The snapshot is deleted once loaded.
+ * </p>
+ */
+final class Journal
+{
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    private static final int RECORD_MAGIC = 0x5A4A524E;
+    private static final int SNAPSHOT_MAGIC = 0x5A4A5358;
+    private static final int HEADER = 16;
+    private static final int TRAILER = 4;
+    private static final String SNAPSHOT = "index.snapshot";
+
+    private final File directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final Object compactionLock = new Object();
+
+    // Guarded by appendLock
+    private Segment active;
+    private long sequence;
+    private boolean closed = true;
+
+    // Guarded by syncLock
+    private long syncedSequence;
+
+    Journal( File directory, int segmentSize, boolean fsync )
+    {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    void open()
+        throws IOException
+    {
+        synchronized( appendLock )
+        {
+            if( !directory.exists() && !directory.mkdirs() )
+            {
+                throw new IOException( "Unable to create directory " + directory );
+            }
+            File[] files = directory.listFiles();
+            if( files != null )
+            {
+                for( File file : files )
+                {
+                    long id = Segment.idOf( file.getName() );
+                    if( id >= 0 )
+                    {
+                        segments.put( id, Segment.open( file, id ) );
+                    }
+                }
+            }
+
+            File snapshot = new File( directory, SNAPSHOT );
+            long resume = loadSnapshot( snapshot );
+            for( Segment segment : segments.tailMap( resume, true ).values() )
+            {
+                replay( segment, segment.id == resume ? segment.position() : 0 );
+            }
+            if( snapshot.exists() && !snapshot.delete() )
+            {
+                throw new IOException( "Unable to delete index snapshot " + snapshot );
+            }
+
+            if( segments.isEmpty() )
+            {
+                segments.put( 1L, Segment.create( directory, 1L, segmentSize ) );
+            }
+            active = segments.lastEntry().getValue();
+            syncedSequence = sequence;
+            closed = false;
+        }
+    }
+
+    /**
+     * @param key entity identity
+     * @return The latest state stored for the key, or null if there is none
+     */
+    byte[] read( String key )
+        throws IOException
+    {
+        Location location = index.get( key );
+        while( location != null )
+        {
+            Segment segment = segments.get( location.segment );
+            if( segment != null )
+            {
+                return segment.read( location.offset, location.length );
+            }
+            // The segment was compacted away in between, the index already points to the moved state
+            Location moved = index.get( key );
+            if( location.equals( moved ) )
+            {
+                throw new IOException( "Segment " + location.segment + " holding " + key + " is missing" );
+            }
+            location = moved;
+        }
+        return null;
+    }
+
+    Iterable<String> keys()
+    {
+        return Collections.unmodifiableSet( index.keySet() );
+    }
+
+    int size()
+    {
+        return index.size();
+    }
+
+    int segmentCount()
+    {
+        return segments.size();
+    }
+
+    /**
+     * Append all changes as one atomic batch.
+     *
+     * @param changes changes of a single UnitOfWork
+     * @throws EntityAlreadyExistsException if a created key is already present
+     * @throws EntityNotFoundException if a removed key is absent
+     */
+    void commit( List<Change> changes )
+        throws IOException
+    {
+        if( changes.isEmpty() )
+        {
+            return;
+        }
+        Batch batch = Batch.encode( changes );
+        long committed;
+        synchronized( appendLock )
+        {
+            checkOpen();
+            validate( changes );
+            committed = append( batch );
+        }
+        if( fsync )
+        {
+            sync( committed );
+        }
+    }
+
+    /**
+     * Rewrite the live content of every sealed segment whose dead bytes exceed the given percentage at the end of
+     * the journal, then delete it.
+     *
+     * @param thresholdPercent minimum percentage of dead bytes for a segment to be compacted
+     * @return number of reclaimed segments
+     */
+    int compact( int thresholdPercent )
+        throws IOException
+    {
+        synchronized( compactionLock )
+        {
+            int reclaimed = 0;
+            for( Segment segment : segments.values() )
+            {
+                synchronized( appendLock )
+                {
+                    if( closed )
+                    {
+                        return reclaimed;
+                    }
+                    if( segment == active )
+                    {
+                        break;
+                    }
+                }
+                if( segment.deadPercentage() >= thresholdPercent )
+                {
+                    compact( segment );
+                    reclaimed++;
+                }
+            }
+            return reclaimed;
+        }
+    }
+
+    void close()
+        throws IOException
+    {
+        synchronized( compactionLock )
+        {
+            synchronized( appendLock )
+            {
+                if( closed )
+                {
+                    return;
+                }
+                closed = true;
+                try
+                {
+                    active.force();
+                    writeSnapshot();
+                }
+                finally
+                {
+                    for( Segment segment : segments.values() )
+                    {
+                        segment.close();
+                    }
+                    segments.clear();
+                    index.clear();
+                    active = null;
+                    sequence = 0;
+                }
+            }
+        }
+    }
+
+    private void checkOpen()
+        throws IOException
+    {
+        if( closed )
+        {
+            throw new IOException( "Journal " + directory + " is closed" );
+        }
+    }
+
+    private void validate( List<Change> changes )
+    {
+        Map<String, Boolean> pending = new HashMap<>();
+        for( Change change : changes )
+        {
+            Boolean pendingPresence = pending.get( change.key );
+            boolean present = pendingPresence != null ? pendingPresence : index.containsKey( change.key );
+            if( change.create && present )
+            {
+                throw new EntityAlreadyExistsException( EntityReference.parseEntityReference( change.key ) );
+            }
+            if( change.data == null && !present )
+            {
+                throw new EntityNotFoundException( EntityReference.parseEntityReference( change.key ) );
+            }
+            pending.put( change.key, change.data != null );
+        }
+    }
+
+    // Must be called while holding appendLock
+    private long append( Batch batch )
+        throws IOException
+    {
+        int length = HEADER + batch.payload.length + TRAILER;
+        Segment segment = segmentFor( length );
+        long recordSequence = sequence + 1;
+
+        ByteBuffer record = ByteBuffer.allocate( length );
+        record.putInt( RECORD_MAGIC ).putInt( batch.payload.length ).putLong( recordSequence ).put( batch.payload );
+        CRC32 crc = new CRC32();
+        crc.update( record.array(), 8, 8 + batch.payload.length );
+        record.putInt( (int) crc.getValue() );
+        record.flip();
+
+        int start = segment.position();
+        segment.append( record );
+        sequence = recordSequence;
+
+        for( int idx = 0; idx < batch.changes.size(); idx++ )
+        {
+            Change change = batch.changes.get( idx );
+            Location location = change.data == null
+                                ? null
+                                : new Location( segment.id, start + HEADER + batch.dataOffsets[ idx ], change.data.length );
+            index( change.key, location );
+        }
+        return recordSequence;
+    }
+
+    // Must be called while holding appendLock
+    private Segment segmentFor( int length )
+        throws IOException
+    {
+        if( active.remaining() >= length )
+        {
+            return active;
+        }
+        // Sealed segments are always durable, only the active one is left to group commit
+        active.force();
+        long id = active.id + 1;
+        Segment next = Segment.create( directory, id, Math.max( segmentSize, length ) );
+        segments.put( id, next );
+        active = next;
+        return next;
+    }
+
+    private void index( String key, Location location )
+    {
+        Location previous = location == null ? index.remove( key ) : index.put( key, location );
+        if( previous != null )
+        {
+            Segment segment = segments.get( previous.segment );
+            if( segment != null )
+            {
+                segment.addLive( -previous.length );
+            }
+        }
+        if( location != null )
+        {
+            segments.get( location.segment ).addLive( location.length );
+        }
+    }
+
+    private void sync( long committed )
+        throws IOException
+    {
+        synchronized( syncLock )
+        {
+            if( syncedSequence >= committed )
+            {
+                return;
+            }
+            Segment segment;
+            long target;
+            synchronized( appendLock )
+            {
+                checkOpen();
+                segment = active;
+                target = sequence;
+            }
+            segment.force();
+            syncedSequence = target;
+        }
+    }
+
+    private void compact( Segment segment )
+        throws IOException
+    {
+        boolean oldest = segments.firstKey() == segment.id;
+        List<Change> survivors = new ArrayList<>();
+        scan( segment, new Cursor( 0, 0 ), ( operation, key, offset, length ) -> {
+            if( operation == PUT )
+            {
+                Location location = new Location( segment.id, offset, length );
+                if( location.equals( index.get( key ) ) )
+                {
+                    survivors.add( new Change( key, segment.read( offset, length ), false, location ) );
+                }
+            }
+            else if( !oldest && !index.containsKey( key ) )
+            {
+                // Keep the tombstone while an older segment may still hold a state for the key
+                survivors.add( Change.remove( key ) );
+            }
+        } );
+
+        int from = 0;
+        int bytes = 0;
+        for( int idx = 0; idx < survivors.size(); idx++ )
+        {
+            Change survivor = survivors.get( idx );
+            bytes += survivor.key.length() + ( survivor.data == null ? 0 : survivor.data.length );
+            if( bytes >= segmentSize / 4 || idx == survivors.size() - 1 )
+            {
+                relocate( survivors.subList( from, idx + 1 ) );
+                from = idx + 1;
+                bytes = 0;
+            }
+        }
+
+        synchronized( appendLock )
+        {
+            checkOpen();
+            active.force();
+            segments.remove( segment.id );
+        }
+        segment.close();
+        if( !segment.file.delete() )
+        {
+            throw new IOException( "Unable to delete compacted segment " + segment.file );
+        }
+    }
+
+    private void relocate( List<Change> survivors )
+        throws IOException
+    {
+        synchronized( appendLock )
+        {
+            checkOpen();
+            // Drop what was updated or removed by commits that went in since the segment was scanned
+            List<Change> current = new ArrayList<>( survivors.size() );
+            for( Change survivor : survivors )
+            {
+                Location location = index.get( survivor.key );
+                if( survivor.data == null ? location == null : survivor.expected.equals( location ) )
+                {
+                    current.add( survivor );
+                }
+            }
+            if( !current.isEmpty() )
+            {
+                append( Batch.encode( current ) );
+            }
+        }
+    }
+
+    private void replay( Segment segment, int from )
+    {
+        Cursor cursor = new Cursor( from, sequence );
+        scan( segment, cursor, ( operation, key, offset, length ) -> index(
+            key, operation == PUT ? new Location( segment.id, offset, length ) : null ) );
+        segment.position( cursor.position );
+        sequence = cursor.sequence;
+        ByteBuffer view = segment.view();
+        if( cursor.position + 4 <= view.capacity() && view.getInt( cursor.position ) != 0 )
+        {
+            // Torn write
+            segment.truncate();
+        }
+    }
+
+    /**
+     * Visit the operations of the valid records of a segment, in order, starting at the cursor.
+     * <p>
+     * The cursor is left after the last valid record.
+     * </p>
+     */
+    private void scan( Segment segment, Cursor cursor, OperationVisitor visitor )
+    {
+        ByteBuffer view = segment.view();
+        int position = cursor.position;
+        while( view.capacity() - position >= HEADER + TRAILER && view.getInt( position ) == RECORD_MAGIC )
+        {
+            int length = view.getInt( position + 4 );
+            if( length < 4 || length > view.capacity() - position - HEADER - TRAILER )
+            {
+                break;
+            }
+            long recordSequence = view.getLong( position + 8 );
+            if( recordSequence <= cursor.sequence )
+            {
+                break;
+            }
+            ByteBuffer covered = view.duplicate();
+            covered.limit( position + HEADER + length ).position( position + 8 );
+            CRC32 crc = new CRC32();
+            crc.update( covered );
+            if( (int) crc.getValue() != view.getInt( position + HEADER + length ) )
+            {
+                break;
+            }
+
+            int offset = position + HEADER;
+            int count = view.getInt( offset );
+            offset += 4;
+            for( int idx = 0; idx < count; idx++ )
+            {
+                byte operation = view.get( offset );
+                int keyLength = view.getInt( offset + 1 );
+                offset += 5;
+                byte[] key = new byte[ keyLength ];
+                ByteBuffer keyView = view.duplicate();
+                keyView.position( offset );
+                keyView.get( key );
+                offset += keyLength;
+                if( operation == PUT )
+                {
+                    int dataLength = view.getInt( offset );
+                    offset += 4;
+                    visitor.visit( operation, new String( key, StandardCharsets.UTF_8 ), offset, dataLength );
+                    offset += dataLength;
+                }
+                else
+                {
+                    visitor.visit( operation, new String( key, StandardCharsets.UTF_8 ), -1, 0 );
+                }
+            }
+            cursor.sequence = recordSequence;
+            position += HEADER + length + TRAILER;
+            cursor.position = position;
+        }
+    }
+
+    // Must be called while holding appendLock
+    private void writeSnapshot()
+        throws IOException
+    {
+        File temporary = new File( directory, SNAPSHOT + ".tmp" );
+        try( FileOutputStream file = new FileOutputStream( temporary ) )
+        {
+            CheckedOutputStream checked = new CheckedOutputStream( new BufferedOutputStream( file ), new CRC32() );
+            DataOutputStream out = new DataOutputStream( checked );
+            out.writeInt( SNAPSHOT_MAGIC );
+            out.writeLong( sequence );
+            out.writeLong( active.id );
+            out.writeInt( segments.size() );
+            for( Segment segment : segments.values() )
+            {
+                out.writeLong( segment.id );
+                out.writeInt( segment.position() );
+            }
+            out.writeInt( index.size() );
+            for( Map.Entry<String, Location> entry : index.entrySet() )
+            {
+                byte[] key = entry.getKey().getBytes( StandardCharsets.UTF_8 );
+                out.writeInt( key.length );
+                out.write( key );
+                out.writeLong( entry.getValue().segment );
+                out.writeInt( entry.getValue().offset );
+                out.writeInt( entry.getValue().length );
+            }
+            out.writeLong( checked.getChecksum().getValue() );
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move( temporary.toPath(), new File( directory, SNAPSHOT ).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    /**
+     * Load the index snapshot if present and consistent with the segments on disk.
+     *
+     * @return id of the segment replay should start from, at its loaded position if the snapshot was used
+     */
+    private long loadSnapshot( File file )
+    {
+        long replayAll = segments.isEmpty() ? 0 : segments.firstKey();
+        if( !file.exists() )
+        {
+            return replayAll;
+        }
+        try( FileInputStream stream = new FileInputStream( file ) )
+        {
+            CheckedInputStream checked = new CheckedInputStream( new BufferedInputStream( stream ), new CRC32() );
+            DataInputStream in = new DataInputStream( checked );
+            if( in.readInt() != SNAPSHOT_MAGIC )
+            {
+                return replayAll;
+            }
+            long snapshotSequence = in.readLong();
+            long resume = in.readLong();
+            int segmentCount = in.readInt();
+            Map<Long, Integer> positions = new HashMap<>();
+            for( int idx = 0; idx < segmentCount; idx++ )
+            {
+                positions.put( in.readLong(), in.readInt() );
+            }
+            if( !positions.keySet().equals( segments.keySet() ) )
+            {
+                return replayAll;
+            }
+            int entryCount = in.readInt();
+            Map<String, Location> entries = new HashMap<>( entryCount * 4 / 3 + 1 );
+            for( int idx = 0; idx < entryCount; idx++ )
+            {
+                byte[] key = new byte[ in.readInt() ];
+                in.readFully( key );
+                Location location = new Location( in.readLong(), in.readInt(), in.readInt() );
+                Integer position = positions.get( location.segment );
+                if( position == null || location.offset < 0 || location.offset + location.length > position )
+                {
+                    return replayAll;
+                }
+                entries.put( new String( key, StandardCharsets.UTF_8 ), location );
+            }
+            long checksum = checked.getChecksum().getValue();
+            if( in.readLong() != checksum )
+            {
+                return replayAll;
+            }
+
+            for( Map.Entry<Long, Integer> position : positions.entrySet() )
+            {
+                segments.get( position.getKey() ).position( position.getValue() );
+            }
+            for( Map.Entry<String, Location> entry : entries.entrySet() )
+            {
+                index( entry.getKey(), entry.getValue() );
+            }
+            sequence = snapshotSequence;
+            return resume;
+        }
+        catch( IOException e )
+        {
+            return replayAll;
+        }
+    }
+
+    private static final class Cursor
+    {
+        private int position;
+        private long sequence;
+
+        private Cursor( int position, long sequence )
+        {
+            this.position = position;
+            this.sequence = sequence;
+        }
+    }
+
+    private interface OperationVisitor
+    {
+        void visit( byte operation, String key, int offset, int length );
+    }
+
+    /**
+     * Position of a stored state.
+     */
+    static final class Location
+    {
+        final long segment;
+        final int offset;
+        final int length;
+
+        Location( long segment, int offset, int length )
+        {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if( this == o )
+            {
+                return true;
+            }
+            if( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Location location = (Location) o;
+            return segment == location.segment && offset == location.offset && length == location.length;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( segment, offset, length );
+        }
+    }
+
+    /**
+     * A single operation of a batch.
+     */
+    static final class Change
+    {
+        final String key;
+        final byte[] data;
+        final boolean create;
+        final Location expected;
+
+        private Change( String key, byte[] data, boolean create, Location expected )
+        {
+            this.key = key;
+            this.data = data;
+            this.create = create;
+            this.expected = expected;
+        }
+
+        static Change create( String key, byte[] data )
+        {
+            return new Change( key, data, true, null );
+        }
+
+        static Change update( String key, byte[] data )
+        {
+            return new Change( key, data, false, null );
+        }
+
+        static Change remove( String key )
+        {
+            return new Change( key, null, false, null );
+        }
+    }
+
+    private static final class Batch
+    {
+        private final List<Change> changes;
+        private final byte[] payload;
+        private final int[] dataOffsets;
+
+        private Batch( List<Change> changes, byte[] payload, int[] dataOffsets )
+        {
+            this.changes = changes;
+            this.payload = payload;
+            this.dataOffsets = dataOffsets;
+        }
+
+        private static Batch encode( List<Change> changes )
+            throws IOException
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream( bytes );
+            int[] dataOffsets = new int[ changes.size() ];
+            out.writeInt( changes.size() );
+            for( int idx = 0; idx < changes.size(); idx++ )
+            {
+                Change change = changes.get( idx );
+                byte[] key = change.key.getBytes( StandardCharsets.UTF_8 );
+                out.writeByte( change.data == null ? REMOVE : PUT );
+                out.writeInt( key.length );
+                out.write( key );
+                if( change.data != null )
+                {
+                    out.writeInt( change.data.length );
+                    dataOffsets[ idx ] = out.size();
+                    out.write( change.data );
+                }
+            }
+            out.flush();
+            return new Batch( changes, bytes.toByteArray(), dataOffsets );
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.journal;
+
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.configuration.ConfigurationComposite;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.library.constraints.annotation.Range;
+
+/**
+ * Configuration for the JournalEntityStoreService.
+ */
+// START SNIPPET: config
+public interface JournalEntityStoreConfiguration
+    extends ConfigurationComposite
+{
+    // END SNIPPET: config
+    /**
+     * The directory where the Journal Entity Store will keep its segment files.
+     * <p>
+     * Defaults to a directory named after the service identity in the DATA directory of the FileConfiguration
+     * service if present, to {@code System.getProperty( "user.dir" ) + "/zest/journalstore"} otherwise.
+     * </p>
+     *
+     * @return path to the journal directory
+     */
+    // START SNIPPET: config
+    @Optional
+    Property<String> directory();
+    // END SNIPPET: config
+
+    /**
+     * Size in bytes of each segment file, defaults to 64MiB.
+     * <p>
+     * Segments are preallocated and memory mapped, a commit larger than this size gets a segment of its own.
+     * </p>
+     *
+     * @return the segment size
+     */
+    // START SNIPPET: config
+    @Optional @Range( min = 4096, max = Integer.MAX_VALUE )
+    Property<Integer> segmentSize();
+    // END SNIPPET: config
+
+    /**
+     * Whether commits wait for their batch to be forced to disk, defaults to true.
+     * <p>
+     * Concurrent commits share a single sync. When false, a crash may lose the latest commits but never leaves a
+     * partially applied one.
+     * </p>
+     *
+     * @return true if commits are durable when they return
+     */
+    // START SNIPPET: config
+    @Optional
+    Property<Boolean> fsync();
+    // END SNIPPET: config
+
+    /**
+     * Percentage of dead bytes above which a sealed segment is compacted, defaults to 50.
+     *
+     * @return the compaction threshold
+     */
+    // START SNIPPET: config
+    @Optional @Range( min = 1, max = 100 )
+    Property<Integer> compactionThreshold();
+    // END SNIPPET: config
+
+    /**
+     * Delay in milliseconds between background compaction runs, defaults to 30000. Zero disables compaction.
+     *
+     * @return the compaction interval
+     */
+    // START SNIPPET: config
+    @Optional @Range( min = 0, max = Long.MAX_VALUE )
+    Property<Long> compactionInterval();
+}
+// END SNIPPET: config
@@ -0,0 +1,367 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.entity.EntityDescriptor;
+import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.injection.scope.Uses;
+import org.apache.zest.api.service.ServiceActivation;
+import org.apache.zest.api.service.ServiceDescriptor;
+import org.apache.zest.io.Input;
+import org.apache.zest.io.Output;
+import org.apache.zest.io.Receiver;
+import org.apache.zest.io.Sender;
+import org.apache.zest.library.fileconfig.FileConfiguration;
+import org.apache.zest.spi.entitystore.BackupRestore;
+import org.apache.zest.spi.entitystore.EntityNotFoundException;
+import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.helpers.BulkMapEntityStore;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal implementation of MapEntityStore.
+ */
+public class JournalEntityStoreMixin
+    implements ServiceActivation, BulkMapEntityStore, BackupRestore
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger( JournalEntityStoreMixin.class );
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 50;
+    private static final long DEFAULT_COMPACTION_INTERVAL = 30000;
+    private static final int RESTORE_BATCH_SIZE = 1000;
+
+    @Optional
+    @Service
+    private FileConfiguration fileConfiguration;
+
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
+    @This
+    private Configuration<JournalEntityStoreConfiguration> configuration;
+
+    @Uses
+    private ServiceDescriptor descriptor;
+
+    private Journal journal;
+    private ScheduledExecutorService compactor;
+
+    @Override
+    public void activateService()
+        throws Exception
+    {
+        configuration.refresh();
+        JournalEntityStoreConfiguration config = configuration.get();
+
+        String pathName = config.directory().get();
+        if( pathName == null )
+        {
+            if( fileConfiguration != null )
+            {
+                pathName = new File( fileConfiguration.dataDirectory(), descriptor.identity().toString() )
+                    .getAbsolutePath();
+            }
+            else
+            {
+                pathName = System.getProperty( "user.dir" ) + "/zest/journalstore/";
+            }
+        }
+        int segmentSize = valueOf( config.segmentSize().get(), DEFAULT_SEGMENT_SIZE );
+        boolean fsync = valueOf( config.fsync().get(), true );
+        int compactionThreshold = valueOf( config.compactionThreshold().get(), DEFAULT_COMPACTION_THRESHOLD );
+        long compactionInterval = valueOf( config.compactionInterval().get(), DEFAULT_COMPACTION_INTERVAL );
+
+        journal = new Journal( new File( pathName ).getAbsoluteFile(), segmentSize, fsync );
+        journal.open();
+
+        if( compactionInterval > 0 )
+        {
+            String threadName = "zest-journal-compaction-" + descriptor.identity();
+            compactor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+                Thread thread = new Thread( runnable, threadName );
+                thread.setDaemon( true );
+                return thread;
+            } );
+            compactor.scheduleWithFixedDelay( () -> compact( compactionThreshold ),
+                                              compactionInterval, compactionInterval, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void passivateService()
+        throws Exception
+    {
+        try
+        {
+            if( compactor != null )
+            {
+                compactor.shutdown();
+                compactor.awaitTermination( 1, TimeUnit.MINUTES );
+            }
+            journal.close();
+        }
+        finally
+        {
+            compactor = null;
+            journal = null;
+        }
+    }
+
+    private void compact( int threshold )
+    {
+        try
+        {
+            int reclaimed = journal.compact( threshold );
+            if( reclaimed > 0 )
+            {
+                LOGGER.debug( "Compacted {} journal segment(s) of {}", reclaimed, descriptor.identity() );
+            }
+        }
+        catch( Exception e )
+        {
+            LOGGER.warn( "Journal compaction of " + descriptor.identity() + " failed, will retry", e );
+        }
+    }
+
+    @Override
+    public Reader get( EntityReference entityReference )
+        throws EntityStoreException
+    {
+        byte[] state = read( entityReference.identity().toString() );
+        if( state == null )
+        {
+            throw new EntityNotFoundException( entityReference );
+        }
+        return new StringReader( new String( state, StandardCharsets.UTF_8 ) );
+    }
+
+    @Override
+    public Map<EntityReference, Reader> get( Collection<EntityReference> entityReferences )
+        throws EntityStoreException
+    {
+        Map<EntityReference, Reader> states = new LinkedHashMap<>();
+        for( EntityReference reference : entityReferences )
+        {
+            byte[] state = read( reference.identity().toString() );
+            if( state != null )
+            {
+                states.put( reference, new StringReader( new String( state, StandardCharsets.UTF_8 ) ) );
+            }
+        }
+        return states;
+    }
+
+    private byte[] read( String identity )
+    {
+        try
+        {
+            return journal.read( identity );
+        }
+        catch( IOException e )
+        {
+            throw new EntityStoreException( e );
+        }
+    }
+
+    @Override
+    public void applyChanges( MapChanges changes )
+        throws IOException
+    {
+        List<Journal.Change> batch = new ArrayList<>();
+        changes.visitMap( new MapChanger()
+        {
+            @Override
+            public Writer newEntity( EntityReference ref, EntityDescriptor entityDescriptor )
+            {
+                return new StringWriter( 1000 )
+                {
+                    @Override
+                    public void close()
+                        throws IOException
+                    {
+                        super.close();
+                        String identity = ref.identity().toString();
+                        batch.add( Journal.Change.create( identity, toString().getBytes( StandardCharsets.UTF_8 ) ) );
+                    }
+                };
+            }
+
+            @Override
+            public Writer updateEntity( EntityReference ref, EntityDescriptor entityDescriptor )
+            {
+                return new StringWriter( 1000 )
+                {
+                    @Override
+                    public void close()
+                        throws IOException
+                    {
+                        super.close();
+                        String identity = ref.identity().toString();
+                        batch.add( Journal.Change.update( identity, toString().getBytes( StandardCharsets.UTF_8 ) ) );
+                    }
+                };
+            }
+
+            @Override
+            public void removeEntity( EntityReference ref, EntityDescriptor entityDescriptor )
+            {
+                batch.add( Journal.Change.remove( ref.identity().toString() ) );
+            }
+        } );
+        // All changes of the UnitOfWork go to the journal as a single atomic record
+        journal.commit( batch );
+    }
+
+    @Override
+    public Input<Reader, IOException> entityStates()
+    {
+        return new Input<Reader, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super Reader, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                output.receiveFrom( new Sender<Reader, IOException>()
+                {
+                    @Override
+                    public <ThrowableType extends Throwable> void sendTo( Receiver<? super Reader, ThrowableType> receiver )
+                        throws ThrowableType, IOException
+                    {
+                        for( String identity : journal.keys() )
+                        {
+                            byte[] state = journal.read( identity );
+                            if( state != null )
+                            {
+                                receiver.receive( new StringReader( new String( state, StandardCharsets.UTF_8 ) ) );
+                            }
+                        }
+                    }
+                } );
+            }
+        };
+    }
+
+    @Override
+    public Input<String, IOException> backup()
+    {
+        return new Input<String, IOException>()
+        {
+            @Override
+            public <ReceiverThrowableType extends Throwable> void transferTo( Output<? super String, ReceiverThrowableType> output )
+                throws IOException, ReceiverThrowableType
+            {
+                output.receiveFrom( new Sender<String, IOException>()
+                {
+                    @Override
+                    public <ThrowableType extends Throwable> void sendTo( Receiver<? super String, ThrowableType> receiver )
+                        throws ThrowableType, IOException
+                    {
+                        for( String identity : journal.keys() )
+                        {
+                            byte[] state = journal.read( identity );
+                            if( state != null )
+                            {
+                                try
+                                {
+                                    receiver.receive( EntityDocumentFormat.jsonDocument(
+                                        documentFormat, new String( state, StandardCharsets.UTF_8 ) ) );
+                                }
+                                catch( JSONException e )
+                                {
+                                    throw new IOException( e );
+                                }
+                            }
+                        }
+                    }
+                } );
+            }
+        };
+    }
+
+    @Override
+    public Output<String, IOException> restore()
+    {
+        return new Output<String, IOException>()
+        {
+            @Override
+            public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends String, SenderThrowableType> sender )
+                throws IOException, SenderThrowableType
+            {
+                List<Journal.Change> batch = new ArrayList<>( RESTORE_BATCH_SIZE );
+                sender.sendTo( new Receiver<String, IOException>()
+                {
+                    @Override
+                    public void receive( String item )
+                        throws IOException
+                    {
+                        try
+                        {
+                            JSONObject state = EntityDocumentFormat.readDocument( documentFormat,
+                                                                                  new StringReader( item ) );
+                            String identity = state.getString( JSONKeys.IDENTITY );
+                            String document = EntityDocumentFormat.restoredDocument( documentFormat, state, item );
+                            batch.add( Journal.Change.update( identity, document.getBytes( StandardCharsets.UTF_8 ) ) );
+                        }
+                        catch( JSONException e )
+                        {
+                            throw new IOException( "Invalid entity state: " + item, e );
+                        }
+                        if( batch.size() == RESTORE_BATCH_SIZE )
+                        {
+                            journal.commit( batch );
+                            batch.clear();
+                        }
+                    }
+                } );
+                journal.commit( batch );
+            }
+        };
+    }
+
+    private static <T> T valueOf( T configured, T defaultValue )
+    {
+        return configured == null ? defaultValue : configured;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed capacity journal file, memory mapped for both appends and reads.
+ * <p>
+ * Appends happen under the {@link Journal} append lock only, reads use absolute positions on duplicates of the
+ * mapping and can run concurrently with appends and with each other.
+ * </p>
+ */
+final class Segment
+{
+    private static final String SUFFIX = ".segment";
+
+    final long id;
+    final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile int position;
+
+    private Segment( long id, File file, FileChannel channel, MappedByteBuffer buffer )
+    {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Segment create( File directory, long id, int capacity )
+        throws IOException
+    {
+        File file = new File( directory, fileName( id ) );
+        try( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+        {
+            raf.setLength( capacity );
+        }
+        return open( file, id );
+    }
+
+    static Segment open( File file, long id )
+        throws IOException
+    {
+        FileChannel channel = new RandomAccessFile( file, "rw" ).getChannel();
+        try
+        {
+            MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_WRITE, 0, channel.size() );
+            return new Segment( id, file, channel, buffer );
+        }
+        catch( IOException e )
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static String fileName( long id )
+    {
+        return String.format( "%020d%s", id, SUFFIX );
+    }
+
+    /**
+     * @param fileName name of a file in the journal directory
+     * @return the segment id, or -1 if the file is not a segment
+     */
+    static long idOf( String fileName )
+    {
+        if( !fileName.endsWith( SUFFIX ) )
+        {
+            return -1;
+        }
+        try
+        {
+            return Long.parseLong( fileName.substring( 0, fileName.length() - SUFFIX.length() ) );
+        }
+        catch( NumberFormatException e )
+        {
+            return -1;
+        }
+    }
+
+    int capacity()
+    {
+        return buffer.capacity();
+    }
+
+    int position()
+    {
+        return position;
+    }
+
+    void position( int position )
+    {
+        this.position = position;
+    }
+
+    int remaining()
+    {
+        return buffer.capacity() - position;
+    }
+
+    /**
+     * @return A read-only view of the whole segment, positions are absolute
+     */
+    ByteBuffer view()
+    {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    byte[] read( int offset, int length )
+    {
+        byte[] bytes = new byte[ length ];
+        ByteBuffer view = buffer.duplicate();
+        view.position( offset );
+        view.get( bytes );
+        return bytes;
+    }
+
+    void append( ByteBuffer record )
+    {
+        ByteBuffer view = buffer.duplicate();
+        view.position( position );
+        view.put( record );
+        position = view.position();
+    }
+
+    /**
+     * Zeroes the segment from the current position, so that a torn write found during recovery can not be
+     * mistaken for a valid record once newer records are appended over it.
+     */
+    void truncate()
+    {
+        ByteBuffer view = buffer.duplicate();
+        view.position( position );
+        while( view.hasRemaining() )
+        {
+            view.put( (byte) 0 );
+        }
+    }
+
+    void force()
+    {
+        buffer.force();
+    }
+
+    void addLive( long bytes )
+    {
+        liveBytes.addAndGet( bytes );
+    }
+
+    long liveBytes()
+    {
+        return liveBytes.get();
+    }
+
+    /**
+     * @return Percentage of the written bytes that are not referenced by the index anymore
+     */
+    int deadPercentage()
+    {
+        int written = position;
+        if( written == 0 )
+        {
+            return 0;
+        }
+        return (int) ( 100 - liveBytes.get() * 100 / written );
+    }
+
+    void close()
+        throws IOException
+    {
+        channel.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return file.getName();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.zest.spi.entitystore.EntityAlreadyExistsException;
+import org.apache.zest.spi.entitystore.EntityNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JournalTest
+{
+    private static final int SEGMENT_SIZE = 4096;
+
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private File directory;
+    private Journal journal;
+
+    @Before
+    public void openJournal()
+        throws IOException
+    {
+        directory = tmpDir.getRoot();
+        journal = new Journal( directory, SEGMENT_SIZE, true );
+        journal.open();
+    }
+
+    @After
+    public void closeJournal()
+        throws IOException
+    {
+        journal.close();
+    }
+
+    @Test
+    public void givenCommittedBatchWhenReadThenLatestStatesAreReturned()
+        throws IOException
+    {
+        journal.commit( Arrays.asList( Journal.Change.create( "a", bytes( "a1" ) ),
+                                       Journal.Change.create( "b", bytes( "b1" ) ) ) );
+        journal.commit( Arrays.asList( Journal.Change.update( "a", bytes( "a2" ) ),
+                                       Journal.Change.remove( "b" ) ) );
+
+        assertThat( string( journal.read( "a" ) ), equalTo( "a2" ) );
+        assertThat( journal.read( "b" ), nullValue() );
+        assertThat( journal.size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void givenExistingKeyWhenCreatingThenBatchIsRejectedAsAWhole()
+        throws IOException
+    {
+        journal.commit( Collections.singletonList( Journal.Change.create( "a", bytes( "a1" ) ) ) );
+        try
+        {
+            journal.commit( Arrays.asList( Journal.Change.create( "b", bytes( "b1" ) ),
+                                           Journal.Change.create( "a", bytes( "a2" ) ) ) );
+            fail( "Expected EntityAlreadyExistsException" );
+        }
+        catch( EntityAlreadyExistsException expected )
+        {
+            assertThat( journal.read( "b" ), nullValue() );
+            assertThat( string( journal.read( "a" ) ), equalTo( "a1" ) );
+        }
+        try
+        {
+            journal.commit( Collections.singletonList( Journal.Change.remove( "c" ) ) );
+            fail( "Expected EntityNotFoundException" );
+        }
+        catch( EntityNotFoundException expected )
+        {
+            assertThat( journal.size(), equalTo( 1 ) );
+        }
+    }
+
+    @Test
+    public void givenCrashWhenReopeningThenJournalIsReplayed()
+        throws IOException
+    {
+        for( int idx = 0; idx < 200; idx++ )
+        {
+            journal.commit( Collections.singletonList( Journal.Change.update( "key-" + idx % 20, bytes( "value-" + idx ) ) ) );
+        }
+        journal.commit( Collections.singletonList( Journal.Change.remove( "key-0" ) ) );
+
+        // No close, so no index snapshot
+        Journal recovered = new Journal( directory, SEGMENT_SIZE, true );
+        recovered.open();
+        try
+        {
+            assertThat( recovered.size(), equalTo( 19 ) );
+            assertThat( recovered.read( "key-0" ), nullValue() );
+            assertThat( string( recovered.read( "key-19" ) ), equalTo( "value-199" ) );
+            assertThat( recovered.segmentCount() > 1, equalTo( true ) );
+        }
+        finally
+        {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void givenTornBatchWhenReopeningThenItIsDiscardedAndAppendsResume()
+        throws IOException
+    {
+        journal.commit( Collections.singletonList( Journal.Change.create( "a", bytes( "a1" ) ) ) );
+        journal.commit( Arrays.asList( Journal.Change.create( "b", bytes( "b1" ) ),
+                                       Journal.Change.update( "a", bytes( "a2" ) ) ) );
+
+        // Corrupt the last byte of the second batch, as an interrupted write would
+        File segment = new File( directory, Segment.fileName( 1 ) );
+        int firstRecord = 16 + 4 + 1 + 4 + 1 + 4 + 2 + 4;
+        int secondRecord = 16 + 4 + 2 * ( 1 + 4 + 1 + 4 + 2 ) + 4;
+        try( RandomAccessFile file = new RandomAccessFile( segment, "rw" ) )
+        {
+            file.seek( firstRecord + secondRecord - 1 );
+            file.write( 0x42 );
+        }
+
+        Journal recovered = new Journal( directory, SEGMENT_SIZE, true );
+        recovered.open();
+        try
+        {
+            assertThat( string( recovered.read( "a" ) ), equalTo( "a1" ) );
+            assertThat( recovered.read( "b" ), nullValue() );
+
+            recovered.commit( Collections.singletonList( Journal.Change.create( "c", bytes( "c" ) ) ) );
+        }
+        finally
+        {
+            recovered.close();
+        }
+        Journal reopened = new Journal( directory, SEGMENT_SIZE, true );
+        reopened.open();
+        try
+        {
+            assertThat( string( reopened.read( "c" ) ), equalTo( "c" ) );
+            assertThat( reopened.size(), equalTo( 2 ) );
+        }
+        finally
+        {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void givenCleanShutdownWhenReopeningThenSnapshotIsUsedAndTailReplayed()
+        throws IOException
+    {
+        journal.commit( Collections.singletonList( Journal.Change.create( "a", bytes( "a1" ) ) ) );
+        journal.close();
+        assertThat( new File( directory, "index.snapshot" ).exists(), equalTo( true ) );
+
+        journal.open();
+        assertThat( new File( directory, "index.snapshot" ).exists(), equalTo( false ) );
+        assertThat( string( journal.read( "a" ) ), equalTo( "a1" ) );
+        journal.commit( Collections.singletonList( Journal.Change.update( "a", bytes( "a2" ) ) ) );
+
+        Journal recovered = new Journal( directory, SEGMENT_SIZE, true );
+        recovered.open();
+        try
+        {
+            assertThat( string( recovered.read( "a" ) ), equalTo( "a2" ) );
+        }
+        finally
+        {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void givenOverwrittenSegmentsWhenCompactingThenLiveStatesSurvive()
+        throws IOException
+    {
+        byte[] filler = new byte[ 500 ];
+        for( int idx = 0; idx < 100; idx++ )
+        {
+            journal.commit( Collections.singletonList( Journal.Change.update( "hot", filler ) ) );
+        }
+        journal.commit( Collections.singletonList( Journal.Change.create( "cold", bytes( "cold" ) ) ) );
+        journal.commit( Collections.singletonList( Journal.Change.create( "gone", bytes( "gone" ) ) ) );
+        journal.commit( Collections.singletonList( Journal.Change.remove( "gone" ) ) );
+        for( int idx = 0; idx < 20; idx++ )
+        {
+            journal.commit( Collections.singletonList( Journal.Change.update( "hot", filler ) ) );
+        }
+        int segments = journal.segmentCount();
+
+        assertThat( journal.compact( 50 ) > 0, equalTo( true ) );
+        assertThat( journal.segmentCount() < segments, equalTo( true ) );
+        assertThat( string( journal.read( "cold" ) ), equalTo( "cold" ) );
+        assertThat( journal.read( "gone" ), nullValue() );
+
+        journal.close();
+        journal.open();
+        assertThat( string( journal.read( "cold" ) ), equalTo( "cold" ) );
+        assertThat( journal.read( "gone" ), nullValue() );
+        assertThat( journal.size(), equalTo( 2 ) );
+    }
+
+    private static byte[] bytes( String value )
+    {
+        return value.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    private static String string( byte[] value )
+    {
+        return new String( value, StandardCharsets.UTF_8 );
+    }
+}
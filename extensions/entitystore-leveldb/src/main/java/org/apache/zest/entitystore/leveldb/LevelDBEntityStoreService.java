@@ -31,11 +31,13 @@ import org.apache.zest.spi.entitystore.EntityStore;
 import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
 import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
+import org.apache.zest.spi.entitystore.helpers.ThreadSafeMapEntityStore;
 
 /**
  * LevelDB EntityStore service.
  * <p>Based on @{@link JSONMapEntityStoreMixin}.</p>
  */
+@ThreadSafeMapEntityStore
 @Concerns(
 {
     StateChangeNotificationConcern.class,
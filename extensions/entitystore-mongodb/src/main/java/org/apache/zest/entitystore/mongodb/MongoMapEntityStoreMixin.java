@@ -37,10 +37,16 @@ import java.io.Writer;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.entity.EntityDescriptor;
 import org.apache.zest.api.entity.EntityReference;
+import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.This;
 import org.apache.zest.api.service.ServiceActivation;
 import org.apache.zest.io.Input;
@@ -49,13 +55,15 @@ import org.apache.zest.io.Receiver;
 import org.apache.zest.io.Sender;
 import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
-import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
+import org.apache.zest.spi.entitystore.helpers.BulkMapEntityStore;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
+import org.json.JSONException;
 
 /**
  * MongoDB implementation of MapEntityStore.
  */
 public class MongoMapEntityStoreMixin
-    implements ServiceActivation, MapEntityStore, MongoAccessors
+    implements ServiceActivation, BulkMapEntityStore, MongoAccessors
 {
     private static final String DEFAULT_DATABASE_NAME = "zest:entitystore";
     private static final String DEFAULT_COLLECTION_NAME = "zest:entitystore:entities";
@@ -63,6 +71,11 @@ public class MongoMapEntityStoreMixin
     public static final String STATE_COLUMN = "state";
     @This
     private Configuration<MongoEntityStoreConfiguration> configuration;
+
+    @Optional
+    @Service
+    private EntityDocumentFormat documentFormat;
+
     private List<ServerAddress> serverAddresses;
     private String databaseName;
     private String collectionName;
@@ -212,6 +225,35 @@ public class MongoMapEntityStoreMixin
         return new StringReader( jsonState );
     }
 
+    @Override
+    public Map<EntityReference, Reader> get( Collection<EntityReference> entityReferences )
+        throws EntityStoreException
+    {
+        Map<EntityReference, Reader> states = new LinkedHashMap<>();
+        if( entityReferences.isEmpty() )
+        {
+            return states;
+        }
+        Map<String, EntityReference> references = new HashMap<>();
+        for( EntityReference entityReference : entityReferences )
+        {
+            references.put( entityReference.identity().toString(), entityReference );
+        }
+        DBObject query = new BasicDBObject( IDENTITY_COLUMN,
+                                            new BasicDBObject( "$in", new ArrayList<>( references.keySet() ) ) );
+        try( DBCursor cursor = db.getCollection( collectionName ).find( query ) )
+        {
+            while( cursor.hasNext() )
+            {
+                DBObject entity = cursor.next();
+                DBObject bsonState = (DBObject) entity.get( STATE_COLUMN );
+                EntityReference entityReference = references.get( String.valueOf( entity.get( IDENTITY_COLUMN ) ) );
+                states.put( entityReference, new StringReader( JSON.serialize( bsonState ) ) );
+            }
+        }
+        return states;
+    }
+
     @Override
     public void applyChanges( MapChanges changes )
         throws IOException
@@ -232,8 +274,7 @@ public class MongoMapEntityStoreMixin
                     {
                         super.close();
 
-                        String jsonState = toString();
-                        DBObject bsonState = (DBObject) JSON.parse( jsonState );
+                        DBObject bsonState = (DBObject) JSON.parse( jsonOf( toString() ) );
 
                         BasicDBObject entity = new BasicDBObject();
                         entity.put( IDENTITY_COLUMN, ref.identity().toString() );
@@ -255,7 +296,7 @@ public class MongoMapEntityStoreMixin
                     {
                         super.close();
 
-                        DBObject bsonState = (DBObject) JSON.parse( toString() );
+                        DBObject bsonState = (DBObject) JSON.parse( jsonOf( toString() ) );
 
                         BasicDBObject entity = new BasicDBObject();
                         entity.put( IDENTITY_COLUMN, ref.identity().toString() );
@@ -279,6 +320,22 @@ public class MongoMapEntityStoreMixin
         } );
     }
 
+    /**
+     * Documents are stored as BSON whatever the EntityDocumentFormat in use, it reads them back as JSON.
+     */
+    private String jsonOf( String document )
+        throws IOException
+    {
+        try
+        {
+            return EntityDocumentFormat.jsonDocument( documentFormat, document );
+        }
+        catch( JSONException e )
+        {
+            throw new IOException( e );
+        }
+    }
+
     @Override
     public Input<Reader, IOException> entityStates()
     {
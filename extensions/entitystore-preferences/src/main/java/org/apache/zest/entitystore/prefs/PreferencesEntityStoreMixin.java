@@ -21,6 +21,7 @@ package org.apache.zest.entitystore.prefs;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -431,6 +432,27 @@ public class PreferencesEntityStoreMixin
         }
     }
 
+    @Override
+    public Map<EntityReference, EntityState> entityStatesOf( EntityStoreUnitOfWork unitOfWork,
+                                                             ModuleDescriptor module,
+                                                             Collection<EntityReference> references
+    )
+    {
+        Map<EntityReference, EntityState> states = new LinkedHashMap<>();
+        for( EntityReference reference : references )
+        {
+            try
+            {
+                states.put( reference, entityStateOf( unitOfWork, module, reference ) );
+            }
+            catch( NoSuchEntityException e )
+            {
+                // Missing entities are absent from the result
+            }
+        }
+        return states;
+    }
+
     @Override
     public String versionOf( EntityStoreUnitOfWork unitOfWork, EntityReference reference )
     {
@@ -24,6 +24,11 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.entity.EntityDescriptor;
@@ -37,7 +42,7 @@ import org.apache.zest.io.Sender;
 import org.apache.zest.spi.entitystore.EntityAlreadyExistsException;
 import org.apache.zest.spi.entitystore.EntityNotFoundException;
 import org.apache.zest.spi.entitystore.EntityStoreException;
-import org.apache.zest.spi.entitystore.helpers.MapEntityStore;
+import org.apache.zest.spi.entitystore.helpers.BulkMapEntityStore;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
@@ -47,7 +52,7 @@ import redis.clients.jedis.Protocol;
  * Redis implementation of MapEntityStore.
  */
 public class RedisMapEntityStoreMixin
-    implements ServiceActivation, RedisAccessors, MapEntityStore
+    implements ServiceActivation, RedisAccessors, BulkMapEntityStore
 {
     private static final String DEFAULT_HOST = "127.0.0.1";
     private static final String NIL = "nil";
@@ -105,6 +110,41 @@ public class RedisMapEntityStoreMixin
         }
     }
 
+    @Override
+    public Map<EntityReference, Reader> get( Collection<EntityReference> entityReferences )
+        throws EntityStoreException
+    {
+        Map<EntityReference, Reader> states = new LinkedHashMap<>();
+        if( entityReferences.isEmpty() )
+        {
+            return states;
+        }
+        List<EntityReference> references = new ArrayList<>( entityReferences );
+        String[] keys = new String[ references.size() ];
+        for( int idx = 0; idx < keys.length; idx++ )
+        {
+            keys[ idx ] = references.get( idx ).identity().toString();
+        }
+        Jedis jedis = pool.getResource();
+        try
+        {
+            List<String> jsonStates = jedis.mget( keys );
+            for( int idx = 0; idx < keys.length; idx++ )
+            {
+                String jsonState = jsonStates.get( idx );
+                if( !notFound( jsonState ) )
+                {
+                    states.put( references.get( idx ), new StringReader( jsonState ) );
+                }
+            }
+            return states;
+        }
+        finally
+        {
+            pool.returnResource( jedis );
+        }
+    }
+
     @Override
     public void applyChanges( MapChanges changes )
         throws IOException
@@ -22,6 +22,7 @@ package org.apache.zest.entitystore.sql;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.sql.Connection;
@@ -30,12 +31,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.common.QualifiedName;
 import org.apache.zest.api.entity.EntityDescriptor;
@@ -55,6 +60,8 @@ import org.apache.zest.api.usecase.Usecase;
 import org.apache.zest.api.value.ValueSerialization;
 import org.apache.zest.entitystore.sql.internal.DatabaseSQLService;
 import org.apache.zest.entitystore.sql.internal.DatabaseSQLService.EntityValueResult;
+import org.apache.zest.entitystore.sql.internal.DatabaseSQLService.EntityVersionResult;
+import org.apache.zest.entitystore.sql.internal.EntityStatements;
 import org.apache.zest.entitystore.sql.internal.SQLEntityState;
 import org.apache.zest.entitystore.sql.internal.SQLEntityState.DefaultSQLEntityState;
 import org.apache.zest.functional.Visitor;
@@ -99,6 +106,11 @@ public class SQLEntityStoreMixin
 
     private static final Logger LOGGER = LoggerFactory.getLogger( SQLEntityStoreMixin.class );
 
+    /**
+     * Entity versions remembered to answer version checks from the optimistic lock column only.
+     */
+    private static final int MAX_KNOWN_VERSIONS = 10000;
+
     @Service
     private DatabaseSQLService database;
 
@@ -123,6 +135,17 @@ public class SQLEntityStoreMixin
 
     private final AtomicInteger count = new AtomicInteger();
 
+    @SuppressWarnings( "serial" )
+    private final Map<EntityReference, KnownVersion> knownVersions = Collections.synchronizedMap(
+        new LinkedHashMap<EntityReference, KnownVersion>( 16, 0.75F, true )
+        {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<EntityReference, KnownVersion> eldest )
+            {
+                return size() > MAX_KNOWN_VERSIONS;
+            }
+        } );
+
     @Service
     private IdentityGenerator identityGenerator;
 
@@ -139,6 +162,7 @@ public class SQLEntityStoreMixin
     public void passivateService()
         throws Exception
     {
+        knownVersions.clear();
         database.stopDatabase();
     }
 
@@ -150,17 +174,16 @@ public class SQLEntityStoreMixin
             @Override
             public void commit()
             {
-                Connection connection = null;
-                PreparedStatement insertPS = null;
-                PreparedStatement updatePS = null;
-                PreparedStatement removePS = null;
+                String version = unitofwork.identity().toString();
+                List<EntityReference> removed = new ArrayList<>();
+                List<SQLEntityState> updated = new ArrayList<>();
+                List<EntityReference> inserted = new ArrayList<>();
+                EntityStatements statements = null;
                 try
                 {
-                    connection = database.getConnection();
+                    statements = new EntityStatements( database );
+                    Connection connection = statements.connection();
                     connection.setAutoCommit( false );
-                    insertPS = database.prepareInsertEntityStatement( connection );
-                    updatePS = database.prepareUpdateEntityStatement( connection );
-                    removePS = database.prepareRemoveEntityStatement( connection );
                     for( EntityState state : states )
                     {
                         EntityStatus status = state.status();
@@ -168,40 +191,70 @@ public class SQLEntityStoreMixin
                         Long entityPK = ( (SQLEntityState) state ).getEntityPK();
                         if( EntityStatus.REMOVED.equals( status ) )
                         {
+                            PreparedStatement removePS = statements.removeEntity();
                             database.populateRemoveEntityStatement( removePS, entityPK, state.entityReference() );
                             removePS.addBatch();
+                            removed.add( state.entityReference() );
                         }
                         else
                         {
                             StringWriter writer = new StringWriter();
-                            writeEntityState( defState, writer, unitofwork.identity().toString() );
+                            writeEntityState( defState, writer, version );
                             writer.flush();
                             if( EntityStatus.UPDATED.equals( status ) )
                             {
+                                PreparedStatement updatePS = statements.updateEntity();
                                 Long entityOptimisticLock = ( (SQLEntityState) state ).getEntityOptimisticLock();
                                 database.populateUpdateEntityStatement( updatePS, entityPK, entityOptimisticLock,
                                                                         defState.entityReference(), writer.toString(),
                                                                         unitofwork.currentTime() );
                                 updatePS.addBatch();
+                                updated.add( (SQLEntityState) state );
                             }
                             else if( EntityStatus.NEW.equals( status ) )
                             {
+                                PreparedStatement insertPS = statements.insertEntity();
                                 database.populateInsertEntityStatement( insertPS, defState.entityReference(),
                                                                         writer.toString(), unitofwork.currentTime() );
                                 insertPS.addBatch();
+                                inserted.add( defState.entityReference() );
                             }
                         }
                     }
 
-                    removePS.executeBatch();
-                    insertPS.executeBatch();
-                    updatePS.executeBatch();
+                    if( !removed.isEmpty() )
+                    {
+                        statements.removeEntity().executeBatch();
+                    }
+                    if( !inserted.isEmpty() )
+                    {
+                        statements.insertEntity().executeBatch();
+                    }
+                    int[] updateCounts = updated.isEmpty() ? new int[ 0 ] : statements.updateEntity().executeBatch();
 
                     connection.commit();
+                    statements.close();
+                    statements = null;
+
+                    // Inserted rows get their primary key from the database, their version is read on first check
+                    for( EntityReference reference : removed )
+                    {
+                        knownVersions.remove( reference );
+                    }
+                    for( EntityReference reference : inserted )
+                    {
+                        knownVersions.remove( reference );
+                    }
+                    for( int idx = 0; idx < updated.size(); idx++ )
+                    {
+                        SQLEntityState state = updated.get( idx );
+                        rememberVersion( state.entityReference(), state.getEntityPK(),
+                                         state.getEntityOptimisticLock() + 1, version, updateCounts, idx );
+                    }
                 }
                 catch( SQLException sqle )
                 {
-                    SQLUtil.rollbackQuietly( connection );
+                    rollbackAndDiscard( statements );
                     if( LOGGER.isDebugEnabled() )
                     {
                         StringWriter sb = new StringWriter();
@@ -219,16 +272,9 @@ public class SQLEntityStoreMixin
                 }
                 catch( RuntimeException re )
                 {
-                    SQLUtil.rollbackQuietly( connection );
+                    rollbackAndDiscard( statements );
                     throw new EntityStoreException( re );
                 }
-                finally
-                {
-                    SQLUtil.closeQuietly( insertPS );
-                    SQLUtil.closeQuietly( updatePS );
-                    SQLUtil.closeQuietly( removePS );
-                    SQLUtil.closeQuietly( connection );
-                }
             }
 
             @Override
@@ -244,26 +290,134 @@ public class SQLEntityStoreMixin
                                       EntityReference entityRef
     )
     {
-        EntityValueResult valueResult = getValue( entityRef );
-        DefaultEntityState state = readEntityState( module, valueResult.getReader() );
-        return new DefaultSQLEntityState( state, valueResult.getEntityPK(), valueResult.getEntityOptimisticLock() );
+        return readValue( entityRef, valueResult -> loadedEntityState( module, valueResult ) );
+    }
+
+    @Override
+    public Map<EntityReference, EntityState> entityStatesOf( EntityStoreUnitOfWork unitOfWork,
+                                                             ModuleDescriptor module,
+                                                             Collection<EntityReference> entityRefs
+    )
+    {
+        Map<EntityReference, EntityState> states = new LinkedHashMap<>();
+        if( entityRefs.isEmpty() )
+        {
+            return states;
+        }
+        // One query per chunk of identities, entities are read while their ResultSet is open as some databases
+        // return streaming readers
+        List<EntityReference> references = new ArrayList<>( new LinkedHashSet<>( entityRefs ) );
+        int maxPerSelect = database.maxEntitiesPerSelect();
+        try
+        {
+            withStatements( statements ->
+            {
+                Map<EntityReference, EntityState> found = new HashMap<>();
+                for( int from = 0; from < references.size(); from += maxPerSelect )
+                {
+                    List<EntityReference> chunk = references.subList( from, Math.min( from + maxPerSelect,
+                                                                                      references.size() ) );
+                    int parameters = selectParameters( chunk.size(), maxPerSelect );
+                    PreparedStatement ps = statements.getEntities( parameters );
+                    database.populateGetEntitiesStatement( ps, parameters, chunk );
+                    ResultSet rs = ps.executeQuery();
+                    try
+                    {
+                        while( rs.next() )
+                        {
+                            EntityReference entityRef = database.getEntityReference( rs );
+                            found.put( entityRef, loadedEntityState( module, database.getEntityValue( rs ) ) );
+                        }
+                    }
+                    finally
+                    {
+                        SQLUtil.closeQuietly( rs );
+                    }
+                }
+                states.clear();
+                for( EntityReference entityRef : references )
+                {
+                    EntityState state = found.get( entityRef );
+                    if( state != null )
+                    {
+                        states.put( entityRef, state );
+                    }
+                }
+                return states;
+            } );
+        }
+        catch( SQLException sqle )
+        {
+            throw new EntityStoreException( "Unable to get Entities " + entityRefs, sqle );
+        }
+        return states;
+    }
+
+    /**
+     * Round the number of identities up to a power of two so that few distinct statements get prepared.
+     */
+    private static int selectParameters( int count, int maxPerSelect )
+    {
+        int parameters = Integer.highestOneBit( count );
+        if( parameters < count )
+        {
+            parameters <<= 1;
+        }
+        return Math.min( parameters, maxPerSelect );
     }
 
     @Override
     public String versionOf( EntityStoreUnitOfWork unitOfWork, EntityReference entityRef )
     {
-        EntityValueResult valueResult = getValue( entityRef );
-        Reader entityState = valueResult.getReader();
+        EntityVersionResult current;
         try
         {
-            JSONObject jsonObject = new JSONObject( new JSONTokener( entityState ) );
-            final String version = jsonObject.getString( JSONKeys.VERSION );
-            return version;
+            current = withStatements( statements ->
+            {
+                PreparedStatement ps = statements.getEntityVersion();
+                database.populateGetEntityVersionStatement( ps, entityRef );
+                ResultSet rs = ps.executeQuery();
+                try
+                {
+                    return rs.next() ? database.getEntityVersion( rs ) : null;
+                }
+                finally
+                {
+                    SQLUtil.closeQuietly( rs );
+                }
+            } );
         }
-        catch( JSONException e )
+        catch( SQLException sqle )
         {
-            throw new EntityStoreException( e );
+            throw new EntityStoreException( "Unable to get version of Entity " + entityRef, sqle );
+        }
+        if( current == null )
+        {
+            throw new EntityNotFoundException( entityRef );
         }
+        KnownVersion known = knownVersions.get( entityRef );
+        if( known != null && known.entityPK == current.getEntityPK()
+            && known.optimisticLock == current.getEntityOptimisticLock() )
+        {
+            return known.version;
+        }
+
+        // Changed since this store last saw it, read the version from the state
+        return readValue( entityRef, valueResult ->
+        {
+            try
+            {
+                JSONObject jsonObject = new JSONObject( new JSONTokener( valueResult.getReader() ) );
+                String version = jsonObject.getString( JSONKeys.VERSION );
+                knownVersions.put( entityRef, new KnownVersion( valueResult.getEntityPK(),
+                                                                valueResult.getEntityOptimisticLock(), version ) );
+                return version;
+            }
+            catch( JSONException e )
+            {
+                throw new EntityStoreException( e );
+            }
+        } );
     }
 
     @Override
@@ -520,30 +674,105 @@ public class SQLEntityStoreMixin
 
     protected EntityValueResult getValue( EntityReference ref )
     {
-        Connection connection = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        try
+        // Statements are closed with their connection, so the state is read before the ResultSet is closed
+        return readValue( ref, valueResult ->
         {
-            connection = database.getConnection();
-            ps = database.prepareGetEntityStatement( connection );
-            database.populateGetEntityStatement( ps, ref );
-            rs = ps.executeQuery();
-            if( !rs.next() )
+            try( Reader reader = valueResult.getReader() )
+            {
+                StringWriter state = new StringWriter();
+                char[] buffer = new char[ 4096 ];
+                int read;
+                while( ( read = reader.read( buffer ) ) != -1 )
+                {
+                    state.write( buffer, 0, read );
+                }
+                return new EntityValueResult( valueResult.getEntityPK(), valueResult.getEntityOptimisticLock(),
+                                              new StringReader( state.toString() ) );
+            }
+            catch( IOException e )
             {
-                throw new EntityNotFoundException( ref );
+                throw new EntityStoreException( "Unable to read Entity " + ref, e );
             }
-            return database.getEntityValue( rs );
+        } );
+    }
+
+    private <T> T readValue( EntityReference ref, Function<EntityValueResult, T> reader )
+    {
+        T result;
+        try
+        {
+            result = withStatements( statements ->
+            {
+                PreparedStatement ps = statements.getEntity();
+                database.populateGetEntityStatement( ps, ref );
+                ResultSet rs = ps.executeQuery();
+                try
+                {
+                    return rs.next() ? reader.apply( database.getEntityValue( rs ) ) : null;
+                }
+                finally
+                {
+                    SQLUtil.closeQuietly( rs );
+                }
+            } );
         }
         catch( SQLException sqle )
         {
             throw new EntityStoreException( "Unable to get Entity " + ref, sqle );
         }
+        if( result == null )
+        {
+            throw new EntityNotFoundException( ref );
+        }
+        return result;
+    }
+
+    private SQLEntityState loadedEntityState( ModuleDescriptor module, EntityValueResult valueResult )
+    {
+        DefaultEntityState state = readEntityState( module, valueResult.getReader() );
+        knownVersions.put( state.entityReference(),
+                           new KnownVersion( valueResult.getEntityPK(), valueResult.getEntityOptimisticLock(),
+                                             state.version() ) );
+        return new DefaultSQLEntityState( state, valueResult.getEntityPK(), valueResult.getEntityOptimisticLock() );
+    }
+
+    private void rememberVersion( EntityReference reference, long entityPK, long optimisticLock, String version,
+                                  int[] counts, int idx )
+    {
+        // Only trust rows the database reports as written, anything else is read again on the next check
+        if( idx < counts.length && counts[ idx ] == 1 )
+        {
+            knownVersions.put( reference, new KnownVersion( entityPK, optimisticLock, version ) );
+        }
+        else
+        {
+            knownVersions.remove( reference );
+        }
+    }
+
+    /**
+     * Run database work on statements prepared on a connection borrowed for this work only.
+     */
+    private <T> T withStatements( StatementsWork<T> work )
+        throws SQLException
+    {
+        EntityStatements statements = new EntityStatements( database );
+        try
+        {
+            return work.apply( statements );
+        }
         finally
         {
-            SQLUtil.closeQuietly( rs );
-            SQLUtil.closeQuietly( ps );
-            SQLUtil.closeQuietly( connection );
+            statements.close();
+        }
+    }
+
+    private static void rollbackAndDiscard( EntityStatements statements )
+    {
+        if( statements != null )
+        {
+            SQLUtil.rollbackQuietly( statements.connection() );
+            statements.close();
         }
     }
 
@@ -632,4 +861,28 @@ public class SQLEntityStoreMixin
             throw new EntityStoreException( "Could not store EntityState", e );
         }
     }
+
+    private interface StatementsWork<T>
+    {
+        T apply( EntityStatements statements )
+            throws SQLException;
+    }
+
+    /**
+     * Version of an entity row. The primary key is generated by the database, so a row removed and created again
+     * under the same identity does not match the version known for the removed one.
+     */
+    private static final class KnownVersion
+    {
+        private final long entityPK;
+        private final long optimisticLock;
+        private final String version;
+
+        private KnownVersion( long entityPK, long optimisticLock, String version )
+        {
+            this.entityPK = entityPK;
+            this.optimisticLock = optimisticLock;
+            this.version = version;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.service.ServiceComposite;
 
@@ -79,6 +80,37 @@ public interface DatabaseSQLService
 
     }
 
+    public final class EntityVersionResult
+    {
+
+        private final Long entityPK;
+
+        private final Long entityOptimisticLock;
+
+        public EntityVersionResult( Long entityPK, Long entityOptimisticLock )
+        {
+            this.entityPK = entityPK;
+            this.entityOptimisticLock = entityOptimisticLock;
+        }
+
+        /**
+         * @return the entityPK
+         */
+        public Long getEntityPK()
+        {
+            return entityPK;
+        }
+
+        /**
+         * @return the entityOptimisticLock
+         */
+        public Long getEntityOptimisticLock()
+        {
+            return entityOptimisticLock;
+        }
+
+    }
+
     void startDatabase()
         throws Exception;
 
@@ -91,6 +123,23 @@ public interface DatabaseSQLService
     PreparedStatement prepareGetEntityStatement( Connection connection )
         throws SQLException;
 
+    PreparedStatement prepareGetEntityVersionStatement( Connection connection )
+        throws SQLException;
+
+    /**
+     * @param connection Connection
+     * @param count Number of entity identity parameters, at most {@link #maxEntitiesPerSelect()}
+     * @return Statement selecting entities by identity
+     * @throws SQLException if the statement could not be prepared
+     */
+    PreparedStatement prepareGetEntitiesStatement( Connection connection, int count )
+        throws SQLException;
+
+    /**
+     * @return Maximum number of entities selected by one statement
+     */
+    int maxEntitiesPerSelect();
+
     PreparedStatement prepareGetAllEntitiesStatement( Connection connection )
         throws SQLException;
 
@@ -106,6 +155,20 @@ public interface DatabaseSQLService
     void populateGetEntityStatement( PreparedStatement ps, EntityReference ref )
         throws SQLException;
 
+    void populateGetEntityVersionStatement( PreparedStatement ps, EntityReference ref )
+        throws SQLException;
+
+    /**
+     * Set the identity parameters, the last reference fills the parameters left when there are fewer references.
+     *
+     * @param ps Statement prepared for {@code count} entities
+     * @param count Number of entity identity parameters
+     * @param refs References, at most {@code count}
+     * @throws SQLException if a parameter could not be set
+     */
+    void populateGetEntitiesStatement( PreparedStatement ps, int count, List<EntityReference> refs )
+        throws SQLException;
+
     void populateGetAllEntitiesStatement( PreparedStatement ps )
         throws SQLException;
 
@@ -121,4 +184,15 @@ public interface DatabaseSQLService
     EntityValueResult getEntityValue( ResultSet rs )
         throws SQLException;
 
+    EntityVersionResult getEntityVersion( ResultSet rs )
+        throws SQLException;
+
+    /**
+     * @param rs Row of a statement selecting entities
+     * @return Reference of the entity in the row
+     * @throws SQLException if the identity could not be read
+     */
+    EntityReference getEntityReference( ResultSet rs )
+        throws SQLException;
+
 }
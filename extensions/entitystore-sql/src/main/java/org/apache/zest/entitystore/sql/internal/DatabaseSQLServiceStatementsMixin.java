@@ -21,8 +21,10 @@ package org.apache.zest.entitystore.sql.internal;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
 import org.apache.zest.api.entity.EntityReference;
 import org.apache.zest.api.injection.scope.This;
 
@@ -50,6 +52,26 @@ public abstract class DatabaseSQLServiceStatementsMixin
         return connection.prepareStatement( sqlStrings.buildSQLForSelectEntityStatement() );
     }
 
+    @Override
+    public PreparedStatement prepareGetEntityVersionStatement( Connection connection )
+            throws SQLException
+    {
+        return connection.prepareStatement( sqlStrings.buildSQLForSelectEntityVersionStatement() );
+    }
+
+    @Override
+    public PreparedStatement prepareGetEntitiesStatement( Connection connection, int count )
+            throws SQLException
+    {
+        return connection.prepareStatement( sqlStrings.buildSQLForSelectEntitiesStatement( count ) );
+    }
+
+    @Override
+    public int maxEntitiesPerSelect()
+    {
+        return sqlStrings.maxSelectEntitiesParameters();
+    }
+
     @Override
     public PreparedStatement prepareInsertEntityStatement( Connection connection )
             throws SQLException
@@ -88,6 +110,39 @@ public abstract class DatabaseSQLServiceStatementsMixin
         ps.setString( 1, ref.identity().toString() );
     }
 
+    @Override
+    public void populateGetEntityVersionStatement( PreparedStatement ps, EntityReference ref )
+            throws SQLException
+    {
+        ps.setString( 1, ref.identity().toString() );
+    }
+
+    @Override
+    public void populateGetEntitiesStatement( PreparedStatement ps, int count, List<EntityReference> refs )
+            throws SQLException
+    {
+        for( int idx = 0; idx < count; idx++ )
+        {
+            EntityReference ref = refs.get( Math.min( idx, refs.size() - 1 ) );
+            ps.setString( idx + 1, ref.identity().toString() );
+        }
+    }
+
+    @Override
+    public EntityReference getEntityReference( ResultSet rs )
+            throws SQLException
+    {
+        return EntityReference.parseEntityReference( rs.getString( SQLs.ENTITY_IDENTITY_COLUMN_NAME ) );
+    }
+
+    @Override
+    public EntityVersionResult getEntityVersion( ResultSet rs )
+            throws SQLException
+    {
+        return new EntityVersionResult( rs.getLong( SQLs.ENTITY_PK_COLUMN_NAME ),
+                                        rs.getLong( SQLs.ENTITY_OPTIMISTIC_LOCK_COLUMN_NAME ) );
+    }
+
     @Override
     public void populateInsertEntityStatement( PreparedStatement ps, EntityReference ref, String entity, Instant lastModified )
             throws SQLException
@@ -22,9 +22,12 @@ package org.apache.zest.entitystore.sql.internal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.zest.api.injection.scope.This;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sql.generation.api.grammar.builders.booleans.InBuilder;
 import org.sql.generation.api.grammar.builders.modification.DeleteBySearchBuilder;
 import org.sql.generation.api.grammar.builders.modification.UpdateBySearchBuilder;
 import org.sql.generation.api.grammar.common.SQLStatement;
@@ -38,7 +41,10 @@ import org.sql.generation.api.grammar.factories.LiteralFactory;
 import org.sql.generation.api.grammar.factories.ModificationFactory;
 import org.sql.generation.api.grammar.factories.QueryFactory;
 import org.sql.generation.api.grammar.factories.TableReferenceFactory;
+import org.sql.generation.api.vendor.MySQLVendor;
+import org.sql.generation.api.vendor.PostgreSQLVendor;
 import org.sql.generation.api.vendor.SQLVendor;
+import org.sql.generation.api.vendor.SQLiteVendor;
 
 public interface DatabaseSQLStringsBuilder
 {
@@ -54,6 +60,19 @@ public interface DatabaseSQLStringsBuilder
 
     String buildSQLForSelectEntityStatement();
 
+    String buildSQLForSelectEntityVersionStatement();
+
+    /**
+     * @param count Number of entity identities, at most {@link #maxSelectEntitiesParameters()}
+     * @return SQL selecting the entities with the given number of identity parameters
+     */
+    String buildSQLForSelectEntitiesStatement( int count );
+
+    /**
+     * @return Maximum number of entity identities selected by one statement
+     */
+    int maxSelectEntitiesParameters();
+
     String buildSQLForInsertEntityStatement();
 
     String buildSQLForUpdateEntityStatement();
@@ -67,6 +86,11 @@ public interface DatabaseSQLStringsBuilder
 
         private static final Logger LOGGER = LoggerFactory.getLogger( DatabaseSQLStringsBuilder.class );
 
+        /**
+         * Upper bound of entity identities selected by one statement, whatever the vendor allows.
+         */
+        private static final int MAX_SELECT_ENTITIES = 1000;
+
         @This
         private DatabaseSQLServiceState _state;
 
@@ -84,6 +108,12 @@ public interface DatabaseSQLStringsBuilder
 
         private String selectEntitySQL;
 
+        private String selectEntityVersionSQL;
+
+        private final Map<Integer, String> selectEntitiesSQLs = new ConcurrentHashMap<>();
+
+        private int maxSelectEntitiesParameters;
+
         private String insertEntitySQL;
 
         private String updateEntitySQL;
@@ -121,6 +151,12 @@ public interface DatabaseSQLStringsBuilder
             this.selectEntitySQL = this.vendor.toString( this.createSelectEntityStatement( this.vendor ) );
             LOGGER.trace( "SQL for select entity: {}", this.selectEntitySQL );
 
+            this.selectEntityVersionSQL = this.vendor.toString( this.createSelectEntityVersionStatement( this.vendor ) );
+            LOGGER.trace( "SQL for select entity version: {}", this.selectEntityVersionSQL );
+
+            this.selectEntitiesSQLs.clear();
+            this.maxSelectEntitiesParameters = Math.min( MAX_SELECT_ENTITIES, this.getMaxParameters() );
+
             this.insertEntitySQL = this.vendor.toString( this.createInsertEntityStatement( this.vendor ) );
             LOGGER.trace( "SQL for insert entity: {}", this.insertEntitySQL );
 
@@ -242,6 +278,46 @@ public interface DatabaseSQLStringsBuilder
             // @formatter:on
         }
 
+        protected SQLStatement createSelectEntityVersionStatement( SQLVendor vendor )
+        {
+            QueryFactory q = vendor.getQueryFactory();
+            TableReferenceFactory t = vendor.getTableReferenceFactory();
+            BooleanFactory b = vendor.getBooleanFactory();
+            ColumnsFactory c = vendor.getColumnsFactory();
+            LiteralFactory l = vendor.getLiteralFactory();
+
+            // @formatter:off
+            return q.simpleQueryBuilder()
+                .select( SQLs.ENTITY_PK_COLUMN_NAME, SQLs.ENTITY_OPTIMISTIC_LOCK_COLUMN_NAME )
+                .from( t.tableName( this.schemaName, SQLs.TABLE_NAME ) )
+                .where( b.eq( c.colName( SQLs.ENTITY_IDENTITY_COLUMN_NAME ), l.param() ) )
+                .createExpression();
+            // @formatter:on
+        }
+
+        protected SQLStatement createSelectEntitiesStatement( SQLVendor vendor, int count )
+        {
+            QueryFactory q = vendor.getQueryFactory();
+            TableReferenceFactory t = vendor.getTableReferenceFactory();
+            BooleanFactory b = vendor.getBooleanFactory();
+            ColumnsFactory c = vendor.getColumnsFactory();
+            LiteralFactory l = vendor.getLiteralFactory();
+
+            InBuilder in = b.inBuilder( c.colName( SQLs.ENTITY_IDENTITY_COLUMN_NAME ) );
+            for( int idx = 0; idx < count; idx++ )
+            {
+                in.addValues( l.param() );
+            }
+            // @formatter:off
+            return q.simpleQueryBuilder()
+                .select( SQLs.ENTITY_PK_COLUMN_NAME, SQLs.ENTITY_OPTIMISTIC_LOCK_COLUMN_NAME,
+                         SQLs.ENTITY_IDENTITY_COLUMN_NAME, SQLs.ENTITY_STATE_COLUMN_NAME )
+                .from( t.tableName( this.schemaName, SQLs.TABLE_NAME ) )
+                .where( in.createExpression() )
+                .createExpression();
+            // @formatter:on
+        }
+
         protected SQLStatement createInsertEntityStatement( SQLVendor vendor )
         {
             ModificationFactory m = vendor.getModificationFactory();
@@ -311,6 +387,27 @@ public interface DatabaseSQLStringsBuilder
             // @formatter:on
         }
 
+        /**
+         * @return Maximum number of parameters the vendor accepts in one statement
+         */
+        protected int getMaxParameters()
+        {
+            if( this.vendor instanceof SQLiteVendor )
+            {
+                // SQLITE_MAX_VARIABLE_NUMBER default
+                return 999;
+            }
+            if( this.vendor instanceof PostgreSQLVendor )
+            {
+                return Short.MAX_VALUE;
+            }
+            if( this.vendor instanceof MySQLVendor )
+            {
+                return 65535;
+            }
+            return MAX_SELECT_ENTITIES;
+        }
+
         protected SQLDataType getPKType()
         {
             return this.vendor.getDataTypeFactory().bigInt();
@@ -360,6 +457,29 @@ public interface DatabaseSQLStringsBuilder
             return this.selectEntitySQL;
         }
 
+        @Override
+        public String buildSQLForSelectEntityVersionStatement()
+        {
+            return this.selectEntityVersionSQL;
+        }
+
+        @Override
+        public String buildSQLForSelectEntitiesStatement( int count )
+        {
+            return this.selectEntitiesSQLs.computeIfAbsent( count, key ->
+            {
+                String sql = this.vendor.toString( this.createSelectEntitiesStatement( this.vendor, key ) );
+                LOGGER.trace( "SQL for select {} entities: {}", key, sql );
+                return sql;
+            } );
+        }
+
+        @Override
+        public int maxSelectEntitiesParameters()
+        {
+            return this.maxSelectEntitiesParameters;
+        }
+
         @Override
         public String buildSQLForInsertEntityStatement()
         {
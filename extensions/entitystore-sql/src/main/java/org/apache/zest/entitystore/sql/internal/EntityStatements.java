@@ -0,0 +1,166 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.entitystore.sql.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.zest.library.sql.common.SQLUtil;
+
+/**
+ * A Connection borrowed from the DataSource and the entity statements prepared on it for one EntityStore operation.
+ * <p>
+ * Statements are prepared lazily on first use and closed with the connection. Caching prepared statements across
+ * operations is left to the connection pool, which also validates and evicts its connections.
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class EntityStatements
+{
+
+    private final DatabaseSQLService database;
+
+    private final Connection connection;
+
+    private final boolean defaultAutoCommit;
+
+    private PreparedStatement getEntity;
+
+    private PreparedStatement getEntityVersion;
+
+    private final Map<Integer, PreparedStatement> getEntities = new HashMap<>();
+
+    private PreparedStatement insertEntity;
+
+    private PreparedStatement updateEntity;
+
+    private PreparedStatement removeEntity;
+
+    public EntityStatements( DatabaseSQLService database )
+        throws SQLException
+    {
+        this.database = database;
+        this.connection = database.getConnection();
+        this.defaultAutoCommit = connection.getAutoCommit();
+    }
+
+    public Connection connection()
+    {
+        return connection;
+    }
+
+    public PreparedStatement getEntity()
+        throws SQLException
+    {
+        if( getEntity == null )
+        {
+            getEntity = database.prepareGetEntityStatement( connection );
+        }
+        return getEntity;
+    }
+
+    public PreparedStatement getEntityVersion()
+        throws SQLException
+    {
+        if( getEntityVersion == null )
+        {
+            getEntityVersion = database.prepareGetEntityVersionStatement( connection );
+        }
+        return getEntityVersion;
+    }
+
+    /**
+     * @param count Number of entity identity parameters
+     * @return Statement selecting that many entities
+     * @throws SQLException if the statement could not be prepared
+     */
+    public PreparedStatement getEntities( int count )
+        throws SQLException
+    {
+        PreparedStatement statement = getEntities.get( count );
+        if( statement == null )
+        {
+            statement = database.prepareGetEntitiesStatement( connection, count );
+            getEntities.put( count, statement );
+        }
+        return statement;
+    }
+
+    public PreparedStatement insertEntity()
+        throws SQLException
+    {
+        if( insertEntity == null )
+        {
+            insertEntity = database.prepareInsertEntityStatement( connection );
+        }
+        return insertEntity;
+    }
+
+    public PreparedStatement updateEntity()
+        throws SQLException
+    {
+        if( updateEntity == null )
+        {
+            updateEntity = database.prepareUpdateEntityStatement( connection );
+        }
+        return updateEntity;
+    }
+
+    public PreparedStatement removeEntity()
+        throws SQLException
+    {
+        if( removeEntity == null )
+        {
+            removeEntity = database.prepareRemoveEntityStatement( connection );
+        }
+        return removeEntity;
+    }
+
+    /**
+     * Close the statements and give the connection back, with its original auto-commit mode.
+     */
+    public void close()
+    {
+        SQLUtil.closeQuietly( getEntity );
+        SQLUtil.closeQuietly( getEntityVersion );
+        for( PreparedStatement statement : getEntities.values() )
+        {
+            SQLUtil.closeQuietly( statement );
+        }
+        SQLUtil.closeQuietly( insertEntity );
+        SQLUtil.closeQuietly( updateEntity );
+        SQLUtil.closeQuietly( removeEntity );
+        try
+        {
+            if( connection.getAutoCommit() != defaultAutoCommit )
+            {
+                connection.setAutoCommit( defaultAutoCommit );
+            }
+        }
+        catch( SQLException ignored )
+        {
+            // Closed below anyway
+        }
+        SQLUtil.closeQuietly( connection );
+    }
+
+}
@@ -48,5 +48,46 @@ public interface ElasticSearchConfiguration
      */
     @UseDefaults Property<Boolean> indexNonAggregatedAssociations();
 
+    /**
+     * When indexed changes become visible to queries.
+     * Defaults to 'IMMEDIATE'.
+     */
+    @Optional Property<RefreshPolicy> refreshPolicy();
+
+    /**
+     * Periodic index refresh interval used by the INTERVAL and WAIT_FOR refresh policies, eg. '500ms' or '5s'.
+     * Defaults to '1s'.
+     */
+    @Optional Property<String> refreshInterval();
+
+    /**
+     * Number of hits fetched per round-trip when scrolling through queries with no or a large maximum number of
+     * results.
+     * Defaults to '1000'.
+     */
+    @Optional Property<Integer> scrollSize();
+
+    /**
+     * How long ElasticSearch keeps a scroll alive between two pages, eg. '30s' or '1m'.
+     * Defaults to '1m'.
+     */
+    @Optional Property<String> scrollKeepAlive();
+
+    enum RefreshPolicy
+    {
+        /**
+         * Refresh after each indexed UnitOfWork, changes are visible as soon as it completes.
+         */
+        IMMEDIATE,
+        /**
+         * Wait for the next periodic refresh after each indexed UnitOfWork, changes are visible as soon as it
+         * completes but no refresh is forced.
+         */
+        WAIT_FOR,
+        /**
+         * Rely on the periodic refresh only, changes become visible within the refresh interval.
+         */
+        INTERVAL
+    }
 }
 // END SNIPPET: config
@@ -20,7 +20,9 @@
 package org.apache.zest.index.elasticsearch;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.function.Predicate;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.entity.EntityReference;
@@ -100,18 +102,6 @@ public interface ElasticSearchFinder
             QueryBuilder whereQueryBuilder = processWhereSpecification( baseQueryBuilder, whereClause, variables );
 
             request.setQuery( boolQuery().must( whereQueryBuilder ).filter( baseQueryBuilder ) );
-            if( firstResult != null )
-            {
-                request.setFrom( firstResult );
-            }
-            if( maxResults != null )
-            {
-                request.setSize( maxResults );
-            }
-            else
-            {
-                //request.setSize( Integer.MAX_VALUE ); // TODO Use scrolls?
-            }
             if( orderBySegments != null )
             {
                 for( OrderBy order : orderBySegments )
@@ -121,6 +111,28 @@ public interface ElasticSearchFinder
                 }
             }
 
+            if( maxResults == null || maxResults > support.scrollSize() )
+            {
+                // Unbounded or large result set, scroll through it page by page
+                if( orderBySegments == null || orderBySegments.length == 0 )
+                {
+                    request.addSort( "_doc", SortOrder.ASC );
+                }
+                request.setScroll( support.scrollKeepAlive() ).setSize( support.scrollSize() );
+                int skip = firstResult == null ? 0 : firstResult;
+                long limit = maxResults == null ? Long.MAX_VALUE : maxResults;
+
+                LOGGER.debug( "Will scroll Entities: {}", request );
+
+                return () -> new ScrollIterator( request, skip, limit );
+            }
+
+            if( firstResult != null )
+            {
+                request.setFrom( firstResult );
+            }
+            request.setSize( maxResults );
+
             // Log
             LOGGER.debug( "Will search Entities: {}", request );
 
@@ -182,6 +194,96 @@ public interface ElasticSearchFinder
             return count.getHits().getTotalHits();
         }
 
+        /**
+         * Lazily pull hits from a scroll, a new scroll is opened on each iteration.
+         * <p>
+         * The scroll is cleared once exhausted or when the limit is reached, abandoned scrolls expire after their
+         * keep alive.
+         * </p>
+         */
+        private class ScrollIterator
+            implements Iterator<EntityReference>
+        {
+            private final SearchRequestBuilder request;
+            private final long limit;
+            private int skip;
+            private long returned;
+            private String scrollId;
+            private SearchHit[] hits;
+            private int hitIndex;
+            private boolean done;
+
+            private ScrollIterator( SearchRequestBuilder request, int skip, long limit )
+            {
+                this.request = request;
+                this.skip = skip;
+                this.limit = limit;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                while( !done )
+                {
+                    if( returned >= limit )
+                    {
+                        finish();
+                    }
+                    else if( hits == null || hitIndex >= hits.length )
+                    {
+                        fetch();
+                    }
+                    else if( skip > 0 )
+                    {
+                        skip--;
+                        hitIndex++;
+                    }
+                    else
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public EntityReference next()
+            {
+                if( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                return EntityReference.parseEntityReference( hits[ hitIndex++ ].id() );
+            }
+
+            private void fetch()
+            {
+                SearchResponse response = scrollId == null
+                                          ? request.execute().actionGet()
+                                          : support.client().prepareSearchScroll( scrollId )
+                                                   .setScroll( support.scrollKeepAlive() )
+                                                   .execute().actionGet();
+                scrollId = response.getScrollId();
+                hits = response.getHits().getHits();
+                hitIndex = 0;
+                if( hits.length == 0 )
+                {
+                    finish();
+                }
+            }
+
+            private void finish()
+            {
+                done = true;
+                if( scrollId != null )
+                {
+                    support.client().prepareClearScroll().addScrollId( scrollId ).execute();
+                    scrollId = null;
+                }
+            }
+        }
+
         private static BoolQueryBuilder baseQuery( Class<?> resultType )
         {
             return boolQuery().must( termQuery( "_types", resultType.getName() ) );
@@ -48,6 +48,7 @@ import org.apache.zest.spi.entitystore.EntityStoreUnitOfWork;
 import org.apache.zest.spi.entitystore.StateChangeListener;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.support.WriteRequest;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -146,6 +147,8 @@ public interface ElasticSearchIndexer
 
             if( bulkBuilder.numberOfActions() > 0 )
             {
+                // Make changes visible according to the refresh policy, in the same round-trip
+                bulkBuilder.setRefreshPolicy( refreshPolicy( support.refreshPolicy() ) );
 
                 // Execute bulk actions
                 BulkResponse bulkResponse = bulkBuilder.execute().actionGet();
@@ -157,9 +160,20 @@ public interface ElasticSearchIndexer
                 }
 
                 LOGGER.debug( "Indexing changed Entity states took {}ms", bulkResponse.getTookInMillis() );
+            }
+        }
 
-                // Refresh index
-                support.client().admin().indices().prepareRefresh( support.index() ).execute().actionGet();
+        private static WriteRequest.RefreshPolicy refreshPolicy( ElasticSearchConfiguration.RefreshPolicy policy )
+        {
+            switch( policy )
+            {
+            case WAIT_FOR:
+                return WriteRequest.RefreshPolicy.WAIT_UNTIL;
+            case INTERVAL:
+                return WriteRequest.RefreshPolicy.NONE;
+            case IMMEDIATE:
+            default:
+                return WriteRequest.RefreshPolicy.IMMEDIATE;
             }
         }
 
@@ -20,6 +20,7 @@
 package org.apache.zest.index.elasticsearch;
 
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
 import org.apache.zest.api.service.ServiceActivation;
 
 public interface ElasticSearchSupport
@@ -34,4 +35,10 @@ public interface ElasticSearchSupport
 
     boolean indexNonAggregatedAssociations();
 
+    ElasticSearchConfiguration.RefreshPolicy refreshPolicy();
+
+    int scrollSize();
+
+    TimeValue scrollKeepAlive();
+
 }
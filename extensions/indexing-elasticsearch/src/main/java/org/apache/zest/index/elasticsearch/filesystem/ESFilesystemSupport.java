@@ -56,6 +56,7 @@ public class ESFilesystemSupport
         String clusterName = config.clusterName().get() == null ? DEFAULT_CLUSTER_NAME : config.clusterName().get();
         index = config.index().get() == null ? DEFAULT_INDEX_NAME : config.index().get();
         indexNonAggregatedAssociations = config.indexNonAggregatedAssociations().get();
+        applyQueryConfiguration( config );
 
         Identity identity = hasIdentity.identity().get();
         File homeDir = new File( new File( fileConfig.temporaryDirectory(), identity.toString() ), "home" );
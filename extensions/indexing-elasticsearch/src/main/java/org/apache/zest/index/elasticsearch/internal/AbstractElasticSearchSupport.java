@@ -21,8 +21,11 @@ package org.apache.zest.index.elasticsearch.internal;
 
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.apache.zest.index.elasticsearch.ElasticSearchConfiguration;
+import org.apache.zest.index.elasticsearch.ElasticSearchConfiguration.RefreshPolicy;
 import org.apache.zest.index.elasticsearch.ElasticSearchSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,10 +37,17 @@ public abstract class AbstractElasticSearchSupport
     protected static final String DEFAULT_CLUSTER_NAME = "zest_cluster";
     protected static final String DEFAULT_INDEX_NAME = "zest_index";
     protected static final String ENTITIES_TYPE = "zest_entities";
+    protected static final String DEFAULT_REFRESH_INTERVAL = "1s";
+    protected static final int DEFAULT_SCROLL_SIZE = 1000;
+    protected static final String DEFAULT_SCROLL_KEEP_ALIVE = "1m";
 
     protected Client client;
     protected String index;
     protected boolean indexNonAggregatedAssociations;
+    protected RefreshPolicy refreshPolicy = RefreshPolicy.IMMEDIATE;
+    protected String refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    protected int scrollSize = DEFAULT_SCROLL_SIZE;
+    protected TimeValue scrollKeepAlive;
 
     @Override
     public final void activateService()
@@ -55,7 +65,7 @@ public abstract class AbstractElasticSearchSupport
             Settings.Builder indexSettings = Settings.builder().loadFromSource(
                 XContentFactory.jsonBuilder()
                                .startObject()
-                                   .field( "refresh_interval", -1 )
+                                   .field( "refresh_interval", indexRefreshInterval() )
                                    .startObject( "mapper" )
                                        .field( "dynamic", false )
                                    .endObject()
@@ -93,6 +103,14 @@ public abstract class AbstractElasticSearchSupport
                   .actionGet();
             LOGGER.info( "Index '{}' created.", index );
         }
+        else
+        {
+            // Apply the refresh interval of the configured refresh policy
+            client.admin().indices().prepareUpdateSettings( index )
+                  .setSettings( Settings.builder().put( "index.refresh_interval", indexRefreshInterval() ) )
+                  .execute()
+                  .actionGet();
+        }
 
         // Ensure index is fresh
         client.admin().indices().prepareRefresh( index ).execute().actionGet();
@@ -106,6 +124,32 @@ public abstract class AbstractElasticSearchSupport
     protected abstract void activateElasticSearch()
         throws Exception;
 
+    /**
+     * Read the refresh and scroll settings, to be called by {@link #activateElasticSearch()}.
+     *
+     * @param config Configuration
+     */
+    protected void applyQueryConfiguration( ElasticSearchConfiguration config )
+    {
+        refreshPolicy = config.refreshPolicy().get() == null
+                        ? RefreshPolicy.IMMEDIATE
+                        : config.refreshPolicy().get();
+        refreshInterval = config.refreshInterval().get() == null
+                          ? DEFAULT_REFRESH_INTERVAL
+                          : config.refreshInterval().get();
+        scrollSize = config.scrollSize().get() == null ? DEFAULT_SCROLL_SIZE : config.scrollSize().get();
+        scrollKeepAlive = TimeValue.parseTimeValue( config.scrollKeepAlive().get() == null
+                                                    ? DEFAULT_SCROLL_KEEP_ALIVE
+                                                    : config.scrollKeepAlive().get(),
+                                                    "scrollKeepAlive" );
+    }
+
+    private String indexRefreshInterval()
+    {
+        // IMMEDIATE refreshes explicitly, periodic refreshes would only add load
+        return refreshPolicy == RefreshPolicy.IMMEDIATE ? "-1" : refreshInterval;
+    }
+
     @Override
     public final void passivateService()
         throws Exception
@@ -113,6 +157,8 @@ public abstract class AbstractElasticSearchSupport
         passivateClient();
         index = null;
         indexNonAggregatedAssociations = false;
+        refreshPolicy = RefreshPolicy.IMMEDIATE;
+        scrollKeepAlive = null;
         passivateElasticSearch();
     }
 
@@ -151,4 +197,22 @@ public abstract class AbstractElasticSearchSupport
     {
         return indexNonAggregatedAssociations;
     }
+
+    @Override
+    public final RefreshPolicy refreshPolicy()
+    {
+        return refreshPolicy;
+    }
+
+    @Override
+    public final int scrollSize()
+    {
+        return scrollSize;
+    }
+
+    @Override
+    public final TimeValue scrollKeepAlive()
+    {
+        return scrollKeepAlive;
+    }
 }
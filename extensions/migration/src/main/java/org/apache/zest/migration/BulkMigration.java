@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.migration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migrate all entities of the visible EntityStore to the current application version in the background.
+ * <p>
+ * Entities are otherwise migrated lazily, when first read after a new version is deployed. A bulk migration walks the
+ * store, migrates the entities written by previous versions and writes them back, so that reads quickly return to
+ * normal latency. The application can keep using the store meanwhile, entities updated concurrently are left to be
+ * migrated by the update.
+ * </p>
+ * <p>
+ * Progress is recorded in the {@link MigrationConfiguration} so that a stopped or interrupted bulk migration resumes
+ * where it stopped on the next {@link #startBulkMigration()}.
+ * </p>
+ */
+public interface BulkMigration
+{
+    /**
+     * Start migrating in the background, does nothing if a bulk migration is running or complete for the current
+     * application version.
+     */
+    void startBulkMigration();
+
+    /**
+     * Stop migrating, recording progress, and wait for the background migration to end.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void stopBulkMigration()
+        throws InterruptedException;
+
+    /**
+     * @param timeout Maximum time to wait
+     * @param unit    Unit of the timeout
+     * @return true if the bulk migration ended, successfully or not, false if the timeout elapsed
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitBulkMigration( long timeout, TimeUnit unit )
+        throws InterruptedException;
+
+    /**
+     * @return Progress of the current, or last, bulk migration
+     */
+    BulkMigrationProgress bulkMigrationProgress();
+}
@@ -0,0 +1,439 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.migration;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.io.Input;
+import org.apache.zest.io.Output;
+import org.apache.zest.io.Receiver;
+import org.apache.zest.io.Sender;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entity.EntityStatus;
+import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
+import org.apache.zest.spi.entitystore.PartitionedEntityStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk migration relying on the EntityStore migrating and writing back the entities it reads while scanning.
+ * <p>
+ * EntityStores supporting partitions are scanned by many threads, one partition each, and the last identity read in
+ * each partition is recorded. Other EntityStores are scanned by a single thread and start over when resumed, already
+ * migrated entities are then read but not written.
+ * </p>
+ */
+public class BulkMigrationMixin
+    implements BulkMigration
+{
+    private static final long SAVE_INTERVAL_SECONDS = 5;
+
+    @This
+    private Configuration<MigrationConfiguration> config;
+
+    @Service
+    private EntityStore entityStore;
+
+    @Structure
+    private Application app;
+
+    @Structure
+    private Module module;
+
+    private final Logger log = LoggerFactory.getLogger( MigrationService.class );
+
+    private Thread worker;
+
+    private volatile boolean stopping;
+
+    private volatile boolean complete;
+
+    private volatile long estimatedTotal = -1;
+
+    private final AtomicLong scanned = new AtomicLong();
+
+    private final AtomicLong migrated = new AtomicLong();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Next time, in nanoseconds, a migrated entity may be written back when throttled.
+     */
+    private final AtomicLong nextWrite = new AtomicLong();
+
+    @Override
+    public synchronized void startBulkMigration()
+    {
+        if( worker != null && worker.isAlive() )
+        {
+            return;
+        }
+        config.refresh();
+        MigrationConfiguration conf = config.get();
+        if( app.version().equals( conf.bulkMigrationVersion().get() ) && conf.bulkMigrationRemaining().get().isEmpty() )
+        {
+            complete = true;
+            return;
+        }
+        stopping = false;
+        complete = false;
+        estimatedTotal = -1;
+        scanned.set( 0 );
+        migrated.set( 0 );
+        failure.set( null );
+        worker = new Thread( this::migrate, "bulk-migration-" + module.name() );
+        worker.setDaemon( true );
+        worker.start();
+    }
+
+    @Override
+    public void stopBulkMigration()
+        throws InterruptedException
+    {
+        Thread running;
+        synchronized( this )
+        {
+            running = worker;
+            stopping = true;
+        }
+        if( running != null )
+        {
+            running.join();
+        }
+    }
+
+    @Override
+    public boolean awaitBulkMigration( long timeout, TimeUnit unit )
+        throws InterruptedException
+    {
+        Thread running;
+        synchronized( this )
+        {
+            running = worker;
+        }
+        if( running == null )
+        {
+            return true;
+        }
+        running.join( Math.max( 1, unit.toMillis( timeout ) ) );
+        return !running.isAlive();
+    }
+
+    @Override
+    public BulkMigrationProgress bulkMigrationProgress()
+    {
+        Thread running;
+        synchronized( this )
+        {
+            running = worker;
+        }
+        return new BulkMigrationProgress( running != null && running.isAlive(), complete, scanned.get(),
+                                          migrated.get(), estimatedTotal, failure.get() );
+    }
+
+    private void migrate()
+    {
+        MigrationConfiguration conf = config.get();
+        int threads = conf.bulkMigrationThreads().get() == null ? 1 : Math.max( 1, conf.bulkMigrationThreads().get() );
+        Integer rate = conf.bulkMigrationRate().get();
+        long writeInterval = rate == null || rate <= 0 ? 0 : TimeUnit.SECONDS.toNanos( 1 ) / rate;
+
+        boolean partitioned = entityStore instanceof PartitionedEntityStore
+                              && !( (PartitionedEntityStore) entityStore ).partitions( 1 ).isEmpty();
+        List<EntityStorePartition> partitions;
+        if( app.version().equals( conf.bulkMigrationVersion().get() ) )
+        {
+            partitions = partitioned
+                         ? decode( conf.bulkMigrationRemaining().get() )
+                         : Collections.singletonList( EntityStorePartition.all() );
+            log.info( "Resuming bulk migration to " + app.version() );
+        }
+        else
+        {
+            partitions = Collections.emptyList();
+            if( partitioned )
+            {
+                // More partitions than threads so that uneven partitions do not leave threads idle
+                partitions = ( (PartitionedEntityStore) entityStore ).partitions( threads == 1 ? 1 : threads * 4 );
+            }
+            if( partitions.isEmpty() )
+            {
+                partitions = Collections.singletonList( EntityStorePartition.all() );
+            }
+            long total = 0;
+            for( EntityStorePartition partition : partitions )
+            {
+                total = total < 0 || partition.estimatedSize() < 0 ? -1 : total + partition.estimatedSize();
+            }
+            estimatedTotal = total;
+            log.info( "Starting bulk migration to " + app.version() );
+        }
+
+        List<Progress> progress = new ArrayList<>();
+        for( EntityStorePartition partition : partitions )
+        {
+            progress.add( new Progress( partition ) );
+        }
+        saveProgress( progress );
+
+        ExecutorService executor = Executors.newFixedThreadPool( partitioned ? threads : 1, runnable ->
+        {
+            Thread thread = new Thread( runnable, "bulk-migration-" + module.name() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        try
+        {
+            for( Progress partition : progress )
+            {
+                executor.execute( () -> migrate( partition, partitioned, writeInterval ) );
+            }
+            executor.shutdown();
+            while( !executor.awaitTermination( SAVE_INTERVAL_SECONDS, TimeUnit.SECONDS ) )
+            {
+                saveProgress( progress );
+                log.info( "Bulk migration " + bulkMigrationProgress() );
+            }
+        }
+        catch( InterruptedException e )
+        {
+            stopping = true;
+            Thread.currentThread().interrupt();
+        }
+        catch( RuntimeException e )
+        {
+            failure.compareAndSet( null, e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        try
+        {
+            saveProgress( progress );
+        }
+        catch( RuntimeException e )
+        {
+            failure.compareAndSet( null, e );
+        }
+        Throwable failed = failure.get();
+        if( failed != null )
+        {
+            log.error( "Bulk migration failed, " + bulkMigrationProgress(), failed );
+        }
+        else if( stopping )
+        {
+            log.info( "Bulk migration stopped, " + bulkMigrationProgress() );
+        }
+        else
+        {
+            complete = true;
+            log.info( "Bulk migration to " + app.version() + " complete, " + bulkMigrationProgress() );
+        }
+    }
+
+    private void migrate( final Progress progress, final boolean partitioned, final long writeInterval )
+    {
+        Input<EntityState, EntityStoreException> states;
+        if( partitioned )
+        {
+            states = ( (PartitionedEntityStore) entityStore ).entityStates( module.descriptor(), progress.remaining() );
+        }
+        else
+        {
+            states = entityStore.entityStates( module.descriptor() );
+        }
+        try
+        {
+            states.transferTo( new Output<EntityState, RuntimeException>()
+            {
+                @Override
+                public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends EntityState, SenderThrowableType> sender )
+                    throws RuntimeException, SenderThrowableType
+                {
+                    sender.sendTo( new Receiver<EntityState, RuntimeException>()
+                    {
+                        @Override
+                        public void receive( EntityState state )
+                        {
+                            if( stopping || failure.get() != null )
+                            {
+                                throw new Stopped();
+                            }
+                            scanned.incrementAndGet();
+                            if( state.status() == EntityStatus.UPDATED )
+                            {
+                                // Migrated while read, written back by the EntityStore as the scan goes
+                                migrated.incrementAndGet();
+                                throttle( writeInterval );
+                            }
+                            if( partitioned )
+                            {
+                                // Entities read but not yet written back when stopped are left to lazy migration
+                                progress.last = state.entityReference().identity().toString();
+                            }
+                        }
+                    } );
+                }
+            } );
+            progress.done = true;
+        }
+        catch( Stopped e )
+        {
+            // Progress is recorded by the caller
+        }
+        catch( Throwable e )
+        {
+            failure.compareAndSet( null, e );
+        }
+    }
+
+    private void throttle( long writeInterval )
+    {
+        if( writeInterval == 0 )
+        {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot = nextWrite.accumulateAndGet( now, ( next, time ) -> Math.max( next, time ) + writeInterval )
+                    - writeInterval;
+        long wait = slot - now;
+        if( wait > 0 )
+        {
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep( wait );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new Stopped();
+            }
+        }
+    }
+
+    private void saveProgress( List<Progress> progress )
+    {
+        List<String> remaining = new ArrayList<>();
+        for( Progress partition : progress )
+        {
+            if( !partition.done )
+            {
+                remaining.add( encode( partition.remaining() ) );
+            }
+        }
+        MigrationConfiguration conf = config.get();
+        conf.bulkMigrationVersion().set( app.version() );
+        conf.bulkMigrationRemaining().set( remaining );
+        config.save();
+    }
+
+    private static String encode( EntityStorePartition partition )
+    {
+        return encode( partition.lowerBound() ) + " " + encode( partition.upperBound() );
+    }
+
+    private static String encode( String bound )
+    {
+        try
+        {
+            return bound == null ? "" : URLEncoder.encode( bound, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+
+    private static List<EntityStorePartition> decode( List<String> encoded )
+    {
+        List<EntityStorePartition> partitions = new ArrayList<>();
+        for( String partition : encoded )
+        {
+            String[] bounds = partition.split( " ", -1 );
+            partitions.add( new EntityStorePartition( decode( bounds[ 0 ] ), decode( bounds[ 1 ] ), -1 ) );
+        }
+        return partitions;
+    }
+
+    private static String decode( String bound )
+    {
+        try
+        {
+            return bound.isEmpty() ? null : URLDecoder.decode( bound, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+
+    /**
+     * Progress of a single partition.
+     */
+    private static class Progress
+    {
+        private final EntityStorePartition partition;
+        private volatile String last;
+        private volatile boolean done;
+
+        private Progress( EntityStorePartition partition )
+        {
+            this.partition = partition;
+        }
+
+        private EntityStorePartition remaining()
+        {
+            String identity = last;
+            return identity == null ? partition : partition.after( identity );
+        }
+    }
+
+    /**
+     * Thrown to stop a scan.
+     */
+    private static class Stopped
+        extends RuntimeException
+    {
+        private Stopped()
+        {
+            super( null, null, false, false );
+        }
+    }
+}
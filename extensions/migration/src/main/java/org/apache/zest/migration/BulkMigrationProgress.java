@@ -0,0 +1,101 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.migration;
+
+/**
+ * Snapshot of the progress of a {@link BulkMigration}.
+ */
+public final class BulkMigrationProgress
+{
+    private final boolean running;
+    private final boolean complete;
+    private final long scanned;
+    private final long migrated;
+    private final long estimatedTotal;
+    private final Throwable failure;
+
+    public BulkMigrationProgress( boolean running, boolean complete, long scanned, long migrated, long estimatedTotal,
+                                  Throwable failure )
+    {
+        this.running = running;
+        this.complete = complete;
+        this.scanned = scanned;
+        this.migrated = migrated;
+        this.estimatedTotal = estimatedTotal;
+        this.failure = failure;
+    }
+
+    /**
+     * @return true if the bulk migration is running in the background
+     */
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * @return true if all entities have been migrated to the current application version
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * @return Count of entities read by this run of the bulk migration
+     */
+    public long scanned()
+    {
+        return scanned;
+    }
+
+    /**
+     * @return Count of entities migrated by this run of the bulk migration
+     */
+    public long migrated()
+    {
+        return migrated;
+    }
+
+    /**
+     * @return Estimated count of entities this run of the bulk migration reads, -1 if unknown
+     */
+    public long estimatedTotal()
+    {
+        return estimatedTotal;
+    }
+
+    /**
+     * @return Failure that ended the bulk migration, null if none
+     */
+    public Throwable failure()
+    {
+        return failure;
+    }
+
+    @Override
+    public String toString()
+    {
+        return ( complete ? "complete" : running ? "running" : failure != null ? "failed" : "stopped" )
+               + ", scanned " + scanned + ( estimatedTotal < 0 ? "" : " of about " + estimatedTotal )
+               + ", migrated " + migrated;
+    }
+}
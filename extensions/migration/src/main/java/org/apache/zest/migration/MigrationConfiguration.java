@@ -20,6 +20,8 @@
 
 package org.apache.zest.migration;
 
+import java.util.List;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.common.UseDefaults;
 import org.apache.zest.api.configuration.ConfigurationComposite;
 import org.apache.zest.api.property.Property;
@@ -32,4 +34,49 @@ public interface MigrationConfiguration
 {
     @UseDefaults
     Property<String> lastStartupVersion();
+
+    /**
+     * Start a {@link BulkMigration} in the background when the application version changed.
+     *
+     * @return the property telling if bulk migration starts at startup, false by default.
+     */
+    @UseDefaults
+    Property<Boolean> bulkMigrationAtStartup();
+
+    /**
+     * How many threads migrate concurrently during a {@link BulkMigration}.
+     * Only EntityStores supporting partitions are migrated by more than one thread.
+     *
+     * If not specified, the value of 1 will be used.
+     *
+     * @return the property containing the count of threads.
+     */
+    @Optional
+    Property<Integer> bulkMigrationThreads();
+
+    /**
+     * Maximum count of entities migrated and written back per second during a {@link BulkMigration}.
+     *
+     * If not specified, migration is not throttled.
+     *
+     * @return the property containing the maximum migration rate.
+     */
+    @Optional
+    Property<Integer> bulkMigrationRate();
+
+    /**
+     * Application version targeted by the recorded bulk migration progress.
+     *
+     * @return the property containing the version, maintained by the MigrationService.
+     */
+    @UseDefaults
+    Property<String> bulkMigrationVersion();
+
+    /**
+     * Identity ranges not yet migrated by the bulk migration to {@link #bulkMigrationVersion()}, empty once complete.
+     *
+     * @return the property containing the remaining ranges, maintained by the MigrationService.
+     */
+    @UseDefaults
+    Property<List<String>> bulkMigrationRemaining();
 }
@@ -57,11 +57,14 @@ import org.slf4j.LoggerFactory;
  * migration. If the Migrator accepts a migration command the change is performed, and an event
  * is triggered. These events can be received by implementing the MigrationEvents interface in a service
  * that is visible by this MigrationService.
+ *
+ * Entities are migrated when read, a {@link BulkMigration} can be started to migrate all of them in the background,
+ * either explicitly or at startup, see {@link MigrationConfiguration#bulkMigrationAtStartup()}.
  */
-@Mixins( MigrationService.MigrationMixin.class )
+@Mixins( { MigrationService.MigrationMixin.class, BulkMigrationMixin.class } )
 @Activators( MigrationService.Activator.class )
 public interface MigrationService
-    extends Migration
+    extends Migration, BulkMigration
 {
 
     void initialize()
@@ -78,9 +81,16 @@ public interface MigrationService
             activated.get().initialize();
         }
 
+        @Override
+        public void beforePassivation( ServiceReference<MigrationService> passivating )
+            throws Exception
+        {
+            passivating.get().stopBulkMigration();
+        }
+
     }
 
-    public class MigrationMixin
+    public abstract class MigrationMixin
         implements MigrationService, Migrator
     {
         @Structure
@@ -102,6 +112,9 @@ public interface MigrationService
         @This
         Migrator migrator;
 
+        @This
+        BulkMigration bulkMigration;
+
         public MigrationBuilder builder;
         public Logger log;
 
@@ -187,6 +200,11 @@ public interface MigrationService
                     }
                 }
             }
+
+            if( config.get().bulkMigrationAtStartup().get() )
+            {
+                bulkMigration.startBulkMigration();
+            }
         }
 
         // Migrator implementation
@@ -22,6 +22,7 @@ package org.apache.zest.migration;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
 import org.apache.zest.api.identity.Identity;
 import org.apache.zest.bootstrap.unitofwork.DefaultUnitOfWorkAssembler;
 import org.hamcrest.CoreMatchers;
@@ -29,9 +30,15 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.apache.zest.api.activation.ActivationException;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.concern.Concerns;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.service.ServiceComposite;
 import org.apache.zest.api.service.importer.NewObjectImporter;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.Assembler;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
 import org.apache.zest.bootstrap.SingletonAssembler;
@@ -42,11 +49,20 @@ import org.apache.zest.io.Sender;
 import org.apache.zest.migration.assembly.EntityMigrationOperation;
 import org.apache.zest.migration.assembly.MigrationBuilder;
 import org.apache.zest.migration.assembly.MigrationOperation;
+import org.apache.zest.entitystore.memory.MemoryMapEntityStoreMixin;
 import org.apache.zest.spi.entitystore.BackupRestore;
+import org.apache.zest.spi.entitystore.ConcurrentModificationCheckConcern;
+import org.apache.zest.spi.entitystore.EntityStateVersions;
+import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.entitystore.StateChangeNotificationConcern;
 import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreActivation;
+import org.apache.zest.spi.entitystore.helpers.JSONMapEntityStoreMixin;
 import org.apache.zest.spi.entitystore.helpers.StateStore;
+import org.apache.zest.spi.entitystore.helpers.ThreadSafeMapEntityStore;
 import org.apache.zest.test.AbstractZestTest;
 import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationService;
 
 import static org.junit.Assert.assertThat;
 
@@ -214,6 +230,197 @@ public class MigrationTest
         }
     }
 
+    @Test
+    public void testBulkMigration()
+        throws UnitOfWorkCompletionException, IOException, ActivationException, AssemblyException,
+               InterruptedException, JSONException
+    {
+        StringInputOutput data_v1 = new StringInputOutput();
+        {
+            SingletonAssembler v1 = bulkMigrationAssembler( "1.0", new EntityTestAssembler() );
+            UnitOfWork uow = v1.module().unitOfWorkFactory().newUnitOfWork();
+            for( int idx = 0; idx < 50; idx++ )
+            {
+                TestEntity1_0 entity = uow.newEntity( TestEntity1_0.class );
+                entity.foo().set( "Some value " + idx );
+            }
+            uow.complete();
+            v1.module().findService( BackupRestore.class ).get().backup().transferTo( data_v1 );
+        }
+
+        SingletonAssembler v2_0 = bulkMigrationAssembler( "2.0", new EntityTestAssembler() );
+        BackupRestore testData = v2_0.module().findService( BackupRestore.class ).get();
+        data_v1.transferTo( testData.restore() );
+
+        BulkMigration bulkMigration = v2_0.module().findService( BulkMigration.class ).get();
+        bulkMigration.startBulkMigration();
+        assertThat( "Bulk migration ended", bulkMigration.awaitBulkMigration( 30, TimeUnit.SECONDS ),
+                    CoreMatchers.is( true ) );
+        BulkMigrationProgress progress = bulkMigration.bulkMigrationProgress();
+        assertThat( "Bulk migration complete", progress.isComplete(), CoreMatchers.is( true ) );
+        assertThat( "Entities migrated", progress.migrated(), CoreMatchers.equalTo( 50L ) );
+
+        // Migrated state has been written back without loading the entities
+        StringInputOutput data_v2_0 = new StringInputOutput();
+        testData.backup().transferTo( data_v2_0 );
+        BufferedReader reader = new BufferedReader( new StringReader( data_v2_0.builder.toString() ) );
+        String line;
+        int count = 0;
+        while( ( line = reader.readLine() ) != null )
+        {
+            JSONObject state = new JSONObject( line );
+            assertThat( state.getString( JSONKeys.APPLICATION_VERSION ), CoreMatchers.equalTo( "2.0" ) );
+            assertThat( state.getString( JSONKeys.TYPE ), CoreMatchers.equalTo( TestEntity2_0.class.getName() ) );
+            count++;
+        }
+        assertThat( count, CoreMatchers.equalTo( 50 ) );
+
+        // Complete for this version, nothing left to do
+        bulkMigration.startBulkMigration();
+        assertThat( bulkMigration.bulkMigrationProgress().isRunning(), CoreMatchers.is( false ) );
+        assertThat( bulkMigration.bulkMigrationProgress().isComplete(), CoreMatchers.is( true ) );
+    }
+
+    @Test
+    public void testBulkMigrationInterleavedWithCommit()
+        throws UnitOfWorkCompletionException, IOException, ActivationException, AssemblyException,
+               InterruptedException
+    {
+        Assembler store = module -> {
+            module.services( InterleavingEntityStoreService.class );
+            module.services( OrgJsonValueSerializationService.class ).taggedWith( ValueSerialization.Formats.JSON );
+        };
+        StringInputOutput data_v1 = new StringInputOutput();
+        Identity identity;
+        {
+            SingletonAssembler v1 = bulkMigrationAssembler( "1.0", store );
+            UnitOfWork uow = v1.module().unitOfWorkFactory().newUnitOfWork();
+            TestEntity1_0 entity = uow.newEntity( TestEntity1_0.class );
+            entity.foo().set( "Some value" );
+            identity = entity.identity().get();
+            uow.complete();
+            v1.module().findService( BackupRestore.class ).get().backup().transferTo( data_v1 );
+        }
+
+        final SingletonAssembler v2_0 = bulkMigrationAssembler( "2.0", store );
+        data_v1.transferTo( v2_0.module().findService( BackupRestore.class ).get().restore() );
+
+        // Commit an update of the entity while the migrated state of the entity is being written back
+        final Thread[] committer = new Thread[ 1 ];
+        InterleavingMapEntityStoreMixin.beforeApplyChanges = () -> {
+            committer[ 0 ] = new Thread( () -> {
+                try( UnitOfWork uow = v2_0.module().unitOfWorkFactory().newUnitOfWork() )
+                {
+                    uow.get( TestEntity2_0.class, identity ).bar().set( "Updated value" );
+                    uow.complete();
+                }
+                catch( UnitOfWorkCompletionException e )
+                {
+                    throw new AssertionError( e );
+                }
+            } );
+            committer[ 0 ].start();
+            try
+            {
+                committer[ 0 ].join( 500 );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try
+        {
+            BulkMigration bulkMigration = v2_0.module().findService( BulkMigration.class ).get();
+            bulkMigration.startBulkMigration();
+            assertThat( "Bulk migration ended", bulkMigration.awaitBulkMigration( 30, TimeUnit.SECONDS ),
+                        CoreMatchers.is( true ) );
+            committer[ 0 ].join();
+        }
+        finally
+        {
+            InterleavingMapEntityStoreMixin.beforeApplyChanges = null;
+        }
+
+        try( UnitOfWork uow = v2_0.module().unitOfWorkFactory().newUnitOfWork() )
+        {
+            assertThat( "Committed update not overwritten by the migration",
+                        uow.get( TestEntity2_0.class, identity ).bar().get(),
+                        CoreMatchers.equalTo( "Updated value" ) );
+        }
+    }
+
+    private SingletonAssembler bulkMigrationAssembler( final String version, final Assembler store )
+        throws AssemblyException, ActivationException
+    {
+        return new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                store.assemble( module );
+                new DefaultUnitOfWorkAssembler().assemble( module );
+                module.entities( TestEntity1_0.class, TestEntity1_1.class, TestEntity2_0.class );
+
+                MigrationBuilder migration = new MigrationBuilder( "1.0" );
+                migration.
+                    toVersion( "1.1" ).
+                    renameEntity( TestEntity1_0.class.getName(), TestEntity1_1.class.getName() ).
+                    forEntities( TestEntity1_1.class.getName() ).
+                    renameProperty( "foo", "newFoo" ).
+                    end().
+                    toVersion( "2.0" ).
+                    renameEntity( TestEntity1_1.class.getName(), TestEntity2_0.class.getName() ).
+                    forEntities( TestEntity2_0.class.getName() ).
+                    addProperty( "bar", "Some value" ).
+                    end();
+                module.services( MigrationService.class ).setMetaInfo( migration );
+
+                // Configuration in its own store so that restoring test data does not wipe it
+                ModuleAssembly config = module.layer().module( "config" );
+                new EntityTestAssembler().assemble( config );
+                config.entities( MigrationConfiguration.class ).visibleIn( Visibility.layer );
+                MigrationConfiguration defaults = config.forMixin( MigrationConfiguration.class ).declareDefaults();
+                defaults.lastStartupVersion().set( "1.0" );
+                defaults.bulkMigrationThreads().set( 2 );
+
+                module.layer().application().setVersion( version );
+            }
+        };
+    }
+
+    @ThreadSafeMapEntityStore
+    @Concerns( { StateChangeNotificationConcern.class, ConcurrentModificationCheckConcern.class } )
+    @Mixins( { JSONMapEntityStoreMixin.class, InterleavingMapEntityStoreMixin.class } )
+    public interface InterleavingEntityStoreService
+        extends EntityStore, EntityStateVersions, BackupRestore, StateStore, ServiceComposite,
+                JSONMapEntityStoreActivation
+    {
+    }
+
+    /**
+     * In-memory MapEntityStore running a hook before the next change set is applied.
+     */
+    public static class InterleavingMapEntityStoreMixin
+        extends MemoryMapEntityStoreMixin
+    {
+        private static volatile Runnable beforeApplyChanges;
+
+        @Override
+        public void applyChanges( MapChanges changes )
+            throws IOException
+        {
+            Runnable hook = beforeApplyChanges;
+            beforeApplyChanges = null;
+            if( hook != null )
+            {
+                hook.run();
+            }
+            super.applyChanges( changes );
+        }
+    }
+
     private static class CustomBarOperation
         implements EntityMigrationOperation
     {
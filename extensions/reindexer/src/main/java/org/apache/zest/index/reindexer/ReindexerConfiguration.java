@@ -37,4 +37,26 @@ public interface ReindexerConfiguration
      */
     @Optional
     Property<Integer> loadValue();
+
+    /**
+     * How many threads should send EntityStates to the indexers concurrently.
+     * Indexers must then support concurrent notifications.
+     *
+     * If not specified, the value of 1 will be used.
+     *
+     * @return the property containing the count of threads.
+     */
+    @Optional
+    Property<Integer> threads();
+
+    /**
+     * Path of the file where reindexing progress is recorded.
+     * An interrupted reindexing resumes from the recorded progress, the file is deleted once reindexing completes.
+     *
+     * If not specified, progress is not recorded and reindexing always starts over.
+     *
+     * @return the property containing the checkpoint file path.
+     */
+    @Optional
+    Property<String> checkpointFile();
 }
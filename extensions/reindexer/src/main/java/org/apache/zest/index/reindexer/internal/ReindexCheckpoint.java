@@ -0,0 +1,304 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.index.reindexer.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
+
+/**
+ * Progress of a reindexing, optionally recorded to a file so that an interrupted reindexing can be resumed.
+ * <p>
+ * A partitioned reindexing records, for each partition, the identity of the last reindexed entity. A sequential
+ * reindexing records how many entities were reindexed from the start of the scan. As reindexing an entity twice is
+ * harmless, progress is recorded at most once per second.
+ * </p>
+ * <p>
+ * The first line of the file is the mode, {@literal partitioned} or {@literal sequential}, then one tab separated and
+ * URL encoded line per partition: {@literal lowerBound  upperBound  estimatedSize  reindexed  lastIdentity  done}.
+ * </p>
+ */
+final class ReindexCheckpoint
+{
+    private static final String PARTITIONED = "partitioned";
+    private static final String SEQUENTIAL = "sequential";
+    private static final long SAVE_INTERVAL_NANOS = 1_000_000_000L;
+
+    /**
+     * Progress of a single partition.
+     */
+    static final class Progress
+    {
+        final EntityStorePartition partition;
+        private long reindexed;
+        private String lastIdentity;
+        private boolean done;
+
+        private Progress( EntityStorePartition partition, long reindexed, String lastIdentity, boolean done )
+        {
+            this.partition = partition;
+            this.reindexed = reindexed;
+            this.lastIdentity = lastIdentity;
+            this.done = done;
+        }
+
+        /**
+         * @return What remains to be scanned in this partition
+         */
+        synchronized EntityStorePartition remaining()
+        {
+            return lastIdentity == null ? partition : partition.after( lastIdentity );
+        }
+
+        synchronized long reindexed()
+        {
+            return reindexed;
+        }
+
+        synchronized boolean isDone()
+        {
+            return done;
+        }
+    }
+
+    private final Path path;
+    private final boolean partitioned;
+    private final List<Progress> partitions;
+    private long lastSave = System.nanoTime();
+
+    private ReindexCheckpoint( Path path, boolean partitioned, List<Progress> partitions )
+    {
+        this.path = path;
+        this.partitioned = partitioned;
+        this.partitions = Collections.unmodifiableList( partitions );
+    }
+
+    static ReindexCheckpoint partitioned( Path path, List<EntityStorePartition> partitions )
+    {
+        List<Progress> progress = new ArrayList<>();
+        for( EntityStorePartition partition : partitions )
+        {
+            progress.add( new Progress( partition, 0, null, false ) );
+        }
+        return new ReindexCheckpoint( path, true, progress );
+    }
+
+    static ReindexCheckpoint sequential( Path path )
+    {
+        return new ReindexCheckpoint( path, false, Collections.singletonList(
+            new Progress( EntityStorePartition.all(), 0, null, false ) ) );
+    }
+
+    /**
+     * @return Recorded progress or {@literal null} if there is none
+     */
+    static ReindexCheckpoint load( Path path )
+        throws IOException
+    {
+        try( BufferedReader reader = Files.newBufferedReader( path, StandardCharsets.UTF_8 ) )
+        {
+            String mode = reader.readLine();
+            if( !PARTITIONED.equals( mode ) && !SEQUENTIAL.equals( mode ) )
+            {
+                return null;
+            }
+            List<Progress> progress = new ArrayList<>();
+            String line;
+            while( ( line = reader.readLine() ) != null )
+            {
+                String[] fields = line.split( "\t", -1 );
+                if( fields.length != 6 )
+                {
+                    return null;
+                }
+                EntityStorePartition partition = new EntityStorePartition( decode( fields[ 0 ] ),
+                                                                           decode( fields[ 1 ] ),
+                                                                           Long.parseLong( fields[ 2 ] ) );
+                progress.add( new Progress( partition, Long.parseLong( fields[ 3 ] ), decode( fields[ 4 ] ),
+                                            "1".equals( fields[ 5 ] ) ) );
+            }
+            if( progress.isEmpty() || ( SEQUENTIAL.equals( mode ) && progress.size() != 1 ) )
+            {
+                return null;
+            }
+            return new ReindexCheckpoint( path, PARTITIONED.equals( mode ), progress );
+        }
+        catch( NoSuchFileException e )
+        {
+            return null;
+        }
+        catch( IllegalArgumentException e )
+        {
+            // Includes NumberFormatException, the file is not a checkpoint
+            return null;
+        }
+    }
+
+    boolean isPartitioned()
+    {
+        return partitioned;
+    }
+
+    List<Progress> partitions()
+    {
+        return partitions;
+    }
+
+    /**
+     * @return Estimated count of entities to reindex in total, -1 if unknown
+     */
+    long estimatedSize()
+    {
+        long total = 0;
+        for( Progress progress : partitions )
+        {
+            if( progress.partition.estimatedSize() < 0 )
+            {
+                return -1;
+            }
+            total += progress.partition.estimatedSize();
+        }
+        return total;
+    }
+
+    /**
+     * @return Count of entities already reindexed
+     */
+    long reindexed()
+    {
+        long reindexed = 0;
+        for( Progress progress : partitions )
+        {
+            reindexed += progress.reindexed();
+        }
+        return reindexed;
+    }
+
+    /**
+     * Record that entities of a partition have been reindexed.
+     *
+     * @param progress     Progress of the partition
+     * @param count        Count of entities reindexed
+     * @param lastIdentity Identity of the last reindexed entity, in scan order
+     */
+    void reindexed( Progress progress, int count, String lastIdentity )
+        throws IOException
+    {
+        synchronized( progress )
+        {
+            progress.reindexed += count;
+            progress.lastIdentity = lastIdentity;
+        }
+        save( false );
+    }
+
+    void done( Progress progress )
+        throws IOException
+    {
+        synchronized( progress )
+        {
+            progress.done = true;
+        }
+        save( false );
+    }
+
+    /**
+     * Write the progress to the file, unless it was written less than a second ago and {@literal force} is false.
+     */
+    synchronized void save( boolean force )
+        throws IOException
+    {
+        long now = System.nanoTime();
+        if( path == null || ( !force && now - lastSave < SAVE_INTERVAL_NANOS ) )
+        {
+            return;
+        }
+        lastSave = now;
+        StringBuilder lines = new StringBuilder( partitioned ? PARTITIONED : SEQUENTIAL ).append( '\n' );
+        for( Progress progress : partitions )
+        {
+            synchronized( progress )
+            {
+                lines.append( encode( progress.partition.lowerBound() ) ).append( '\t' )
+                    .append( encode( progress.partition.upperBound() ) ).append( '\t' )
+                    .append( progress.partition.estimatedSize() ).append( '\t' )
+                    .append( progress.reindexed ).append( '\t' )
+                    .append( encode( progress.lastIdentity ) ).append( '\t' )
+                    .append( progress.done ? '1' : '0' ).append( '\n' );
+            }
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if( parent != null )
+        {
+            Files.createDirectories( parent );
+        }
+        Path saved = path.resolveSibling( path.getFileName() + ".tmp" );
+        Files.write( saved, lines.toString().getBytes( StandardCharsets.UTF_8 ) );
+        Files.move( saved, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    /**
+     * Forget the progress, the next reindexing will start over.
+     */
+    synchronized void delete()
+        throws IOException
+    {
+        if( path != null )
+        {
+            Files.deleteIfExists( path );
+        }
+    }
+
+    private static String encode( String value )
+    {
+        try
+        {
+            return value == null ? "" : URLEncoder.encode( value, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+
+    private static String decode( String value )
+    {
+        try
+        {
+            return value.isEmpty() ? null : URLDecoder.decode( value, "UTF-8" );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new InternalError( e );
+        }
+    }
+}
@@ -20,15 +20,36 @@
 
 package org.apache.zest.index.reindexer.internal;
 
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import org.apache.zest.api.common.QualifiedName;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.configuration.Configuration;
 import org.apache.zest.api.identity.HasIdentity;
 import org.apache.zest.api.injection.scope.Service;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.metrics.MetricNames;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsGauge;
+import org.apache.zest.api.metrics.MetricsGaugeFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.mixin.Initializable;
 import org.apache.zest.api.service.ServiceReference;
-import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.structure.Module;
 import org.apache.zest.index.reindexer.Reindexer;
 import org.apache.zest.index.reindexer.ReindexerConfiguration;
 import org.apache.zest.io.Output;
@@ -36,12 +57,15 @@ import org.apache.zest.io.Receiver;
 import org.apache.zest.io.Sender;
 import org.apache.zest.spi.entity.EntityState;
 import org.apache.zest.spi.entitystore.EntityStore;
+import org.apache.zest.spi.entitystore.EntityStoreException;
+import org.apache.zest.spi.entitystore.EntityStorePartition;
+import org.apache.zest.spi.entitystore.PartitionedEntityStore;
 import org.apache.zest.spi.entitystore.StateChangeListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ReindexerMixin
-    implements Reindexer
+    implements Reindexer, Initializable
 {
     @This
     private Configuration<ReindexerConfiguration> configuration;
@@ -53,10 +77,36 @@ public class ReindexerMixin
     private Iterable<ServiceReference<StateChangeListener>> listeners;
 
     @Structure
-    private ModuleDescriptor module;
+    private Module module;
+
+    @Optional
+    @Service
+    private MetricsProvider metricsProvider;
 
     private Logger logger = LoggerFactory.getLogger( Reindexer.class );
 
+    private MetricsCounter reindexedCounter;
+
+    /**
+     * Progress of the current, or last, reindexing.
+     */
+    private volatile Run run;
+
+    @Override
+    public void initialize()
+    {
+        if( metricsProvider != null )
+        {
+            MetricsCounterFactory counters = metricsProvider.createFactory( MetricsCounterFactory.class );
+            reindexedCounter = counters.createCounter( MetricNames.nameFor( module, Reindexer.class, "reindexed" ) );
+            MetricsGaugeFactory gauges = metricsProvider.createFactory( MetricsGaugeFactory.class );
+            gauges.registerGauge( MetricNames.nameFor( module, Reindexer.class, "throughput" ),
+                                  (MetricsGauge<Double>) () -> run == null ? 0D : run.throughput() );
+            gauges.registerGauge( MetricNames.nameFor( module, Reindexer.class, "remaining" ),
+                                  (MetricsGauge<Long>) () -> run == null ? 0L : run.remainingSeconds() );
+        }
+    }
+
     @Override
     public void reindex()
     {
@@ -67,59 +117,425 @@ public class ReindexerMixin
         {
             loadValue = 50;
         }
-        new ReindexerOutput( loadValue ).reindex( store );
+        Integer threads = conf.threads().get();
+        if( threads == null || threads < 1 )
+        {
+            threads = 1;
+        }
+        String checkpointFile = conf.checkpointFile().get();
+        Path checkpointPath = checkpointFile == null ? null : Paths.get( checkpointFile );
+
+        try
+        {
+            ReindexCheckpoint checkpoint = checkpoint( checkpointPath, threads );
+            run = new Run( loadValue, threads, checkpoint );
+            run.reindex();
+        }
+        catch( IOException e )
+        {
+            throw new EntityStoreException( "Could not record reindexing progress in " + checkpointPath, e );
+        }
     }
 
-    private class ReindexerOutput
-        implements Output<EntityState, RuntimeException>, Receiver<EntityState, RuntimeException>
+    /**
+     * Resume recorded progress if any and usable, otherwise start over partitioned if the store supports it.
+     */
+    private ReindexCheckpoint checkpoint( Path path, int threads )
+        throws IOException
     {
-        private int count;
-        private int loadValue;
-        private ArrayList<EntityState> states;
+        boolean partitionedStore = store instanceof PartitionedEntityStore;
+        if( path != null )
+        {
+            ReindexCheckpoint recorded = ReindexCheckpoint.load( path );
+            if( recorded != null && ( partitionedStore || !recorded.isPartitioned() ) )
+            {
+                logger.info( "Resuming reindexing from " + path + ", " + recorded.reindexed()
+                             + " entities already reindexed" );
+                return recorded;
+            }
+        }
+        if( partitionedStore )
+        {
+            // More partitions than threads so that uneven partitions do not leave threads idle
+            int desiredCount = threads == 1 ? 1 : threads * 4;
+            List<EntityStorePartition> partitions = ( (PartitionedEntityStore) store ).partitions( desiredCount );
+            if( !partitions.isEmpty() )
+            {
+                return ReindexCheckpoint.partitioned( path, partitions );
+            }
+        }
+        return ReindexCheckpoint.sequential( path );
+    }
+
+    private void notifyListeners( List<EntityState> states )
+    {
+        for( ServiceReference<StateChangeListener> listener : listeners )
+        {
+            listener.get().notifyChanges( states );
+        }
+    }
 
-        public ReindexerOutput( Integer loadValue )
+    /**
+     * A single reindexing.
+     * <p>
+     * Partitions are scanned concurrently, each by a single thread, and progress is recorded per partition in
+     * identity order. Stores that do not support partitions are scanned by the calling thread, batches are then
+     * sent to the indexers concurrently and progress is recorded as the count of leading entities reindexed.
+     * </p>
+     */
+    private class Run
+    {
+        private final int loadValue;
+        private final int threads;
+        private final ReindexCheckpoint checkpoint;
+        private final AtomicLong reindexed = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long alreadyReindexed;
+        private final long estimatedSize;
+        private final long start = System.nanoTime();
+
+        private Run( int loadValue, int threads, ReindexCheckpoint checkpoint )
         {
             this.loadValue = loadValue;
-            states = new ArrayList<>();
+            this.threads = threads;
+            this.checkpoint = checkpoint;
+            this.alreadyReindexed = checkpoint.reindexed();
+            this.estimatedSize = checkpoint.estimatedSize();
         }
 
-        public void reindex( EntityStore store )
+        private void reindex()
+            throws IOException
         {
+            ExecutorService executor = threads == 1 ? null : Executors.newFixedThreadPool( threads, runnable ->
+            {
+                Thread thread = new Thread( runnable, "reindexer-" + module.descriptor().name() );
+                thread.setDaemon( true );
+                return thread;
+            } );
+            try
+            {
+                if( checkpoint.isPartitioned() )
+                {
+                    reindexPartitions( executor );
+                }
+                else
+                {
+                    reindexSequentially( executor );
+                }
+            }
+            finally
+            {
+                if( executor != null )
+                {
+                    executor.shutdownNow();
+                }
+            }
 
-            store.entityStates( module ).transferTo( this );
-            reindexState();
+            Throwable failed = failure.get();
+            if( failed != null )
+            {
+                checkpoint.save( true );
+                if( failed instanceof RuntimeException )
+                {
+                    throw (RuntimeException) failed;
+                }
+                if( failed instanceof Error )
+                {
+                    throw (Error) failed;
+                }
+                throw new UndeclaredThrowableException( failed );
+            }
+            checkpoint.delete();
+            logger.info( "Reindexed " + reindexed.get() + " entities in "
+                         + TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) + "ms" );
         }
 
-        @Override
-        public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends EntityState, SenderThrowableType> sender )
-            throws RuntimeException, SenderThrowableType
+        private void reindexPartitions( ExecutorService executor )
         {
-            sender.sendTo( this );
-            reindexState();
+            List<Future<?>> futures = new ArrayList<>();
+            for( ReindexCheckpoint.Progress progress : checkpoint.partitions() )
+            {
+                if( failure.get() != null )
+                {
+                    break;
+                }
+                if( progress.isDone() )
+                {
+                    continue;
+                }
+                Runnable task = () -> reindexPartition( progress );
+                if( executor == null )
+                {
+                    task.run();
+                }
+                else
+                {
+                    futures.add( executor.submit( task ) );
+                }
+            }
+            await( futures );
         }
 
-        @Override
-        public void receive( EntityState item )
-            throws RuntimeException
+        private void reindexPartition( final ReindexCheckpoint.Progress progress )
         {
-            count++;
-            item.setPropertyValue( HasIdentity.IDENTITY_STATE_NAME, item.entityReference().identity() );
-            states.add( item );
-
-            if( states.size() >= loadValue )
+            final PartitionedEntityStore partitions = (PartitionedEntityStore) store;
+            final List<EntityState> states = new ArrayList<>();
+            try
             {
-                reindexState();
+                partitions.entityStates( module.descriptor(), progress.remaining() ).transferTo(
+                    new Output<EntityState, IOException>()
+                    {
+                        @Override
+                        public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends EntityState, SenderThrowableType> sender )
+                            throws IOException, SenderThrowableType
+                        {
+                            sender.sendTo( new Receiver<EntityState, IOException>()
+                            {
+                                @Override
+                                public void receive( EntityState item )
+                                    throws IOException
+                                {
+                                    states.add( item );
+                                    if( states.size() >= loadValue )
+                                    {
+                                        reindexBatch( progress, states );
+                                    }
+                                }
+                            } );
+                            reindexBatch( progress, states );
+                        }
+                    } );
+                checkpoint.done( progress );
+            }
+            catch( Aborted e )
+            {
+                // Another partition failed
+            }
+            catch( Throwable e )
+            {
+                failure.compareAndSet( null, e );
             }
         }
 
-        public void reindexState()
+        private void reindexBatch( ReindexCheckpoint.Progress progress, List<EntityState> states )
+            throws IOException
         {
-            for( ServiceReference<StateChangeListener> listener : listeners )
+            if( failure.get() != null )
+            {
+                throw new Aborted();
+            }
+            if( states.isEmpty() )
             {
-                listener.get().notifyChanges( states );
+                return;
             }
+            String lastIdentity = states.get( states.size() - 1 ).entityReference().identity().toString();
+            reindexState( states );
+            checkpoint.reindexed( progress, states.size(), lastIdentity );
             states.clear();
-            logger.debug( "Reindexed " + count + " entities" );
+        }
+
+        private void reindexSequentially( final ExecutorService executor )
+            throws IOException
+        {
+            final ReindexCheckpoint.Progress progress = checkpoint.partitions().get( 0 );
+            final long skip = progress.reindexed();
+            final Semaphore inFlight = new Semaphore( threads * 2 );
+            final List<Future<?>> futures = new ArrayList<>();
+            final Completion completion = new Completion( progress );
+            try
+            {
+                store.entityStates( module.descriptor() ).transferTo( new Output<EntityState, RuntimeException>()
+                {
+                    private long scanned;
+                    private long batches;
+                    private List<EntityState> states = new ArrayList<>();
+
+                    @Override
+                    public <SenderThrowableType extends Throwable> void receiveFrom( Sender<? extends EntityState, SenderThrowableType> sender )
+                        throws RuntimeException, SenderThrowableType
+                    {
+                        sender.sendTo( new Receiver<EntityState, RuntimeException>()
+                        {
+                            @Override
+                            public void receive( EntityState item )
+                            {
+                                // Entities reindexed before the interruption, relies on a stable scan order
+                                if( scanned++ < skip )
+                                {
+                                    return;
+                                }
+                                states.add( item );
+                                if( states.size() >= loadValue )
+                                {
+                                    dispatch();
+                                }
+                            }
+                        } );
+                        dispatch();
+                    }
+
+                    private void dispatch()
+                    {
+                        if( failure.get() != null )
+                        {
+                            throw new Aborted();
+                        }
+                        if( states.isEmpty() )
+                        {
+                            return;
+                        }
+                        final List<EntityState> batch = states;
+                        final long sequence = batches++;
+                        states = new ArrayList<>();
+                        Runnable task = () ->
+                        {
+                            try
+                            {
+                                reindexState( batch );
+                                completion.completed( sequence, batch.size() );
+                            }
+                            catch( Throwable e )
+                            {
+                                failure.compareAndSet( null, e );
+                            }
+                            finally
+                            {
+                                inFlight.release();
+                            }
+                        };
+                        inFlight.acquireUninterruptibly();
+                        if( executor == null )
+                        {
+                            task.run();
+                        }
+                        else
+                        {
+                            futures.add( executor.submit( task ) );
+                        }
+                    }
+                } );
+            }
+            catch( Aborted e )
+            {
+                // A batch failed
+            }
+            catch( RuntimeException e )
+            {
+                failure.compareAndSet( null, e );
+            }
+            await( futures );
+            if( failure.get() == null )
+            {
+                checkpoint.done( progress );
+            }
+        }
+
+        private void reindexState( List<EntityState> states )
+        {
+            for( EntityState state : states )
+            {
+                state.setPropertyValue( HasIdentity.IDENTITY_STATE_NAME, state.entityReference().identity() );
+            }
+            notifyListeners( states );
+            long count = reindexed.addAndGet( states.size() );
+            if( reindexedCounter != null )
+            {
+                reindexedCounter.increment( states.size() );
+            }
+            if( logger.isDebugEnabled() )
+            {
+                long remaining = remainingSeconds();
+                logger.debug( "Reindexed " + count + " entities"
+                              + ( remaining < 0 ? "" : ", about " + remaining + "s remaining" ) );
+            }
+        }
+
+        private void await( List<Future<?>> futures )
+        {
+            for( Future<?> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch( InterruptedException e )
+                {
+                    failure.compareAndSet( null, e );
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch( ExecutionException e )
+                {
+                    failure.compareAndSet( null, e.getCause() );
+                }
+            }
+        }
+
+        /**
+         * @return Entities reindexed per second by this run
+         */
+        private double throughput()
+        {
+            long elapsed = System.nanoTime() - start;
+            return elapsed <= 0 ? 0D : reindexed.get() * 1e9 / elapsed;
+        }
+
+        /**
+         * @return Estimated seconds until this run completes, -1 if unknown
+         */
+        private long remainingSeconds()
+        {
+            double throughput = throughput();
+            if( estimatedSize < 0 || throughput <= 0 )
+            {
+                return -1;
+            }
+            long remaining = Math.max( 0, estimatedSize - alreadyReindexed - reindexed.get() );
+            return (long) Math.ceil( remaining / throughput );
+        }
+
+        /**
+         * Record the count of leading entities reindexed as batches complete, possibly out of order.
+         */
+        private class Completion
+        {
+            private final ReindexCheckpoint.Progress progress;
+            private final TreeMap<Long, Integer> outOfOrder = new TreeMap<>();
+            private long next;
+
+            private Completion( ReindexCheckpoint.Progress progress )
+            {
+                this.progress = progress;
+            }
+
+            private synchronized void completed( long sequence, int size )
+                throws IOException
+            {
+                outOfOrder.put( sequence, size );
+                int count = 0;
+                Integer leading;
+                while( ( leading = outOfOrder.remove( next ) ) != null )
+                {
+                    count += leading;
+                    next++;
+                }
+                if( count > 0 )
+                {
+                    checkpoint.reindexed( progress, count, null );
+                }
+            }
+        }
+    }
+
+    /**
+     * Thrown to stop a scan once another thread failed.
+     */
+    private static class Aborted
+        extends RuntimeException
+    {
+        private Aborted()
+        {
+            super( null, null, false, false );
         }
     }
 }
@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+
+package org.apache.zest.index.reindexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.entity.EntityComposite;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.spi.entity.EntityState;
+import org.apache.zest.spi.entitystore.StateChangeListener;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Reindex a partitioned EntityStore using many threads, and resume an interrupted reindexing.
+ */
+public class ParallelReindexerTest
+    extends AbstractZestTest
+{
+    private static final int ENTITIES = 100;
+    private static final Set<String> REINDEXED = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger FAIL_COUNTDOWN = new AtomicInteger();
+
+    private File checkpoint;
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        new EntityTestAssembler().assemble( module );
+        module.services( ReindexerService.class );
+        module.services( RecordingIndexerService.class );
+        module.entities( MyEntity.class );
+
+        try
+        {
+            checkpoint = File.createTempFile( "reindexer", ".checkpoint" );
+            checkpoint.delete();
+        }
+        catch( IOException e )
+        {
+            throw new AssemblyException( e );
+        }
+
+        ModuleAssembly config = module.layer().module( "config" );
+        new EntityTestAssembler().assemble( config );
+        config.entities( ReindexerConfiguration.class ).visibleIn( Visibility.layer );
+        ReindexerConfiguration defaults = config.forMixin( ReindexerConfiguration.class ).declareDefaults();
+        defaults.loadValue().set( 10 );
+        defaults.threads().set( 4 );
+        defaults.checkpointFile().set( checkpoint.getAbsolutePath() );
+    }
+
+    public interface MyEntity
+        extends EntityComposite
+    {
+        Property<String> name();
+    }
+
+    @Mixins( RecordingIndexerMixin.class )
+    public interface RecordingIndexerService
+        extends StateChangeListener
+    {
+    }
+
+    public static class RecordingIndexerMixin
+        implements StateChangeListener
+    {
+        @Override
+        public void notifyChanges( Iterable<EntityState> changedStates )
+        {
+            if( FAIL_COUNTDOWN.decrementAndGet() == 0 )
+            {
+                throw new IllegalStateException( "Indexer failure" );
+            }
+            for( EntityState state : changedStates )
+            {
+                REINDEXED.add( state.entityReference().identity().toString() );
+            }
+        }
+    }
+
+    @Test
+    public void givenPartitionedStoreWhenReindexingThenAllEntitiesAreReindexed()
+        throws UnitOfWorkCompletionException
+    {
+        Set<String> identities = createEntities();
+
+        serviceFinder.findService( Reindexer.class ).get().reindex();
+
+        assertThat( REINDEXED, is( identities ) );
+        assertFalse( checkpoint.exists() );
+    }
+
+    @Test
+    public void givenInterruptedReindexingWhenReindexingAgainThenResumes()
+        throws UnitOfWorkCompletionException
+    {
+        Set<String> identities = createEntities();
+        Reindexer reindexer = serviceFinder.findService( Reindexer.class ).get();
+
+        FAIL_COUNTDOWN.set( 3 );
+        try
+        {
+            reindexer.reindex();
+            fail( "Reindexing should have failed" );
+        }
+        catch( IllegalStateException expected )
+        {
+            // expected
+        }
+        assertTrue( checkpoint.exists() );
+        Set<String> beforeFailure = new HashSet<>( REINDEXED );
+        assertFalse( beforeFailure.isEmpty() );
+
+        FAIL_COUNTDOWN.set( Integer.MAX_VALUE );
+        REINDEXED.clear();
+        reindexer.reindex();
+
+        assertTrue( REINDEXED.size() < ENTITIES );
+        REINDEXED.addAll( beforeFailure );
+        assertThat( REINDEXED, is( identities ) );
+        assertFalse( checkpoint.exists() );
+    }
+
+    private Set<String> createEntities()
+        throws UnitOfWorkCompletionException
+    {
+        Set<String> identities = new HashSet<>();
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            for( int idx = 0; idx < ENTITIES; idx++ )
+            {
+                EntityBuilder<MyEntity> builder = uow.newEntityBuilder( MyEntity.class );
+                builder.instance().name().set( "entity " + idx );
+                identities.add( builder.newInstance().identity().get().toString() );
+            }
+            uow.complete();
+        }
+        FAIL_COUNTDOWN.set( Integer.MAX_VALUE );
+        REINDEXED.clear();
+        return identities;
+    }
+}
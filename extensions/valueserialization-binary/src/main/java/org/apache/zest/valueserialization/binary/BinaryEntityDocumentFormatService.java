@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.spi.entitystore.helpers.EntityDocumentFormat;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Entity state documents in the compact binary format.
+ * <p>
+ * Documents are decoded to the same JSON state as before so Migration rules keep applying unchanged.
+ * Plain JSON documents are still read, they get rewritten in the binary format on their next update.
+ * </p>
+ */
+@Mixins( BinaryEntityDocumentFormatService.Mixin.class )
+public interface BinaryEntityDocumentFormatService
+    extends EntityDocumentFormat
+{
+    class Mixin
+        implements EntityDocumentFormat
+    {
+        @Override
+        public JSONObject read( Reader document )
+            throws IOException, JSONException
+        {
+            PushbackReader reader = new PushbackReader( document );
+            int first = reader.read();
+            if( first != -1 )
+            {
+                reader.unread( first );
+            }
+            if( first != BinaryFormat.MAGIC )
+            {
+                return new JSONObject( new JSONTokener( reader ) );
+            }
+            // Decoded straight from the document characters into the state tree
+            BinaryInput input = BinaryInput.readFully( reader );
+            input.readHeader();
+            Object state = input.readValue();
+            if( !( state instanceof JSONObject ) )
+            {
+                throw new JSONException( "Entity state document is not an object" );
+            }
+            return (JSONObject) state;
+        }
+
+        @Override
+        public void write( JSONObject state, Writer document )
+            throws IOException, JSONException
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream( 512 );
+            BinaryOutput output = new BinaryOutput( bytes );
+            output.writeHeader();
+            output.writeTree( state );
+            document.write( new String( bytes.toByteArray(), UTF_8 ) );
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+/**
+ * Binary format constants.
+ * <p>
+ * A document starts with the {@link #MAGIC} and {@link #VERSION} bytes followed by a single tagged value.
+ * Integers are zig-zag encoded varints, doubles are varints of their bit-reversed IEEE 754 representation so that
+ * round numbers stay short, strings and decimals are length-prefixed UTF-8 and arrays and objects are terminated
+ * by {@link #END}.
+ * </p>
+ * <p>
+ * Object field names are written once per document, further occurrences reference them by index in the document
+ * dictionary: a name varint of {@code 0} ends the object, {@code 1} introduces a new name and {@code n >= 2} refers
+ * to the dictionary entry {@code n - 2}.
+ * </p>
+ * <p>
+ * Varints carry 6 bits per byte and use {@code 0x40} as the continuation bit, tags are below {@code 0x20}, so that
+ * every byte outside strings is plain ASCII and documents are valid UTF-8. This allows them to travel through the
+ * character based ValueSerialization and MapEntityStore APIs untouched.
+ * </p>
+ */
+final class BinaryFormat
+{
+    static final int MAGIC = 0x1A;
+    static final int VERSION = 0x01;
+
+    static final int NULL = 0x01;
+    static final int FALSE = 0x02;
+    static final int TRUE = 0x03;
+    static final int INTEGER = 0x04;
+    static final int DOUBLE = 0x05;
+    static final int DECIMAL = 0x06;
+    static final int STRING = 0x07;
+    static final int ARRAY = 0x08;
+    static final int OBJECT = 0x09;
+    static final int END = 0x0A;
+
+    static final int END_OF_OBJECT = 0;
+    static final int NEW_NAME = 1;
+    static final int NAME_REFERENCE = 2;
+
+    static final int VARINT_PAYLOAD_BITS = 6;
+    static final int VARINT_PAYLOAD_MASK = 0x3F;
+    static final int VARINT_CONTINUATION = 0x40;
+
+    private BinaryFormat()
+    {
+    }
+}
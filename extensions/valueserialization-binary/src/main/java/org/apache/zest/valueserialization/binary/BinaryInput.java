@@ -0,0 +1,268 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.value.ValueSerializationException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.zest.valueserialization.binary.BinaryFormat.*;
+
+/**
+ * Reads one binary document.
+ * <p>
+ * Documents are decoded from their characters, every structural byte being ASCII, so that documents handed over as
+ * text need not be encoded back to UTF-8 first.
+ * Values are read as org.json trees, {@code null} being read as {@link JSONObject#NULL}.
+ * </p>
+ */
+public final class BinaryInput
+{
+    private final char[] data;
+    private final int length;
+    private final List<String> names = new ArrayList<>();
+    private int position;
+
+    private BinaryInput( char[] data, int length )
+    {
+        this.data = data;
+        this.length = length;
+    }
+
+    static BinaryInput readFully( InputStream input )
+        throws IOException
+    {
+        return readFully( new InputStreamReader( input, UTF_8 ) );
+    }
+
+    static BinaryInput readFully( Reader input )
+        throws IOException
+    {
+        char[] buffer = new char[ 1024 ];
+        int length = 0;
+        int read;
+        while( ( read = input.read( buffer, length, buffer.length - length ) ) != -1 )
+        {
+            length += read;
+            if( length == buffer.length )
+            {
+                buffer = Arrays.copyOf( buffer, buffer.length * 2 );
+            }
+        }
+        return new BinaryInput( buffer, length );
+    }
+
+    boolean isBinary()
+    {
+        return length > 0 && data[ 0 ] == MAGIC;
+    }
+
+    /**
+     * @return the whole document as text, for documents that are not binary
+     */
+    String text()
+    {
+        return new String( data, 0, length );
+    }
+
+    void readHeader()
+    {
+        if( length < 2 || data[ 0 ] != MAGIC )
+        {
+            throw new ValueSerializationException( "Not a binary document" );
+        }
+        if( data[ 1 ] != VERSION )
+        {
+            throw new ValueSerializationException( "Unsupported binary document version " + (int) data[ 1 ] );
+        }
+        position = 2;
+    }
+
+    int peekTag()
+    {
+        ensureAvailable( 1 );
+        return data[ position ];
+    }
+
+    void expect( int tag )
+    {
+        int actual = readTag();
+        if( actual != tag )
+        {
+            throw new ValueSerializationException( "Expected tag " + tag + " but found " + actual
+                                                   + " at offset " + ( position - 1 ) );
+        }
+    }
+
+    /**
+     * @return {@literal true} and consume the end marker if the current array has no more items
+     */
+    boolean endOfArray()
+    {
+        if( peekTag() == END )
+        {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the next field name of the current object, or {@literal null} if the object has no more fields
+     */
+    String readName()
+    {
+        int code = (int) readVarint();
+        if( code == END_OF_OBJECT )
+        {
+            return null;
+        }
+        if( code == NEW_NAME )
+        {
+            String name = readUTF8();
+            names.add( name );
+            return name;
+        }
+        int index = code - NAME_REFERENCE;
+        if( index >= names.size() )
+        {
+            throw new ValueSerializationException( "Unknown field name reference " + index );
+        }
+        return names.get( index );
+    }
+
+    Object readValue()
+        throws JSONException
+    {
+        int tag = readTag();
+        switch( tag )
+        {
+        case NULL:
+            return JSONObject.NULL;
+        case FALSE:
+            return Boolean.FALSE;
+        case TRUE:
+            return Boolean.TRUE;
+        case INTEGER:
+            long zigzag = readVarint();
+            long number = ( zigzag >>> 1 ) ^ -( zigzag & 1 );
+            if( number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE )
+            {
+                return (int) number;
+            }
+            return number;
+        case DOUBLE:
+            return Double.longBitsToDouble( Long.reverse( readVarint() ) );
+        case DECIMAL:
+            return new BigDecimal( readUTF8() );
+        case STRING:
+            return readUTF8();
+        case ARRAY:
+            JSONArray array = new JSONArray();
+            while( !endOfArray() )
+            {
+                array.put( readValue() );
+            }
+            return array;
+        case OBJECT:
+            JSONObject object = new JSONObject();
+            String name;
+            while( ( name = readName() ) != null )
+            {
+                object.put( name, readValue() );
+            }
+            return object;
+        default:
+            throw new ValueSerializationException( "Unknown tag " + tag + " at offset " + ( position - 1 ) );
+        }
+    }
+
+    private int readTag()
+    {
+        ensureAvailable( 1 );
+        return data[ position++ ];
+    }
+
+    /**
+     * Strings are prefixed with their length in UTF-8 bytes, count the bytes of the characters until it is reached.
+     */
+    private String readUTF8()
+    {
+        int bytes = (int) readVarint();
+        int start = position;
+        while( bytes > 0 )
+        {
+            ensureAvailable( 1 );
+            char current = data[ position++ ];
+            if( current < 0x80 )
+            {
+                bytes -= 1;
+            }
+            else if( current < 0x800 || Character.isSurrogate( current ) )
+            {
+                // Each half of a surrogate pair accounts for two of the four bytes of the pair
+                bytes -= 2;
+            }
+            else
+            {
+                bytes -= 3;
+            }
+        }
+        if( bytes < 0 )
+        {
+            throw new ValueSerializationException( "Malformed string at offset " + start );
+        }
+        return new String( data, start, position - start );
+    }
+
+    private long readVarint()
+    {
+        long value = 0;
+        int shift = 0;
+        int current;
+        do
+        {
+            ensureAvailable( 1 );
+            current = data[ position++ ];
+            value |= (long) ( current & VARINT_PAYLOAD_MASK ) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        }
+        while( ( current & VARINT_CONTINUATION ) != 0 );
+        return value;
+    }
+
+    private void ensureAvailable( int count )
+    {
+        if( count < 0 || position + count > length )
+        {
+            throw new ValueSerializationException( "Truncated binary document" );
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.zest.valueserialization.binary.BinaryFormat.*;
+
+/**
+ * Writes one binary document.
+ * <p>
+ * Field names are collected in the document dictionary as they are written, an instance must not be reused across
+ * documents.
+ * </p>
+ */
+public final class BinaryOutput
+{
+    private final OutputStream output;
+    private final Map<String, Integer> names = new HashMap<>();
+
+    BinaryOutput( OutputStream output )
+    {
+        this.output = output;
+    }
+
+    void writeHeader()
+        throws IOException
+    {
+        output.write( MAGIC );
+        output.write( VERSION );
+    }
+
+    void startArray()
+        throws IOException
+    {
+        output.write( ARRAY );
+    }
+
+    void endArray()
+        throws IOException
+    {
+        output.write( END );
+    }
+
+    void startObject()
+        throws IOException
+    {
+        output.write( OBJECT );
+    }
+
+    void endObject()
+        throws IOException
+    {
+        writeVarint( END_OF_OBJECT );
+    }
+
+    void writeName( String name )
+        throws IOException
+    {
+        Integer index = names.get( name );
+        if( index != null )
+        {
+            writeVarint( NAME_REFERENCE + index );
+        }
+        else
+        {
+            names.put( name, names.size() );
+            writeVarint( NEW_NAME );
+            writeUTF8( name );
+        }
+    }
+
+    void writeValue( Object value )
+        throws IOException
+    {
+        if( value == null || JSONObject.NULL.equals( value ) )
+        {
+            output.write( NULL );
+        }
+        else if( value instanceof String )
+        {
+            output.write( STRING );
+            writeUTF8( (String) value );
+        }
+        else if( value instanceof Boolean )
+        {
+            output.write( (Boolean) value ? TRUE : FALSE );
+        }
+        else if( value instanceof Integer || value instanceof Long
+                 || value instanceof Short || value instanceof Byte )
+        {
+            long number = ( (Number) value ).longValue();
+            output.write( INTEGER );
+            writeVarint( ( number << 1 ) ^ ( number >> 63 ) );
+        }
+        else if( value instanceof Double || value instanceof Float )
+        {
+            output.write( DOUBLE );
+            writeVarint( Long.reverse( Double.doubleToLongBits( ( (Number) value ).doubleValue() ) ) );
+        }
+        else if( value instanceof BigDecimal || value instanceof BigInteger )
+        {
+            output.write( DECIMAL );
+            writeUTF8( value.toString() );
+        }
+        else
+        {
+            output.write( STRING );
+            writeUTF8( value.toString() );
+        }
+    }
+
+    /**
+     * Write a whole org.json tree, as found in entity state documents.
+     */
+    void writeTree( Object node )
+        throws IOException, JSONException
+    {
+        if( node instanceof JSONObject )
+        {
+            JSONObject object = (JSONObject) node;
+            startObject();
+            @SuppressWarnings( "unchecked" )
+            Iterator<String> keys = object.keys();
+            while( keys.hasNext() )
+            {
+                String key = keys.next();
+                writeName( key );
+                writeTree( object.get( key ) );
+            }
+            endObject();
+        }
+        else if( node instanceof JSONArray )
+        {
+            JSONArray array = (JSONArray) node;
+            startArray();
+            for( int idx = 0; idx < array.length(); idx++ )
+            {
+                writeTree( array.get( idx ) );
+            }
+            endArray();
+        }
+        else
+        {
+            writeValue( node );
+        }
+    }
+
+    void flush()
+        throws IOException
+    {
+        output.flush();
+    }
+
+    private void writeUTF8( String string )
+        throws IOException
+    {
+        byte[] bytes = string.getBytes( UTF_8 );
+        writeVarint( bytes.length );
+        output.write( bytes );
+    }
+
+    private void writeVarint( long value )
+        throws IOException
+    {
+        while( ( value & ~VARINT_PAYLOAD_MASK ) != 0 )
+        {
+            output.write( (int) ( value & VARINT_PAYLOAD_MASK ) | VARINT_CONTINUATION );
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        output.write( (int) value );
+    }
+}
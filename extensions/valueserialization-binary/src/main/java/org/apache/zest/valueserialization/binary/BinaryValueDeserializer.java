@@ -0,0 +1,315 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.type.ValueType;
+import org.apache.zest.api.value.ValueSerializationException;
+import org.apache.zest.spi.value.ValueDeserializerAdapter;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import static org.apache.zest.valueserialization.binary.BinaryFormat.ARRAY;
+import static org.apache.zest.valueserialization.binary.BinaryFormat.NULL;
+import static org.apache.zest.valueserialization.binary.BinaryFormat.OBJECT;
+
+/**
+ * ValueDeserializer reading Values from compact binary documents.
+ * <p>
+ * Collections and Maps are pulled straight from the input, ValueComposites are read as org.json trees.
+ * </p>
+ */
+public class BinaryValueDeserializer
+    extends ValueDeserializerAdapter<BinaryInput, Object>
+{
+
+    @Override
+    protected BinaryInput adaptInput( ModuleDescriptor module, InputStream input )
+        throws Exception
+    {
+        return BinaryInput.readFully( input );
+    }
+
+    @Override
+    protected void onDeserializationStart( ModuleDescriptor module, ValueType valueType, BinaryInput input )
+        throws Exception
+    {
+        input.readHeader();
+    }
+
+    @Override
+    protected Object readPlainValue( ModuleDescriptor module, BinaryInput input )
+        throws Exception
+    {
+        Object value = input.readValue();
+        if( JSONObject.NULL.equals( value ) )
+        {
+            return null;
+        }
+        if( value instanceof JSONObject || value instanceof JSONArray )
+        {
+            throw new ValueSerializationException( "Asked for a Value but found an Object or an Array." );
+        }
+        return value;
+    }
+
+    @Override
+    protected <T> Collection<T> readArrayInCollection( ModuleDescriptor module,
+                                                       BinaryInput input,
+                                                       Function<BinaryInput, T> deserializer,
+                                                       Collection<T> collection
+    )
+        throws Exception
+    {
+        if( input.peekTag() == NULL )
+        {
+            input.expect( NULL );
+            return null;
+        }
+        input.expect( ARRAY );
+        while( !input.endOfArray() )
+        {
+            collection.add( deserializer.apply( input ) );
+        }
+        return collection;
+    }
+
+    @Override
+    protected <K, V> Map<K, V> readMapInMap( ModuleDescriptor module,
+                                             BinaryInput input,
+                                             Function<BinaryInput, K> keyDeserializer,
+                                             Function<BinaryInput, V> valueDeserializer,
+                                             Map<K, V> map
+    )
+        throws Exception
+    {
+        if( input.peekTag() == NULL )
+        {
+            input.expect( NULL );
+            return null;
+        }
+        input.expect( ARRAY );
+        while( !input.endOfArray() )
+        {
+            input.expect( OBJECT );
+            K key = null;
+            V value = null;
+            String name;
+            while( ( name = input.readName() ) != null )
+            {
+                if( "key".equals( name ) )
+                {
+                    key = keyDeserializer.apply( input );
+                }
+                else if( "value".equals( name ) )
+                {
+                    value = valueDeserializer.apply( input );
+                }
+                else
+                {
+                    input.readValue();
+                }
+            }
+            if( key != null )
+            {
+                map.put( key, value );
+            }
+        }
+        return map;
+    }
+
+    //
+    // Deserialization - Tree parsing
+    //
+    @Override
+    protected JSONObject readObjectTree( ModuleDescriptor module, BinaryInput input )
+        throws Exception
+    {
+        Object objectTree = input.readValue();
+        if( JSONObject.NULL.equals( objectTree ) )
+        {
+            return null;
+        }
+        if( !( objectTree instanceof JSONObject ) )
+        {
+            throw new ValueSerializationException( "Expected an object but got " + objectTree );
+        }
+        return (JSONObject) objectTree;
+    }
+
+    @Override
+    protected Object asSimpleValue( ModuleDescriptor module, Object inputNode )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return null;
+        }
+        if( inputNode instanceof JSONObject || inputNode instanceof JSONArray )
+        {
+            throw new ValueSerializationException( "Expected a simple value but got " + inputNode );
+        }
+        return inputNode;
+    }
+
+    @Override
+    protected boolean isObjectValue( ModuleDescriptor module, Object inputNode )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return false;
+        }
+        return inputNode instanceof JSONObject;
+    }
+
+    @Override
+    protected boolean objectHasField( ModuleDescriptor module, Object inputNode, String key )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return false;
+        }
+        if( !( inputNode instanceof JSONObject ) )
+        {
+            throw new ValueSerializationException( "Expected an object but got " + inputNode );
+        }
+        JSONObject json = (JSONObject) inputNode;
+        return json.has( key );
+    }
+
+    @Override
+    protected <T> T getObjectFieldValue( ModuleDescriptor module,
+                                         Object inputNode,
+                                         String key,
+                                         Function<Object, T> valueDeserializer
+    )
+        throws Exception
+    {
+        JSONObject json = (JSONObject) inputNode;
+        Object valueNode = json.opt( key );
+        if( JSONObject.NULL.equals( valueNode ) )
+        {
+            return null;
+        }
+        T value = valueDeserializer.apply( valueNode );
+        return value;
+    }
+
+    @Override
+    protected <T> void putArrayNodeInCollection( ModuleDescriptor module,
+                                                 Object inputNode,
+                                                 Function<Object, T> deserializer,
+                                                 Collection<T> collection
+    )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return;
+        }
+        if( !( inputNode instanceof JSONArray ) )
+        {
+            throw new ValueSerializationException( "Expected an array but got " + inputNode );
+        }
+        JSONArray array = (JSONArray) inputNode;
+        for( int idx = 0; idx < array.length(); idx++ )
+        {
+            Object item = array.get( idx );
+            T value = deserializer.apply( item );
+            collection.add( value );
+        }
+    }
+
+    @Override
+    protected <K, V> void putArrayNodeInMap( ModuleDescriptor module,
+                                             Object inputNode,
+                                             Function<Object, K> keyDeserializer,
+                                             Function<Object, V> valueDeserializer,
+                                             Map<K, V> map
+    )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return;
+        }
+        if( !( inputNode instanceof JSONArray ) )
+        {
+            throw new ValueSerializationException( "Expected an array but got " + inputNode );
+        }
+        JSONArray array = (JSONArray) inputNode;
+        for( int idx = 0; idx < array.length(); idx++ )
+        {
+            Object item = array.get( idx );
+            if( !( item instanceof JSONObject ) )
+            {
+                throw new ValueSerializationException( "Expected an object but got " + inputNode );
+            }
+            JSONObject object = (JSONObject) item;
+            Object keyNode = object.get( "key" );
+            Object valueNode = object.get( "value" );
+            K key = keyDeserializer.apply( keyNode );
+            V value = valueDeserializer.apply( valueNode );
+            if( key != null )
+            {
+                map.put( key, value );
+            }
+        }
+    }
+
+    @Override
+    protected <V> void putObjectNodeInMap( ModuleDescriptor module,
+                                           Object inputNode,
+                                           Function<Object, V> valueDeserializer,
+                                           Map<String, V> map
+    )
+        throws Exception
+    {
+        if( JSONObject.NULL.equals( inputNode ) )
+        {
+            return;
+        }
+        if( !( inputNode instanceof JSONObject ) )
+        {
+            throw new ValueSerializationException( "Expected an object but got " + inputNode );
+        }
+        JSONObject object = (JSONObject) inputNode;
+
+        @SuppressWarnings( "unchecked" )
+        Iterator<String> it = object.keys();
+        while( it.hasNext() )
+        {
+            String key = it.next();
+            Object item = object.get( key );
+            V valueValue = valueDeserializer.apply( item );
+            if( key != null )
+            {
+                map.put( key, valueValue );
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.util.function.Function;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.Assemblers;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.ServiceDeclaration;
+
+/**
+ * Assemble a ValueSerialization Service producing and consuming compact binary documents.
+ * <p>
+ * Optionally also assemble the EntityDocumentFormat Service so that the JSON MapEntityStores it is visible to
+ * store entity state in the binary format.
+ * </p>
+ */
+public class BinaryValueSerializationAssembler
+    extends Assemblers.Visibility<BinaryValueSerializationAssembler>
+{
+    private Function<Application, Module> valuesModuleFinder;
+    private boolean entityDocuments;
+
+    public BinaryValueSerializationAssembler withValuesModuleFinder( Function<Application, Module> valuesModuleFinder )
+    {
+        this.valuesModuleFinder = valuesModuleFinder;
+        return this;
+    }
+
+    public BinaryValueSerializationAssembler withEntityDocuments()
+    {
+        this.entityDocuments = true;
+        return this;
+    }
+
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        ServiceDeclaration service = module.services( BinaryValueSerializationService.class ).
+            visibleIn( visibility() ).
+            taggedWith( ValueSerialization.Formats.BINARY );
+        if( valuesModuleFinder != null )
+        {
+            service.setMetaInfo( valuesModuleFinder );
+        }
+        if( entityDocuments )
+        {
+            module.services( BinaryEntityDocumentFormatService.class ).
+                visibleIn( visibility() );
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import org.apache.zest.spi.value.ValueSerializerAdapter;
+
+/**
+ * ValueSerializer producing Values state as compact binary documents.
+ */
+public class BinaryValueSerializer
+    extends ValueSerializerAdapter<BinaryOutput>
+{
+    @Override
+    protected BinaryOutput adaptOutput( OutputStream output )
+        throws Exception
+    {
+        return new BinaryOutput( new BufferedOutputStream( output ) );
+    }
+
+    @Override
+    protected void onSerializationStart( Object object, BinaryOutput output )
+        throws Exception
+    {
+        output.writeHeader();
+    }
+
+    @Override
+    protected void onSerializationEnd( Object object, BinaryOutput output )
+        throws Exception
+    {
+        output.flush();
+    }
+
+    @Override
+    protected void onArrayStart( BinaryOutput output )
+        throws Exception
+    {
+        output.startArray();
+    }
+
+    @Override
+    protected void onArrayEnd( BinaryOutput output )
+        throws Exception
+    {
+        output.endArray();
+    }
+
+    @Override
+    protected void onObjectStart( BinaryOutput output )
+        throws Exception
+    {
+        output.startObject();
+    }
+
+    @Override
+    protected void onObjectEnd( BinaryOutput output )
+        throws Exception
+    {
+        output.endObject();
+    }
+
+    @Override
+    protected void onFieldStart( BinaryOutput output, String fieldName )
+        throws Exception
+    {
+        output.writeName( fieldName );
+    }
+
+    @Override
+    protected void onValue( BinaryOutput output, Object value )
+        throws Exception
+    {
+        output.writeValue( value );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.valueserialization.binary;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.zest.api.identity.Identity;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.io.Inputs;
+import org.apache.zest.io.Outputs;
+import org.apache.zest.spi.entitystore.BackupRestore;
+import org.apache.zest.spi.entitystore.helpers.JSONKeys;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.test.entity.AbstractEntityStoreTest;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BinaryEntityDocumentFormatTest
+    extends AbstractEntityStoreTest
+{
+    // START SNIPPET: entities
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        // END SNIPPET: entities
+        super.assemble( module );
+        new EntityTestAssembler().assemble( module );
+        // START SNIPPET: entities
+        new BinaryValueSerializationAssembler().withEntityDocuments().assemble( module );
+    }
+    // END SNIPPET: entities
+
+    @Test
+    public void givenJSONStateWhenRoundTrippedThenStateIsPreservedAndSmaller()
+        throws Exception
+    {
+        JSONObject state = new JSONObject();
+        state.put( "identity", "abc-123" );
+        state.put( "integer", -42 );
+        state.put( "long", 1L << 40 );
+        state.put( "double", 1.5D );
+        state.put( "string", "Cathédrale ☃ \uD834\uDD1E" );
+        state.put( "empty", new JSONObject() );
+        state.put( "null", JSONObject.NULL );
+        JSONArray array = new JSONArray();
+        for( int idx = 0; idx < 10; idx++ )
+        {
+            array.put( new JSONObject().put( "name", "item" + idx ).put( "flag", idx % 2 == 0 ) );
+        }
+        state.put( "items", array );
+
+        BinaryEntityDocumentFormatService.Mixin format = new BinaryEntityDocumentFormatService.Mixin();
+        StringWriter document = new StringWriter();
+        format.write( state, document );
+        JSONObject read = format.read( new StringReader( document.toString() ) );
+
+        assertThat( read.toString(), equalTo( state.toString() ) );
+        assertThat( document.toString().getBytes( "UTF-8" ).length < state.toString().getBytes( "UTF-8" ).length,
+                    is( true ) );
+    }
+
+    @Test
+    public void givenBinaryDocumentsWhenBackedUpThenBackupIsJSONAndCanBeRestored()
+        throws Exception
+    {
+        UnitOfWork unitOfWork = unitOfWorkFactory.newUnitOfWork();
+        TestEntity instance = createEntity( unitOfWork );
+        instance.name().set( "Cathédrale \uD834\uDD1E" );
+        Identity identity = instance.identity().get();
+        unitOfWork.complete();
+
+        BackupRestore backupRestore = serviceFinder.findService( BackupRestore.class ).get();
+        List<String> backup = new ArrayList<>();
+        backupRestore.backup().transferTo( Outputs.collection( backup ) );
+        assertThat( backup.size(), equalTo( 1 ) );
+        assertThat( new JSONObject( backup.get( 0 ) ).getString( JSONKeys.IDENTITY ), equalTo( identity.toString() ) );
+
+        Inputs.iterable( backup ).transferTo( backupRestore.restore() );
+        try( UnitOfWork restored = unitOfWorkFactory.newUnitOfWork() )
+        {
+            assertThat( restored.get( TestEntity.class, identity ).name().get(),
+                        equalTo( "Cathédrale \uD834\uDD1E" ) );
+        }
+    }
+
+    @Test
+    public void givenJSONDocumentWhenReadThenStateIsReturned()
+        throws Exception
+    {
+        JSONObject state = new JSONObject().put( "identity", "abc-123" ).put( "version", "1" );
+
+        JSONObject read = new BinaryEntityDocumentFormatService.Mixin().read( new StringReader( state.toString() ) );
+
+        assertThat( read.toString(), equalTo( state.toString() ) );
+    }
+}
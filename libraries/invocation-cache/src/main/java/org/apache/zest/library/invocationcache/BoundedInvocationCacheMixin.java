@@ -0,0 +1,440 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.invocationcache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.zest.api.ZestAPI;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.composite.Composite;
+import org.apache.zest.api.composite.CompositeDescriptor;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.injection.scope.Structure;
+import org.apache.zest.api.injection.scope.This;
+import org.apache.zest.api.metrics.MetricNames;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.mixin.Initializable;
+import org.apache.zest.api.structure.Module;
+
+/**
+ * Bounded implementation of InvocationCache.
+ * <p>
+ * Bounds, eviction strategy, time to live and soft values are set by an {@link InvocationCachePolicy}
+ * found in the composite meta-info, defaults apply if there is none.
+ * </p>
+ * <p>
+ * Hits, misses, evictions and the number of cached values are counted using the {@link MetricsProvider} service
+ * if one is visible. Expired and garbage collected values count as evictions. Counters are named after the
+ * composite type and aggregate all its instances, they are owned by the MetricsProvider. Values still cached by
+ * discarded instances remain counted.
+ * </p>
+ * <p>
+ * Each composite instance has its own cache. Lookups do not lock, they only buffer the access. Changes to the
+ * cache and the LRU or LFU ordering are serialized, buffered accesses are applied to the ordering in batches,
+ * and dropped under heavy contention, so eviction order is approximate.
+ * </p>
+ */
+public class BoundedInvocationCacheMixin
+    implements InvocationCache, Initializable
+{
+    @Structure
+    private ZestAPI api;
+
+    @Structure
+    private Module module;
+
+    @This
+    private Composite me;
+
+    @Service
+    @Optional
+    private MetricsProvider metricsProvider;
+
+    /**
+     * Accesses buffered beyond this number are dropped until the buffer is drained.
+     */
+    private static final int ACCESS_BUFFER_SIZE = 128;
+    /**
+     * Number of buffered accesses after which a lookup tries to drain the buffer.
+     */
+    private static final int DRAIN_THRESHOLD = 32;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> accesses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingAccesses = new AtomicInteger();
+    // Guards the eviction bookkeeping below, and all changes to the entries
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReferenceQueue<Object> collectedValues = new ReferenceQueue<>();
+    private final Set<Entry> recency = new LinkedHashSet<>();
+    private final TreeMap<Long, Set<Entry>> frequencies = new TreeMap<>();
+    private InvocationCachePolicy policy;
+    private long weight;
+    private long timeToLiveNanos;
+    private MetricsCounter hits;
+    private MetricsCounter misses;
+    private MetricsCounter evictions;
+    private MetricsCounter size;
+
+    @Override
+    public void initialize()
+    {
+        CompositeDescriptor descriptor = api.compositeDescriptorFor( me );
+        policy = descriptor.metaInfo( InvocationCachePolicy.class );
+        if( policy == null )
+        {
+            policy = new InvocationCachePolicy();
+        }
+        timeToLiveNanos = policy.timeToLive() == null ? 0 : policy.timeToLive().toNanos();
+        if( metricsProvider != null )
+        {
+            // Metrics providers share metrics by name, all instances of the composite type report to the same ones
+            MetricsCounterFactory counters = metricsProvider.createFactory( MetricsCounterFactory.class );
+            Class<?> type = descriptor.primaryType();
+            hits = counters.createCounter( MetricNames.nameFor( module, type, "invocation-cache", "hits" ) );
+            misses = counters.createCounter( MetricNames.nameFor( module, type, "invocation-cache", "misses" ) );
+            evictions = counters.createCounter( MetricNames.nameFor( module, type, "invocation-cache", "evictions" ) );
+            size = counters.createCounter( MetricNames.nameFor( module, type, "invocation-cache", "size" ) );
+        }
+    }
+
+    @Override
+    public Object setCachedValue( Object key, Object aResult )
+    {
+        evictionLock.lock();
+        try
+        {
+            drainAccesses();
+            expungeCollectedValues();
+            Entry previous = entries.remove( key );
+            if( previous != null )
+            {
+                unlink( previous );
+            }
+            if( aResult != null )
+            {
+                long entryWeight = policy.weightOf( key, aResult );
+                if( entryWeight <= policy.maximumWeight() )
+                {
+                    Entry entry = new Entry( key, aResult, entryWeight );
+                    entries.put( key, entry );
+                    link( entry );
+                    evictBeyondBounds( entry );
+                }
+            }
+            return previous == null ? null : previous.value();
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Object cachedValue( Object key )
+    {
+        Entry entry = entries.get( key );
+        Object value = entry == null ? null : entry.value();
+        if( value == null || entry.isExpired() )
+        {
+            if( entry != null )
+            {
+                evictionLock.lock();
+                try
+                {
+                    if( !entry.removed && entries.remove( key, entry ) )
+                    {
+                        unlink( entry );
+                        increment( evictions );
+                    }
+                }
+                finally
+                {
+                    evictionLock.unlock();
+                }
+            }
+            increment( misses );
+            return null;
+        }
+        recordAccess( entry );
+        increment( hits );
+        return value;
+    }
+
+    @Override
+    public Object removeCachedValue( Object key )
+    {
+        evictionLock.lock();
+        try
+        {
+            Entry entry = entries.remove( key );
+            if( entry == null )
+            {
+                return null;
+            }
+            unlink( entry );
+            return entry.value();
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void clearCachedValues()
+    {
+        evictionLock.lock();
+        try
+        {
+            for( Entry entry : entries.values() )
+            {
+                entry.removed = true;
+            }
+            if( size != null )
+            {
+                size.decrement( entries.size() );
+            }
+            entries.clear();
+            recency.clear();
+            frequencies.clear();
+            weight = 0;
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public int currentCacheSize()
+    {
+        evictionLock.lock();
+        try
+        {
+            expungeCollectedValues();
+            return entries.size();
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    // Lookups only buffer the access, reordering is applied in batches by whoever holds the eviction lock
+    private void recordAccess( Entry entry )
+    {
+        int pending = pendingAccesses.incrementAndGet();
+        if( pending <= ACCESS_BUFFER_SIZE )
+        {
+            accesses.offer( entry );
+        }
+        else
+        {
+            // Buffer full, this access is not accounted for
+            pendingAccesses.decrementAndGet();
+        }
+        if( pending >= DRAIN_THRESHOLD && evictionLock.tryLock() )
+        {
+            try
+            {
+                drainAccesses();
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainAccesses()
+    {
+        Entry accessed;
+        while( ( accessed = accesses.poll() ) != null )
+        {
+            pendingAccesses.decrementAndGet();
+            if( accessed.removed )
+            {
+                continue;
+            }
+            if( policy.eviction() == InvocationCachePolicy.Eviction.LFU )
+            {
+                removeFromFrequencies( accessed );
+                accessed.frequency++;
+                frequencies.computeIfAbsent( accessed.frequency, f -> new LinkedHashSet<>() ).add( accessed );
+            }
+            else
+            {
+                recency.remove( accessed );
+                recency.add( accessed );
+            }
+        }
+    }
+
+    private void evictBeyondBounds( Entry added )
+    {
+        while( entries.size() > 1 && ( entries.size() > policy.maximumSize() || weight > policy.maximumWeight() ) )
+        {
+            Entry victim = victim( added );
+            entries.remove( victim.key );
+            unlink( victim );
+            increment( evictions );
+        }
+    }
+
+    // The added entry is never the victim, under LFU it would otherwise be the first one evicted
+    private Entry victim( Entry added )
+    {
+        Iterable<Entry> candidates = recency;
+        if( policy.eviction() == InvocationCachePolicy.Eviction.LFU )
+        {
+            candidates = () -> frequencies.values().stream().flatMap( Set::stream ).iterator();
+        }
+        for( Entry candidate : candidates )
+        {
+            if( candidate != added )
+            {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException( "No eviction candidate" );
+    }
+
+    private void expungeCollectedValues()
+    {
+        Reference<?> reference;
+        while( ( reference = collectedValues.poll() ) != null )
+        {
+            Entry entry = ( (SoftValue) reference ).entry;
+            // The entry may already have been removed or replaced
+            if( !entry.removed )
+            {
+                entries.remove( entry.key, entry );
+                unlink( entry );
+                increment( evictions );
+            }
+        }
+    }
+
+    private void link( Entry entry )
+    {
+        weight += entry.weight;
+        increment( size );
+        if( policy.eviction() == InvocationCachePolicy.Eviction.LFU )
+        {
+            frequencies.computeIfAbsent( entry.frequency, f -> new LinkedHashSet<>() ).add( entry );
+        }
+        else
+        {
+            recency.add( entry );
+        }
+    }
+
+    private void unlink( Entry entry )
+    {
+        entry.removed = true;
+        weight -= entry.weight;
+        if( size != null )
+        {
+            size.decrement();
+        }
+        if( policy.eviction() == InvocationCachePolicy.Eviction.LFU )
+        {
+            removeFromFrequencies( entry );
+        }
+        else
+        {
+            recency.remove( entry );
+        }
+    }
+
+    private void removeFromFrequencies( Entry entry )
+    {
+        Set<Entry> bucket = frequencies.get( entry.frequency );
+        if( bucket != null )
+        {
+            bucket.remove( entry );
+            if( bucket.isEmpty() )
+            {
+                frequencies.remove( entry.frequency );
+            }
+        }
+    }
+
+    private static void increment( MetricsCounter counter )
+    {
+        if( counter != null )
+        {
+            counter.increment();
+        }
+    }
+
+    private final class Entry
+    {
+        private final Object key;
+        private final Object value;
+        private final long weight;
+        private final long cachedAt;
+        // Guarded by the eviction lock
+        private long frequency = 1;
+        private boolean removed;
+
+        private Entry( Object key, Object value, long weight )
+        {
+            this.key = key;
+            this.value = policy.softValues() ? new SoftValue( value, this, collectedValues ) : value;
+            this.weight = weight;
+            this.cachedAt = timeToLiveNanos > 0 ? System.nanoTime() : 0;
+        }
+
+        private Object value()
+        {
+            return value instanceof SoftValue ? ( (SoftValue) value ).get() : value;
+        }
+
+        private boolean isExpired()
+        {
+            return timeToLiveNanos > 0 && System.nanoTime() - cachedAt >= timeToLiveNanos;
+        }
+    }
+
+    private static final class SoftValue
+        extends SoftReference<Object>
+    {
+        private final Entry entry;
+
+        private SoftValue( Object value, Entry entry, ReferenceQueue<Object> queue )
+        {
+            super( value, queue );
+            this.entry = entry;
+        }
+    }
+}
@@ -23,15 +23,18 @@ import org.apache.zest.api.mixin.Mixins;
 
 /**
  * Invocation Cache.
+ * <p>
+ * Caching concerns use {@link InvocationCacheKey}s as keys.
+ * </p>
  */
-@Mixins( SimpleInvocationCacheMixin.class )
+@Mixins( BoundedInvocationCacheMixin.class )
 public interface InvocationCache
 {
-    Object setCachedValue( String name, Object aResult );
+    Object setCachedValue( Object key, Object aResult );
 
-    Object cachedValue( String name );
+    Object cachedValue( Object key );
 
-    Object removeCachedValue( String name );
+    Object removeCachedValue( Object key );
 
     void clearCachedValues();
 
@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.invocationcache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Key of a cached method invocation.
+ * <p>
+ * Made of the invoked method and its arguments, compared deeply. The hash code is computed once at creation.
+ * Arguments must not be mutated while used in a key.
+ * </p>
+ */
+public final class InvocationCacheKey
+{
+    private static final Object[] NO_ARGUMENTS = new Object[ 0 ];
+
+    private final Method method;
+    private final Object[] arguments;
+    private final int hashCode;
+
+    public InvocationCacheKey( Method method, Object[] arguments )
+    {
+        this.method = method;
+        this.arguments = arguments == null ? NO_ARGUMENTS : arguments;
+        this.hashCode = 31 * method.hashCode() + Arrays.deepHashCode( this.arguments );
+    }
+
+    public Method method()
+    {
+        return method;
+    }
+
+    public Object[] arguments()
+    {
+        return arguments.clone();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if( this == o )
+        {
+            return true;
+        }
+        if( !( o instanceof InvocationCacheKey ) )
+        {
+            return false;
+        }
+        InvocationCacheKey other = (InvocationCacheKey) o;
+        return hashCode == other.hashCode
+               && method.equals( other.method )
+               && Arrays.deepEquals( arguments, other.arguments );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hashCode;
+    }
+
+    @Override
+    public String toString()
+    {
+        return method.getName() + Arrays.deepToString( arguments );
+    }
+}
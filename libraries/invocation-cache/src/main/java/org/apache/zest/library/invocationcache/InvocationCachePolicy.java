@@ -0,0 +1,186 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.invocationcache;
+
+import java.time.Duration;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Bounds and eviction policy of a {@link BoundedInvocationCacheMixin}.
+ * <p>
+ * Set it as meta-info of the composite declaring the cache, e.g.:
+ * </p>
+ * <pre><code>
+ * module.services( ExpensiveOperation.class )
+ *       .setMetaInfo( new InvocationCachePolicy().withMaximumSize( 500 ).withTimeToLive( Duration.ofMinutes( 5 ) ) )
+ *       .withConcerns( ReturnCachedValueConcern.class );
+ * </code></pre>
+ * <p>
+ * Instances are immutable, each {@literal with} method returns a new policy.
+ * Without a policy, caches hold at most {@link #DEFAULT_MAXIMUM_SIZE} values and evict the least recently used.
+ * </p>
+ */
+public final class InvocationCachePolicy
+{
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+    /**
+     * Eviction strategy applied when a cache bound is exceeded.
+     */
+    public enum Eviction
+    {
+        /**
+         * Evict the least recently used value.
+         */
+        LRU,
+        /**
+         * Evict the least frequently used value, the least recently used among them on ties.
+         */
+        LFU
+    }
+
+    private final Eviction eviction;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToLongBiFunction<Object, Object> weigher;
+    private final Duration timeToLive;
+    private final boolean softValues;
+
+    public InvocationCachePolicy()
+    {
+        this( Eviction.LRU, DEFAULT_MAXIMUM_SIZE, Long.MAX_VALUE, null, null, false );
+    }
+
+    private InvocationCachePolicy( Eviction eviction,
+                                   long maximumSize,
+                                   long maximumWeight,
+                                   ToLongBiFunction<Object, Object> weigher,
+                                   Duration timeToLive,
+                                   boolean softValues
+    )
+    {
+        this.eviction = eviction;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.timeToLive = timeToLive;
+        this.softValues = softValues;
+    }
+
+    public InvocationCachePolicy withEviction( Eviction eviction )
+    {
+        return new InvocationCachePolicy( eviction, maximumSize, maximumWeight, weigher, timeToLive, softValues );
+    }
+
+    /**
+     * @param maximumSize Maximum number of cached values, {@literal Long.MAX_VALUE} for no size bound
+     * @return A new policy
+     */
+    public InvocationCachePolicy withMaximumSize( long maximumSize )
+    {
+        if( maximumSize < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum size must be positive, was " + maximumSize );
+        }
+        return new InvocationCachePolicy( eviction, maximumSize, maximumWeight, weigher, timeToLive, softValues );
+    }
+
+    /**
+     * @param maximumWeight Maximum total weight of cached values
+     * @param weigher Function computing the weight of a cached value given its key and the value
+     * @return A new policy
+     */
+    public InvocationCachePolicy withMaximumWeight( long maximumWeight, ToLongBiFunction<Object, Object> weigher )
+    {
+        if( maximumWeight < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum weight must be positive, was " + maximumWeight );
+        }
+        return new InvocationCachePolicy( eviction, maximumSize, maximumWeight, weigher, timeToLive, softValues );
+    }
+
+    /**
+     * @param timeToLive Duration after which a cached value expires, counted from when it was cached
+     * @return A new policy
+     */
+    public InvocationCachePolicy withTimeToLive( Duration timeToLive )
+    {
+        if( timeToLive.isNegative() || timeToLive.isZero() )
+        {
+            throw new IllegalArgumentException( "Time to live must be positive, was " + timeToLive );
+        }
+        return new InvocationCachePolicy( eviction, maximumSize, maximumWeight, weigher, timeToLive, softValues );
+    }
+
+    /**
+     * Hold cached values through soft references so the garbage collector can reclaim them on memory pressure.
+     *
+     * @return A new policy
+     */
+    public InvocationCachePolicy withSoftValues()
+    {
+        return new InvocationCachePolicy( eviction, maximumSize, maximumWeight, weigher, timeToLive, true );
+    }
+
+    public Eviction eviction()
+    {
+        return eviction;
+    }
+
+    public long maximumSize()
+    {
+        return maximumSize;
+    }
+
+    public long maximumWeight()
+    {
+        return maximumWeight;
+    }
+
+    public long weightOf( Object key, Object value )
+    {
+        return weigher == null ? 1 : weigher.applyAsLong( key, value );
+    }
+
+    /**
+     * @return Time to live of cached values, or null if they never expire
+     */
+    public Duration timeToLive()
+    {
+        return timeToLive;
+    }
+
+    public boolean softValues()
+    {
+        return softValues;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InvocationCachePolicy{"
+               + "eviction=" + eviction
+               + ", maximumSize=" + maximumSize
+               + ", maximumWeight=" + maximumWeight
+               + ", timeToLive=" + timeToLive
+               + ", softValues=" + softValues
+               + '}';
+    }
+}
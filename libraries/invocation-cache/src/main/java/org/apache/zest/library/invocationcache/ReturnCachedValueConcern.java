@@ -21,7 +21,6 @@ package org.apache.zest.library.invocationcache;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.concern.ConcernOf;
@@ -29,6 +28,9 @@ import org.apache.zest.api.injection.scope.This;
 
 /**
  * Return value of @Cached calls if possible.
+ * <p>
+ * On cache misses the method is invoked and its non-null result cached.
+ * </p>
  */
 @AppliesTo( Cached.class )
 public class ReturnCachedValueConcern
@@ -42,22 +44,24 @@ public class ReturnCachedValueConcern
     public Object invoke( Object proxy, Method method, Object[] args )
         throws Throwable
     {
-        boolean voidReturnType = method.getReturnType().equals( Void.TYPE );
-        if( cache != null || voidReturnType )
+        // Skip if void return type or no InvocationCache has been defined.
+        if( cache == null || method.getReturnType().equals( Void.TYPE ) )
         {
-            // Try cache
-            String cacheName = method.getName();
-            if( args != null )
-            {
-                cacheName += Arrays.asList( args );
-            }
-            Object result = cache.cachedValue( cacheName );
-            if( result != null )
-            {
-                return result;
-            }
+            return next.invoke( proxy, method, args );
         }
-        // No cached value found or no InvocationCache defined - call method
-        return next.invoke( proxy, method, args );
+        // Try cache
+        InvocationCacheKey key = new InvocationCacheKey( method, args );
+        Object result = cache.cachedValue( key );
+        if( result != null )
+        {
+            return result;
+        }
+        // No cached value found - call method
+        result = next.invoke( proxy, method, args );
+        if( result != null )
+        {
+            cache.setCachedValue( key, result );
+        }
+        return result;
     }
 }
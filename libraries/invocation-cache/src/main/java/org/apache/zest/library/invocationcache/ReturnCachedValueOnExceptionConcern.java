@@ -21,8 +21,8 @@ package org.apache.zest.library.invocationcache;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import org.apache.zest.api.common.AppliesTo;
+import org.apache.zest.api.common.Optional;
 import org.apache.zest.api.concern.ConcernOf;
 import org.apache.zest.api.injection.scope.This;
 
@@ -37,36 +37,39 @@ public class ReturnCachedValueOnExceptionConcern
     extends ConcernOf<InvocationHandler>
     implements InvocationHandler
 {
-    @This
+    @This @Optional
     private InvocationCache cache;
 
     @Override
     public Object invoke( Object proxy, Method method, Object[] args )
         throws Throwable
     {
-        boolean voidReturnType = method.getReturnType().equals( Void.TYPE );
-        if( cache != null || voidReturnType ) // Skip if void return type or no InvocationCache has been defined.
+        // Skip if void return type or no InvocationCache has been defined.
+        if( cache == null || method.getReturnType().equals( Void.TYPE ) )
         {
-            String cacheName = method.getName();
-            if( args != null )
-            {
-                cacheName += Arrays.asList( args );
-            }
-            try
+            return next.invoke( proxy, method, args );
+        }
+        InvocationCacheKey key = new InvocationCacheKey( method, args );
+        try
+        {
+            // Invoke method
+            Object result = next.invoke( proxy, method, args );
+            // update cache
+            if( result != null )
             {
-                // Invoke method
-                Object result = next.invoke( proxy, method, args );
-                // update cache
-                cache.setCachedValue( cacheName, result );
-                return result;
+                cache.setCachedValue( key, result );
             }
-            catch( Exception e )
+            return result;
+        }
+        catch( Exception e )
+        {
+            // Try cache
+            Object cached = cache.cachedValue( key );
+            if( cached == null )
             {
-                // Try cache
-                return cache.cachedValue( cacheName );
+                throw e;
             }
+            return cached;
         }
-        // if no InvocationCache is present.
-        return next.invoke( proxy, method, args );
     }
 }
@@ -31,30 +31,30 @@ import java.util.concurrent.ConcurrentHashMap;
  * </p>
  * <p>
  * <b>IMPORTANT: Only use this is you know that only a small set of arguments are used into your
- * method(s).</b>
+ * method(s).</b> Otherwise use {@link BoundedInvocationCacheMixin}.
  * </p>
  */
 public class SimpleInvocationCacheMixin
     implements InvocationCache
 {
-    private final Map<String, Object> cachedValues = new ConcurrentHashMap<>();
+    private final Map<Object, Object> cachedValues = new ConcurrentHashMap<>();
 
     @Override
-    public Object setCachedValue( String name, Object aResult )
+    public Object setCachedValue( Object key, Object aResult )
     {
-        return cachedValues.put( name, aResult );
+        return cachedValues.put( key, aResult );
     }
 
     @Override
-    public Object cachedValue( String name )
+    public Object cachedValue( Object key )
     {
-        return cachedValues.get( name );
+        return cachedValues.get( key );
     }
 
     @Override
-    public Object removeCachedValue( String name )
+    public Object removeCachedValue( Object key )
     {
-        return cachedValues.remove( name );
+        return cachedValues.remove( key );
     }
 
     @Override
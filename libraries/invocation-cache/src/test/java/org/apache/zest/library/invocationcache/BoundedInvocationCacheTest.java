@@ -0,0 +1,350 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.invocationcache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.zest.api.metrics.Metric;
+import org.apache.zest.api.metrics.MetricsCounter;
+import org.apache.zest.api.metrics.MetricsCounterFactory;
+import org.apache.zest.api.metrics.MetricsFactory;
+import org.apache.zest.api.metrics.MetricsNotSupportedException;
+import org.apache.zest.api.metrics.MetricsProvider;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.test.AbstractZestTest;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedInvocationCacheTest
+    extends AbstractZestTest
+{
+    @Override
+    public void assemble( ModuleAssembly module )
+        throws AssemblyException
+    {
+        module.services( CountingMetricsProvider.class );
+        module.services( LruOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class )
+              .setMetaInfo( new InvocationCachePolicy().withMaximumSize( 2 ) );
+        module.services( LfuOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class )
+              .setMetaInfo( new InvocationCachePolicy().withMaximumSize( 2 )
+                                                       .withEviction( InvocationCachePolicy.Eviction.LFU ) );
+        module.services( ExpiringOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class )
+              .setMetaInfo( new InvocationCachePolicy().withTimeToLive( Duration.ofMillis( 50 ) ) );
+        module.services( WeighedOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class )
+              .setMetaInfo( new InvocationCachePolicy().withMaximumWeight( 10, ( key, value ) -> (Integer) value ) );
+        module.transients( TransientOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class );
+        module.services( ConcurrentOperation.class )
+              .withConcerns( ReturnCachedValueConcern.class )
+              .setMetaInfo( new InvocationCachePolicy().withMaximumSize( 4 ) );
+    }
+
+    @Test
+    public void givenCachedResultWhenInvokingWithSameArgumentsExpectCachedResultAndMetrics()
+    {
+        ExpensiveOperation operation = serviceFinder.findService( LruOperation.class ).get();
+        assertThat( operation.compute( 1 ), equalTo( 1 ) );
+        assertThat( operation.compute( 1 ), equalTo( 1 ) );
+        assertThat( operation.invocations(), equalTo( 1 ) );
+        CountingMetricsProvider metrics = serviceFinder.findService( CountingMetricsProvider.class ).get();
+        assertThat( metrics.count( "LruOperation.invocation-cache.misses" ), equalTo( 1 ) );
+        assertThat( metrics.count( "LruOperation.invocation-cache.hits" ), equalTo( 1 ) );
+    }
+
+    @Test
+    public void givenManyInstancesOfCachedCompositeExpectMetricsAggregated()
+    {
+        ExpensiveOperation first = transientBuilderFactory.newTransient( TransientOperation.class );
+        ExpensiveOperation second = transientBuilderFactory.newTransient( TransientOperation.class );
+        first.compute( 1 );
+        second.compute( 1 );
+        second.compute( 2 );
+        CountingMetricsProvider metrics = serviceFinder.findService( CountingMetricsProvider.class ).get();
+        assertThat( metrics.count( "TransientOperation.invocation-cache.misses" ), equalTo( 3 ) );
+        assertThat( metrics.count( "TransientOperation.invocation-cache.size" ), equalTo( 3 ) );
+    }
+
+    @Test
+    public void givenLruPolicyWhenSizeExceededExpectLeastRecentlyUsedEvicted()
+    {
+        ExpensiveOperation operation = serviceFinder.findService( LruOperation.class ).get();
+        operation.compute( 1 );
+        operation.compute( 2 );
+        operation.compute( 1 );
+        operation.compute( 3 );
+        assertThat( operation.invocations(), equalTo( 3 ) );
+        operation.compute( 1 );
+        assertThat( operation.invocations(), equalTo( 3 ) );
+        operation.compute( 2 );
+        assertThat( operation.invocations(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void givenLfuPolicyWhenSizeExceededExpectLeastFrequentlyUsedEvicted()
+    {
+        ExpensiveOperation operation = serviceFinder.findService( LfuOperation.class ).get();
+        operation.compute( 1 );
+        operation.compute( 1 );
+        operation.compute( 1 );
+        operation.compute( 2 );
+        operation.compute( 2 );
+        operation.compute( 3 );
+        assertThat( operation.invocations(), equalTo( 3 ) );
+        operation.compute( 1 );
+        assertThat( operation.invocations(), equalTo( 3 ) );
+        operation.compute( 2 );
+        assertThat( operation.invocations(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void givenTimeToLiveWhenExpiredExpectInvocation()
+        throws InterruptedException
+    {
+        ExpensiveOperation operation = serviceFinder.findService( ExpiringOperation.class ).get();
+        operation.compute( 1 );
+        operation.compute( 1 );
+        assertThat( operation.invocations(), equalTo( 1 ) );
+        Thread.sleep( 100 );
+        operation.compute( 1 );
+        assertThat( operation.invocations(), equalTo( 2 ) );
+    }
+
+    @Test
+    public void givenWeightBoundWhenExceededExpectEviction()
+    {
+        ExpensiveOperation operation = serviceFinder.findService( WeighedOperation.class ).get();
+        operation.compute( 6 );
+        operation.compute( 5 );
+        operation.compute( 5 );
+        assertThat( operation.invocations(), equalTo( 2 ) );
+        operation.compute( 6 );
+        assertThat( operation.invocations(), equalTo( 3 ) );
+    }
+
+    @Test
+    public void givenConcurrentInvocationsExpectCorrectResultsAndBoundsKept()
+        throws Exception
+    {
+        ExpensiveOperation operation = serviceFinder.findService( ConcurrentOperation.class ).get();
+        int threads = 8;
+        int calls = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for( int thread = 0; thread < threads; thread++ )
+            {
+                int offset = thread;
+                results.add( executor.submit( () ->
+                {
+                    boolean correct = true;
+                    for( int call = 0; call < calls; call++ )
+                    {
+                        int value = ( call + offset ) % 6;
+                        correct &= operation.compute( value ) == value;
+                    }
+                    return correct;
+                } ) );
+            }
+            for( Future<Boolean> result : results )
+            {
+                assertTrue( result.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        CountingMetricsProvider metrics = serviceFinder.findService( CountingMetricsProvider.class ).get();
+        assertThat( metrics.count( "ConcurrentOperation.invocation-cache.hits" )
+                    + metrics.count( "ConcurrentOperation.invocation-cache.misses" ), equalTo( threads * calls ) );
+        assertThat( metrics.count( "ConcurrentOperation.invocation-cache.misses" ), equalTo( operation.invocations() ) );
+        assertTrue( metrics.count( "ConcurrentOperation.invocation-cache.size" ) <= 4 );
+    }
+
+    @Test
+    public void givenArrayArgumentsExpectDeepKeyEquality()
+        throws NoSuchMethodException
+    {
+        InvocationCacheKey key = new InvocationCacheKey( ExpensiveOperation.class.getMethod( "compute", int.class ),
+                                                         new Object[]{ new int[]{ 1, 2 } } );
+        InvocationCacheKey same = new InvocationCacheKey( ExpensiveOperation.class.getMethod( "compute", int.class ),
+                                                          new Object[]{ new int[]{ 1, 2 } } );
+        assertThat( key, equalTo( same ) );
+        assertThat( key.hashCode(), equalTo( same.hashCode() ) );
+    }
+
+    public interface ExpensiveOperation
+    {
+        @Cached
+        Integer compute( int value );
+
+        int invocations();
+    }
+
+    public static class ExpensiveOperationMixin
+        implements ExpensiveOperation
+    {
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public Integer compute( int value )
+        {
+            invocations.incrementAndGet();
+            return value;
+        }
+
+        @Override
+        public int invocations()
+        {
+            return invocations.get();
+        }
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface LruOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface LfuOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface ExpiringOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface WeighedOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface TransientOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    @Mixins( ExpensiveOperationMixin.class )
+    public interface ConcurrentOperation
+        extends ExpensiveOperation
+    {
+    }
+
+    /**
+     * Like the Codahale metrics registry, counters are shared by name.
+     */
+    @Mixins( CountingMetricsProviderMixin.class )
+    public interface CountingMetricsProvider
+        extends MetricsProvider
+    {
+        int count( String nameSuffix );
+    }
+
+    public static class CountingMetricsProviderMixin
+        implements CountingMetricsProvider
+    {
+        private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+        @Override
+        public int count( String nameSuffix )
+        {
+            return counters.entrySet().stream()
+                           .filter( entry -> entry.getKey().endsWith( nameSuffix ) )
+                           .mapToInt( entry -> entry.getValue().get() )
+                           .sum();
+        }
+
+        @Override
+        public <T extends MetricsFactory> T createFactory( Class<T> factoryType )
+        {
+            if( MetricsCounterFactory.class.equals( factoryType ) )
+            {
+                return factoryType.cast( new CounterFactory() );
+            }
+            throw new MetricsNotSupportedException( factoryType, CountingMetricsProvider.class );
+        }
+
+        private class CounterFactory
+            implements MetricsCounterFactory
+        {
+            @Override
+            public MetricsCounter createCounter( String name )
+            {
+                AtomicInteger count = counters.computeIfAbsent( name, n -> new AtomicInteger() );
+                return new MetricsCounter()
+                {
+                    @Override
+                    public void increment()
+                    {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void increment( int steps )
+                    {
+                        count.addAndGet( steps );
+                    }
+
+                    @Override
+                    public void decrement()
+                    {
+                        count.decrementAndGet();
+                    }
+
+                    @Override
+                    public void decrement( int steps )
+                    {
+                        count.addAndGet( -steps );
+                    }
+                };
+            }
+
+            @Override
+            public Stream<Metric> registered()
+            {
+                return Stream.empty();
+            }
+        }
+    }
+}
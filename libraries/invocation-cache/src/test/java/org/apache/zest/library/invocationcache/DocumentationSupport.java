@@ -19,6 +19,7 @@
  */
 package org.apache.zest.library.invocationcache;
 
+import java.time.Duration;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.LayerAssembly;
 import org.apache.zest.bootstrap.ModuleAssembly;
@@ -43,7 +44,9 @@ public class DocumentationSupport
             throws AssemblyException
         {
             module.services( ExpensiveOperation.class )
-                .withMixins( SimpleInvocationCacheMixin.class )
+                .setMetaInfo( new InvocationCachePolicy()
+                                  .withMaximumSize( 500 )
+                                  .withTimeToLive( Duration.ofMinutes( 5 ) ) )
                 .withConcerns( ReturnCachedValueConcern.class );
             return module;
         }
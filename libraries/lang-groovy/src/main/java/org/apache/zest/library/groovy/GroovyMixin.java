@@ -22,22 +22,24 @@ package org.apache.zest.library.groovy;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyObject;
-import groovy.lang.GroovyShell;
 import groovy.lang.MissingPropertyException;
 import java.io.File;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
 import org.apache.zest.api.composite.Composite;
 import org.apache.zest.api.injection.scope.This;
 import org.apache.zest.io.Inputs;
 import org.apache.zest.io.Outputs;
+import org.apache.zest.library.scripting.ScriptException;
+import org.apache.zest.library.scripting.ScriptReloadable;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 /**
  * Generic mixin that implements interfaces by delegating to Groovy functions
@@ -51,12 +53,29 @@ import org.apache.zest.io.Outputs;
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.groovy
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.sayAgain.groovy
  * </code></pre>
- *
+ * <p>
+ * Scripts are parsed once and the resulting classes shared by all instances. They are kept with the scripted
+ * interface, so they do not outlive its class loader. Use {@link #precompile(Class[])} at assembly time to parse
+ * them eagerly, and {@link ScriptReloadable#reloadScripts()} to have them parsed again from the current script files.
+ * </p>
  */
 @AppliesTo( GroovyMixin.AppliesTo.class )
 public class GroovyMixin
-    implements InvocationHandler
+    implements InvocationHandler, ScriptReloadable
 {
+    /**
+     * Incremented on reload, scripts compiled for an older generation are dropped on next use.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private static final ClassValue<TypeScripts> compiledScripts = new ClassValue<TypeScripts>()
+    {
+        @Override
+        protected TypeScripts computeValue( Class<?> type )
+        {
+            return new TypeScripts( generation.get() );
+        }
+    };
 
     @This
     private Composite me;
@@ -69,7 +88,8 @@ public class GroovyMixin
         @Override
         public boolean appliesTo( Method method, Class compositeType, Class mixin, Class modelClass )
         {
-            return getFunctionResource( method ) != null;
+            return ScriptReloadable.class.equals( method.getDeclaringClass() )
+                   || getFunctionResource( method ) != null;
         }
     }
 
@@ -83,44 +103,101 @@ public class GroovyMixin
     public Object invoke( Object proxy, Method method, Object[] args )
         throws Throwable
     {
-        final FunctionResource groovySource = getFunctionResource( method );
-        if( groovySource != null )
+        CompiledScript compiled = compiledScript( method );
+        if( compiled.script )
+        {
+            return invokeAsObject( method, args, compiled.type );
+        }
+        return invokeAsScript( args, compiled.type );
+    }
+
+    @Override
+    public void reloadScripts()
+    {
+        generation.incrementAndGet();
+        synchronized( groovyObjects )
+        {
+            groovyObjects.clear();
+        }
+    }
+
+    /**
+     * Parse the scripts implementing the methods of the given types ahead of their first invocation.
+     * <p>
+     * Meant to be called at assembly time so that script errors surface early and no composite pays for the
+     * parsing. Methods without a script are ignored.
+     * </p>
+     *
+     * @param types Types implemented by GroovyMixin
+     */
+    public static void precompile( Class<?>... types )
+    {
+        for( Class<?> type : types )
         {
-            if( groovySource.script )
+            for( Method method : type.getMethods() )
             {
-                return invokeAsObject( method, args, groovySource.url );
+                if( getFunctionResource( method ) != null )
+                {
+                    compiledScript( method );
+                }
             }
-            return invokeAsScript( method, args, groovySource.url );
         }
-        throw new RuntimeException( "Internal error: Mixin invoked even if it does not apply" );
     }
 
-    private Object invokeAsObject( Method method, Object[] args, URL groovySource )
-        throws Throwable
+    private static CompiledScript compiledScript( Method method )
+    {
+        Class<?> declaringClass = method.getDeclaringClass();
+        TypeScripts scripts = typeScripts( declaringClass );
+        return scripts.byMethod.computeIfAbsent( method, key ->
+        {
+            FunctionResource groovySource = getFunctionResource( key );
+            if( groovySource == null )
+            {
+                throw new ScriptException( "Internal error: Mixin invoked even if it does not apply" );
+            }
+            // Class scripts implement all methods of the type, parse them only once
+            return scripts.byResource.computeIfAbsent(
+                groovySource.url.toExternalForm(),
+                url -> new CompiledScript( groovySource.script, parse( declaringClass, groovySource.url ) ) );
+        } );
+    }
+
+    private static TypeScripts typeScripts( Class<?> declaringClass )
+    {
+        TypeScripts scripts = compiledScripts.get( declaringClass );
+        if( scripts.generation != generation.get() )
+        {
+            compiledScripts.remove( declaringClass );
+            scripts = compiledScripts.get( declaringClass );
+        }
+        return scripts;
+    }
+
+    private static Class<?> parse( Class<?> declaringClass, URL groovySource )
     {
         try
         {
-            Class declaringClass = method.getDeclaringClass();
-            GroovyObject groovyObject = groovyObjects.get( declaringClass );
-            if( groovyObject == null )
+            StringBuilder sourceBuilder = new StringBuilder();
+            Inputs.text( groovySource ).transferTo( Outputs.text( sourceBuilder ) );
+            GroovyClassLoader groovyClassLoader = new GroovyClassLoader( declaringClass.getClassLoader() );
+            return groovyClassLoader.parseClass( sourceBuilder.toString() );
+        }
+        catch( Exception e )
+        {
+            throw new ScriptException( "Unable to parse " + groovySource, e );
+        }
+    }
+
+    private Object invokeAsObject( Method method, Object[] args, Class<?> groovyClass )
+        throws Throwable
+    {
+        Class declaringClass = method.getDeclaringClass();
+        GroovyObject groovyObject;
+        synchronized( groovyObjects )
+        {
+            groovyObject = groovyObjects.get( declaringClass );
+            if( groovyObject == null || groovyObject.getClass() != groovyClass )
             {
-                InputStream is = null;
-                final Class groovyClass;
-                try
-                {
-                    is = groovySource.openStream();
-                    StringBuilder sourceBuilder = new StringBuilder();
-                    Inputs.text( groovySource ).transferTo( Outputs.text( sourceBuilder ) );
-                    GroovyClassLoader groovyClassLoader = new GroovyClassLoader( declaringClass.getClassLoader() );
-                    groovyClass = groovyClassLoader.parseClass( sourceBuilder.toString() );
-                }
-                finally
-                {
-                    if( is != null )
-                    {
-                        is.close();
-                    }
-                }
                 groovyObject = (GroovyObject) groovyClass.newInstance();
                 if( hasProperty( groovyObject, "This" ) )
                 {
@@ -128,13 +205,8 @@ public class GroovyMixin
                 }
                 groovyObjects.put( declaringClass, groovyObject );
             }
-            return groovyObject.invokeMethod( method.getName(), args );
-        }
-        catch( Exception e )
-        {
-            e.printStackTrace();
-            throw e;
         }
+        return groovyObject.invokeMethod( method.getName(), args );
     }
 
     private boolean hasProperty( GroovyObject groovyObject, String propertyName )
@@ -150,34 +222,13 @@ public class GroovyMixin
         }
     }
 
-    private Object invokeAsScript( Method method, Object[] args, URL groovySource )
+    private Object invokeAsScript( Object[] args, Class scriptClass )
         throws Throwable
     {
-        try
-        {
-            Binding binding = new Binding();
-            binding.setVariable( "This", me );
-            binding.setVariable( "args", args );
-            GroovyShell shell = new GroovyShell( binding );
-            InputStream is = null;
-            try
-            {
-                is = groovySource.openStream();
-                return shell.evaluate( new InputStreamReader( is ) );
-            }
-            finally
-            {
-                if( is != null )
-                {
-                    is.close();
-                }
-            }
-        }
-        catch( Exception e )
-        {
-            e.printStackTrace();
-            throw e;
-        }
+        Binding binding = new Binding();
+        binding.setVariable( "This", me );
+        binding.setVariable( "args", args );
+        return InvokerHelper.createScript( scriptClass, binding ).run();
     }
 
     private static FunctionResource getFunctionResource( final Method method )
@@ -213,4 +264,35 @@ public class GroovyMixin
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Scripts of one interface.
+     */
+    private static class TypeScripts
+    {
+
+        final int generation;
+        final Map<Method, CompiledScript> byMethod = new ConcurrentHashMap<>();
+        final Map<String, CompiledScript> byResource = new ConcurrentHashMap<>();
+
+        private TypeScripts( int generation )
+        {
+            this.generation = generation;
+        }
+
+    }
+
+    private static class CompiledScript
+    {
+
+        final boolean script;
+        final Class<?> type;
+
+        private CompiledScript( boolean script, Class<?> type )
+        {
+            this.script = script;
+            this.type = type;
+        }
+
+    }
+
+}
@@ -50,4 +50,15 @@ public class GroovyMixinTest extends AbstractZestTest
         Assert.assertEquals( "do1() in Groovy:6", domain2.do1() );
         Assert.assertEquals( "do1() in Groovy:5", domain1.do1() );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenPrecompiledScriptsWhenInvokingThenInstancesKeepTheirOwnState()
+    {
+        GroovyMixin.precompile( Mixin1.class );
+        GroovyComposite domain1 = transientBuilderFactory.newTransient( GroovyComposite.class );
+        GroovyComposite domain2 = transientBuilderFactory.newTransient( GroovyComposite.class );
+        Assert.assertEquals( "do1() in Groovy:1", domain1.do1() );
+        Assert.assertEquals( "do1() in Groovy:2", domain1.do1() );
+        Assert.assertEquals( "do1() in Groovy:1", domain2.do1() );
+    }
+}
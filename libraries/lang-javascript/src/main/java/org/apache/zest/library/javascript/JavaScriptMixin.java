@@ -23,8 +23,12 @@ import java.io.*;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.mozilla.javascript.*;
 import org.apache.zest.api.common.AppliesTo;
 import org.apache.zest.api.common.AppliesToFilter;
@@ -46,20 +50,43 @@ import org.apache.zest.library.scripting.ScriptReloadable;
  * <pre><code>
  * org/apache/zest/samples/hello/domain/HelloWorldSpeaker.say.js
  * </code></pre>
+ * <p>
+ * Scripts are compiled once per interface by the optimizing Rhino compiler and shared by all instances, each
+ * instance only binds the compiled functions to its own scope on first use. Compiled scripts are kept with the
+ * scripted interface, so they do not outlive its class loader. Use {@link #precompile(Class[])} at assembly time to
+ * compile them eagerly, and {@link ScriptReloadable#reloadScripts()} to have them compiled again from the current
+ * script files.
+ * </p>
  */
 @AppliesTo( JavaScriptMixin.AppliesTo.class )
 public class JavaScriptMixin
     implements InvocationHandler, ScriptReloadable
 {
+    private static final int OPTIMIZATION_LEVEL = 9;
+
+    /**
+     * Incremented on reload, scripts compiled for an older generation are dropped on next use.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private static final ClassValue<TypeScripts> compiledScripts = new ClassValue<TypeScripts>()
+    {
+        @Override
+        protected TypeScripts computeValue( Class<?> type )
+        {
+            return new TypeScripts( generation.get() );
+        }
+    };
+
     @This private Composite me;
 
     static private Scriptable standardScope;
 
-    private HashMap<String, Function> cachedScripts;
+    private final Map<String, BoundFunction> boundFunctions;
 
     @Structure private TransientBuilderFactory factory;
     private Scriptable instanceScope;
-    
+
     static
     {
         Context cx = Context.enter();
@@ -69,7 +96,7 @@ public class JavaScriptMixin
 
     public JavaScriptMixin()
     {
-        cachedScripts = new HashMap<String, Function>();
+        boundFunctions = new ConcurrentHashMap<>();
         Context cx = Context.enter();
         instanceScope = cx.newObject( standardScope );
         instanceScope.setPrototype( standardScope );
@@ -85,9 +112,9 @@ public class JavaScriptMixin
         {
             Scriptable proxyScope = Context.toObject( proxy, instanceScope );
             proxyScope.setPrototype( instanceScope );
-            proxyScope.put( "compositeBuilderFactory", proxyScope, factory );
-            proxyScope.put( "This", proxyScope, me );
-            Function fn = getFunction( cx, proxyScope, method );
+            instanceScope.put( "compositeBuilderFactory", instanceScope, factory );
+            instanceScope.put( "This", instanceScope, me );
+            Function fn = getFunction( cx, method );
             Object result = fn.call( cx, instanceScope, proxyScope, args );
 
             if( result instanceof Undefined )
@@ -112,52 +139,105 @@ public class JavaScriptMixin
     @Override
     public void reloadScripts()
     {
-        cachedScripts.clear();
+        generation.incrementAndGet();
+        boundFunctions.clear();
+    }
+
+    /**
+     * Compile the scripts implementing the given types ahead of their first invocation.
+     * <p>
+     * Meant to be called at assembly time so that script errors surface early and no composite pays for the
+     * compilation. Types without a script are ignored.
+     * </p>
+     *
+     * @param types Types implemented by JavaScriptMixin
+     */
+    public static void precompile( Class<?>... types )
+    {
+        for( Class<?> type : types )
+        {
+            if( getScriptResource( type ) != null )
+            {
+                try
+                {
+                    compiledScripts( type );
+                }
+                catch( IOException e )
+                {
+                    throw new ScriptException( "Unable to compile " + getScriptName( type ), e );
+                }
+            }
+        }
     }
 
-    private Function getFunction( Context cx, Scriptable scope, Method method )
+    private Function getFunction( Context cx, Method method )
         throws IOException
     {
         Class<?> declaringClass = method.getDeclaringClass();
-        String classname = declaringClass.getName();
         String methodName = method.getName();
-        String requestedFunctionName = classname + ":" + methodName;
+        Script script = compiledScripts( declaringClass ).get( methodName );
+        if( script == null )
+        {
+            throw new ScriptException( "No function " + methodName + " found in " + getScriptName( declaringClass ) );
+        }
 
-        Function fx = cachedScripts.get( requestedFunctionName );
-        if( fx != null )
+        String requestedFunctionName = declaringClass.getName() + ":" + methodName;
+        BoundFunction bound = boundFunctions.get( requestedFunctionName );
+        if( bound == null || bound.script != script )
         {
-            return fx;
+            // Cheap, evaluates the compiled function expression in the instance scope
+            bound = new BoundFunction( script, (Function) script.exec( cx, instanceScope ) );
+            boundFunctions.put( requestedFunctionName, bound );
         }
-        compileScripts( cx, scope, method );
-        fx = cachedScripts.get( requestedFunctionName );
-        return fx;
+        return bound.function;
     }
 
-    private void compileScripts( Context cx, Scriptable scope, Method method )
+    private static Map<String, Script> compiledScripts( Class<?> type )
         throws IOException
     {
-        URL scriptUrl = getFunctionResource( method );
+        TypeScripts scripts = compiledScripts.get( type );
+        if( scripts.generation != generation.get() )
+        {
+            compiledScripts.remove( type );
+            scripts = compiledScripts.get( type );
+        }
+        return scripts.functions( type );
+    }
+
+    private static Map<String, Script> compileScripts( Class<?> type )
+        throws IOException
+    {
+        URL scriptUrl = getScriptResource( type );
         if( scriptUrl == null )
         {
-            throw new IOException( "No script found for method " + method.getName() );
+            throw new IOException( "No script found for " + type.getName() );
         }
 
-        InputStream in = scriptUrl.openStream();
-        BufferedReader scriptReader = new BufferedReader( new InputStreamReader( in ) );
-        int lineNo = 1;
-        String classname = method.getDeclaringClass().getName();
-        while( true )
+        Map<String, Script> scripts = new HashMap<>();
+        Context cx = Context.enter();
+        try( BufferedReader scriptReader = new BufferedReader( new InputStreamReader( scriptUrl.openStream() ) ) )
         {
-            ScriptFragment fragment = extractFunction( scriptReader );
-            if( "".equals( fragment.script.trim() ) )
+            cx.setOptimizationLevel( OPTIMIZATION_LEVEL );
+            int lineNo = 1;
+            while( true )
             {
-                break;
+                ScriptFragment fragment = extractFunction( scriptReader );
+                if( "".equals( fragment.script.trim() ) )
+                {
+                    break;
+                }
+                String functionName = parseFunctionName( fragment.script, scriptUrl.toString() );
+                // Compiled as a function expression so that evaluating it does not declare anything in the scope
+                Script script = cx.compileString( "(" + fragment.script + ")", "<" + scriptUrl.toString() + ">", lineNo, null );
+                scripts.put( functionName, script );
+                lineNo = lineNo + fragment.numberOfLines;
             }
-            String functionName = parseFunctionName( fragment.script, scriptUrl.toString() );
-            Function function = cx.compileFunction( scope, fragment.script, "<" + scriptUrl.toString() + ">", lineNo, null );
-            cachedScripts.put( classname + ":" + functionName, function );
-            lineNo = lineNo + fragment.numberOfLines;
         }
+        finally
+        {
+            Context.exit();
+        }
+        return Collections.unmodifiableMap( scripts );
     }
 
     /**
@@ -171,7 +251,7 @@ public class JavaScriptMixin
      * @param scriptName The name of the script being parsed.
      * @return the name of the function declared in this snippet.
      */
-    private String parseFunctionName( String script, String scriptName )
+    private static String parseFunctionName( String script, String scriptName )
     {
         // TODO optimize with hardcoded parser??
         StringTokenizer st = new StringTokenizer( script, " \t\n\r\f(){}", false );
@@ -198,7 +278,7 @@ public class JavaScriptMixin
      * @return A ScriptFragment containing the Script text for the function, and how many lines it is.
      * @throws IOException If a problem in the Reader occurs.
      */
-    private ScriptFragment extractFunction( Reader scriptReader )
+    private static ScriptFragment extractFunction( Reader scriptReader )
         throws IOException
     {
         ScriptFragment fragment = new ScriptFragment();
@@ -298,19 +378,15 @@ public class JavaScriptMixin
         return fragment;
     }
 
-    private static URL getFunctionResource( Method method )
+    private static URL getScriptResource( Class<?> type )
     {
-        String scriptName = getScriptName( method );
-        Class<?> declaringClass = method.getDeclaringClass();
-        ClassLoader loader = declaringClass.getClassLoader();
-        return loader.getResource( scriptName );
+        ClassLoader loader = type.getClassLoader();
+        return loader.getResource( getScriptName( type ) );
     }
 
-    private static String getScriptName( Method method )
+    private static String getScriptName( Class<?> type )
     {
-        Class<?> declaringClass = method.getDeclaringClass();
-        String classname = declaringClass.getName();
-        return classname.replace( '.', '/' ) + ".js";
+        return type.getName().replace( '.', '/' ) + ".js";
     }
 
     private static class ScriptFragment
@@ -319,13 +395,50 @@ public class JavaScriptMixin
         int numberOfLines = 0;
     }
 
+    /**
+     * Functions of one interface, compiled on first use.
+     */
+    private static class TypeScripts
+    {
+        private final int generation;
+        private Map<String, Script> functions;
+
+        private TypeScripts( int generation )
+        {
+            this.generation = generation;
+        }
+
+        private synchronized Map<String, Script> functions( Class<?> type )
+            throws IOException
+        {
+            if( functions == null )
+            {
+                functions = compileScripts( type );
+            }
+            return functions;
+        }
+    }
+
+    private static class BoundFunction
+    {
+        private final Script script;
+        private final Function function;
+
+        private BoundFunction( Script script, Function function )
+        {
+            this.script = script;
+            this.function = function;
+        }
+    }
+
     public static class AppliesTo
         implements AppliesToFilter
     {
 
         public boolean appliesTo( Method method, Class compositeType, Class mixin, Class modelClass )
         {
-            return getFunctionResource( method ) != null;
+            return ScriptReloadable.class.equals( method.getDeclaringClass() )
+                   || getScriptResource( method.getDeclaringClass() ) != null;
         }
 
     }
@@ -22,4 +22,6 @@ package org.apache.zest.library.javascript;
 public interface DomainType
 {
     String do1();
+
+    String counter();
 }
\ No newline at end of file
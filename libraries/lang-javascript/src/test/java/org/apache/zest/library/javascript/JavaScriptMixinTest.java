@@ -23,6 +23,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.apache.zest.bootstrap.AssemblyException;
 import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.library.scripting.ScriptReloadable;
 import org.apache.zest.test.AbstractZestTest;
 
 public class JavaScriptMixinTest
@@ -31,7 +32,7 @@ public class JavaScriptMixinTest
     public void assemble( ModuleAssembly module )
         throws AssemblyException
     {
-        module.transients( DomainType.class ).withMixins( JavaScriptMixin.class );
+        module.transients( DomainType.class, ReloadableDomainType.class ).withMixins( JavaScriptMixin.class );
     }
 
     @Test
@@ -40,4 +41,33 @@ public class JavaScriptMixinTest
         DomainType domain = transientBuilderFactory.newTransient( DomainType.class );
         Assert.assertEquals( "do1 script \" and ' for many cases is harder.", domain.do1() );
     }
+
+    @Test
+    public void givenPrecompiledScriptsWhenInvokingThenInstancesBindTheirOwnFunctions()
+    {
+        // HelloSpeaker has no script and is ignored
+        JavaScriptMixin.precompile( DomainType.class, HelloSpeaker.class );
+        DomainType domain1 = transientBuilderFactory.newTransient( DomainType.class );
+        DomainType domain2 = transientBuilderFactory.newTransient( DomainType.class );
+        Assert.assertEquals( "counter:1", domain1.counter() );
+        Assert.assertEquals( "counter:2", domain1.counter() );
+        Assert.assertEquals( "counter:1", domain2.counter() );
+        Assert.assertEquals( "counter:3", domain1.counter() );
+    }
+
+    @Test
+    public void givenBoundFunctionsWhenReloadingScriptsThenFunctionsAreBoundAgain()
+    {
+        ReloadableDomainType domain = transientBuilderFactory.newTransient( ReloadableDomainType.class );
+        Assert.assertEquals( "counter:1", domain.counter() );
+        Assert.assertEquals( "counter:2", domain.counter() );
+        domain.reloadScripts();
+        Assert.assertEquals( "counter:1", domain.counter() );
+        Assert.assertEquals( "do1 script \" and ' for many cases is harder.", domain.do1() );
+    }
+
+    public interface ReloadableDomainType
+        extends DomainType, ScriptReloadable
+    {
+    }
 }
\ No newline at end of file
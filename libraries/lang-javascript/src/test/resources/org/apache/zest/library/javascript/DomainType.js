@@ -30,4 +30,11 @@ function /* not even here*/ do1()
 function do2()
 {
     return "}";
+}
+
+function counter()
+{
+    // Kept on the function object, so per bound function
+    counter.calls = ( counter.calls || 0 ) + 1;
+    return "counter:" + counter.calls;
 }
\ No newline at end of file
@@ -25,4 +25,9 @@ public class ScriptException extends RuntimeException
     {
         super( message );
     }
+
+    public ScriptException( String message, Throwable cause )
+    {
+        super( message, cause );
+    }
 }
@@ -72,6 +72,9 @@ public class BoneCPDataSourceServiceImporter
             if ( config.validationQuery().get() != null ) {
                 pool.setConnectionTestStatement( config.validationQuery().get() );
             }
+            if ( config.maxOpenPreparedStatements().get() != null ) {
+                pool.setStatementsCacheSize( config.maxOpenPreparedStatements().get() );
+            }
 
             String props = config.properties().get();
             String[] properties = props.split( "," );
@@ -70,6 +70,12 @@ public interface DBCPDataSourceServiceImporter
                 pool.setValidationQuery( config.validationQuery().get() );
             }
 
+            // Prepared statements are cached per pooled connection and closed with it when it is evicted
+            pool.setPoolPreparedStatements( true );
+            if ( config.maxOpenPreparedStatements().get() != null ) {
+                pool.setMaxOpenPreparedStatements( config.maxOpenPreparedStatements().get() );
+            }
+
             return pool;
         }
 
@@ -40,6 +40,7 @@ public interface DataSourceConfigurationState
     @Optional Property<Integer> loginTimeoutSeconds();
     @Optional Property<Integer> maxConnectionAgeSeconds();
     @Optional Property<String> validationQuery();
+    @Optional Property<Integer> maxOpenPreparedStatements();
     @UseDefaults Property<String> properties();
 }
 // END SNIPPET: config
@@ -19,53 +19,62 @@
  */
 package org.apache.zest.library.uid.sequence;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.zest.api.configuration.Configuration;
+import org.apache.zest.api.identity.Identity;
 import org.apache.zest.api.injection.scope.Structure;
 import org.apache.zest.api.injection.scope.This;
-import org.apache.zest.api.property.Property;
+import org.apache.zest.api.service.ServiceComposite;
 import org.apache.zest.api.unitofwork.ConcurrentEntityModificationException;
 import org.apache.zest.api.unitofwork.UnitOfWork;
 import org.apache.zest.api.unitofwork.UnitOfWorkCompletionException;
 import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
 
+import static org.apache.zest.api.usecase.UsecaseBuilder.newUsecase;
+
+/**
+ * Persisted Sequencing allocating values by blocks.
+ * <p>
+ * Each time the current block is exhausted a new one of {@link Sequence#blockSize()} values is reserved by
+ * persisting its last value, values are then handed out from memory without locking.
+ * The persisted value never decreases and is always greater or equal to any value handed out, so no value is
+ * handed out twice, even across restarts or by several services sharing the same persisted sequence.
+ * </p>
+ */
 public class PersistedSequencingMixin
     implements Sequencing
 {
+    private static final int MAX_ATTEMPTS = 3;
+
     @Structure private UnitOfWorkFactory uowf;
     @This private Configuration<Sequence> sequence;
+    @This private ServiceComposite me;
+
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>();
 
     @Override
     public Long newSequenceValue()
         throws SequencingException
     {
-        synchronized( this )
+        while( true )
         {
-            ConcurrentEntityModificationException exc = null;
-            UnitOfWork uow = uowf.newUnitOfWork();
-            try
+            Block block = currentBlock.get();
+            if( block != null )
             {
-                for( int i = 0; i < 3; i++ )
+                long value = block.next.incrementAndGet();
+                if( value <= block.last )
                 {
-                    try
-                    {
-                        Property<Long> property = sequence.get().currentValue();
-                        long value = property.get();
-                        value = value + 1;
-                        property.set( value );
-                        uow.complete();
-                        return value;
-                    }
-                    catch( ConcurrentEntityModificationException e )
-                    {
-                        // Ignore;
-                        exc = e;
-                    }
+                    return value;
                 }
-                throw new SequencingException( "Unable to update sequence value.", exc );
             }
-            catch( UnitOfWorkCompletionException e )
+            synchronized( this )
             {
-                throw new SequencingException( "Unable to update sequence value.", exc );
+                // Only one thread reserves the next block, others retry with it
+                if( currentBlock.get() == block )
+                {
+                    currentBlock.set( reserveBlock() );
+                }
             }
         }
     }
@@ -73,9 +82,67 @@ public class PersistedSequencingMixin
     @Override
     public Long currentSequenceValue()
     {
+        Block block = currentBlock.get();
+        if( block != null )
+        {
+            return Math.min( block.next.get(), block.last );
+        }
         synchronized( this )
         {
+            sequence.refresh();
             return sequence.get().currentValue().get();
         }
     }
+
+    private Block reserveBlock()
+    {
+        // Refresh the configuration, creating the persisted sequence if needed
+        sequence.refresh();
+        int blockSize = Math.max( 1, sequence.get().blockSize().get() );
+        Identity identity = me.identity().get();
+        ConcurrentEntityModificationException exc = null;
+        for( int i = 0; i < MAX_ATTEMPTS; i++ )
+        {
+            UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "Reserve sequence block of " + identity ) );
+            try
+            {
+                Sequence persisted = uow.get( Sequence.class, identity );
+                long first = persisted.currentValue().get() + 1;
+                long last = first + blockSize - 1;
+                persisted.currentValue().set( last );
+                uow.complete();
+                return new Block( first, last );
+            }
+            catch( ConcurrentEntityModificationException e )
+            {
+                // Another instance reserved a block concurrently, retry
+                exc = e;
+            }
+            catch( UnitOfWorkCompletionException e )
+            {
+                throw new SequencingException( "Unable to update sequence value.", e );
+            }
+            finally
+            {
+                if( uow.isOpen() )
+                {
+                    uow.discard();
+                }
+            }
+        }
+        throw new SequencingException( "Unable to update sequence value.", exc );
+    }
+
+    private static class Block
+    {
+        // Last value handed out, incremented beyond last once the block is exhausted
+        private final AtomicLong next;
+        private final long last;
+
+        private Block( long first, long last )
+        {
+            this.next = new AtomicLong( first - 1 );
+            this.last = last;
+        }
+    }
 }
@@ -24,10 +24,31 @@ import org.apache.zest.api.entity.Queryable;
 import org.apache.zest.api.property.Property;
 
 /**
- * JAVADOC Add JavaDoc
+ * Persisted state and configuration of a PersistingSequencingService.
  */
 @Queryable( false )
 public interface Sequence
 {
+    /**
+     * Last persisted value.
+     * <p>
+     * When values are allocated by blocks this is the last value of the last reserved block,
+     * not the last value handed out.
+     * </p>
+     *
+     * @return Last persisted value
+     */
     @UseDefaults Property<Long> currentValue();
+
+    /**
+     * Number of values reserved at once, and handed out from memory, each time the sequence is persisted.
+     * <p>
+     * Values 0 and 1 persist the sequence for each new value. With larger blocks, the unused values of the
+     * block reserved when the application stops are lost: values are still unique and increasing but there
+     * are gaps in the sequence across restarts.
+     * </p>
+     *
+     * @return Block size
+     */
+    @UseDefaults Property<Integer> blockSize();
 }
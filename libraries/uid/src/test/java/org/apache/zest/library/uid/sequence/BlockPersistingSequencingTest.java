@@ -0,0 +1,114 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.library.uid.sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.library.uid.sequence.assembly.PersistingSequencingAssembler;
+import org.apache.zest.test.AbstractZestTest;
+import org.apache.zest.test.EntityTestAssembler;
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BlockPersistingSequencingTest extends AbstractZestTest
+{
+    private static final int BLOCK_SIZE = 100;
+
+    @Override
+    public void assemble( ModuleAssembly module ) throws AssemblyException
+    {
+        new PersistingSequencingAssembler().assemble( module );
+        new EntityTestAssembler().assemble( module );
+        module.forMixin( SequenceEntity.class ).declareDefaults().blockSize().set( BLOCK_SIZE );
+    }
+
+    @Test
+    public void whenBlockSequencingThenPersistedValueIsEndOfReservedBlock()
+        throws Exception
+    {
+        PersistingSequencingService sequencing = serviceFinder.findService( PersistingSequencingService.class ).get();
+        assertThat( sequencing.currentSequenceValue(), equalTo( 0L ) );
+        assertThat( sequencing.newSequenceValue(), equalTo( 1L ) );
+        assertThat( sequencing.currentSequenceValue(), equalTo( 1L ) );
+        assertThat( persistedValue( sequencing ), equalTo( (long) BLOCK_SIZE ) );
+        for( long expected = 2; expected <= BLOCK_SIZE + 1; expected++ )
+        {
+            assertThat( sequencing.newSequenceValue(), equalTo( expected ) );
+        }
+        assertThat( persistedValue( sequencing ), equalTo( 2L * BLOCK_SIZE ) );
+    }
+
+    @Test
+    public void whenBlockSequencingConcurrentlyThenValuesAreUnique()
+        throws Exception
+    {
+        PersistingSequencingService sequencing = serviceFinder.findService( PersistingSequencingService.class ).get();
+        int threads = 8;
+        int valuesPerThread = 5000;
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for( int i = 0; i < threads; i++ )
+            {
+                tasks.add( () -> {
+                    for( int j = 0; j < valuesPerThread; j++ )
+                    {
+                        assertTrue( values.add( sequencing.newSequenceValue() ) );
+                    }
+                    return null;
+                } );
+            }
+            for( Future<Void> result : executor.invokeAll( tasks ) )
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertThat( values.size(), equalTo( threads * valuesPerThread ) );
+        long max = values.stream().mapToLong( Long::longValue ).max().getAsLong();
+        assertThat( max, equalTo( (long) threads * valuesPerThread ) );
+        assertTrue( persistedValue( sequencing ) >= max );
+    }
+
+    private long persistedValue( PersistingSequencingService sequencing )
+    {
+        try( UnitOfWork uow = unitOfWorkFactory.newUnitOfWork() )
+        {
+            return uow.get( Sequence.class, sequencing.identity().get() ).currentValue().get();
+        }
+    }
+}
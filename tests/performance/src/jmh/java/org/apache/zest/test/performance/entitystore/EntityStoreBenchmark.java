@@ -0,0 +1,274 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.entitystore;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.identity.Identity;
+import org.apache.zest.api.identity.StringIdentity;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.entitystore.jdbm.assembly.JdbmEntityStoreAssembler;
+import org.apache.zest.entitystore.memory.assembly.MemoryEntityStoreAssembler;
+import org.apache.zest.entitystore.sql.assembly.DerbySQLEntityStoreAssembler;
+import org.apache.zest.library.sql.assembly.DataSourceAssembler;
+import org.apache.zest.library.sql.dbcp.DBCPDataSourceServiceAssembler;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.zest.api.usecase.UsecaseBuilder.newUsecase;
+
+/**
+ * UnitOfWork create, load and complete against EntityStores.
+ * <p>
+ * Each benchmark is run against each store given by the {@literal store} parameter.
+ * Loading benchmarks read entities created during setup, single entity loads are run with 1, 2, 4, 8 and as
+ * many threads as available processors to show how stores scale.
+ * </p>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EntityStoreBenchmark
+{
+    private static final int ENTITIES = 10000;
+    private static final int BULK = 100;
+    private static final File JDBM_DIRECTORY = new File( "build/tmp/jdbm" );
+
+    @Param( { "memory", "jdbm", "derby" } )
+    public String store;
+
+    private Application application;
+    private UnitOfWorkFactory uowf;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.entities( SimpleProduct.class, ComplexProduct.class );
+                new OrgJsonValueSerializationAssembler().assemble( module );
+                ModuleAssembly config = module.layer().module( "config" );
+                new EntityTestAssembler().assemble( config );
+                assembleEntityStore( module, config );
+            }
+        };
+        application = assembler.application();
+        uowf = assembler.module().unitOfWorkFactory();
+        populate();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        if( application != null )
+        {
+            application.passivate();
+        }
+        removeDirectory( JDBM_DIRECTORY );
+    }
+
+    @Benchmark
+    public SimpleProduct createSimpleEntity()
+        throws Exception
+    {
+        try( UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "createSimpleEntity" ) ) )
+        {
+            SimpleProduct product = uow.newEntity( SimpleProduct.class );
+            product.name().set( "Product" );
+            uow.complete();
+            return product;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( BULK )
+    public List<ComplexProduct> createComplexEntities()
+        throws Exception
+    {
+        try( UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "createComplexEntities" ) ) )
+        {
+            List<ComplexProduct> products = new ArrayList<>( BULK );
+            for( int i = 0; i < BULK; i++ )
+            {
+                products.add( newComplexProduct( uow.newEntity( ComplexProduct.class ), i ) );
+            }
+            uow.complete();
+            return products;
+        }
+    }
+
+    @Benchmark
+    public String loadEntity()
+    {
+        return readRandomProduct();
+    }
+
+    @Benchmark
+    @Threads( 2 )
+    public String loadEntityWith2Threads()
+    {
+        return readRandomProduct();
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public String loadEntityWith4Threads()
+    {
+        return readRandomProduct();
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public String loadEntityWith8Threads()
+    {
+        return readRandomProduct();
+    }
+
+    @Benchmark
+    @Threads( Threads.MAX )
+    public String loadEntityWithAllProcessors()
+    {
+        return readRandomProduct();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( BULK )
+    public List<ComplexProduct> loadEntitiesInBatch()
+    {
+        int start = ThreadLocalRandom.current().nextInt( ENTITIES - BULK );
+        List<Identity> identities = new ArrayList<>( BULK );
+        for( int i = start; i < start + BULK; i++ )
+        {
+            identities.add( new StringIdentity( "product" + i ) );
+        }
+        try( UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "loadEntitiesInBatch" ) ) )
+        {
+            return uow.get( ComplexProduct.class, identities );
+        }
+    }
+
+    private void assembleEntityStore( ModuleAssembly module, ModuleAssembly config )
+        throws AssemblyException
+    {
+        switch( store )
+        {
+            case "memory":
+                new MemoryEntityStoreAssembler().assemble( module );
+                break;
+            case "jdbm":
+                new JdbmEntityStoreAssembler().withConfig( config, Visibility.layer ).assemble( module );
+                break;
+            case "derby":
+                new DBCPDataSourceServiceAssembler().
+                    identifiedBy( "derby-datasource-service" ).
+                    visibleIn( Visibility.module ).
+                    withConfig( config, Visibility.layer ).
+                    assemble( module );
+                new DataSourceAssembler().
+                    withDataSourceServiceIdentity( "derby-datasource-service" ).
+                    identifiedBy( "derby-datasource" ).
+                    withCircuitBreaker().
+                    assemble( module );
+                new DerbySQLEntityStoreAssembler().
+                    withConfig( config, Visibility.layer ).
+                    assemble( module );
+                break;
+            default:
+                throw new AssemblyException( "Unknown EntityStore: " + store );
+        }
+    }
+
+    private void populate()
+        throws Exception
+    {
+        for( int bulk = 0; bulk < ENTITIES / 1000; bulk++ )
+        {
+            try( UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "Populate " + bulk ) ) )
+            {
+                for( int i = bulk * 1000; i < ( bulk + 1 ) * 1000; i++ )
+                {
+                    newComplexProduct( uow.newEntity( ComplexProduct.class, new StringIdentity( "product" + i ) ), i );
+                }
+                uow.complete();
+            }
+        }
+    }
+
+    private ComplexProduct newComplexProduct( ComplexProduct product, int index )
+    {
+        product.name().set( "Product " + index );
+        product.description().set( "Description of product " + index );
+        return product;
+    }
+
+    private String readRandomProduct()
+    {
+        Identity identity = new StringIdentity( "product" + ThreadLocalRandom.current().nextInt( ENTITIES ) );
+        try( UnitOfWork uow = uowf.newUnitOfWork( newUsecase( "loadEntity" ) ) )
+        {
+            return uow.get( ComplexProduct.class, identity ).name().get();
+        }
+    }
+
+    private static void removeDirectory( File directory )
+    {
+        File[] children = directory.listFiles();
+        if( children != null )
+        {
+            for( File child : children )
+            {
+                removeDirectory( child );
+            }
+        }
+        directory.delete();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.query;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Visibility;
+import org.apache.zest.api.entity.EntityBuilder;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.query.Query;
+import org.apache.zest.api.query.QueryBuilderFactory;
+import org.apache.zest.api.structure.Application;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.unitofwork.UnitOfWork;
+import org.apache.zest.api.unitofwork.UnitOfWorkFactory;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.entitystore.memory.assembly.MemoryEntityStoreAssembler;
+import org.apache.zest.index.rdf.assembly.RdfNativeSesameStoreAssembler;
+import org.apache.zest.index.rdf.indexing.RdfIndexingService;
+import org.apache.zest.index.rdf.query.SesameExpressions;
+import org.apache.zest.library.rdf.repository.NativeConfiguration;
+import org.apache.zest.test.EntityTestAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.zest.api.query.QueryExpressions.eq;
+import static org.apache.zest.api.query.QueryExpressions.templateFor;
+
+/**
+ * Lookup of a single Lead by name among many, using the RDF index with fluent and SPARQL queries,
+ * and evaluating the same fluent query against an in-memory Iterable.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class QueryBenchmark
+{
+    private static final int NUMBER_OF_LEADS = 10000;
+    private static final String SPARQL_QUERY = "PREFIX ns0: <urn:zest:type:org.apache.zest.api.identity.HasIdentity#> \n"
+                                               + "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> \n"
+                                               + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> \n"
+                                               + "PREFIX ns1: <urn:zest:type:org.apache.zest.test.performance.query.QueryBenchmark-Lead#> \n"
+                                               + "SELECT ?entityType ?reference\n"
+                                               + "WHERE {\n"
+                                               + "?entityType rdfs:subClassOf <urn:zest:type:org.apache.zest.test.performance.query.QueryBenchmark-Lead>. \n"
+                                               + "?entity rdf:type ?entityType. \n"
+                                               + "?entity ns0:reference ?reference. \n"
+                                               + "?entity ns1:name \"%s\". \n"
+                                               + "}";
+
+    private Application application;
+    private UnitOfWorkFactory uowf;
+    private QueryBuilderFactory qbf;
+    private File indexingDataDir;
+    private List<Lead> leadValues;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.entities( LeadEntity.class );
+                module.values( LeadValue.class );
+                new RdfNativeSesameStoreAssembler().assemble( module );
+                new OrgJsonValueSerializationAssembler().assemble( module );
+                new MemoryEntityStoreAssembler().assemble( module );
+
+                ModuleAssembly config = module.layer().module( "config" );
+                config.entities( NativeConfiguration.class ).visibleIn( Visibility.layer );
+                new EntityTestAssembler().assemble( config );
+            }
+        };
+        application = assembler.application();
+        Module module = assembler.module();
+        uowf = module.unitOfWorkFactory();
+        qbf = module;
+        indexingDataDir = module.findService( RdfIndexingService.class ).get().dataDir();
+
+        leadValues = new ArrayList<>( NUMBER_OF_LEADS );
+        UnitOfWork uow = uowf.newUnitOfWork();
+        for( int i = 0; i < NUMBER_OF_LEADS; i++ )
+        {
+            if( i > 0 && i % 1000 == 0 )
+            {
+                uow.complete();
+                uow = uowf.newUnitOfWork();
+            }
+            EntityBuilder<LeadEntity> entityBuilder = uow.newEntityBuilder( LeadEntity.class );
+            entityBuilder.instance().name().set( "Lead" + i );
+            entityBuilder.newInstance();
+            ValueBuilder<LeadValue> valueBuilder = module.newValueBuilder( LeadValue.class );
+            valueBuilder.prototype().name().set( "Lead" + i );
+            leadValues.add( valueBuilder.newInstance() );
+        }
+        uow.complete();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws Exception
+    {
+        try
+        {
+            if( application != null )
+            {
+                application.passivate();
+            }
+        }
+        finally
+        {
+            removeDirectory( indexingDataDir );
+        }
+    }
+
+    @Benchmark
+    public Lead fluentQuery()
+    {
+        try( UnitOfWork uow = uowf.newUnitOfWork() )
+        {
+            Lead template = templateFor( Lead.class );
+            Query<Lead> query = uow.newQuery( qbf.newQueryBuilder( Lead.class )
+                                                 .where( eq( template.name(), randomLeadName() ) ) );
+            return query.find();
+        }
+    }
+
+    @Benchmark
+    public Lead sparqlQuery()
+    {
+        try( UnitOfWork uow = uowf.newUnitOfWork() )
+        {
+            String sparql = String.format( SPARQL_QUERY, randomLeadName() );
+            Query<Lead> query = uow.newQuery( qbf.newQueryBuilder( Lead.class )
+                                                 .where( SesameExpressions.sparql( sparql ) ) );
+            return query.find();
+        }
+    }
+
+    @Benchmark
+    public Lead iterableQuery()
+    {
+        Lead template = templateFor( Lead.class );
+        return qbf.newQueryBuilder( Lead.class )
+                  .where( eq( template.name(), randomLeadName() ) )
+                  .newQuery( leadValues )
+                  .find();
+    }
+
+    private static String randomLeadName()
+    {
+        return "Lead" + ThreadLocalRandom.current().nextInt( NUMBER_OF_LEADS );
+    }
+
+    private static void removeDirectory( File directory )
+    {
+        if( directory == null )
+        {
+            return;
+        }
+        File[] children = directory.listFiles();
+        if( children != null )
+        {
+            for( File child : children )
+            {
+                removeDirectory( child );
+            }
+        }
+        directory.delete();
+    }
+
+    public interface Lead
+    {
+        Property<String> name();
+    }
+
+    public interface LeadEntity
+        extends Lead
+    {
+    }
+
+    public interface LeadValue
+        extends Lead
+    {
+    }
+}
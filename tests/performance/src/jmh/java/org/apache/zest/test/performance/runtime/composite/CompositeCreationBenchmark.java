@@ -0,0 +1,106 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.runtime.composite;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.composite.TransientBuilder;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creation of transients and objects, compared to plain Java object instantiation.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CompositeCreationBenchmark
+{
+    private Module module;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.transients( AnyTransient.class );
+                module.objects( AnyObject.class );
+            }
+        };
+        module = assembler.module();
+    }
+
+    @Benchmark
+    public Object plainJava()
+    {
+        return new AnyObject();
+    }
+
+    @Benchmark
+    public AnyTransient newTransient()
+    {
+        return module.newTransient( AnyTransient.class );
+    }
+
+    @Benchmark
+    public AnyTransient newTransientWithBuilder()
+    {
+        TransientBuilder<AnyTransient> builder = module.newTransientBuilder( AnyTransient.class );
+        builder.prototype().name().set( "foo" );
+        return builder.newInstance();
+    }
+
+    @Benchmark
+    public AnyObject newObject()
+    {
+        return module.newObject( AnyObject.class );
+    }
+
+    public interface AnyTransient
+    {
+        @Optional
+        Property<String> name();
+    }
+
+    public static class AnyObject
+    {
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.runtime.composite;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.concern.ConcernOf;
+import org.apache.zest.api.concern.Concerns;
+import org.apache.zest.api.concern.GenericConcern;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.runtime.composite.ProxyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invocation of TransientComposite methods, compared to a plain Java object. Properties are accessed through the
+ * default property mixin and through a mixin holding its state.
+ * Each benchmark is run with JDK dynamic proxies and with generated proxies.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CompositeInvocationBenchmark
+{
+    @Param( { "false", "true" } )
+    public String generatedProxies;
+
+    private Simple plain;
+    private Simple mixin;
+    private Simple typedConcern;
+    private Simple genericConcern;
+    private Holder holder;
+    private Holder stateHolder;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        System.setProperty( ProxyGenerator.GENERATED_PROXIES, generatedProxies );
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.transients( SimpleComposite.class,
+                                   TypedConcernComposite.class,
+                                   GenericConcernComposite.class,
+                                   Holder.class,
+                                   StateHolder.class );
+            }
+        };
+        plain = new SimpleMixin();
+        mixin = assembler.module().newTransient( SimpleComposite.class );
+        typedConcern = assembler.module().newTransient( TypedConcernComposite.class );
+        genericConcern = assembler.module().newTransient( GenericConcernComposite.class );
+        holder = assembler.module().newTransient( Holder.class );
+        stateHolder = assembler.module().newTransient( StateHolder.class );
+    }
+
+    @Benchmark
+    public int plainJava()
+    {
+        return plain.test( 42 );
+    }
+
+    @Benchmark
+    public int mixin()
+    {
+        return mixin.test( 42 );
+    }
+
+    @Benchmark
+    public int typedConcern()
+    {
+        return typedConcern.test( 42 );
+    }
+
+    @Benchmark
+    public int genericConcern()
+    {
+        return genericConcern.test( 42 );
+    }
+
+    @Benchmark
+    public String propertyGet()
+    {
+        return holder.value().get();
+    }
+
+    @Benchmark
+    public Holder propertySet()
+    {
+        holder.value().set( "foo" );
+        return holder;
+    }
+
+    @Benchmark
+    public Property<String> propertyFromMixin()
+    {
+        return stateHolder.value();
+    }
+
+    @Benchmark
+    public String propertyGetFromMixin()
+    {
+        return stateHolder.value().get();
+    }
+
+    public interface Simple
+    {
+        int test( int value );
+    }
+
+    public static class SimpleMixin
+        implements Simple
+    {
+        @Override
+        public int test( int value )
+        {
+            return value + 1;
+        }
+    }
+
+    @Mixins( SimpleMixin.class )
+    public interface SimpleComposite
+        extends Simple
+    {
+    }
+
+    public static class SimpleConcern
+        extends ConcernOf<Simple>
+        implements Simple
+    {
+        @Override
+        public int test( int value )
+        {
+            return next.test( value );
+        }
+    }
+
+    @Mixins( SimpleMixin.class )
+    @Concerns( SimpleConcern.class )
+    public interface TypedConcernComposite
+        extends Simple
+    {
+    }
+
+    public static class PassThroughConcern
+        extends GenericConcern
+    {
+        @Override
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            return next.invoke( proxy, method, args );
+        }
+    }
+
+    @Mixins( SimpleMixin.class )
+    @Concerns( PassThroughConcern.class )
+    public interface GenericConcernComposite
+        extends Simple
+    {
+    }
+
+    public interface Holder
+    {
+        @UseDefaults
+        Property<String> value();
+    }
+
+    @Mixins( StateHolderMixin.class )
+    public interface StateHolder
+        extends Holder
+    {
+    }
+
+    public abstract static class StateHolderMixin
+        implements StateHolder
+    {
+        @org.apache.zest.api.injection.scope.State
+        private Property<String> value;
+
+        @Override
+        public Property<String> value()
+        {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.runtime.composite;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.runtime.composite.AtomicInstancePool;
+import org.apache.zest.runtime.composite.CompositeMethodInstance;
+import org.apache.zest.runtime.composite.InstancePool;
+import org.apache.zest.runtime.composite.StripedInstancePool;
+import org.apache.zest.runtime.composite.SynchronizedCompositeMethodInstancePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare CompositeMethodInstance pools as used on each composite method invocation.
+ * All threads share the pool of a single method, like a hot service method would.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class InstancePoolBenchmark
+{
+    @Param( { "atomic", "synchronized", "striped" } )
+    public String pool;
+
+    private InstancePool<CompositeMethodInstance> instancePool;
+
+    @Setup
+    public void setup()
+    {
+        switch( pool )
+        {
+            case "atomic":
+                instancePool = new AtomicInstancePool();
+                break;
+            case "synchronized":
+                instancePool = new SynchronizedCompositeMethodInstancePool();
+                break;
+            case "striped":
+                instancePool = new StripedInstancePool();
+                break;
+            default:
+                throw new IllegalArgumentException( "Unknown pool: " + pool );
+        }
+    }
+
+    @Benchmark
+    @Threads( 1 )
+    public CompositeMethodInstance singleThread()
+    {
+        return obtainAndRelease();
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public CompositeMethodInstance eightThreads()
+    {
+        return obtainAndRelease();
+    }
+
+    @Benchmark
+    @Threads( 64 )
+    public CompositeMethodInstance sixtyFourThreads()
+    {
+        return obtainAndRelease();
+    }
+
+    private CompositeMethodInstance obtainAndRelease()
+    {
+        CompositeMethodInstance instance = instancePool.obtainInstance();
+        if( instance == null )
+        {
+            instance = new CompositeMethodInstance( null, null, null, 0 );
+        }
+        instancePool.releaseInstance( instance );
+        return instance;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.runtime.service;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.injection.scope.Service;
+import org.apache.zest.api.mixin.Mixins;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.runtime.composite.ProxyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invocation of a service method through an injected service reference, compared to a plain Java object.
+ * Each benchmark is run with JDK dynamic proxies and with generated proxies, with which service references
+ * dispatch by method index to the active service instance.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ServiceInvocationBenchmark
+{
+    @Param( { "false", "true" } )
+    public String generatedProxies;
+
+    private MyService plain;
+    private MyService service;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        System.setProperty( ProxyGenerator.GENERATED_PROXIES, generatedProxies );
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.services( MyService.class );
+                module.objects( ServiceHolder.class );
+            }
+        };
+        plain = new MyServiceMixin();
+        service = assembler.module().newObject( ServiceHolder.class ).service;
+    }
+
+    @Benchmark
+    public int plainJava()
+    {
+        return plain.test( 42 );
+    }
+
+    @Benchmark
+    public int injectedService()
+    {
+        return service.test( 42 );
+    }
+
+    @Mixins( MyServiceMixin.class )
+    public interface MyService
+    {
+        int test( int value );
+    }
+
+    public static class MyServiceMixin
+        implements MyService
+    {
+        @Override
+        public int test( int value )
+        {
+            return value + 1;
+        }
+    }
+
+    public static class ServiceHolder
+    {
+        @Service
+        MyService service;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.runtime.value;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Creation, equality and hashing of ValueComposites.
+ * Values are used as keys and compared a lot so equals and hashCode matter as much as creation.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ValueBenchmark
+{
+    private Module module;
+    private Address address;
+    private Address equalAddress;
+    private Address otherAddress;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.values( Address.class, City.class );
+            }
+        };
+        module = assembler.module();
+        address = newAddress( "Kungsgatan 1" );
+        equalAddress = newAddress( "Kungsgatan 1" );
+        otherAddress = newAddress( "Kungsgatan 2" );
+    }
+
+    @Benchmark
+    public Address newValue()
+    {
+        return module.newValue( Address.class );
+    }
+
+    @Benchmark
+    public Address newValueWithBuilder()
+    {
+        return newAddress( "Kungsgatan 1" );
+    }
+
+    @Benchmark
+    public boolean equalsEqual()
+    {
+        return address.equals( equalAddress );
+    }
+
+    @Benchmark
+    public boolean equalsDifferent()
+    {
+        return address.equals( otherAddress );
+    }
+
+    @Benchmark
+    public int hashCodeOf()
+    {
+        return address.hashCode();
+    }
+
+    private Address newAddress( String street )
+    {
+        ValueBuilder<City> cityBuilder = module.newValueBuilder( City.class );
+        cityBuilder.prototype().name().set( "Stockholm" );
+        cityBuilder.prototype().country().set( "Sweden" );
+        ValueBuilder<Address> builder = module.newValueBuilder( Address.class );
+        builder.prototype().street().set( street );
+        builder.prototype().zipCode().set( "111 20" );
+        builder.prototype().lines().set( asList( "c/o Zest", street ) );
+        builder.prototype().city().set( cityBuilder.newInstance() );
+        return builder.newInstance();
+    }
+
+    public interface Address
+    {
+        @UseDefaults
+        Property<String> street();
+
+        @UseDefaults
+        Property<String> zipCode();
+
+        @UseDefaults
+        Property<List<String>> lines();
+
+        @Optional
+        Property<City> city();
+    }
+
+    public interface City
+    {
+        @UseDefaults
+        Property<String> name();
+
+        @UseDefaults
+        Property<String> country();
+    }
+}
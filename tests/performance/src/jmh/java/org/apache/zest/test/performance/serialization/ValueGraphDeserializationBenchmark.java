@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.valueserialization.jackson.JacksonValueSerializationAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deserialization of a deep ValueComposite graph, a tree of {@literal depth} levels of four children each,
+ * for the tree-parsing ValueDeserializers given by the {@literal format} parameter.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ValueGraphDeserializationBenchmark
+{
+    private static final int CHILDREN = 4;
+
+    @Param( { "orgjson", "jackson" } )
+    public String format;
+
+    @Param( { "2", "5" } )
+    public int depth;
+
+    private ValueSerialization valueSerialization;
+    private ModuleDescriptor moduleDescriptor;
+    private String serializedTree;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.values( Node.class );
+                switch( format )
+                {
+                    case "orgjson":
+                        new OrgJsonValueSerializationAssembler().assemble( module );
+                        break;
+                    case "jackson":
+                        new JacksonValueSerializationAssembler().assemble( module );
+                        break;
+                    default:
+                        throw new AssemblyException( "Unknown ValueSerialization format: " + format );
+                }
+            }
+        };
+        Module module = assembler.module();
+        valueSerialization = module.findService( ValueSerialization.class ).get();
+        moduleDescriptor = module.descriptor();
+        serializedTree = valueSerialization.serialize( newNode( module, "root", depth ) );
+    }
+
+    @Benchmark
+    public Node deserialize()
+    {
+        return valueSerialization.deserialize( moduleDescriptor, Node.class, serializedTree );
+    }
+
+    private static Node newNode( Module module, String name, int depth )
+    {
+        List<Node> children = new ArrayList<>();
+        if( depth > 0 )
+        {
+            for( int i = 0; i < CHILDREN; i++ )
+            {
+                children.add( newNode( module, name + "." + i, depth - 1 ) );
+            }
+        }
+        ValueBuilder<Node> builder = module.newValueBuilder( Node.class );
+        builder.prototype().name().set( name );
+        builder.prototype().weight().set( depth * 1.5D );
+        builder.prototype().children().set( children );
+        return builder.newInstance();
+    }
+
+    public interface Node
+    {
+        Property<String> name();
+
+        @Optional
+        Property<String> description();
+
+        Property<Double> weight();
+
+        @UseDefaults
+        Property<List<Node>> children();
+    }
+}
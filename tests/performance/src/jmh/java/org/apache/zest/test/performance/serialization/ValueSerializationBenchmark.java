@@ -0,0 +1,165 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ */
+package org.apache.zest.test.performance.serialization;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.zest.api.common.Optional;
+import org.apache.zest.api.common.UseDefaults;
+import org.apache.zest.api.property.Property;
+import org.apache.zest.api.structure.Module;
+import org.apache.zest.api.structure.ModuleDescriptor;
+import org.apache.zest.api.value.ValueBuilder;
+import org.apache.zest.api.value.ValueSerialization;
+import org.apache.zest.bootstrap.AssemblyException;
+import org.apache.zest.bootstrap.ModuleAssembly;
+import org.apache.zest.bootstrap.SingletonAssembler;
+import org.apache.zest.valueserialization.jackson.JacksonValueSerializationAssembler;
+import org.apache.zest.valueserialization.orgjson.OrgJsonValueSerializationAssembler;
+import org.apache.zest.valueserialization.stax.StaxValueSerializationAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization and deserialization of a nested ValueComposite holding collections and maps,
+ * for each ValueSerialization format given by the {@literal format} parameter.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ValueSerializationBenchmark
+{
+    @Param( { "orgjson", "jackson", "stax" } )
+    public String format;
+
+    private ValueSerialization valueSerialization;
+    private ModuleDescriptor moduleDescriptor;
+    private Order order;
+    private String serializedOrder;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        SingletonAssembler assembler = new SingletonAssembler()
+        {
+            @Override
+            public void assemble( ModuleAssembly module )
+                throws AssemblyException
+            {
+                module.values( Order.class, OrderLine.class );
+                switch( format )
+                {
+                    case "orgjson":
+                        new OrgJsonValueSerializationAssembler().assemble( module );
+                        break;
+                    case "jackson":
+                        new JacksonValueSerializationAssembler().assemble( module );
+                        break;
+                    case "stax":
+                        new StaxValueSerializationAssembler().assemble( module );
+                        break;
+                    default:
+                        throw new AssemblyException( "Unknown ValueSerialization format: " + format );
+                }
+            }
+        };
+        Module module = assembler.module();
+        valueSerialization = module.findService( ValueSerialization.class ).get();
+        moduleDescriptor = module.descriptor();
+        order = newOrder( module );
+        serializedOrder = valueSerialization.serialize( order );
+    }
+
+    @Benchmark
+    public String serialize()
+    {
+        return valueSerialization.serialize( order );
+    }
+
+    @Benchmark
+    public Order deserialize()
+    {
+        return valueSerialization.deserialize( moduleDescriptor, Order.class, serializedOrder );
+    }
+
+    private static Order newOrder( Module module )
+    {
+        List<OrderLine> lines = new ArrayList<>();
+        Map<String, String> attributes = new HashMap<>();
+        for( int i = 0; i < 20; i++ )
+        {
+            ValueBuilder<OrderLine> lineBuilder = module.newValueBuilder( OrderLine.class );
+            lineBuilder.prototype().product().set( "Product " + i );
+            lineBuilder.prototype().quantity().set( i );
+            lineBuilder.prototype().price().set( i * 10.5D );
+            lines.add( lineBuilder.newInstance() );
+            attributes.put( "attribute" + i, "value" + i );
+        }
+        ValueBuilder<Order> builder = module.newValueBuilder( Order.class );
+        builder.prototype().reference().set( "ORDER-0001" );
+        builder.prototype().date().set( LocalDate.of( 2016, 12, 24 ) );
+        builder.prototype().comment().set( "Deliver to the back door" );
+        builder.prototype().lines().set( lines );
+        builder.prototype().attributes().set( attributes );
+        return builder.newInstance();
+    }
+
+    public interface Order
+    {
+        Property<String> reference();
+
+        Property<LocalDate> date();
+
+        @Optional
+        Property<String> comment();
+
+        @UseDefaults
+        Property<List<OrderLine>> lines();
+
+        @UseDefaults
+        Property<Map<String, String>> attributes();
+    }
+
+    public interface OrderLine
+    {
+        Property<String> product();
+
+        Property<Integer> quantity();
+
+        Property<Double> price();
+    }
+}